@@ -0,0 +1,322 @@
+/****************************************************************************************
+ *  BenchmarkInputs.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The BenchmarkInputs class builds the fixed-seed input sets shared by all of the JMH
+ * benchmarks, so that numbers from different runs and releases are comparable. Points
+ * are drawn from a mix of regions: the general UTM domain, both polar (UPS) caps, a
+ * strip along the anti-meridian (date line), and the Norway and Svalbard special zones
+ * (V31/V32 and X31 through X37). Every benchmark cycles through its input array with
+ * a mask, so the array length must be a power of two.
+ */
+public final class BenchmarkInputs {
+
+    /**
+     * Number of inputs in each set (must be a power of two).
+     */
+    public static final int SIZE = 1024;
+
+    /**
+     * Mask used by the benchmarks to cycle through the input arrays.
+     */
+    public static final int MASK = SIZE - 1;
+
+    /**
+     * Seed for the random number generator, fixed so that inputs are reproducible.
+     */
+    public static final long SEED = 20070327L;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * This method returns a new Random instance initialized with the fixed seed.
+     *
+     * @return Random number generator for building inputs
+     */
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * This method returns SIZE points in the UTM domain (latitudes from 80 degrees South
+     * up to but not including 84 degrees North), mixing the general case with date line and
+     * Norway/Svalbard special zone points.
+     *
+     * @return array of Geodetic2DPoint objects inside the UTM domain
+     */
+    public static Geodetic2DPoint[] utmPoints() {
+        Random r = random();
+        Geodetic2DPoint[] pts = new Geodetic2DPoint[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double lonDeg, latDeg;
+            switch (i % 8) {
+                case 0:   // Date line strip
+                    lonDeg = 179.5 + r.nextDouble();
+                    latDeg = -79.9 + r.nextDouble() * 163.8;
+                    break;
+                case 1:   // Norway special zone (V31/V32)
+                    lonDeg = r.nextDouble() * 12.0;
+                    latDeg = 56.0 + r.nextDouble() * 8.0;
+                    break;
+                case 2:   // Svalbard special zones (X31 through X37)
+                    lonDeg = r.nextDouble() * 42.0;
+                    latDeg = 72.0 + r.nextDouble() * 11.9;
+                    break;
+                default:  // General case
+                    lonDeg = -180.0 + r.nextDouble() * 360.0;
+                    latDeg = -79.9 + r.nextDouble() * 163.8;
+            }
+            pts[i] = point(lonDeg, latDeg);
+        }
+        return pts;
+    }
+
+    /**
+     * This method returns SIZE points in the UPS domain (the polar caps), alternating
+     * between the North and South Poles. The poles themselves are excluded.
+     *
+     * @return array of Geodetic2DPoint objects inside the UPS domain
+     */
+    public static Geodetic2DPoint[] upsPoints() {
+        Random r = random();
+        Geodetic2DPoint[] pts = new Geodetic2DPoint[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double lonDeg = -180.0 + r.nextDouble() * 360.0;
+            double latDeg = ((i & 1) == 0) ? 84.0 + r.nextDouble() * 5.9 : -80.1 - r.nextDouble() * 9.8;
+            pts[i] = point(lonDeg, latDeg);
+        }
+        return pts;
+    }
+
+    /**
+     * This method returns SIZE points covering the whole MGRS domain, so roughly one
+     * in eight falls in a polar cap and the rest are the mix produced by utmPoints.
+     *
+     * @return array of Geodetic2DPoint objects covering the whole globe
+     */
+    public static Geodetic2DPoint[] mgrsPoints() {
+        Geodetic2DPoint[] utm = utmPoints();
+        Geodetic2DPoint[] ups = upsPoints();
+        Geodetic2DPoint[] pts = new Geodetic2DPoint[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            pts[i] = (i % 8 == 7) ? ups[i] : utm[i];
+        }
+        return pts;
+    }
+
+    /**
+     * This method returns SIZE MGRS strings at 1 meter precision, made from the points
+     * returned by mgrsPoints.
+     *
+     * @return array of MGRS strings
+     */
+    public static String[] mgrsStrings() {
+        Geodetic2DPoint[] pts = mgrsPoints();
+        String[] strs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            strs[i] = new MGRS(pts[i]).toString(5);
+        }
+        return strs;
+    }
+
+    /**
+     * This method returns SIZE geodetic points with elevations between -100 meters and
+     * 10 kilometers, for FrameOfReference conversions.
+     *
+     * @return array of Geodetic3DPoint objects
+     */
+    public static Geodetic3DPoint[] geodetic3DPoints() {
+        Random r = random();
+        Geodetic2DPoint[] pts = mgrsPoints();
+        Geodetic3DPoint[] pts3d = new Geodetic3DPoint[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            pts3d[i] = new Geodetic3DPoint(pts[i].getLongitude(), pts[i].getLatitude(),
+                    -100.0 + r.nextDouble() * 10100.0);
+        }
+        return pts3d;
+    }
+
+    /**
+     * This method returns SIZE latitude/longitude strings in the assorted formats that
+     * the LatLonParser class accepts (decimal degrees, signed, hemisphere prefixed and
+     * suffixed degrees minutes seconds).
+     *
+     * @return array of lat/lon strings
+     */
+    public static String[] latLonStrings() {
+        Geodetic2DPoint[] pts = utmPoints();
+        String[] strs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double lat = pts[i].getLatitudeAsDegrees();
+            double lon = pts[i].getLongitudeAsDegrees();
+            char ns = (lat < 0.0) ? 'S' : 'N';
+            char ew = (lon < 0.0) ? 'W' : 'E';
+            switch (i % 3) {
+                case 0:
+                    strs[i] = String.format(Locale.US, "%+.5f %+.5f", lat, lon);
+                    break;
+                case 1:
+                    strs[i] = ns + dms(lat, " ") + " " + ew + dms(lon, " ");
+                    break;
+                default:
+                    strs[i] = dms(lat, " ") + ns + " " + dms(lon, " ") + ew;
+            }
+        }
+        return strs;
+    }
+
+    /**
+     * This method returns a CSV table of SIZE rows after a header line, with latitude,
+     * longitude and MGRS columns. Two thirds of the rows have a latitude and longitude (in
+     * decimal degrees or degrees minutes seconds), the others only an MGRS coordinate.
+     *
+     * @return CSV table
+     */
+    public static String csvTable() {
+        Geodetic2DPoint[] pts = utmPoints();
+        StringBuilder buf = new StringBuilder("lat,lon,mgrs\n");
+        for (int i = 0; i < SIZE; i++) {
+            double lat = pts[i].getLatitudeAsDegrees();
+            double lon = pts[i].getLongitudeAsDegrees();
+            switch (i % 3) {
+                case 0:
+                    buf.append(String.format(Locale.US, "%.6f,%.6f,", lat, lon));
+                    break;
+                case 1:
+                    buf.append(dms(lat, " ")).append((lat < 0.0) ? 'S' : 'N').append(',')
+                            .append(dms(lon, " ")).append((lon < 0.0) ? 'W' : 'E').append(',');
+                    break;
+                default:
+                    buf.append(",,").append(new MGRS(pts[i]).toString(5));
+            }
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+
+    /**
+     * This method returns a CSV table of at least the specified number of bytes, made of
+     * the rows of csvTable repeated after its header line, for measuring throughput on
+     * tables much larger than the processor caches.
+     *
+     * @param minBytes minimum length of the table in bytes
+     * @return ASCII bytes of the CSV table
+     */
+    public static byte[] largeCsvTable(int minBytes) {
+        String table = csvTable();
+        int header = table.indexOf('\n') + 1;
+        byte[] rows = table.substring(header).getBytes(StandardCharsets.US_ASCII);
+        int copies = (Math.max(0, minBytes - header) + rows.length - 1) / rows.length;
+        byte[] bytes = new byte[header + copies * rows.length];
+        System.arraycopy(table.getBytes(StandardCharsets.US_ASCII), 0, bytes, 0, header);
+        for (int i = 0; i < copies; i++) System.arraycopy(rows, 0, bytes, header + i * rows.length, rows.length);
+        return bytes;
+    }
+
+    /**
+     * This method returns SIZE angle strings in the formats accepted by the Angle(String)
+     * constructor (decimal degrees, degrees minutes seconds with unit symbols, radians).
+     *
+     * @return array of angle strings
+     */
+    public static String[] angleStrings() {
+        Random r = random();
+        String[] strs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double deg = -179.0 + r.nextDouble() * 358.0;
+            switch (i % 4) {
+                case 0:
+                    strs[i] = String.format(Locale.US, "%.6f", deg);
+                    break;
+                case 1:
+                    strs[i] = String.format(Locale.US, "%.6f deg", deg);
+                    break;
+                case 2:
+                    strs[i] = (deg < 0.0 ? "-" : "") + dms(deg, Angle.DEGSYM + " ").replaceFirst(
+                            " (\\d\\d) ", " $1' ") + "\"";
+                    break;
+                default:
+                    strs[i] = String.format(Locale.US, "%.8f radians", Math.toRadians(deg));
+            }
+        }
+        return strs;
+    }
+
+    /**
+     * This method returns SIZE ISO 8601 date time strings at every reduced precision
+     * level from year through milliseconds, plus explicit start--end intervals.
+     *
+     * @return array of ISO 8601 strings
+     */
+    public static String[] isoDateTimeStrings() {
+        Random r = random();
+        String[] strs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            long t = 946684800000L + (long) (r.nextDouble() * 631152000000.0); // 2000 - 2020
+            String full = new ISO8601DateTimePoint(t).toString();
+            switch (i % 8) {
+                case 0:
+                    strs[i] = full.substring(0, 4);     // yyyy
+                    break;
+                case 1:
+                    strs[i] = full.substring(0, 7);     // yyyy-MM
+                    break;
+                case 2:
+                    strs[i] = full.substring(0, 10);    // yyyy-MM-dd
+                    break;
+                case 3:
+                    strs[i] = full.substring(0, 13);    // yyyy-MM-ddTHH
+                    break;
+                case 4:
+                    strs[i] = full.substring(0, 16);    // yyyy-MM-ddTHH:mm
+                    break;
+                case 5:
+                    strs[i] = full.substring(0, 19);    // yyyy-MM-ddTHH:mm:ss
+                    break;
+                case 6:
+                    strs[i] = full;
+                    break;
+                default:
+                    strs[i] = full.substring(0, 10) + "--" +
+                            new ISO8601DateTimePoint(t + 86400000L).toString().substring(0, 10);
+            }
+        }
+        return strs;
+    }
+
+    /* Make a point from decimal degrees */
+    private static Geodetic2DPoint point(double lonDeg, double latDeg) {
+        return new Geodetic2DPoint(new Longitude(lonDeg, Angle.DEGREES),
+                new Latitude(latDeg, Angle.DEGREES));
+    }
+
+    /* Format the absolute value of decimal degrees as degrees, minutes and seconds */
+    private static String dms(double deg, String sep) {
+        double a = Math.abs(deg);
+        int d = (int) a;
+        int m = (int) ((a - d) * 60.0);
+        double s = (a - d - m / 60.0) * 3600.0;
+        if (s >= 59.995) s = 59.99;
+        return String.format(Locale.US, "%d%s%02d %05.2f", d, sep, m, s);
+    }
+}
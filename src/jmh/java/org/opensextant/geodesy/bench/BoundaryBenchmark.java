@@ -0,0 +1,126 @@
+/****************************************************************************************
+ *  BoundaryBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the boundaries of Geodetic2DCircle and Geodetic2DEllipse (32 points
+ * each, as used for uncertainty ellipses of geolocation results), both as lists of
+ * Geodetic2DPoint objects and filled into a reused GeodeticPointBuffer, and for their
+ * Geodetic2DBounds, both analytic and sampled from 12 boundary points. Growing the
+ * bounds of each circle by its radius is measured in both the fast and exact modes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoundaryBenchmark {
+
+    private static final int COUNT = 32;
+
+    private Geodetic2DCircle[] circles;
+    private Geodetic2DEllipse[] ellipses;
+    private GeodeticPointBuffer buffer;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random r = BenchmarkInputs.random();
+        Geodetic2DPoint[] centers = BenchmarkInputs.utmPoints();
+        circles = new Geodetic2DCircle[BenchmarkInputs.SIZE];
+        ellipses = new Geodetic2DEllipse[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            // Semi major axes from 10 meters to 100 kilometers
+            double a = Math.pow(10.0, 1.0 + r.nextDouble() * 4.0);
+            circles[j] = new Geodetic2DCircle(centers[j], a);
+            ellipses[j] = new Geodetic2DEllipse(centers[j], a, a * r.nextDouble(),
+                    new Angle(r.nextDouble() * 360.0, Angle.DEGREES));
+        }
+        buffer = new GeodeticPointBuffer(COUNT);
+    }
+
+    @Benchmark
+    public Iterable<Geodetic2DPoint> circlePoints() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return circles[i].boundary(COUNT);
+    }
+
+    @Benchmark
+    public GeodeticPointBuffer circleBuffer() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        circles[i].boundary(COUNT, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Iterable<Geodetic2DPoint> ellipsePoints() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        // A new ellipse each time, so that its cached boundary is not reused
+        Geodetic2DEllipse e = ellipses[i];
+        return new Geodetic2DEllipse(e.getCenter(), e.getSemiMajorAxis(), e.getSemiMinorAxis(),
+                e.getOrientation()).boundary(COUNT);
+    }
+
+    @Benchmark
+    public GeodeticPointBuffer ellipseBuffer() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        ellipses[i].boundary(COUNT, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Geodetic2DBounds circleBounds() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Geodetic2DBounds(circles[i]);
+    }
+
+    @Benchmark
+    public Geodetic2DBounds ellipseBounds() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Geodetic2DBounds(ellipses[i]);
+    }
+
+    @Benchmark
+    public Geodetic2DBounds ellipseSampledBounds() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        // A new ellipse each time, so that its cached boundary is not reused
+        Geodetic2DEllipse e = ellipses[i];
+        return new Geodetic2DBounds(new Geodetic2DEllipse(e.getCenter(), e.getSemiMajorAxis(),
+                e.getSemiMinorAxis(), e.getOrientation()), 12);
+    }
+
+    @Benchmark
+    public Geodetic2DBounds grow() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        Geodetic2DBounds bbox = new Geodetic2DBounds(circles[i].getCenter());
+        bbox.grow(circles[i].getRadius());
+        return bbox;
+    }
+
+    @Benchmark
+    public Geodetic2DBounds growExact() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        Geodetic2DBounds bbox = new Geodetic2DBounds(circles[i].getCenter());
+        bbox.grow(circles[i].getRadius(), true);
+        return bbox;
+    }
+}
@@ -0,0 +1,99 @@
+/****************************************************************************************
+ *  BoundsBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for filtering a set of points (or boxes) against a viewport sized
+ * Geodetic2DBounds, one at a time through the Geodetic2DPoint and Geodetic2DBounds
+ * predicates, and in a batch over a GeodeticPointBuffer (or array) into a BitSet. Each
+ * operation filters all SIZE inputs; the viewport alternates between one that crosses
+ * the date line and one that does not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoundsBenchmark {
+
+    private Geodetic2DPoint[] points;
+    private GeodeticPointBuffer buffer;
+    private Geodetic2DBounds[] boxes;
+    private Geodetic2DBounds[] viewports;
+    private BitSet hits;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random r = BenchmarkInputs.random();
+        points = BenchmarkInputs.utmPoints();
+        buffer = new GeodeticPointBuffer(BenchmarkInputs.SIZE);
+        boxes = new Geodetic2DBounds[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            buffer.add(points[j]);
+            boxes[j] = new Geodetic2DBounds(points[j]);
+            boxes[j].grow(1000.0 + r.nextDouble() * 100000.0);
+        }
+        viewports = new Geodetic2DBounds[] {
+                new Geodetic2DBounds(point(-30.0, -20.0), point(60.0, 50.0)),
+                new Geodetic2DBounds(point(150.0, -20.0), point(-120.0, 50.0))
+        };
+        hits = new BitSet(BenchmarkInputs.SIZE);
+    }
+
+    @Benchmark
+    public int containsPoints() {
+        Geodetic2DBounds viewport = viewports[i++ & 1];
+        int count = 0;
+        for (Geodetic2DPoint p : points) {
+            if (viewport.contains(p)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int containsBuffer() {
+        return viewports[i++ & 1].contains(buffer, hits);
+    }
+
+    @Benchmark
+    public int intersectsBoxes() {
+        Geodetic2DBounds viewport = viewports[i++ & 1];
+        int count = 0;
+        for (Geodetic2DBounds box : boxes) {
+            if (viewport.intersects(box)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int intersectsArray() {
+        return viewports[i++ & 1].intersects(boxes, hits);
+    }
+
+    /* Make a point from decimal degrees */
+    private static Geodetic2DPoint point(double lonDeg, double latDeg) {
+        return new Geodetic2DPoint(new Longitude(lonDeg, Angle.DEGREES),
+                new Latitude(latDeg, Angle.DEGREES));
+    }
+}
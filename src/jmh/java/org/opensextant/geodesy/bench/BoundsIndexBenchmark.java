@@ -0,0 +1,101 @@
+/****************************************************************************************
+ *  BoundsIndexBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for point, box and circle queries of a Geodetic2DBoundsIndex of 2^18 boxes
+ * (footprints from 1 to 50 kilometers across, around the points of utmPoints repeated with
+ * random offsets), compared with testing every box of the point query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoundsIndexBenchmark {
+
+    private static final int BOXES = 1 << 18;
+
+    private Geodetic2DBounds[] bounds;
+    private Geodetic2DBoundsIndex<Integer> index;
+    private Geodetic2DPoint[] points;
+    private Geodetic2DBounds[] viewports;
+    private Geodetic2DCircle[] circles;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random r = BenchmarkInputs.random();
+        Geodetic2DPoint[] centers = BenchmarkInputs.utmPoints();
+        bounds = new Geodetic2DBounds[BOXES];
+        List<Integer> ids = new ArrayList<Integer>(BOXES);
+        for (int j = 0; j < BOXES; j++) {
+            Geodetic2DPoint c = centers[j & BenchmarkInputs.MASK];
+            bounds[j] = new Geodetic2DBounds(new Geodetic2DPoint(
+                    new Longitude(c.getLongitude().inRadians() + (r.nextDouble() - 0.5) * 0.1),
+                    new Latitude(c.getLatitude().inRadians() + (r.nextDouble() - 0.5) * 0.05)));
+            bounds[j].grow(500.0 + r.nextDouble() * 24500.0);
+            ids.add(j);
+        }
+        index = new Geodetic2DBoundsIndex<Integer>(ids, Arrays.asList(bounds));
+        points = BenchmarkInputs.utmPoints();
+        viewports = new Geodetic2DBounds[BenchmarkInputs.SIZE];
+        circles = new Geodetic2DCircle[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            viewports[j] = new Geodetic2DBounds(points[j]);
+            viewports[j].grow(20000.0);
+            circles[j] = new Geodetic2DCircle(points[j], 20000.0);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> findContaining() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return index.findContaining(points[i]);
+    }
+
+    @Benchmark
+    public int scanContaining() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        Geodetic2DPoint p = points[i];
+        int count = 0;
+        for (Geodetic2DBounds bbox : bounds) {
+            if (bbox.contains(p)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<Integer> findIntersectingBounds() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return index.findIntersecting(viewports[i]);
+    }
+
+    @Benchmark
+    public List<Integer> findIntersectingCircle() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return index.findIntersecting(circles[i]);
+    }
+}
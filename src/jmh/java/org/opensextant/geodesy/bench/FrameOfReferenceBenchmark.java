@@ -0,0 +1,104 @@
+/****************************************************************************************
+ *  FrameOfReferenceBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the FrameOfReference conversions between geodetic, geocentric (ECEF)
+ * and topocentric (ENU) points, with the topocentric origin at Washington, DC. The batch
+ * benchmarks convert the whole input set held in a GeodeticPointBuffer, and report the
+ * throughput per point so they compare directly with the single point ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameOfReferenceBenchmark {
+
+    private FrameOfReference f;
+    private Geodetic3DPoint[] geodetic;
+    private GeocentricPoint[] geocentric;
+    private GeodeticPointBuffer buffer;
+    private GeodeticPointBuffer outBuffer;
+    private double[] x, y, z;
+    private double[] outX, outY, outZ;
+    private int i;
+
+    @Setup
+    public void setup() {
+        f = new FrameOfReference(new Geodetic3DPoint(new Longitude(-77.0365, Angle.DEGREES),
+                new Latitude(38.8895, Angle.DEGREES), 10.0));
+        geodetic = BenchmarkInputs.geodetic3DPoints();
+        geocentric = new GeocentricPoint[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            geocentric[j] = f.toGeocentric(geodetic[j]);
+        }
+        buffer = new GeodeticPointBuffer(Arrays.asList(geodetic));
+        outBuffer = new GeodeticPointBuffer(BenchmarkInputs.SIZE);
+        x = new double[BenchmarkInputs.SIZE];
+        y = new double[BenchmarkInputs.SIZE];
+        z = new double[BenchmarkInputs.SIZE];
+        f.geodeticToGeocentric(buffer, x, y, z);
+        outX = new double[BenchmarkInputs.SIZE];
+        outY = new double[BenchmarkInputs.SIZE];
+        outZ = new double[BenchmarkInputs.SIZE];
+    }
+
+    @Benchmark
+    public GeocentricPoint toGeocentric() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return f.toGeocentric(geodetic[i]);
+    }
+
+    @Benchmark
+    public Topocentric3DPoint toTopocentric() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return f.toTopocentric(geodetic[i]);
+    }
+
+    @Benchmark
+    public Geodetic3DPoint toGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return f.toGeodetic(geocentric[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] toGeocentricBatch() {
+        f.geodeticToGeocentric(buffer, outX, outY, outZ);
+        return outX;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public GeodeticPointBuffer toGeodeticBatch() {
+        f.geocentricToGeodetic(x, y, z, outBuffer);
+        return outBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] toTopocentricBatch() {
+        f.geocentricToTopocentric(x, y, z, outX, outY, outZ);
+        return outX;
+    }
+}
@@ -0,0 +1,70 @@
+/****************************************************************************************
+ *  GeocentricSolverBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the GeocentricSolver algorithms, converting a batch of geocentric points
+ * at low earth orbit altitudes (300 to 2000 km) to geodetic coordinates with the
+ * FrameOfReference array API. Throughput is reported per point. The accuracy of each
+ * solver is given by GeocentricSolver.getPrecision.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeocentricSolverBenchmark {
+
+    @Param({"BOWRING", "ITERATIVE", "VERMEILLE"})
+    public GeocentricSolver solver;
+
+    private FrameOfReference f;
+    private double[] x, y, z;
+    private double[] lon, lat, h;
+
+    @Setup
+    public void setup() {
+        f = new FrameOfReference();
+        f.setGeocentricSolver(solver);
+        Random r = BenchmarkInputs.random();
+        int n = BenchmarkInputs.SIZE;
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        lon = new double[n];
+        lat = new double[n];
+        h = new double[n];
+        for (int i = 0; i < n; i++) {
+            lon[i] = Math.toRadians(-180.0 + r.nextDouble() * 360.0);
+            lat[i] = Math.toRadians(-90.0 + r.nextDouble() * 180.0);
+            h[i] = 300000.0 + r.nextDouble() * 1700000.0;
+        }
+        f.geodeticToGeocentric(lon, lat, h, x, y, z);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] toGeodetic() {
+        f.geocentricToGeodetic(x, y, z, lon, lat, h);
+        return lat;
+    }
+}
@@ -0,0 +1,117 @@
+/****************************************************************************************
+ *  Geodetic2DArcBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the inverse (distance and azimuth between two points) and direct
+ * (second point from distance and azimuth) geodesic problems, with arcs from a few
+ * meters up to nearly half way around the globe, and for the primitive distance
+ * methods of Ellipsoid at each accuracy tier.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Geodetic2DArcBenchmark {
+
+    private Geodetic2DPoint[] from;
+    private Geodetic2DPoint[] to;
+    private double[] distances;
+    private Angle[] azimuths;
+    private double[] lon1, lat1, lon2, lat2;
+    private Ellipsoid ellip;
+    private KarneyGeodesic karney;
+    private double[] lonLat;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random r = BenchmarkInputs.random();
+        from = BenchmarkInputs.mgrsPoints();
+        to = new Geodetic2DPoint[BenchmarkInputs.SIZE];
+        distances = new double[BenchmarkInputs.SIZE];
+        azimuths = new Angle[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            // Log-uniform distances from 10 meters to 18,000 kilometers
+            distances[j] = Math.pow(10.0, 1.0 + r.nextDouble() * 6.25);
+            azimuths[j] = new Angle(-Math.PI + r.nextDouble() * 2.0 * Math.PI);
+            to[j] = new Geodetic2DArc(from[j], distances[j], azimuths[j]).getPoint2();
+        }
+        ellip = Ellipsoid.getInstance("WGS 84");
+        karney = ellip.getKarneyGeodesic();
+        lonLat = new double[2];
+        lon1 = new double[BenchmarkInputs.SIZE];
+        lat1 = new double[BenchmarkInputs.SIZE];
+        lon2 = new double[BenchmarkInputs.SIZE];
+        lat2 = new double[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            lon1[j] = from[j].getLongitude().inRadians();
+            lat1[j] = from[j].getLatitude().inRadians();
+            lon2[j] = to[j].getLongitude().inRadians();
+            lat2[j] = to[j].getLatitude().inRadians();
+        }
+    }
+
+    @Benchmark
+    public double inverse() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Geodetic2DArc(from[i], to[i]).getDistanceInMeters();
+    }
+
+    @Benchmark
+    public Geodetic2DPoint direct() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Geodetic2DArc(from[i], distances[i], azimuths[i]).getPoint2();
+    }
+
+    @Benchmark
+    public double haversineDistance() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return ellip.haversineDistance(lon1[i], lat1[i], lon2[i], lat2[i]);
+    }
+
+    @Benchmark
+    public double andoyerDistance() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return ellip.andoyerDistance(lon1[i], lat1[i], lon2[i], lat2[i]);
+    }
+
+    @Benchmark
+    public double vincentyDistance() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return ellip.vincentyDistance(lon1[i], lat1[i], lon2[i], lat2[i]);
+    }
+
+    @Benchmark
+    public double karneyDistance() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return ellip.karneyDistance(lon1[i], lat1[i], lon2[i], lat2[i]);
+    }
+
+    @Benchmark
+    public double[] karneyDirect() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        karney.direct(lon1[i], lat1[i], azimuths[i].inRadians(), distances[i], lonLat);
+        return lonLat;
+    }
+}
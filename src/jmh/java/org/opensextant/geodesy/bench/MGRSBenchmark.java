@@ -0,0 +1,169 @@
+/****************************************************************************************
+ *  MGRSBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing MGRS strings and formatting geodetic points as MGRS strings,
+ * over a fixed mix of general, date line, Norway/Svalbard and polar inputs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MGRSBenchmark {
+
+    private String[] strings;
+    private String[] invalid;
+    private Geodetic2DPoint[] points;
+    private MGRS[] cells;
+    private double[] lonDeg;
+    private double[] latDeg;
+    private char[] encoded;
+    private GeodeticPointBuffer buffer;
+    private long[] ids;
+    private MGRSCellCounts counts;
+    private byte[] text;
+    private int[] offsets;
+    private MGRSParser parser;
+    private int i;
+
+    @Setup
+    public void setup() {
+        strings = BenchmarkInputs.mgrsStrings();
+        // The same strings with an invalid northing square identifier ('O' is never used)
+        invalid = new String[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            StringBuilder ms = new StringBuilder(strings[j]);
+            ms.setCharAt(ms.length() - 11, 'O');
+            invalid[j] = ms.toString();
+        }
+        points = BenchmarkInputs.mgrsPoints();
+        cells = new MGRS[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            cells[j] = new MGRS(points[j]);
+        }
+        lonDeg = new double[BenchmarkInputs.SIZE];
+        latDeg = new double[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            lonDeg[j] = points[j].getLongitudeAsDegrees();
+            latDeg[j] = points[j].getLatitudeAsDegrees();
+        }
+        encoded = new char[MGRS.encodedLength(5) * BenchmarkInputs.SIZE];
+        buffer = new GeodeticPointBuffer(BenchmarkInputs.SIZE);
+        for (Geodetic2DPoint pt : points) buffer.add(pt);
+        ids = new long[BenchmarkInputs.SIZE];
+        MGRSCell.encode(buffer, 3, ids);
+        counts = new MGRSCellCounts(BenchmarkInputs.SIZE);
+
+        // All of the MGRS strings as lines of ASCII text, with the offset of each line
+        StringBuilder buf = new StringBuilder();
+        offsets = new int[BenchmarkInputs.SIZE + 1];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            offsets[j] = buf.length();
+            buf.append(strings[j]).append('\n');
+        }
+        offsets[BenchmarkInputs.SIZE] = buf.length();
+        text = buf.toString().getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        parser = new MGRSParser();
+    }
+
+    @Benchmark
+    public MGRS parse() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new MGRS(strings[i]);
+    }
+
+    @Benchmark
+    public boolean parseInvalid() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        try {
+            parser.parse(invalid[i]);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean tryParseInvalid() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return parser.tryParse(invalid[i]);
+    }
+
+    @Benchmark
+    public double parseBytes() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        parser.parse(text, offsets[i], offsets[i + 1] - offsets[i] - 1);
+        return parser.getLatitudeInRadians();
+    }
+
+    @Benchmark
+    public String fromGeodeticToString() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new MGRS(points[i]).toString();
+    }
+
+    @Benchmark
+    public String toStringOnly() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return cells[i].toString(5);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public char[] batchEncode() {
+        MGRS.encode(lonDeg, latDeg, 5, encoded);
+        return encoded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public long[] batchEncodeCells() {
+        MGRSCell.encode(buffer, 5, ids);
+        return ids;
+    }
+
+    @Benchmark
+    public long cellFromString() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        parser.parse(text, offsets[i], offsets[i + 1] - offsets[i] - 1);
+        return MGRSCell.fromParser(parser);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public MGRSCellCounts countCells() {
+        counts.clear();
+        counts.addAll(ids, ids.length);
+        return counts;
+    }
+
+    @Benchmark
+    public long coverCircle() {
+        // About 314 cells of 1 km within 10 km of each point
+        i = (i + 1) & BenchmarkInputs.MASK;
+        MGRSCellCover cover = new MGRSCellCover(new Geodetic2DCircle(points[i], 10000.0), 2);
+        long hash = 0L;
+        while (cover.hasNext()) hash ^= cover.next();
+        return hash;
+    }
+}
@@ -0,0 +1,100 @@
+/****************************************************************************************
+ *  ParserBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the text parsers: free form latitude/longitude strings, Angle strings
+ * and ISO 8601 date time points and intervals at every reduced precision level.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    private LatLonParser parser;
+    private String[] latLonStrings;
+    private String[] angleStrings;
+    private String[] isoStrings;
+    private ISO8601DateTimeInterval[] intervals;
+    private int i;
+
+    @Setup
+    public void setup() {
+        parser = new LatLonParser();
+        latLonStrings = BenchmarkInputs.latLonStrings();
+        angleStrings = BenchmarkInputs.angleStrings();
+        isoStrings = BenchmarkInputs.isoDateTimeStrings();
+        intervals = new ISO8601DateTimeInterval[isoStrings.length];
+        for (int j = 0; j < intervals.length; j++)
+            intervals[j] = new ISO8601DateTimeInterval(isoStrings[j]);
+    }
+
+    @Benchmark
+    public String latLonParseString() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return parser.parseString(latLonStrings[i]);
+    }
+
+    @Benchmark
+    public Geodetic2DPoint latLonGeodetic2DPoint() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Geodetic2DPoint(parser.parseString(latLonStrings[i]));
+    }
+
+    @Benchmark
+    public double latLonParse() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        parser.parse(latLonStrings[i]);
+        return parser.getLatitudeInRadians() + parser.getLongitudeInRadians();
+    }
+
+    @Benchmark
+    public Angle angle() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new Angle(angleStrings[i]);
+    }
+
+    @Benchmark
+    public Angle angleTryParse() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return Angle.tryParse(angleStrings[i]);
+    }
+
+    @Benchmark
+    public ISO8601DateTimeInterval iso8601Interval() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new ISO8601DateTimeInterval(isoStrings[i]);
+    }
+
+    @Benchmark
+    public ISO8601DateTimePoint iso8601Point() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return ISO8601DateTimePoint.tryParse(isoStrings[i]); // null for the "--" intervals
+    }
+
+    @Benchmark
+    public String iso8601IntervalToString() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return intervals[i].toString();
+    }
+}
@@ -0,0 +1,187 @@
+/****************************************************************************************
+ *  TableLoaderBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for loading the points of a CSV table with latitude, longitude and MGRS
+ * columns: the GeodeticTableLoader against splitting each line and parsing its cells with
+ * the Latitude, Longitude and MGRS String constructors. The loader and cellByCell
+ * benchmarks load the table of BenchmarkInputs.SIZE rows in memory, on one thread. The
+ * Large benchmarks read a file of LARGE_MB megabytes (from the page cache after the first
+ * iteration), with the loader on a range of thread counts, and also report their
+ * throughput in megabytes per second as the "megabytes" secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableLoaderBenchmark {
+
+    private String table;
+    private ByteBuffer bytes;
+    private GeodeticTableLoader loader;
+
+    @Setup
+    public void setup() {
+        table = BenchmarkInputs.csvTable();
+        bytes = ByteBuffer.wrap(table.getBytes(StandardCharsets.US_ASCII));
+        loader = new GeodeticTableLoader(',');
+        loader.setHeaderLines(1);
+        loader.setLatLonColumns(0, 1);
+        loader.setMGRSColumn(2);
+        loader.setThreads(1);
+    }
+
+    private static final int LARGE_MB = 256;
+
+    /**
+     * The LargeTable state holds a temporary file with a table of LARGE_MB megabytes.
+     */
+    @State(Scope.Benchmark)
+    public static class LargeTable {
+        File file;
+        double megabytes;
+
+        @Setup
+        public void setup() throws IOException {
+            byte[] bytes = BenchmarkInputs.largeCsvTable(LARGE_MB << 20);
+            megabytes = bytes.length / (double) (1 << 20);
+            file = File.createTempFile("geodesy", ".csv");
+            file.deleteOnExit();
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            file.delete();
+        }
+    }
+
+    /**
+     * The LargeLoader state holds a GeodeticTableLoader for the large table, parsing on
+     * the given number of threads.
+     */
+    @State(Scope.Thread)
+    public static class LargeLoader {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        GeodeticTableLoader loader;
+
+        @Setup
+        public void setup() {
+            loader = new GeodeticTableLoader(',');
+            loader.setHeaderLines(1);
+            loader.setLatLonColumns(0, 1);
+            loader.setMGRSColumn(2);
+            loader.setThreads(threads);
+        }
+    }
+
+    /**
+     * The Megabytes counter adds up the megabytes read in each iteration, which JMH
+     * reports per second along with the primary result.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Megabytes {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0.0;
+        }
+    }
+
+    @Benchmark
+    public GeodeticPointBuffer loader() {
+        loader.load(bytes);
+        return loader.getPoints();
+    }
+
+    @Benchmark
+    public GeodeticPointBuffer cellByCell() {
+        GeodeticPointBuffer points = new GeodeticPointBuffer();
+        String[] lines = table.split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            String[] cells = lines[i].split(",", -1);
+            if (cells[0].length() > 0) {
+                points.add(new Geodetic2DPoint(new Longitude(cells[1]), new Latitude(cells[0])));
+            } else {
+                points.add(new MGRS(cells[2]).toGeodetic2DPoint());
+            }
+        }
+        return points;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GeodeticPointBuffer loaderLarge(LargeTable table, LargeLoader large, Megabytes counter)
+            throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(table.file, "r");
+        try {
+            large.loader.load(raf.getChannel());
+        } finally {
+            raf.close();
+        }
+        counter.megabytes += table.megabytes;
+        return large.loader.getPoints();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GeodeticPointBuffer cellByCellLarge(LargeTable table, Megabytes counter) throws IOException {
+        GeodeticPointBuffer points = new GeodeticPointBuffer();
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(table.file), StandardCharsets.US_ASCII));
+        try {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] cells = line.split(",", -1);
+                if (cells[0].length() > 0) {
+                    points.add(new Geodetic2DPoint(new Longitude(cells[1]), new Latitude(cells[0])));
+                } else {
+                    points.add(new MGRS(cells[2]).toGeodetic2DPoint());
+                }
+            }
+        } finally {
+            in.close();
+        }
+        counter.megabytes += table.megabytes;
+        return points;
+    }
+}
@@ -0,0 +1,58 @@
+/****************************************************************************************
+ *  UPSBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for projecting geodetic points near both poles to UPS and back.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UPSBenchmark {
+
+    private Geodetic2DPoint[] points;
+    private UPS[] grid;
+    private int i;
+
+    @Setup
+    public void setup() {
+        points = BenchmarkInputs.upsPoints();
+        grid = new UPS[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            grid[j] = new UPS(points[j]);
+        }
+    }
+
+    @Benchmark
+    public UPS fromGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new UPS(points[i]);
+    }
+
+    @Benchmark
+    public Geodetic2DPoint toGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        UPS u = grid[i];
+        return new UPS(u.getHemisphere(), u.getEasting(), u.getNorthing()).getGeodetic();
+    }
+}
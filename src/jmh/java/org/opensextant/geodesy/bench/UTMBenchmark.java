@@ -0,0 +1,82 @@
+/****************************************************************************************
+ *  UTMBenchmark.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.bench;
+
+import org.opensextant.geodesy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for projecting geodetic points to UTM and back, over a fixed mix of
+ * general, date line and Norway/Svalbard special zone inputs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UTMBenchmark {
+
+    private Geodetic2DPoint[] points;
+    private UTM[] grid;
+    private double[] lonDeg;
+    private double[] latDeg;
+    private UTMConverter converter;
+    private int i;
+
+    @Setup
+    public void setup() {
+        points = BenchmarkInputs.utmPoints();
+        grid = new UTM[BenchmarkInputs.SIZE];
+        lonDeg = new double[BenchmarkInputs.SIZE];
+        latDeg = new double[BenchmarkInputs.SIZE];
+        for (int j = 0; j < BenchmarkInputs.SIZE; j++) {
+            grid[j] = new UTM(points[j]);
+            lonDeg[j] = points[j].getLongitudeAsDegrees();
+            latDeg[j] = points[j].getLatitudeAsDegrees();
+        }
+        converter = new UTMConverter();
+    }
+
+    @Benchmark
+    public UTM fromGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        return new UTM(points[i]);
+    }
+
+    @Benchmark
+    public Geodetic2DPoint toGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        UTM u = grid[i];
+        return new UTM(u.getLonZone(), u.getHemisphere(), u.getEasting(), u.getNorthing()).getGeodetic();
+    }
+
+    @Benchmark
+    public double converterFromGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        converter.fromGeodetic(lonDeg[i], latDeg[i]);
+        return converter.getNorthing();
+    }
+
+    @Benchmark
+    public double converterToGeodetic() {
+        i = (i + 1) & BenchmarkInputs.MASK;
+        UTM u = grid[i];
+        converter.toGeodetic(u.getLonZone(), u.getHemisphere(), u.getEasting(), u.getNorthing());
+        return converter.getLatitudeInRadians();
+    }
+}
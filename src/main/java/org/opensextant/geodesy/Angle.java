@@ -99,6 +99,13 @@ public class Angle implements Serializable, Comparable<Angle> {
      * Degrees may be any signed integer value, others are range checked.
      */
     protected void init(double deg, double min, double sec) {
+        this.init(toRadians(deg, min, sec), Angle.RADIANS);
+    }
+
+    /*
+     * Angle in normalized radians from integer degrees and minutes with decimal seconds
+     */
+    private static double toRadians(double deg, double min, double sec) {
         if ((min < 0.0) || (60.0 <= min))
             throw new IllegalArgumentException("Arc minutes value '" + min +
                     "' is out of legal range");
@@ -107,7 +114,7 @@ public class Angle implements Serializable, Comparable<Angle> {
                     "' is out of legal range");
         double ddeg = Math.abs(deg) + (min / 60.0) + (sec / 3600.0);
         double sign = (deg < 0.0) ? -1.0 : +1.0;
-        this.init(sign * ddeg, Angle.DEGREES);
+        return normalize(Math.toRadians(sign * ddeg));
     }
 
     /**
@@ -152,9 +159,258 @@ public class Angle implements Serializable, Comparable<Angle> {
      * @throws IllegalArgumentException error if string can not be successfully parsed.
      */
     public Angle(String valStr) {
+        double rad = parse(valStr, 0, valStr.length(), NO_SIGN);
+        // Parse again the slow way to throw an exception with the reason of the failure
+        if (Double.isNaN(rad)) rad = parseString(valStr);
+        this.inRadians = rad;
+    }
+
+    /**
+     * This method parses a string as an angle like the String constructor does, but returns
+     * null instead of throwing an exception if the string can not be successfully parsed.
+     *
+     * @param valStr the String to be parsed as an instance of Angle
+     * @return new Angle, or null if the string is null or not a valid angle
+     */
+    public static Angle tryParse(String valStr) {
+        if (valStr == null) return null;
+        double rad = parse(valStr, 0, valStr.length(), NO_SIGN);
+        return Double.isNaN(rad) ? null : new Angle(rad);
+    }
+
+    // Sign character that parse should place in front of the text, if any
+    static final char NO_SIGN = 0;
+
+    // Units suffixes in the order the String constructor tries them, the first 5 are degrees
+    private static final String[] ANGLE_SUFFIXES = {
+            DEGSYM, "D", "DEG", "DEGS", "DEGREES", "R", "RAD", "RADS", "RADIANS"
+    };
+    private static final String[] MINUTES_SUFFIXES = {"'", "M", "MIN", "MINS", "MINUTES"};
+    private static final String[] SECONDS_SUFFIXES = {"\"", "S", "SEC", "SECS", "SECONDS"};
+
+    // Exact powers of ten for decoding decimal numbers of up to 15 digits
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    /*
+     * Parse text[start, end) as an angle, preceded by the sign character if it is not NO_SIGN,
+     * exactly as the String constructor would but without creating objects.  The components
+     * are found in place by index; each one is the token holding its digits, possibly followed
+     * by one token without digits (e.g. "12 DEG").  Unusual forms (more tokens per component,
+     * non ASCII characters, numbers that are not plain decimals of at most 15 digits) are
+     * handed to parseString.
+     *
+     * @return angle in normalized radians, or NaN if the String constructor would throw
+     */
+    static double parse(CharSequence text, int start, int end, char sign) {
+        // Trim as String.trim does, the sign character is never trimmed
+        while ((end > start) && (text.charAt(end - 1) <= ' ')) end--;
+        if (sign == NO_SIGN) {
+            while ((start < end) && (text.charAt(start) <= ' ')) start++;
+        }
+
+        // Token ranges of up to 3 components, each component is [a1, b1) + [a2, b2)
+        int a0 = 0, b0 = 0, c0 = -1, d0 = -1;
+        int a1 = 0, b1 = 0, c1 = -1, d1 = -1;
+        int a2 = 0, b2 = 0, c2 = -1, d2 = -1;
+        int count = 0;
+        char sign0 = NO_SIGN;
+        int p = start;
+        while (p < end) {
+            char c = text.charAt(p);
+            if (isAngleDelimiter(c)) {
+                p++;
+                continue;
+            }
+            int a = p;
+            boolean digits = false;
+            for (; p < end; p++) {
+                c = text.charAt(p);
+                if (isAngleDelimiter(c)) break;
+                if ((c >= '0') && (c <= '9')) digits = true;
+                else if ((c >= 128) && (c != '\u00B0')) return parseSlowly(text, start, end, sign);
+            }
+            // Nothing may follow the third component, and a token without digits before
+            // the first component is ignored (along with the sign in front of it)
+            if (count == 3) return Double.NaN;
+            if (digits) {
+                if (count == 0) {
+                    a0 = a;
+                    b0 = p;
+                    if (a == start) sign0 = sign;
+                } else if (count == 1) {
+                    a1 = a;
+                    b1 = p;
+                } else {
+                    a2 = a;
+                    b2 = p;
+                }
+                count++;
+            } else if (count > 0) {
+                if (((count == 1) ? d0 : (count == 2) ? d1 : d2) >= 0)
+                    return parseSlowly(text, start, end, sign);
+                if (count == 1) {
+                    c0 = a;
+                    d0 = p;
+                } else if (count == 2) {
+                    c1 = a;
+                    d1 = p;
+                } else {
+                    c2 = a;
+                    d2 = p;
+                }
+            }
+        }
+        if (count == 0) return Double.NaN;
+
+        // Special case of minutes and seconds without whitespace in-between, e.g. 25'19.07"
+        if ((count == 2) && (charFromEnd(text, a1, b1, c1, d1, NO_SIGN, 0) == '"')) {
+            if (c1 >= 0) return parseSlowly(text, start, end, sign);
+            int ind = indexOf(text, a1, b1, '\'');
+            if (ind > a1) {
+                a2 = ind + 1;
+                b2 = b1;
+                b1 = ind + 1;
+                count = 3;
+            }
+        }
+
+        int suffix = suffix(text, a0, b0, c0, d0, sign0, ANGLE_SUFFIXES);
+        double ang = number(text, a0, b0, c0, d0, sign0, suffix, ANGLE_SUFFIXES);
+        if (Double.isNaN(ang)) return parseSlowly(text, start, end, sign);
+        // A "-0" degrees angle has its sign flipped after the fact
+        int n = numberEnd(b0, c0, d0, suffix, ANGLE_SUFFIXES) - a0;
+        boolean negativeZeroAngle = (sign0 == NO_SIGN)
+                ? (n == 2) && (text.charAt(a0) == '-') && (text.charAt(a0 + 1) == '0')
+                : (sign0 == '-') && (n == 1) && (text.charAt(a0) == '0');
+        if (negativeZeroAngle) ang = 0.0;
+
+        double rad;
+        if (count > 1) {
+            // Only least-significant component of angle can be fractional, and only in degrees
+            if ((suffix >= 5) || (indexOf(text, a0, b0, '.') >= 0) || (indexOf(text, c0, d0, '.') >= 0))
+                return Double.NaN;
+            suffix = suffix(text, a1, b1, c1, d1, NO_SIGN, MINUTES_SUFFIXES);
+            double min = number(text, a1, b1, c1, d1, NO_SIGN, suffix, MINUTES_SUFFIXES);
+            if (Double.isNaN(min)) return parseSlowly(text, start, end, sign);
+            double sec = 0.0;
+            if (count == 3) {
+                if ((indexOf(text, a1, b1, '.') >= 0) || (indexOf(text, c1, d1, '.') >= 0))
+                    return Double.NaN;
+                suffix = suffix(text, a2, b2, c2, d2, NO_SIGN, SECONDS_SUFFIXES);
+                sec = number(text, a2, b2, c2, d2, NO_SIGN, suffix, SECONDS_SUFFIXES);
+                if (Double.isNaN(sec)) return parseSlowly(text, start, end, sign);
+            }
+            if ((min < 0.0) || (60.0 <= min) || (sec < 0.0) || (60.0 <= sec)) return Double.NaN;
+            double ddeg = Math.abs(ang) + (min / 60.0) + (sec / 3600.0);
+            rad = Math.toRadians(((ang < 0.0) ? -1.0 : +1.0) * ddeg);
+        } else {
+            rad = (suffix >= 5) ? ang : Math.toRadians(ang);
+        }
+        if (Math.abs(rad) > (4.0 * TWO_PI)) return Double.NaN;
+        rad = normalize(rad);
+        return negativeZeroAngle ? -rad : rad;
+    }
+
+    private static boolean isAngleDelimiter(char c) {
+        return c == ' ' || c == '\t' || c == ',' || c == ';' || c == ':';
+    }
+
+    /* Index of the first ch in text[start, end), or -1 */
+    private static int indexOf(CharSequence text, int start, int end, char ch) {
+        for (int p = start; p < end; p++) {
+            if (text.charAt(p) == ch) return p;
+        }
+        return -1;
+    }
+
+    /*
+     * Upper case character k positions from the end of the component made of the sign
+     * character and the ranges [a, b) and [c, d), or NO_SIGN past its beginning
+     */
+    private static char charFromEnd(CharSequence text, int a, int b, int c, int d, char sign, int k) {
+        if (c >= 0) {
+            if (k < d - c) return Character.toUpperCase(text.charAt(d - 1 - k));
+            k -= d - c;
+        }
+        if (k < b - a) return Character.toUpperCase(text.charAt(b - 1 - k));
+        return (k == b - a) ? sign : NO_SIGN;
+    }
+
+    /* Index of the first of the suffixes that the component ends with, or -1 */
+    private static int suffix(CharSequence text, int a, int b, int c, int d, char sign, String[] suffixes) {
+        for (int i = 0; i < suffixes.length; i++) {
+            String suffix = suffixes[i];
+            int n = suffix.length();
+            int k = 0;
+            while ((k < n) && (charFromEnd(text, a, b, c, d, sign, k) == suffix.charAt(n - 1 - k))) k++;
+            if (k == n) return i;
+        }
+        return -1;
+    }
+
+    /* End of the number in [a, b) once the suffix is removed from the component */
+    private static int numberEnd(int b, int c, int d, int suffix, String[] suffixes) {
+        int n = (suffix < 0) ? 0 : suffixes[suffix].length();
+        return b - n + ((c >= 0) ? d - c : 0);
+    }
+
+    /*
+     * Value of the component without its suffix, or NaN if what is left is not a plain decimal
+     * number (optional sign, digits with an optional decimal point, at most 15 digits)
+     */
+    private static double number(CharSequence text, int a, int b, int c, int d, char sign,
+                                 int suffix, String[] suffixes) {
+        // The number must end before the token without digits
+        if (numberEnd(b, c, d, suffix, suffixes) > b) return Double.NaN;
+        b = numberEnd(b, c, d, suffix, suffixes);
+        if (sign == NO_SIGN && (a < b)) {
+            char c0 = text.charAt(a);
+            if ((c0 == '+') || (c0 == '-')) {
+                sign = c0;
+                a++;
+            }
+        }
+        long value = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (int p = a; p < b; p++) {
+            char ch = text.charAt(p);
+            if ((ch >= '0') && (ch <= '9')) {
+                value = 10 * value + (ch - '0');
+                digits++;
+            } else if ((ch == '.') && (fraction < 0)) {
+                fraction = p + 1;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if ((digits == 0) || (digits > 15)) return Double.NaN;
+        double v = (fraction < 0) ? value : value / POW10[b - fraction];
+        return (sign == '-') ? -v : v;
+    }
+
+    /* Parse an unusual form with parseString, returning NaN instead of throwing */
+    private static double parseSlowly(CharSequence text, int start, int end, char sign) {
+        String valStr = text.subSequence(start, end).toString();
+        try {
+            return parseString((sign == NO_SIGN) ? valStr : sign + valStr);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    /*
+     * Parse a String with StringTokenizer and String operations, throwing an exception with
+     * the reason of the failure.
+     *
+     * @return angle in normalized radians
+     */
+    private static double parseString(String valStr) {
         String token;
         String[] components = new String[]{"", "", ""};
-        double ang, min, sec;
+        double ang, min, sec, rad;
 
         // Normalize to upper case chars, allow several possible delimiters
         valStr = valStr.trim().toUpperCase();
@@ -279,16 +535,17 @@ public class Angle implements Serializable, Comparable<Angle> {
                             valStr + "\"");
             } else
                 sec = 0.0;
-            // Initialize Angle instance using degree, minute, second form
-            this.init(ang, min, sec);
+            // Angle using degree, minute, second form
+            rad = toRadians(ang, min, sec);
         } else
-            // Initialize Angle instance using decimal degrees or radians
-            this.init(ang, units);
+            // Angle using decimal degrees or radians
+            rad = normalize((units == Angle.RADIANS) ? ang : Math.toRadians(ang));
 
         if (negativeZeroAngle) {
             // swap the sign
-            inRadians = -inRadians;
+            rad = -rad;
         }
+        return rad;
     }
 
     /**
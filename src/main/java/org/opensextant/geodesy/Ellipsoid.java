@@ -47,6 +47,15 @@ public class Ellipsoid implements Serializable {
     private final double es;      // Eccentricity of ellipsoid, squared
     private final double ebs;     // Second Eccentricity of ellipsoid, squared
 
+    // Vincenty series coefficients for this ellipsoid (made on first use)
+    private transient volatile GeodesicConstants geodesicConstants;
+
+    // Karney geodesic solver for this ellipsoid (made on first use)
+    private transient volatile KarneyGeodesic karneyGeodesic;
+
+    // Shared UTM projections for this ellipsoid (made on first use by UTM)
+    private transient volatile TransverseMercator[] utmProjections;
+
     // Cache of frequently used singleton Ellipsoids (comment out if not needed by app)
     private static final Map<String, Ellipsoid> namedEllipsoids;
 
@@ -218,49 +227,163 @@ public class Ellipsoid implements Serializable {
     /**
      * This method calculates the orthodromic distance in meters between two points, which
      * is the shortest distance between two geodetic points on the surface of this ellipsoid.
+     * It is the same as the vincentyDistance method, but takes point objects.
      *
      * @param p1 geodetic point 1
      * @param p2 geodetic point 2
      * @return distance in meters
+     * @throws ArithmeticException if the calculation fails to converge (nearly antipodal points)
      */
     public double orthodromicDistance(Geodetic2DPoint p1, Geodetic2DPoint p2) {
-        Geodetic2DArc arc = new Geodetic2DArc(this, p1, p2);
-        return arc.getDistanceInMeters();
-
-        /*
-        // Alternate method (appears slightly faster) - don't know which method is most accurate
-        // Adapted from H. Andoyer: from Atronomical Algorithms, Jean Meeus, 2nd edition.
-        double lon1 = p1.getLongitude().inRadians();
-        double lat1 = p1.getLatitude().inRadians();
-        double lon2 = p2.getLongitude().inRadians();
-        double lat2 = p2.getLatitude().inRadians();
-
-        double f = (lat1 + lat2) / 2.0;
-        double g = (lat1 - lat2) / 2.0;
-        double l = (lon1 - lon2) / 2.0;
-
-        double sf = Math.sin(f);
-        double sg = Math.sin(g);
-        double sl = Math.sin(l);
-
-        double s, c, w, r, d, h1, h2;
+        return vincentyDistance(p1.getLongitude().inRadians, p1.getLatitude().inRadians,
+                p2.getLongitude().inRadians, p2.getLatitude().inRadians);
+    }
+
+    /**
+     * This method calculates the distance in meters between two points on a sphere with
+     * the mean radius of this ellipsoid, (2a + b) / 3, using the haversine formula.  It is
+     * the fastest of the distance methods, but since it ignores the flattening of the earth
+     * its error can reach 0.6% of the distance (a few hundred meters per hundred km).  It is
+     * well conditioned for all distances, including very short ones and antipodal points.
+     * Nothing is allocated, and no validation is done on the arguments.
+     *
+     * @param lon1 longitude of point 1 in radians
+     * @param lat1 latitude of point 1 in radians
+     * @param lon2 longitude of point 2 in radians
+     * @param lat2 latitude of point 2 in radians
+     * @return approximate distance in meters
+     */
+    public double haversineDistance(double lon1, double lat1, double lon2, double lat2) {
+        double sinDLat = Math.sin((lat2 - lat1) / 2.0);
+        double sinDLon = Math.sin((lon2 - lon1) / 2.0);
+        double h = sinDLat * sinDLat + Math.cos(lat1) * Math.cos(lat2) * sinDLon * sinDLon;
+        return 2.0 * ((2.0 * a + b) / 3.0) * Math.asin(Math.sqrt(Math.min(1.0, h)));
+    }
+
+    /**
+     * This method calculates the distance in meters between two points on the surface of
+     * this ellipsoid with the formula of H. Andoyer (from Astronomical Algorithms, Jean
+     * Meeus, 2nd edition), which corrects the spherical distance for the flattening of the
+     * earth to first order.  Its error is within about 0.002% of the distance (a few
+     * hundred meters at most, on the longest arcs) and it needs no iteration, so it is
+     * several times faster than vincentyDistance.  Its accuracy degrades for nearly
+     * antipodal points, and exactly antipodal points are given half the circumference of a
+     * meridian ellipse, approximately.  Nothing is allocated, and no validation is done on
+     * the arguments.
+     *
+     * @param lon1 longitude of point 1 in radians
+     * @param lat1 latitude of point 1 in radians
+     * @param lon2 longitude of point 2 in radians
+     * @param lat2 latitude of point 2 in radians
+     * @return approximate distance in meters
+     */
+    public double andoyerDistance(double lon1, double lat1, double lon2, double lat2) {
+        double sf = Math.sin((lat1 + lat2) / 2.0);
+        double sg = Math.sin((lat1 - lat2) / 2.0);
+        double sl = Math.sin((lon1 - lon2) / 2.0);
         sg = sg * sg;
         sl = sl * sl;
         sf = sf * sf;
-        s = sg * (1.0 - sl) + (1.0 - sf) * sl;
-        c = (1.0 - sg) * (1.0 - sl) + sf * sl;
-
-        if ((c == 0) || (s == 0)) {
-            return 0.0;
-        } else {
-            w = Math.atan(Math.sqrt(s / c));
-            r = Math.sqrt(s * c) / w;
-            d = 2.0 * w * a;
-            h1 = (3.0 * r - 1.0) / 2.0 / c;
-            h2 = (3.0 * r + 1.0) / 2.0 / s;
-            return d * (1.0 + this.f * (h1 * sf * (1.0 - sg) - h2 * (1.0 - sf) * sg));
+        double s = sg * (1.0 - sl) + (1.0 - sf) * sl;
+        double c = (1.0 - sg) * (1.0 - sl) + sf * sl;
+
+        if (s == 0.0) return 0.0;
+        if (c == 0.0) return Math.PI * (a + b) / 2.0;
+        double w = Math.atan(Math.sqrt(s / c));
+        double r = Math.sqrt(s * c) / w;
+        double d = 2.0 * w * a;
+        double h1 = (3.0 * r - 1.0) / 2.0 / c;
+        double h2 = (3.0 * r + 1.0) / 2.0 / s;
+        return d * (1.0 + f * (h1 * sf * (1.0 - sg) - h2 * (1.0 - sf) * sg));
+    }
+
+    /**
+     * This method calculates the distance in meters between two points on the surface of
+     * this ellipsoid with Vincenty's iterative solution of the inverse geodesic problem,
+     * the same one used by Geodetic2DArc (accurate to well under a millimeter).  Unlike
+     * constructing a Geodetic2DArc, nothing is allocated: the azimuth is not computed, and
+     * the shared GeodesicConstants of this ellipsoid are used.  It may fail to
+     * converge for nearly antipodal points.  No validation is done on the arguments.
+     *
+     * @param lon1 longitude of point 1 in radians
+     * @param lat1 latitude of point 1 in radians
+     * @param lon2 longitude of point 2 in radians
+     * @param lat2 latitude of point 2 in radians
+     * @return distance in meters
+     * @throws ArithmeticException if the calculation fails to converge (nearly antipodal points)
+     */
+    public double vincentyDistance(double lon1, double lat1, double lon2, double lat2) {
+        return Geodetic2DArc.inverse(getGeodesicConstants(), lon1, lat1, lon2, lat2, null);
+    }
+
+    /**
+     * This method calculates the distance in meters between two points on the surface of
+     * this ellipsoid with Karney's solution of the inverse geodesic problem (see
+     * KarneyGeodesic).  It is slightly more accurate than vincentyDistance, and unlike it
+     * always converges, but it takes about three times as long, so it is the one to use
+     * when nearly antipodal points are possible.  No validation is done on the arguments.
+     *
+     * @param lon1 longitude of point 1 in radians
+     * @param lat1 latitude of point 1 in radians
+     * @param lon2 longitude of point 2 in radians
+     * @param lat2 latitude of point 2 in radians
+     * @return distance in meters
+     */
+    public double karneyDistance(double lon1, double lat1, double lon2, double lat2) {
+        return getKarneyGeodesic().inverse(lon1, lat1, lon2, lat2, null);
+    }
+
+    /**
+     * This method returns the constants that the geodesic calculations of Geodetic2DArc
+     * need for this ellipsoid.  They are computed on first use and then shared by every
+     * arc on this ellipsoid, so that constructing an arc needs no setup work.
+     *
+     * @return the shared, immutable GeodesicConstants of this ellipsoid
+     */
+    @NonNull
+    public GeodesicConstants getGeodesicConstants() {
+        GeodesicConstants gc = geodesicConstants;
+        if (gc == null) {
+            // Not locked: the constants only depend on the axes, so a thread that races
+            // another here just computes the same values again
+            gc = new GeodesicConstants(this);
+            geodesicConstants = gc;
+        }
+        return gc;
+    }
+
+    /**
+     * This method returns the Karney geodesic solver for this ellipsoid, which solves the
+     * inverse, direct and waypoint problems in primitive form.  It is made on first use
+     * and then shared, like the GeodesicConstants.
+     *
+     * @return the shared, immutable KarneyGeodesic of this ellipsoid
+     */
+    @NonNull
+    public KarneyGeodesic getKarneyGeodesic() {
+        KarneyGeodesic kg = karneyGeodesic;
+        if (kg == null) {
+            // Not locked, as for the GeodesicConstants
+            kg = new KarneyGeodesic(this);
+            karneyGeodesic = kg;
+        }
+        return kg;
+    }
+
+    /*
+     * This method returns the shared UTM projections for this ellipsoid, indexed as UTM
+     * expects. They are made on first use and then held by this ellipsoid, so that they
+     * are released along with it.
+     */
+    TransverseMercator[] getUTMProjections() {
+        TransverseMercator[] p = utmProjections;
+        if (p == null) {
+            // Not locked: the array is filled before the volatile write publishes it, and a
+            // racing thread at worst builds a second, equal set that replaces this one
+            p = UTM.makeProjections(this);
+            utmProjections = p;
         }
-        */
+        return p;
     }
 
     /**
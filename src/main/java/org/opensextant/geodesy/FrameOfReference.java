@@ -20,6 +20,8 @@ package org.opensextant.geodesy;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -56,6 +58,10 @@ public class FrameOfReference implements Serializable {
 	@NonNull private Ellipsoid ellip;
 	@NonNull private Geodetic3DPoint topoOrigLle;
 	@NonNull private GeocentricPoint topoOrigEcf;
+	@NonNull private GeocentricSolver solver = GeocentricSolver.BOWRING;
+
+    // Rotation between the geocentric and topocentric axes, cached from topoOrigLle
+    private transient double sinOrLon, cosOrLon, sinOrLat, cosOrLat;
 
     private static final Ellipsoid DEFAULT_ELLIPSOID =
             Ellipsoid.getInstance("WGS 84");
@@ -97,14 +103,6 @@ public class FrameOfReference implements Serializable {
         double y0 = ecf.getY() - topoOrigEcf.getY();
         double z0 = ecf.getZ() - topoOrigEcf.getZ();
 
-        double lonRad = topoOrigLle.getLongitude().inRadians();
-        double cosOrLon = Math.cos(lonRad);
-        double sinOrLon = Math.sin(lonRad);
-
-        double latRad = topoOrigLle.getLatitude().inRadians();
-        double cosOrLat = Math.cos(latRad);
-        double sinOrLat = Math.sin(latRad);
-
         double x = cosOrLon * x0 + sinOrLon * y0;
         double tcsX = -sinOrLon * x0 + cosOrLon * y0;
         double tcsY = -sinOrLat * x + cosOrLat * z0;
@@ -131,21 +129,13 @@ public class FrameOfReference implements Serializable {
      * @return the GeocentricPoint (Earth Centered Fixed or ecf)
      */
     private GeocentricPoint toGeocentric(Topocentric3DPoint tcs) {
-        double lonRad = topoOrigLle.getLongitude().inRadians();
-        double sinLambda = Math.sin(lonRad);
-        double cosLambda = Math.cos(lonRad);
-
-        double latRad = topoOrigLle.getLatitude().inRadians();
-        double sinPhi = Math.sin(latRad);
-        double cosPhi = Math.cos(latRad);
-
-        double x = (-1.0 * sinPhi * tcs.getNorthing() + cosPhi * tcs.getElevation());
+        double x = (-1.0 * sinOrLat * tcs.getNorthing() + cosOrLat * tcs.getElevation());
         double y = tcs.getEasting();
 
-        double ecfX = cosLambda * x - sinLambda * y + topoOrigEcf.getX();
-        double ecfY = sinLambda * x + cosLambda * y + topoOrigEcf.getY();
-        double ecfZ = (cosPhi * tcs.getNorthing() +
-                sinPhi * tcs.getElevation() + topoOrigEcf.getZ());
+        double ecfX = cosOrLon * x - sinOrLon * y + topoOrigEcf.getX();
+        double ecfY = sinOrLon * x + cosOrLon * y + topoOrigEcf.getY();
+        double ecfZ = (cosOrLat * tcs.getNorthing() +
+                sinOrLat * tcs.getElevation() + topoOrigEcf.getZ());
         return new GeocentricPoint(ecfX, ecfY, ecfZ);
     }
 
@@ -159,8 +149,6 @@ public class FrameOfReference implements Serializable {
         double X = ecf.getX();
         double Y = ecf.getY();
         double Z = ecf.getZ();
-        double a = ellip.getEquatorialRadius();
-        double b = ellip.getPolarRadius();
 
         double p = Math.sqrt((X * X) + (Y * Y));
         Longitude lon;
@@ -171,17 +159,14 @@ public class FrameOfReference implements Serializable {
             // lon to be zero, but we're using the Topocentric Origin's lon instead
             lon = topoOrigLle.getLongitude();
             lat = new Latitude((Z > 0.0) ? +90.0 : -90.0, Angle.DEGREES);
+            double b = ellip.getPolarRadius();
             h = (Z > 0.0) ? Z - b : b - Z;
         } else {
             lon = new Longitude(Math.atan2(Y, X));
-            double theta = Math.atan((Z * a) / (p * b));
-            double sinTheta = Math.sin(theta);
-            double cosTheta = Math.cos(theta);
-            double phi = Math.atan(
-                    (Z + (ellip.get2ndEccentricitySquared() * b * sinTheta * sinTheta * sinTheta)) /
-                            (p - (ellip.getEccentricitySquared() * a * cosTheta * cosTheta * cosTheta)));
-            lat = new Latitude(phi);
-            h = (p / Math.cos(phi)) - ellip.getRadius(lat);
+            double[] latElev = new double[2];
+            solver.solve(ellip, p, Z, latElev);
+            lat = new Latitude(latElev[0]);
+            h = latElev[1];
         }
         return new Geodetic3DPoint(lon, lat, h);
     }
@@ -198,6 +183,31 @@ public class FrameOfReference implements Serializable {
         return this.toGeodetic(ecf);
     }
 
+    /*
+     * This method computes the geocentric coordinates of the topographic origin and caches
+     * the sines and cosines of its longitude and latitude, which define the rotation between
+     * geocentric and topocentric axes, so that conversions need not recompute them.
+     */
+    private void initOrigin() {
+        double lonRad = topoOrigLle.getLongitude().inRadians();
+        double latRad = topoOrigLle.getLatitude().inRadians();
+        this.sinOrLon = Math.sin(lonRad);
+        this.cosOrLon = Math.cos(lonRad);
+        this.sinOrLat = Math.sin(latRad);
+        this.cosOrLat = Math.cos(latRad);
+        this.topoOrigEcf = this.toGeocentric(topoOrigLle);
+    }
+
+    /*
+     * The cached rotation is not serialized, so restore it after reading this object
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Frames serialized before solvers were selectable use the original solver
+        if (solver == null) solver = GeocentricSolver.BOWRING;
+        initOrigin();
+    }
+
     /**
      * This constructor takes an Ellipsoid object earth model and a Geodetic3DPoint
      * to use as the Topographic Origin point for coordinate conversions.
@@ -209,7 +219,7 @@ public class FrameOfReference implements Serializable {
     public FrameOfReference(Ellipsoid ellip, Geodetic3DPoint topoOrig) {
         this.ellip = ellip;
         this.topoOrigLle = topoOrig;
-        this.topoOrigEcf = this.toGeocentric(topoOrig);
+        initOrigin();
     }
 
     /**
@@ -255,7 +265,10 @@ public class FrameOfReference implements Serializable {
 
     /**
      * This settor method is used to update the current Ellipsoid model of the
-     * earth for this FrameOfReference.
+     * earth for this FrameOfReference.  The topographic origin keeps its geodetic
+     * coordinates, so its geocentric position is recomputed on the new Ellipsoid, and
+     * topocentric conversions are then relative to the origin on that Ellipsoid, just as
+     * if this frame had been constructed with it.
      *
      * @param ellip the new Ellipsoid object to be used.
 	 * @throws NullPointerException if ellip is null
@@ -263,6 +276,34 @@ public class FrameOfReference implements Serializable {
     public void setEllipsoid(Ellipsoid ellip) {
 		if (ellip == null) throw new NullPointerException();
         this.ellip = ellip;
+        // The geocentric position of the topographic origin depends on the Ellipsoid
+        initOrigin();
+    }
+
+    /**
+     * This accessor method is used to get the algorithm this FrameOfReference uses to
+     * convert geocentric coordinates to geodetic latitude and elevation.
+     *
+     * @return GeocentricSolver being used (BOWRING by default).
+     */
+    @NonNull
+    public GeocentricSolver getGeocentricSolver() {
+        return solver;
+    }
+
+    /**
+     * This settor method is used to select the algorithm this FrameOfReference uses to
+     * convert geocentric coordinates to geodetic latitude and elevation, for both the point
+     * and the array conversion methods.  The default, GeocentricSolver.BOWRING, is accurate
+     * near the surface of the earth; see GeocentricSolver for the trade-offs at higher
+     * altitudes.
+     *
+     * @param solver the GeocentricSolver to use.
+     * @throws NullPointerException if solver is null
+     */
+    public void setGeocentricSolver(GeocentricSolver solver) {
+        if (solver == null) throw new NullPointerException();
+        this.solver = solver;
     }
 
     /**
@@ -283,8 +324,9 @@ public class FrameOfReference implements Serializable {
 	 * @throws NullPointerException if topoOrig is null
 	 */
     public void setTopographicOrigin(Geodetic3DPoint topoOrig) {
+        if (topoOrig == null) throw new NullPointerException();
         this.topoOrigLle = topoOrig;
-        this.topoOrigEcf = this.toGeocentric(topoOrig);
+        initOrigin();
     }
 
     /**
@@ -411,4 +453,342 @@ public class FrameOfReference implements Serializable {
             return this.toTopocentric((GeocentricPoint) gp);
         else throw new IllegalArgumentException("unknown GeoPoint instance");
     }
+
+    /**
+     * This method converts arrays of geodetic coordinates to GeocentricPoint (Earth Centered
+     * Fixed or ecf) coordinates, without creating any objects.  The number of points converted
+     * is lon.length, and the results are the same as those of toGeocentric for each point.
+     * Input values are not validated, so they should already be normalized as Longitude and
+     * Latitude objects would be.  The output arrays may be the same as the input arrays.
+     *
+     * @param lon longitudes in radians
+     * @param lat latitudes in radians
+     * @param h   elevations in meters
+     * @param x   array to receive the X coordinate of each point, in meters
+     * @param y   array to receive the Y coordinate of each point, in meters
+     * @param z   array to receive the Z coordinate of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than lon
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void geodeticToGeocentric(double[] lon, double[] lat, double[] h,
+                                     double[] x, double[] y, double[] z) {
+        int n = lon.length;
+        checkLength(n, lat, h);
+        checkLength(n, x, y, z);
+        geodeticToGeocentric(lon, lat, h, n, x, y, z);
+    }
+
+    /**
+     * This method converts arrays of GeocentricPoint (Earth Centered Fixed or ecf) coordinates
+     * to geodetic coordinates, without creating any objects.  The number of points converted
+     * is x.length, and the results are the same as those of toGeodetic for each point.  The
+     * output arrays may be the same as the input arrays.
+     *
+     * @param x   array of X coordinates, in meters
+     * @param y   array of Y coordinates, in meters
+     * @param z   array of Z coordinates, in meters
+     * @param lon array to receive the longitude of each point, in radians
+     * @param lat array to receive the latitude of each point, in radians
+     * @param h   array to receive the elevation of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than x
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void geocentricToGeodetic(double[] x, double[] y, double[] z,
+                                     double[] lon, double[] lat, double[] h) {
+        int n = x.length;
+        checkLength(n, y, z);
+        checkLength(n, lon, lat, h);
+        geocentricToGeodetic(x, y, z, n, lon, lat, h);
+    }
+
+    /**
+     * This method converts arrays of GeocentricPoint (Earth Centered Fixed or ecf) coordinates
+     * to Topocentric3DPoint (Topo Centric System or tcs) coordinates relative to the
+     * topographic origin of this FrameOfReference, without creating any objects.  The rotation
+     * to the local axes is computed once, when the topographic origin is set.  The number of
+     * points converted is x.length, and the output arrays may be the same as the input arrays.
+     *
+     * @param x         array of X coordinates, in meters
+     * @param y         array of Y coordinates, in meters
+     * @param z         array of Z coordinates, in meters
+     * @param easting   array to receive the easting of each point, in meters
+     * @param northing  array to receive the northing of each point, in meters
+     * @param elevation array to receive the elevation (up) of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than x
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void geocentricToTopocentric(double[] x, double[] y, double[] z,
+                                        double[] easting, double[] northing, double[] elevation) {
+        int n = x.length;
+        checkLength(n, y, z);
+        checkLength(n, easting, northing, elevation);
+        geocentricToTopocentric(x, y, z, n, easting, northing, elevation);
+    }
+
+    /**
+     * This method converts arrays of Topocentric3DPoint (Topo Centric System or tcs)
+     * coordinates relative to the topographic origin of this FrameOfReference to
+     * GeocentricPoint (Earth Centered Fixed or ecf) coordinates, without creating any
+     * objects.  The number of points converted is easting.length, and the output arrays
+     * may be the same as the input arrays.
+     *
+     * @param easting   array of eastings, in meters
+     * @param northing  array of northings, in meters
+     * @param elevation array of elevations (up), in meters
+     * @param x         array to receive the X coordinate of each point, in meters
+     * @param y         array to receive the Y coordinate of each point, in meters
+     * @param z         array to receive the Z coordinate of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than easting
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void topocentricToGeocentric(double[] easting, double[] northing, double[] elevation,
+                                        double[] x, double[] y, double[] z) {
+        int n = easting.length;
+        checkLength(n, northing, elevation);
+        checkLength(n, x, y, z);
+        topocentricToGeocentric(easting, northing, elevation, n, x, y, z);
+    }
+
+    /**
+     * This method converts arrays of geodetic coordinates to Topocentric3DPoint (Topo Centric
+     * System or tcs) coordinates relative to the topographic origin of this FrameOfReference,
+     * without creating the intermediate GeocentricPoint objects.  The number of points
+     * converted is lon.length, and the output arrays may be the same as the input arrays.
+     *
+     * @param lon       longitudes in radians
+     * @param lat       latitudes in radians
+     * @param h         elevations in meters
+     * @param easting   array to receive the easting of each point, in meters
+     * @param northing  array to receive the northing of each point, in meters
+     * @param elevation array to receive the elevation (up) of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than lon
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void geodeticToTopocentric(double[] lon, double[] lat, double[] h,
+                                      double[] easting, double[] northing, double[] elevation) {
+        int n = lon.length;
+        checkLength(n, lat, h);
+        checkLength(n, easting, northing, elevation);
+        geodeticToGeocentric(lon, lat, h, n, easting, northing, elevation);
+        geocentricToTopocentric(easting, northing, elevation, n, easting, northing, elevation);
+    }
+
+    /**
+     * This method converts arrays of Topocentric3DPoint (Topo Centric System or tcs)
+     * coordinates relative to the topographic origin of this FrameOfReference to geodetic
+     * coordinates, without creating the intermediate GeocentricPoint objects.  The number
+     * of points converted is easting.length, and the output arrays may be the same as the
+     * input arrays.
+     *
+     * @param easting   array of eastings, in meters
+     * @param northing  array of northings, in meters
+     * @param elevation array of elevations (up), in meters
+     * @param lon       array to receive the longitude of each point, in radians
+     * @param lat       array to receive the latitude of each point, in radians
+     * @param h         array to receive the elevation of each point, in meters
+     * @throws IllegalArgumentException if any array is shorter than easting
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public void topocentricToGeodetic(double[] easting, double[] northing, double[] elevation,
+                                      double[] lon, double[] lat, double[] h) {
+        int n = easting.length;
+        checkLength(n, northing, elevation);
+        checkLength(n, lon, lat, h);
+        topocentricToGeocentric(easting, northing, elevation, n, lon, lat, h);
+        geocentricToGeodetic(lon, lat, h, n, lon, lat, h);
+    }
+
+    /**
+     * This method converts all of the points in a GeodeticPointBuffer to GeocentricPoint
+     * (Earth Centered Fixed or ecf) coordinates, storing them in caller supplied arrays
+     * instead of creating a GeocentricPoint object for each point.
+     *
+     * @param points the geodetic points to convert (Longitude, Latitude, Elevation or lle)
+     * @param x      array to receive the X coordinate of each point, in meters
+     * @param y      array to receive the Y coordinate of each point, in meters
+     * @param z      array to receive the Z coordinate of each point, in meters
+     * @throws IllegalArgumentException if an array is shorter than points.size()
+     * @throws NullPointerException if points or any of the arrays are null
+     */
+    public void geodeticToGeocentric(GeodeticPointBuffer points, double[] x, double[] y, double[] z) {
+        int n = points.size();
+        checkLength(n, x, y, z);
+        geodeticToGeocentric(points.getLongitudes(), points.getLatitudes(), points.getElevations(),
+                n, x, y, z);
+    }
+
+    /**
+     * This method converts arrays of GeocentricPoint (Earth Centered Fixed or ecf) coordinates
+     * to geodetic points, replacing the contents of a GeodeticPointBuffer with them, instead
+     * of creating a Geodetic3DPoint object for each point.  The number of points converted is
+     * x.length.
+     *
+     * @param x      array of X coordinates, in meters
+     * @param y      array of Y coordinates, in meters
+     * @param z      array of Z coordinates, in meters
+     * @param points buffer to receive the geodetic points (Longitude, Latitude, Elevation or lle)
+     * @throws IllegalArgumentException if y or z is shorter than x
+     * @throws NullPointerException if points or any of the arrays are null
+     */
+    public void geocentricToGeodetic(double[] x, double[] y, double[] z, GeodeticPointBuffer points) {
+        int n = x.length;
+        checkLength(n, y, z);
+        points.setSize(n);
+        geocentricToGeodetic(x, y, z, n,
+                points.getLongitudes(), points.getLatitudes(), points.getElevations());
+    }
+
+    /**
+     * This method converts all of the points in a GeodeticPointBuffer to Topocentric3DPoint
+     * (Topo Centric System or tcs) coordinates relative to the topographic origin of this
+     * FrameOfReference, storing them in caller supplied arrays instead of creating objects.
+     *
+     * @param points    the geodetic points to convert (Longitude, Latitude, Elevation or lle)
+     * @param easting   array to receive the easting of each point, in meters
+     * @param northing  array to receive the northing of each point, in meters
+     * @param elevation array to receive the elevation (up) of each point, in meters
+     * @throws IllegalArgumentException if an array is shorter than points.size()
+     * @throws NullPointerException if points or any of the arrays are null
+     */
+    public void geodeticToTopocentric(GeodeticPointBuffer points,
+                                      double[] easting, double[] northing, double[] elevation) {
+        int n = points.size();
+        checkLength(n, easting, northing, elevation);
+        // Convert to geocentric in the output arrays, then rotate in place
+        geodeticToGeocentric(points.getLongitudes(), points.getLatitudes(), points.getElevations(),
+                n, easting, northing, elevation);
+        geocentricToTopocentric(easting, northing, elevation, n, easting, northing, elevation);
+    }
+
+    /**
+     * This method converts arrays of Topocentric3DPoint (Topo Centric System or tcs)
+     * coordinates relative to the topographic origin of this FrameOfReference to geodetic
+     * points, replacing the contents of a GeodeticPointBuffer with them.  The number of
+     * points converted is easting.length.
+     *
+     * @param easting   array of eastings, in meters
+     * @param northing  array of northings, in meters
+     * @param elevation array of elevations (up), in meters
+     * @param points    buffer to receive the geodetic points (Longitude, Latitude, Elevation or lle)
+     * @throws IllegalArgumentException if northing or elevation is shorter than easting
+     * @throws NullPointerException if points or any of the arrays are null
+     */
+    public void topocentricToGeodetic(double[] easting, double[] northing, double[] elevation,
+                                      GeodeticPointBuffer points) {
+        int n = easting.length;
+        checkLength(n, northing, elevation);
+        points.setSize(n);
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+        double[] h = points.getElevations();
+        // Convert to geocentric in the buffer's arrays, then to geodetic in place
+        topocentricToGeocentric(easting, northing, elevation, n, lon, lat, h);
+        geocentricToGeodetic(lon, lat, h, n, lon, lat, h);
+    }
+
+    /*
+     * This method converts n geodetic coordinates (radians and meters) to geocentric ones
+     * (lle 2 ecf). The output arrays may be the same as the input arrays.
+     */
+    private void geodeticToGeocentric(double[] lon, double[] lat, double[] h, int n,
+                                      double[] x, double[] y, double[] z) {
+        double a = ellip.getEquatorialRadius();
+        double es = ellip.getEccentricitySquared();
+        for (int i = 0; i < n; i++) {
+            double lambda = lon[i];
+            double phi = lat[i];
+            double hi = h[i];
+            double sinPhi = Math.sin(phi);
+            double cosPhi = Math.cos(phi);
+            double N = a / Math.sqrt(1.0 - es * sinPhi * sinPhi);
+            x[i] = (N + hi) * cosPhi * Math.cos(lambda);
+            y[i] = (N + hi) * cosPhi * Math.sin(lambda);
+            z[i] = ((N * (1.0 - es)) + hi) * sinPhi;
+        }
+    }
+
+    /*
+     * This method converts n geocentric coordinates to geodetic ones in radians and meters
+     * (ecf 2 lle). The output arrays may be the same as the input arrays.
+     */
+    private void geocentricToGeodetic(double[] x, double[] y, double[] z, int n,
+                                      double[] lon, double[] lat, double[] h) {
+        double b = ellip.getPolarRadius();
+        GeocentricSolver solver = this.solver;
+        double[] latElev = new double[2];
+        for (int i = 0; i < n; i++) {
+            double X = x[i];
+            double Y = y[i];
+            double Z = z[i];
+            double p = Math.sqrt((X * X) + (Y * Y));
+            if (p == 0.0) {
+                // At a Pole all Longitude values are at the same place, so use the
+                // Topocentric Origin's lon, as for GeocentricPoint conversions
+                lon[i] = topoOrigLle.getLongitude().inRadians;
+                lat[i] = (Z > 0.0) ? Math.PI / 2.0 : -Math.PI / 2.0;
+                h[i] = (Z > 0.0) ? Z - b : b - Z;
+            } else {
+                solver.solve(ellip, p, Z, latElev);
+                lon[i] = Angle.normalize(Math.atan2(Y, X));
+                lat[i] = latElev[0];
+                h[i] = latElev[1];
+            }
+        }
+    }
+
+    /*
+     * This method converts n geocentric coordinates to topocentric ones (ecf 2 tcs).
+     * The output arrays may be the same as the input arrays.
+     */
+    private void geocentricToTopocentric(double[] x, double[] y, double[] z, int n,
+                                         double[] east, double[] north, double[] up) {
+        double sinOrLon = this.sinOrLon, cosOrLon = this.cosOrLon;
+        double sinOrLat = this.sinOrLat, cosOrLat = this.cosOrLat;
+        double x0 = topoOrigEcf.getX();
+        double y0 = topoOrigEcf.getY();
+        double z0 = topoOrigEcf.getZ();
+        for (int i = 0; i < n; i++) {
+            double dx = x[i] - x0;
+            double dy = y[i] - y0;
+            double dz = z[i] - z0;
+            double t = cosOrLon * dx + sinOrLon * dy;
+            east[i] = -sinOrLon * dx + cosOrLon * dy;
+            north[i] = -sinOrLat * t + cosOrLat * dz;
+            up[i] = cosOrLat * t + sinOrLat * dz;
+        }
+    }
+
+    /*
+     * This method converts n topocentric coordinates to geocentric ones (tcs 2 ecf).
+     * The output arrays may be the same as the input arrays.
+     */
+    private void topocentricToGeocentric(double[] east, double[] north, double[] up, int n,
+                                         double[] x, double[] y, double[] z) {
+        double sinLambda = this.sinOrLon, cosLambda = this.cosOrLon;
+        double sinPhi = this.sinOrLat, cosPhi = this.cosOrLat;
+        double x0 = topoOrigEcf.getX();
+        double y0 = topoOrigEcf.getY();
+        double z0 = topoOrigEcf.getZ();
+        for (int i = 0; i < n; i++) {
+            double e = east[i];
+            double no = north[i];
+            double u = up[i];
+            double t = (-1.0 * sinPhi * no + cosPhi * u);
+            x[i] = cosLambda * t - sinLambda * e + x0;
+            y[i] = sinLambda * t + cosLambda * e + y0;
+            z[i] = (cosPhi * no + sinPhi * u + z0);
+        }
+    }
+
+    /* Check that the arrays given to a batch method can hold n values */
+    private static void checkLength(int n, double[] a1, double[] a2) {
+        if (a1.length < n || a2.length < n)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + n + ")");
+    }
+
+    /* Check that the arrays given to a batch method can hold n values */
+    private static void checkLength(int n, double[] a1, double[] a2, double[] a3) {
+        if (a1.length < n || a2.length < n || a3.length < n)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + n + ")");
+    }
 }
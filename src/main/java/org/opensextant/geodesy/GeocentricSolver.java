@@ -0,0 +1,168 @@
+/****************************************************************************************
+ *  GeocentricSolver.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+/**
+ * The GeocentricSolver enumeration selects the algorithm a FrameOfReference uses to
+ * convert GeocentricPoint (Earth Centered Fixed or ecf) coordinates to geodetic latitude
+ * and elevation. Longitude needs no solver (it is simply atan2(Y, X)), but latitude and
+ * elevation have no simple closed form, so each solver trades accuracy against speed:<p/>
+ *
+ * <ul>
+ * <li>BOWRING is the single step formula of Bowring (1976), and the default. It is
+ * accurate to a few nanometers near the surface of the earth, but its error grows with
+ * altitude: about 2 mm at 400 km, 1 cm at 1000 km (low earth orbits), and 0.4 m at
+ * 40,000 km.</li>
+ * <li>ITERATIVE repeats Bowring's step, from the reduced latitude of the previous
+ * estimate, until the latitude stops changing. Each step roughly cubes the error, so
+ * it converges in two or three steps to the limit of double precision at any
+ * altitude (within 0.1 micrometer), at the cost of more trigonometric calls.</li>
+ * <li>VERMEILLE is the closed form solution of Vermeille (2002). It uses one cube root,
+ * a few square roots and a single atan2 (no sines or cosines), and is as accurate as
+ * ITERATIVE from the surface out past geostationary orbit. It must not be used for
+ * points within about 45 km of the center of the earth, where the formula breaks
+ * down.</li>
+ * </ul>
+ *
+ * The getPrecision method reports the worst case error of each solver, in meters of
+ * position, for points from 1 km below the surface of the earth up to 40,000 km above
+ * it (beyond geostationary orbit).  All of the solvers are stateless and thread safe.
+ */
+public enum GeocentricSolver {
+
+    /**
+     * Bowring's single step formula (the historical behavior of FrameOfReference).
+     */
+    BOWRING(0.5) {
+        @Override
+        public void solve(Ellipsoid ellip, double p, double z, double[] latElev) {
+            double a = ellip.getEquatorialRadius();
+            double b = ellip.getPolarRadius();
+            double es = ellip.getEccentricitySquared();
+            double theta = Math.atan((z * a) / (p * b));
+            double sinTheta = Math.sin(theta);
+            double cosTheta = Math.cos(theta);
+            double phi = Math.atan(
+                    (z + (ellip.get2ndEccentricitySquared() * b * sinTheta * sinTheta * sinTheta)) /
+                            (p - (es * a * cosTheta * cosTheta * cosTheta)));
+            double sinPhi = Math.sin(phi);
+            latElev[0] = phi;
+            latElev[1] = (p / Math.cos(phi)) - (a / Math.sqrt(1.0 - es * sinPhi * sinPhi));
+        }
+    },
+
+    /**
+     * Bowring's formula iterated until the latitude converges.
+     */
+    ITERATIVE(1e-7) {
+        @Override
+        public void solve(Ellipsoid ellip, double p, double z, double[] latElev) {
+            double a = ellip.getEquatorialRadius();
+            double b = ellip.getPolarRadius();
+            double es = ellip.getEccentricitySquared();
+            double ebs = ellip.get2ndEccentricitySquared();
+            double eap = es * a;
+            double ebb = ebs * b;
+            // Start from the reduced latitude of the point's geocentric direction
+            double sinBeta = z * a;
+            double cosBeta = p * b;
+            double phi = 0.0;
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                double r = Math.sqrt(sinBeta * sinBeta + cosBeta * cosBeta);
+                sinBeta /= r;
+                cosBeta /= r;
+                double next = Math.atan2(z + ebb * sinBeta * sinBeta * sinBeta,
+                        p - eap * cosBeta * cosBeta * cosBeta);
+                boolean done = (Math.abs(next - phi) <= CONVERGENCE);
+                phi = next;
+                if (done) break;
+                // Reduced latitude of the new estimate: tan(beta) = (b / a) tan(phi)
+                sinBeta = b * Math.sin(phi);
+                cosBeta = a * Math.cos(phi);
+            }
+            latElev[0] = phi;
+            latElev[1] = stableElevation(a, es, p, z, phi);
+        }
+    },
+
+    /**
+     * Vermeille's closed form solution.
+     */
+    VERMEILLE(1e-7) {
+        @Override
+        public void solve(Ellipsoid ellip, double p, double z, double[] latElev) {
+            double a = ellip.getEquatorialRadius();
+            double es = ellip.getEccentricitySquared();
+            double e4 = es * es;
+            double pp = (p * p) / (a * a);
+            double q = ((1.0 - es) * z * z) / (a * a);
+            double r = (pp + q - e4) / 6.0;
+            double s = (e4 * pp * q) / (4.0 * r * r * r);
+            double t = Math.cbrt(1.0 + s + Math.sqrt(s * (2.0 + s)));
+            double u = r * (1.0 + t + 1.0 / t);
+            double v = Math.sqrt(u * u + e4 * q);
+            double w = es * (u + v - q) / (2.0 * v);
+            double k = Math.sqrt(u + v + w * w) - w;
+            double d = (k * p) / (k + es);
+            double dz = Math.sqrt(d * d + z * z);
+            latElev[0] = 2.0 * Math.atan2(z, d + dz);
+            latElev[1] = ((k + es - 1.0) / k) * dz;
+        }
+    };
+
+    private static final int MAX_ITERATIONS = 10;
+    private static final double CONVERGENCE = 1e-15;    // radians (~ 6 nanometers)
+
+    private final double precision;
+
+    GeocentricSolver(double precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * This method returns the worst case error of this solver, in meters of position, for
+     * points from 1 km below the surface of the earth up to 40,000 km above it.
+     *
+     * @return worst case position error in meters
+     */
+    public double getPrecision() {
+        return precision;
+    }
+
+    /**
+     * This method solves for the geodetic latitude and elevation of a geocentric point,
+     * given its distance from the polar axis and its Z coordinate (longitude is not needed,
+     * since the ellipsoid is symmetric about its axis). Points on the polar axis (p = 0)
+     * must be handled by the caller.
+     *
+     * @param ellip   Ellipsoid model of the earth
+     * @param p       distance from the polar axis in meters, sqrt(X^2 + Y^2), greater than 0
+     * @param z       Z coordinate in meters
+     * @param latElev array to receive the latitude in radians (at index 0) and the elevation
+     *                in meters (at index 1)
+     * @throws NullPointerException if ellip or latElev are null
+     */
+    public abstract void solve(Ellipsoid ellip, double p, double z, double[] latElev);
+
+    /*
+     * Elevation above the ellipsoid for latitude phi, using a form that stays accurate
+     * near the poles (unlike p / cos(phi) - N).
+     */
+    private static double stableElevation(double a, double es, double p, double z, double phi) {
+        double sinPhi = Math.sin(phi);
+        double cosPhi = Math.cos(phi);
+        return p * cosPhi + z * sinPhi - a * Math.sqrt(1.0 - es * sinPhi * sinPhi);
+    }
+}
@@ -0,0 +1,114 @@
+/****************************************************************************************
+ *  GeodesicConstants.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The GeodesicConstants class is an internal cache of the parameters and series
+ * coefficients that the Vincenty solutions of the direct and inverse geodesic problems
+ * (see Geodetic2DArc) need for one Ellipsoid. They depend only on the Ellipsoid, so each
+ * Ellipsoid computes them once, when first needed (see Ellipsoid.getGeodesicConstants).
+ * The values are package-private fields, read only by the geodesic code of this package;
+ * outside it, an instance only tells which Ellipsoid it was made for and its greatest
+ * orthodromic distance. Instances are immutable, and so are safe to share between threads.
+ */
+public final class GeodesicConstants {
+
+    @NonNull private final Ellipsoid ellip;
+
+    // Ellipsoid parameters
+    final double semiMajorAxis, semiMinorAxis, eccentricitySquared;
+    final double f, fo;
+
+    // Meridian arc length series coefficients
+    final double A, B, C, D, E, F;
+    final double maxOrthodromicDistance;
+
+    // Antipodal (equatorial) azimuth series coefficients
+    final double T1, T2, T4, T6;
+
+    // Longitude difference series coefficients
+    final double a01, a02, a03, a21, a22, a23, a42, a43, a63;
+
+    /*
+     * This constructor computes the constants for an Ellipsoid. Use the
+     * Ellipsoid.getGeodesicConstants method to get the shared instance instead.
+     */
+    GeodesicConstants(Ellipsoid ellip) {
+        this.ellip = ellip;
+        semiMajorAxis = ellip.getEquatorialRadius();
+        semiMinorAxis = ellip.getPolarRadius();
+        eccentricitySquared = ellip.getEccentricitySquared();
+
+        // Calculate needed parameters based on the ellipsoid
+        f = ellip.getFlattening();
+        fo = 1.0 - f;
+        double f2 = f * f;
+        double f3 = f * f2;
+        double f4 = f * f3;
+
+        final double E2 = eccentricitySquared;
+        final double E4 = E2 * E2;
+        final double E6 = E4 * E2;
+        final double E8 = E6 * E2;
+        final double EX = E8 * E2;
+
+        A = 1.0 + 0.75 * E2 + 0.703125 * E4 + 0.68359375 * E6 + 0.67291259765625 * E8 + 0.6661834716796875 * EX;
+        B = 0.75 * E2 + 0.9375 * E4 + 1.025390625 * E6 + 1.07666015625 * E8 + 1.1103057861328125 * EX;
+        C = 0.234375 * E4 + 0.41015625 * E6 + 0.538330078125 * E8 + 0.63446044921875 * EX;
+        D = 0.068359375 * E6 + 0.15380859375 * E8 + 0.23792266845703125 * EX;
+        E = 0.01922607421875 * E8 + 0.0528717041015625 * EX;
+        F = 0.00528717041015625 * EX;
+
+        maxOrthodromicDistance = semiMajorAxis * (1.0 - E2) * Math.PI * A - 1.0;
+
+        T1 = 1.0;
+        T2 = -0.25 * f * (1.0 + f + f2);
+        T4 = 0.1875 * f2 * (1.0 + 2.25 * f);
+        T6 = 0.1953125 * f3;
+
+        final double a = f3 * (1.0 + 2.25 * f);
+        a01 = -f2 * (1.0 + f + f2) / 4.0;
+        a02 = 0.1875 * a;
+        a03 = -0.1953125 * f4;
+        a21 = -a01;
+        a22 = -0.25 * a;
+        a23 = 0.29296875 * f4;
+        a42 = 0.03125 * a;
+        a43 = 0.05859375 * f4;
+        a63 = 5.0 * f4 / 768.0;
+    }
+
+    /**
+     * This accessor method returns the Ellipsoid these constants were computed for.
+     *
+     * @return Ellipsoid model of the earth
+     */
+    @NonNull
+    public Ellipsoid getEllipsoid() {
+        return ellip;
+    }
+
+    /**
+     * This accessor method returns the largest distance in meters that may be used in
+     * the direct geodesic problem on this Ellipsoid (about half of a meridian's length).
+     *
+     * @return maximum orthodromic distance in meters
+     */
+    public double getMaxOrthodromicDistance() {
+        return maxOrthodromicDistance;
+    }
+}
@@ -0,0 +1,44 @@
+/****************************************************************************************
+ *  GeodesicSolver.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+/**
+ * The GeodesicSolver enumeration selects the algorithm a Geodetic2DArc uses to solve
+ * the geodesic problems on its Ellipsoid: the inverse problem (distance and azimuth
+ * between two points) and the direct problem (the point at a distance and azimuth from
+ * another):<p/>
+ *
+ * <ul>
+ * <li>VINCENTY is the iterative solution of Vincenty (1975), and the default. It is
+ * accurate to well under a millimeter, but for nearly antipodal points the inverse
+ * solution may fail to converge, in which case an ArithmeticException is thrown.</li>
+ * <li>KARNEY is the solution of Karney (2013), as in GeographicLib (see KarneyGeodesic).
+ * It is accurate to about 15 nanometers, and its inverse solution converges for every
+ * pair of points with a bounded number of steps. It takes about three times as long
+ * as VINCENTY.</li>
+ * </ul>
+ */
+public enum GeodesicSolver {
+
+    /**
+     * Vincenty's iterative solution (the historical behavior of Geodetic2DArc).
+     */
+    VINCENTY,
+
+    /**
+     * Karney's solution, which always converges.
+     */
+    KARNEY
+}
@@ -20,6 +20,8 @@ package org.opensextant.geodesy;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -29,7 +31,8 @@ import java.io.Serializable;
  * a constructor that takes the two points and then calculates the distance and
  * azimuth, as well as a constructor that takes the first point, distance, and
  * azimuth and computes the second point. There are variations that assume the
- * WGS-84 Ellipsoid and ones that allow the user to specify which Ellipsoid to use.
+ * WGS-84 Ellipsoid and ones that allow the user to specify which Ellipsoid to use,
+ * and optionally which GeodesicSolver (Vincenty's, by default, or Karney's).
  * This code was adapted from the open source GeoTools project, having been
  * translated to Java from original Fortran published by NOAA.
  */
@@ -51,13 +54,10 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
     @NonNull private Geodetic2DPoint point2;
     @NonNull private Angle forwardAzimuth;
     private double distanceInMeters;
+    @NonNull private GeodesicSolver solver;
 
-    private double semiMajorAxis, semiMinorAxis, eccentricitySquared;
-    private double f, fo;
-    private double A, B, C, D, E, F;
-    private double maxOrthodromicDistance;
-    private double T1, T2, T4, T6;
-    private double a01, a02, a03, a21, a22, a23, a42, a43, a63;
+    // Series coefficients shared by all arcs on the same Ellipsoid (restored from ellip)
+    private transient GeodesicConstants constants;
 
     /**
      * The default constructor creates a degenerate Geodetic2DArc with both
@@ -66,6 +66,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
     public Geodetic2DArc() {
         Geodetic2DPoint pt = new Geodetic2DPoint();
         this.ellip = WGS84;
+        this.solver = GeodesicSolver.VINCENTY;
         init();
 
         this.point1 = pt;
@@ -94,7 +95,24 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
 	 * @throws NullPointerException if ellip, point1 or point2 are null
      */
     public Geodetic2DArc(Ellipsoid ellip, Geodetic2DPoint point1, Geodetic2DPoint point2) {
+        this(ellip, GeodesicSolver.VINCENTY, point1, point2);
+    }
+
+    /**
+     * This constructor takes the Ellipsoid, the GeodesicSolver and two geodetic points,
+     * and computes the forward azimuth and distance in meters between them.
+     *
+     * @param ellip  Ellipsoid model of the earth to use
+     * @param solver GeodesicSolver to use for this arc
+     * @param point1 first Geodetic2DPoint (fixed)
+     * @param point2 second Geodetic2DPoint (re-settable)
+     * @throws NullPointerException if ellip, solver, point1 or point2 are null
+     */
+    public Geodetic2DArc(Ellipsoid ellip, GeodesicSolver solver, Geodetic2DPoint point1,
+                         Geodetic2DPoint point2) {
+        if (solver == null) throw new NullPointerException("solver");
         this.ellip = ellip;
+        this.solver = solver;
         init();
 
         this.point1 = point1;
@@ -130,7 +148,27 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
      */
     public Geodetic2DArc(Ellipsoid ellip, Geodetic2DPoint point1, double distanceInMeters,
                          Angle forwardAzimuth) {
+        this(ellip, GeodesicSolver.VINCENTY, point1, distanceInMeters, forwardAzimuth);
+    }
+
+    /**
+     * This constructor takes the Ellipsoid model of the earth, the GeodesicSolver, the
+     * first geodetic point, an Angle of forward azimuth, and a distance in meters, and then
+     * computes the second geodetic point that lies at that distance along that azimuth.
+     *
+     * @param ellip            Ellipsoid model of the earth to use
+     * @param solver           GeodesicSolver to use for this arc
+     * @param point1           first Geodetic2DPoint (fixed)
+     * @param distanceInMeters double distance in meters on surface of Ellipsoid
+     * @param forwardAzimuth   Angle from North of azimuth from point 1 to point 2
+     * @throws IllegalArgumentException if error in argument values is detected
+     * @throws NullPointerException if ellip, solver, point1 or forwardAzimuth are null
+     */
+    public Geodetic2DArc(Ellipsoid ellip, GeodesicSolver solver, Geodetic2DPoint point1,
+                         double distanceInMeters, Angle forwardAzimuth) {
+        if (solver == null) throw new NullPointerException("solver");
         this.ellip = ellip;
+        this.solver = solver;
         init();
 
         this.point1 = point1;
@@ -139,58 +177,31 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
 
     // Initialization of parameters based on the Ellipsoid
     private void init() {
-        semiMajorAxis = ellip.getEquatorialRadius();
-        semiMinorAxis = ellip.getPolarRadius();
-        eccentricitySquared = ellip.getEccentricitySquared();
-
-        // Calculate needed parameters based on the ellipsoid
-        f = ellip.getFlattening();
-        fo = 1.0 - f;
-        double f2 = f * f;
-        double f3 = f * f2;
-        double f4 = f * f3;
-
-        final double E2 = eccentricitySquared;
-        final double E4 = E2 * E2;
-        final double E6 = E4 * E2;
-        final double E8 = E6 * E2;
-        final double EX = E8 * E2;
-
-        A = 1.0 + 0.75 * E2 + 0.703125 * E4 + 0.68359375 * E6 + 0.67291259765625 * E8 + 0.6661834716796875 * EX;
-        B = 0.75 * E2 + 0.9375 * E4 + 1.025390625 * E6 + 1.07666015625 * E8 + 1.1103057861328125 * EX;
-        C = 0.234375 * E4 + 0.41015625 * E6 + 0.538330078125 * E8 + 0.63446044921875 * EX;
-        D = 0.068359375 * E6 + 0.15380859375 * E8 + 0.23792266845703125 * EX;
-        E = 0.01922607421875 * E8 + 0.0528717041015625 * EX;
-        F = 0.00528717041015625 * EX;
-
-        maxOrthodromicDistance = semiMajorAxis * (1.0 - E2) * Math.PI * A - 1.0;
-
-        T1 = 1.0;
-        T2 = -0.25 * f * (1.0 + f + f2);
-        T4 = 0.1875 * f2 * (1.0 + 2.25 * f);
-        T6 = 0.1953125 * f3;
-
-        final double a = f3 * (1.0 + 2.25 * f);
-        a01 = -f2 * (1.0 + f + f2) / 4.0;
-        a02 = 0.1875 * a;
-        a03 = -0.1953125 * f4;
-        a21 = -a01;
-        a22 = -0.25 * a;
-        a23 = 0.29296875 * f4;
-        a42 = 0.03125 * a;
-        a43 = 0.05859375 * f4;
-        a63 = 5.0 * f4 / 768.0;
+        constants = ellip.getGeodesicConstants();
+    }
+
+    /*
+     * The shared constants are not serialized, so get them again after reading this object
+     * (arcs serialized before the solver could be selected used Vincenty's)
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (solver == null) solver = GeodesicSolver.VINCENTY;
+        init();
     }
 
     /**
      * Calculate the meridian arc length between two points in the same meridian
      * in the referenced ellipsoid.
      *
+     * @param g  The geodesic constants of the ellipsoid.
      * @param P1 The latitude of the first  point (in radians).
      * @param P2 The latitude of the second point (in radians).
      * @return Returned the meridian arc length between P1 and P2
      */
-    private double getMeridianArcLengthRadians(final double P1, final double P2) {
+    private static double getMeridianArcLengthRadians(final GeodesicConstants g,
+                                                      final double P1, final double P2) {
+        final double A = g.A, B = g.B, C = g.C, D = g.D, E = g.E, F = g.F;
         /*
          * Latitudes P1 and P2 in radians positive North and East.
          * Forward azimuths at both points returned in radians from North.
@@ -218,16 +229,39 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         // Compute the S1 part of the series expansion
         S1 = DA * A;
         // Compute the arc length
-        return Math.abs(semiMajorAxis * (1.0 - eccentricitySquared) * (S1 + S2));
+        return Math.abs(g.semiMajorAxis * (1.0 - g.eccentricitySquared) * (S1 + S2));
     }
 
     private void calcDistanceAndAzimuth() {
-        final double lat1 = point1.getLatitude().inRadians();
-        final double lat2 = point2.getLatitude().inRadians();
+        if (solver == GeodesicSolver.KARNEY) {
+            double[] azimuths = new double[2];
+            distanceInMeters = ellip.getKarneyGeodesic().inverse(point1.getLongitude().inRadians,
+                    point1.getLatitude().inRadians, point2.getLongitude().inRadians,
+                    point2.getLatitude().inRadians, azimuths);
+            forwardAzimuth = new Angle(azimuths[0]);
+            return;
+        }
+        double[] azimuth = new double[1];
+        distanceInMeters = inverse(constants, point1.getLongitude().inRadians, point1.getLatitude().inRadians,
+                point2.getLongitude().inRadians, point2.getLatitude().inRadians, azimuth);
+        forwardAzimuth = new Angle(azimuth[0]);
+    }
 
-        Angle lon1 = point1.getLongitude();
-        Angle lon2 = point2.getLongitude();
-        final double dlon = lon1.difference(lon2).inRadians();
+    /*
+     * This method solves the inverse problem for two points given in radians, returning the
+     * distance in meters and storing the forward azimuth in radians in azimuth[0] (unless
+     * azimuth is null).  It only reads the immutable constants, so it is safe to call from
+     * several threads at once.
+     */
+    static double inverse(final GeodesicConstants g, final double lon1, final double lat1,
+                          final double lon2, final double lat2, final double[] azimuth) {
+        final double semiMajorAxis = g.semiMajorAxis, semiMinorAxis = g.semiMinorAxis;
+        final double eccentricitySquared = g.eccentricitySquared;
+        final double f = g.f, fo = g.fo;
+        final double T1 = g.T1, T2 = g.T2, T4 = g.T4, T6 = g.T6;
+        final double a01 = g.a01, a02 = g.a02, a03 = g.a03, a21 = g.a21, a22 = g.a22, a23 = g.a23;
+        final double a42 = g.a42, a43 = g.a43, a63 = g.a63;
+        final double dlon = Angle.normalize(lon2 - lon1);
 
         /*
          * Solution of the geodetic inverse problem after T.Vincenty.
@@ -248,9 +282,8 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
          */
         final double ss = Math.abs(dlon);
         if (ss < TOLERANCE_1) {
-            distanceInMeters = getMeridianArcLengthRadians(lat1, lat2);
-            forwardAzimuth = new Angle((lat2 > lat1) ? 0.0 : Math.PI);
-            return;
+            if (azimuth != null) azimuth[0] = (lat2 > lat1) ? 0.0 : Math.PI;
+            return getMeridianArcLengthRadians(g, lat1, lat2);
         }
         /*
          * Compute the limit in longitude (alimit), it is equal
@@ -270,8 +303,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
             int iter = 0;
             do {
                 if (++iter > 8) {
-                    String pts = point1.toString() + " to " + point2.toString();
-                    throw new ArithmeticException(NOCONVERGE + pts);
+                    throw new ArithmeticException(NOCONVERGE + points(lon1, lat1, lon2, lat2));
                 }
                 S = Math.cos(AZ);
                 final double C2 = S * S;
@@ -284,7 +316,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
             } while (Math.abs(S - AZ_TEMP) >= TOLERANCE_2);
 
             final double AZ1 = (dlon < 0.0) ? 2.0 * Math.PI - S : S;
-            forwardAzimuth = new Angle(AZ1);
+            if (azimuth != null) azimuth[0] = AZ1;
             // not sure what AZ2 is or why it is not used (could it be reverseAzimuth?)
             //final double AZ2 = 2.0 * Math.PI - AZ1;
             S = Math.cos(AZ1);
@@ -301,8 +333,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
                     -0.01068115234375 * U8;
             S = Math.sin(AZ1);
             final double SMS = semiMajorAxis * Math.PI * (1.0 - f * Math.abs(S) * AO - BO * fo);
-            distanceInMeters = semiMajorAxis * ss - SMS;
-            return;
+            return semiMajorAxis * ss - SMS;
         }
 
         // the reduced latitudes
@@ -316,8 +347,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         int kcount = 0;
         do {
             if (++kcount > 8) {
-                String pts = point1.toString() + " to " + point2.toString();
-                throw new ArithmeticException(NOCONVERGE + pts);
+                throw new ArithmeticException(NOCONVERGE + points(lon1, lat1, lon2, lat2));
             }
             clon = Math.cos(ab);
             slon = Math.sin(ab);
@@ -360,7 +390,8 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         final double b6 = z * z * z * (-1.0 / 1536.0 + z * (5.0 / 6144.0));
 
         // The distance in ellispoid axis units.
-        distanceInMeters = semiMinorAxis * (bo * sig + b2 * ssig * q2 + b4 * r2 * q4 + b6 * r3 * q6);
+        final double distance = semiMinorAxis * (bo * sig + b2 * ssig * q2 + b4 * r2 * q4 + b6 * r3 * q6);
+        if (azimuth == null) return distance;
         double az1 = (dlon < 0) ? Math.PI * (3 / 2) : Math.PI / 2;
 
         // now compute the az1 & az2 for latitudes not on the equator
@@ -371,16 +402,51 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
             // azimuths from north, longitudes positive east
             az1 = Math.atan2(sina1, sina1 / tana1);
         }
-        forwardAzimuth = new Angle(az1);
+        azimuth[0] = az1;
+        return distance;
+    }
+
+    /* Describe the points of an arc given in radians (for error messages) */
+    private static String points(double lon1, double lat1, double lon2, double lat2) {
+        return new Geodetic2DPoint(new Longitude(lon1), new Latitude(lat1)).toString() + " to " +
+                new Geodetic2DPoint(new Longitude(lon2), new Latitude(lat2)).toString();
     }
 
     private void calcPoint2() {
         final double azimuth = forwardAzimuth.inRadians();
-
         final double lat1 = point1.getLatitude().inRadians();
         final double lon1 = point1.getLongitude().inRadians();
-        final double lat2;
-        final double lon2;
+        double[] lonLat = new double[2];
+        if (solver == GeodesicSolver.KARNEY) {
+            ellip.getKarneyGeodesic().direct(lon1, lat1, azimuth, distanceInMeters, lonLat);
+        } else {
+            direct(constants, lon1, reducedTan(constants, lat1), Math.sin(azimuth), Math.cos(azimuth),
+                    distanceInMeters, lonLat);
+        }
+        point2 = new Geodetic2DPoint(new Longitude(lonLat[0]), new Latitude(lonLat[1]));
+    }
+
+    /*
+     * This method returns the tangent of the reduced latitude of a point, given its latitude
+     * in radians, which is all that the direct method needs to know about the latitude of
+     * point 1.  Callers solving many direct problems from one point compute it once.
+     */
+    static double reducedTan(final GeodesicConstants g, final double lat1) {
+        return g.fo * Math.sin(lat1) / Math.cos(lat1);
+    }
+
+    /*
+     * This method solves the direct problem from point 1 for a forward azimuth given by its
+     * sine and cosine, storing the longitude and latitude of point 2 in radians in lonLat[0]
+     * and lonLat[1].  The longitude is not normalized.  Point 1 is given by its longitude in
+     * radians and the tangent of its reduced latitude (see reducedTan).  It only reads the
+     * immutable constants, so it is safe to call from several threads at once.
+     */
+    static void direct(final GeodesicConstants g, final double lon1, final double tanU1,
+                       final double SF, final double CF, final double distanceInMeters,
+                       final double[] lonLat) {
+        final double semiMajorAxis = g.semiMajorAxis;
+        final double f = g.f, fo = g.fo;
 
         /*
         * Solution of the geodetic direct problem after T.Vincenty.
@@ -397,9 +463,7 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         * Source: ftp://ftp.ngs.noaa.gov/pub/pcsoft/for_inv.3d/source/forward.for
         *         subroutine DIRECT1
         */
-        double TU = fo * Math.sin(lat1) / Math.cos(lat1);
-        double SF = Math.sin(azimuth);
-        double CF = Math.cos(azimuth);
+        double TU = tanU1;
         double BAZ = (CF != 0) ? Math.atan2(TU, CF) * 2.0 : 0;
         double CU = 1 / Math.sqrt(TU * TU + 1.0);
         double SU = TU * CU;
@@ -426,17 +490,24 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         BAZ = CU * CY * CF - SU * SY;
         C = fo * Math.sqrt(SA * SA + BAZ * BAZ);
         D = SU * CY + CU * SY * CF;
-        lat2 = Math.atan2(D, C);
+        lonLat[1] = Math.atan2(D, C);
         C = CU * CY - SU * SY * CF;
         X = Math.atan2(SY * SF, C);
         C = ((-3.0 * C2A + 4.0) * f + 4.0) * C2A * f / 16.0;
         D = ((E * CY * C + CZ) * SY * C + Y) * SA;
-        lon2 = lon1 + X - (1.0 - C) * D * f;
-        point2 = new Geodetic2DPoint(new Longitude(lon2), new Latitude(lat2));
+        lonLat[0] = lon1 + X - (1.0 - C) * D * f;
     }
 
     // Valid range checker for distance in meters
     private void validateDistance(double distanceInMeters) {
+        validateDistance(constants, distanceInMeters);
+    }
+
+    /*
+     * Valid range checker for distance in meters on the Ellipsoid of the constants
+     */
+    static void validateDistance(final GeodesicConstants g, double distanceInMeters) {
+        double maxOrthodromicDistance = g.maxOrthodromicDistance;
         if (distanceInMeters < 0.0 || distanceInMeters > maxOrthodromicDistance)
             throw new IllegalArgumentException("Distance is out of legal range (0 .. " +
                     maxOrthodromicDistance + ")");
@@ -452,6 +523,16 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         return point1;
     }
 
+    /**
+     * This method returns the GeodesicSolver used to compute this Geodetic2DArc object.
+     *
+     * @return GeodesicSolver of this arc
+     */
+    @NonNull
+    public GeodesicSolver getGeodesicSolver() {
+        return solver;
+    }
+
     /**
      * This method returns the re-settable geodetic point 2 of this Geodetic2DArc object.
      *
@@ -537,6 +618,52 @@ public class Geodetic2DArc implements Serializable, Comparable<Geodetic2DArc> {
         calcPoint2();
     }
 
+    /**
+     * This method computes the distance in meters along each segment of a path, given as
+     * the points of a GeodeticPointBuffer in order, on the surface of the specified Ellipsoid.
+     * The distance from point i to point i + 1 is stored in distances[i], so (points.size() - 1)
+     * values are stored.  The distances are the same as those of Geodetic2DArc objects made
+     * from each pair of points, but no objects are created for them.
+     *
+     * @param ellip     Ellipsoid model of the earth to use
+     * @param points    geodetic points along the path (elevations are ignored)
+     * @param distances array to receive the distance in meters of each segment
+     * @return total length of the path in meters
+     * @throws IllegalArgumentException if distances is shorter than the number of segments
+     * @throws ArithmeticException if the distance calculation fails to converge for a segment
+     * @throws NullPointerException if ellip, points or distances are null
+     */
+    public static double segmentDistances(Ellipsoid ellip, GeodeticPointBuffer points, double[] distances) {
+        int n = points.size() - 1;
+        if (distances.length < n)
+            throw new IllegalArgumentException("Array length is less than the number of segments (" + n + ")");
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            double d = ellip.vincentyDistance(lon[i], lat[i], lon[i + 1], lat[i + 1]);
+            distances[i] = d;
+            total += d;
+        }
+        return total;
+    }
+
+    /**
+     * This method computes the distance in meters along each segment of a path, given as
+     * the points of a GeodeticPointBuffer in order, on the surface of the WGS-84 Ellipsoid.
+     * See the segmentDistances method taking an Ellipsoid for details.
+     *
+     * @param points    geodetic points along the path (elevations are ignored)
+     * @param distances array to receive the distance in meters of each segment
+     * @return total length of the path in meters
+     * @throws IllegalArgumentException if distances is shorter than the number of segments
+     * @throws ArithmeticException if the distance calculation fails to converge for a segment
+     * @throws NullPointerException if points or distances are null
+     */
+    public static double segmentDistances(GeodeticPointBuffer points, double[] distances) {
+        return segmentDistances(WGS84, points, distances);
+    }
+
     /**
      * Compares this Geodetic2DArc with the specified Geodetic2DArc for order. Returns a
      * negative integer, zero, or a positive integer as this arc's length is less than,
@@ -19,6 +19,7 @@
 package org.opensextant.geodesy;
 
 import java.io.Serializable;
+import java.util.BitSet;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import org.slf4j.Logger;
@@ -37,6 +38,15 @@ public class Geodetic2DBounds implements Serializable {
 	
     private static final long serialVersionUID = 1L;
     private static final Logger log = LoggerFactory.getLogger(Geodetic2DBounds.class);
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+    // East limit of analytic bounds spanning all longitudes, so that they contain every
+    // longitude from -PI (East of PI itself normalizes to -PI, making an empty interval)
+    private static final double ALL_EAST = Math.nextAfter(Math.PI, 0.0);
+    // Ellipses larger than this fraction of their distance to a pole are near the pole
+    private static final double NEAR_POLE = 0.25;
+    // Meters by which analytic circle and ellipse bounds are moved outward, to cover the
+    // error in locating their extremes and the difference between the geodesic solutions
+    private static final double MARGIN = 0.001;
 
 	@NonNull private Longitude westLon;
     @NonNull private Latitude southLat;
@@ -145,36 +155,461 @@ public class Geodetic2DBounds implements Serializable {
     /**
      * This constructor takes a geodetic center point and radius in meters, and
      * constructs a new Geodetic2DBounds bounding box that inscribes (contains)
-     * the specified circle, constructed by iterating around the compass points
-     * South, West, North, and East on the boundary of the specified circle.
-
+     * the specified circle on the WGS-84 Ellipsoid.  The bounds are computed
+     * analytically rather than from points on the boundary: the North and South
+     * limits are where the meridian of the center meets the circle, and the East
+     * and West limits are the points where the geodesic from the center runs due
+     * East or West.  The limits are then moved outward by a millimeter, so that the
+     * bounds contain every boundary point computed with either geodesic solution.  If
+     * the circle contains a pole, the bounds reach that pole and span all longitudes.
+     * A box that crosses the date line has a west longitude greater than its east
+     * longitude, as usual.
+     *
      * @param center Geodetic2DPoint at the center of the inscribed circle
      * @param radius double radius (in meters) of the inscribed circle
+     * @throws IllegalArgumentException if radius is out of the legal range of a
+     *                                  Geodetic2DArc distance
      * @throws NullPointerException if center is null
      */
     public Geodetic2DBounds(Geodetic2DPoint center, double radius) {
-        this(center, radius, 4);
+        Geodetic2DArc.validateDistance(WGS84.getGeodesicConstants(), radius);
+        setCircleBounds(center, radius);
     }
 
     /**
      * This constructor takes a geodetic 2D circle and constructs a new
      * Geodetic2DBounds bounding box that inscribes (contains) the specified
-     * circle.
+     * circle, computed analytically as by the constructor taking a center and
+     * radius.
      *
      * @param circle Geodetic2DCircle to be inscribed in bounding box
+     * @throws IllegalArgumentException if the radius is out of the legal range of
+     *                                  a Geodetic2DArc distance
      * @throws NullPointerException if circle is null
      */
     public Geodetic2DBounds(Geodetic2DCircle circle) {
-        this(circle.getCenter(), circle.getRadius(), 4);
+        this(circle.getCenter(), circle.getRadius());
     }
     
     /**
-     * Ctor to create a bounding box around an ellipse. 
+     * Ctor to create a bounding box around an ellipse, computed analytically rather
+     * than from points on its boundary.  The ellipse contains a pole exactly when the
+     * pole lies inside it in the azimuthal equidistant projection centered on the
+     * ellipse (where the ellipse is a plane ellipse), and then the bounds reach that pole
+     * and span all longitudes.  Otherwise each of the four extremes is located on the
+     * boundary using spherical trigonometry, starting from the extremes of the plane
+     * ellipse, and then computed with a geodesic solution on the WGS-84 Ellipsoid, so the
+     * limits are those of true boundary points.  Because the limits are stationary at the
+     * extremes, the small error in locating them on the sphere leaves them less than a
+     * millimeter inside the boundary for ellipses up to 100 km (larger ones are corrected
+     * to the same accuracy with a few more geodesic solutions per extreme), so they are
+     * moved outward by a millimeter to make sure the bounds contain the ellipse (and by
+     * more for very thin ellipses, whose boundary points carry a larger rounding error).
+     *
      * @param ellipse the ellipse, never <code>null</code>
+     * @throws IllegalArgumentException if the semi major or semi minor axis is out of the
+     *                                  legal range of a Geodetic2DArc distance
 	 * @throws NullPointerException if ellipse is null
      */
     public Geodetic2DBounds(Geodetic2DEllipse ellipse) {
-    	this(ellipse, 12);
+        GeodesicConstants g = WGS84.getGeodesicConstants();
+        double a = ellipse.getSemiMajorAxis();
+        double b = ellipse.getSemiMinorAxis();
+        Geodetic2DArc.validateDistance(g, a);
+        Geodetic2DArc.validateDistance(g, b);
+        Geodetic2DPoint center = ellipse.getCenter();
+        double lon0 = center.getLongitude().inRadians;
+        double lat0 = center.getLatitude().inRadians;
+        EllipseExtremes ext = new EllipseExtremes(lat0, a, b, ellipse.getOrientation().inRadians);
+        boolean northPole = false;
+        boolean southPole = false;
+        boolean search = false;
+        // The meridian radius of curvature is least at the equator
+        double axis = Math.max(a, b);
+        double minPoleDistance = (Math.PI / 2 - Math.abs(lat0)) *
+                WGS84.getEquatorialRadius() * (1.0 - WGS84.getEccentricitySquared());
+        if (axis > NEAR_POLE * minPoleDistance) {
+            KarneyGeodesic geodesic = WGS84.getKarneyGeodesic();
+            double toNorthPole = geodesic.poleDistance(lat0);
+            double toSouthPole = geodesic.poleDistance(-lat0);
+            northPole = ext.contains(0.0, toNorthPole);
+            southPole = ext.contains(0.0, -toSouthPole);
+            // Close to a pole, search all around the boundary for the extremes
+            search = axis > NEAR_POLE * Math.min(toNorthPole, toSouthPole);
+        }
+        double tanU1 = Geodetic2DArc.reducedTan(g, lat0);
+        double[] lonLat = new double[2];
+        double north = Math.PI / 2;
+        double south = -Math.PI / 2;
+        if (!northPole) {
+            ext.locate(g, lon0, tanU1, EllipseExtremes.NORTH, search, lonLat);
+            north = lonLat[1];
+        }
+        if (!southPole) {
+            ext.locate(g, lon0, tanU1, EllipseExtremes.SOUTH, search, lonLat);
+            south = lonLat[1];
+        }
+        double west = Double.NaN;
+        double east = Double.NaN;
+        if (!northPole && !southPole && !(search && ext.wraps())) {
+            ext.locate(g, lon0, tanU1, EllipseExtremes.WEST, search, lonLat);
+            west = lonLat[0];
+            ext.locate(g, lon0, tanU1, EllipseExtremes.EAST, search, lonLat);
+            east = lonLat[0];
+        }
+        // The boundary points of a thin ellipse carry a rounding error of about
+        // a ulp (a / b)^2 from its eccentricity, which the bounds must also contain
+        double margin = MARGIN;
+        if (b > 0.0) margin += a * Math.ulp(1.0) * (a / b) * (a / b);
+        setOutwardBounds(west, south, east, north, margin);
+    }
+
+    /*
+     * Set the limits to the analytic bounds of the circle of the given radius around center
+     */
+    private void setCircleBounds(Geodetic2DPoint center, double radius) {
+        KarneyGeodesic geodesic = WGS84.getKarneyGeodesic();
+        double lon0 = center.getLongitude().inRadians;
+        double lat0 = center.getLatitude().inRadians;
+        double north = geodesic.meridianLatitude(lat0, radius);
+        double south = geodesic.meridianLatitude(lat0, -radius);
+        double dLon = Double.NaN;
+        if (Double.isNaN(north) || Double.isNaN(south)) {
+            // Contains a pole
+            if (Double.isNaN(north)) north = Math.PI / 2;
+            if (Double.isNaN(south)) south = -Math.PI / 2;
+        } else {
+            dLon = geodesic.circleLongitudeExtent(lat0, radius);
+        }
+        setOutwardBounds(lon0 - dLon, south, lon0 + dLon, north, MARGIN);
+    }
+
+    /*
+     * Set the limits to the given ones (with the longitudes not normalized, and NaN for all
+     * longitudes) moved outward by margin meters.  The latitudes are moved by margin over
+     * the least meridian radius of curvature, and the longitudes by that over the cosine
+     * of the most poleward latitude, which is less than margin over the parallel radius
+     * there, so the result always contains the given limits grown by margin meters.
+     */
+    private void setOutwardBounds(double west, double south, double east, double north, double margin) {
+        double dLat = margin / (WGS84.getEquatorialRadius() * (1.0 - WGS84.getEccentricitySquared()));
+        north = Math.min(north + dLat, Math.PI / 2);
+        south = Math.max(south - dLat, -Math.PI / 2);
+        double dLon = dLat / Math.cos(Math.max(north, -south));
+        if (east - west + 2.0 * dLon < Angle.TWO_PI) {
+            westLon = new Longitude(west - dLon);
+            eastLon = new Longitude(east + dLon);
+        } else {
+            // All longitudes (also when they are NaN, or the bounds reach a pole)
+            westLon = new Longitude(-Math.PI);
+            eastLon = new Longitude(ALL_EAST);
+        }
+        southLat = new Latitude(south);
+        northLat = new Latitude(north);
+    }
+
+    /*
+     * Locates the extremes of an ellipse boundary.  In the azimuthal equidistant projection
+     * centered on the ellipse, the boundary is the plane ellipse a cos(t) u + b sin(t) v for
+     * the unit vectors u along the semi major axis (at azimuth omega) and v along the semi
+     * minor axis.  The latitude and longitude of each boundary point are approximated on a
+     * sphere with the Gaussian mean radius of curvature at the center.  Each extreme of
+     * those functions of t is found by the secant method on their derivatives, starting
+     * from the corresponding extreme of the plane ellipse, or near a pole (where that start
+     * may be poor) by sampling all around the boundary and refining by golden section
+     * search.  The boundary point at the final t is then computed on the ellipsoid.  When
+     * searching a large ellipse, every sample that is a local extreme is refined, since
+     * the sphere can favor the wrong one of two nearly equal extremes.
+     */
+    private static final class EllipseExtremes {
+        static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3;
+        private static final int SAMPLES = 16;
+        private static final int ITERATIONS = 24;
+        private static final double GOLDEN = (Math.sqrt(5.0) - 1.0) / 2.0;
+        private static final int SECANT_ITERATIONS = 10;
+        private static final double SECANT_TOLERANCE = 1e-6;
+        // Semi major axis above which the extremes are corrected for the sphere
+        private static final double CORRECTED_AXIS = 100000.0;
+        private static final double DELTA = 0.01;
+        private static final double MIN_DELTA = 1e-6;
+        private static final double STEP_TOLERANCE = 1e-3;
+        private static final int CORRECTIONS = 16;
+
+        private final double a, b, ue, un, ve, vn;
+        private final double sinLat0, cosLat0, radius;
+        // Latitude sine and longitude offset of each sample on the sphere, when searching
+        private double[] sinLat;
+        private double[] dLon;
+
+        EllipseExtremes(double lat0, double a, double b, double omega) {
+            this.a = a;
+            this.b = b;
+            ue = Math.sin(omega);
+            un = Math.cos(omega);
+            ve = un;
+            vn = -ue;
+            sinLat0 = Math.sin(lat0);
+            cosLat0 = Math.cos(lat0);
+            double w2 = 1.0 - WGS84.getEccentricitySquared() * sinLat0 * sinLat0;
+            radius = WGS84.getEquatorialRadius() * Math.sqrt(1.0 - WGS84.getEccentricitySquared()) / w2;
+        }
+
+        /* Whether the projected point (east, north) in meters is inside the ellipse */
+        boolean contains(double east, double north) {
+            double x = east * ue + north * un;
+            double y = east * ve + north * vn;
+            return Math.abs(x) <= a && (x * b) * (x * b) + (y * a) * (y * a) <= (a * b) * (a * b);
+        }
+
+        /* Whether the longitude offset from the center reaches 180 degrees between samples */
+        boolean wraps() {
+            sample();
+            for (int i = 0; i < SAMPLES; i++) {
+                if (Math.abs(dLon[i] - dLon[(i + 1) % SAMPLES]) > Math.PI) return true;
+            }
+            return false;
+        }
+
+        /*
+         * Locate the extreme in the given direction and compute its boundary point into lonLat,
+         * with the longitude not normalized
+         */
+        void locate(GeodesicConstants g, double lon0, double tanU1, int direction, boolean search,
+                    double[] lonLat) {
+            int k = (direction == NORTH || direction == SOUTH) ? 1 : 0;
+            double sign = (direction == SOUTH || direction == WEST) ? -1.0 : 1.0;
+            double t = search ? Double.NaN : solve(direction);
+            if (!Double.isNaN(t)) {
+                lonLat[k] = sign * extreme(g, lon0, tanU1, direction, false, t, lonLat);
+                return;
+            }
+            sample();
+            int best = 0;
+            for (int i = 1; i < SAMPLES; i++) {
+                if (sampleValue(direction, i) > sampleValue(direction, best)) best = i;
+            }
+            double value = extreme(g, lon0, tanU1, direction, search, search(direction, best), lonLat);
+            if (a > CORRECTED_AXIS) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    double v = sampleValue(direction, i);
+                    if (i == best || v < sampleValue(direction, (i + SAMPLES - 1) % SAMPLES) ||
+                            v < sampleValue(direction, (i + 1) % SAMPLES)) continue;
+                    value = Math.max(value, extreme(g, lon0, tanU1, direction, search,
+                            search(direction, i), lonLat));
+                }
+            }
+            lonLat[k] = sign * value;
+        }
+
+        /*
+         * The extreme in the given direction on the ellipsoid (negated for South and West),
+         * starting from its location t on the sphere, using lonLat for the boundary points
+         */
+        private double extreme(GeodesicConstants g, double lon0, double tanU1, int direction,
+                               boolean search, double t, double[] lonLat) {
+            int k = (direction == NORTH || direction == SOUTH) ? 1 : 0;
+            double sign = (direction == SOUTH || direction == WEST) ? -1.0 : 1.0;
+            if (a <= CORRECTED_AXIS) {
+                point(g, lon0, tanU1, t, lonLat);
+                return sign * lonLat[k];
+            }
+            // Correct for the sphere with parabolas through points on the ellipsoid, moving
+            // to the vertex of each.  One is enough unless the sphere misplaces the extreme by
+            // more than the spacing of the points (for very large ellipses), or the extreme is
+            // near a pole, where it can be a sharp peak that needs closer spacing to resolve.
+            double best = Double.NEGATIVE_INFINITY;
+            double h = DELTA;
+            for (int i = 0; i < CORRECTIONS && h >= MIN_DELTA; i++) {
+                point(g, lon0, tanU1, t - h, lonLat);
+                double y0 = sign * lonLat[k];
+                point(g, lon0, tanU1, t + h, lonLat);
+                double y2 = sign * lonLat[k];
+                point(g, lon0, tanU1, t, lonLat);
+                double y1 = sign * lonLat[k];
+                double curvature = y0 - 2.0 * y1 + y2;
+                best = Math.max(best, Math.max(y1, Math.max(y0, y2)));
+                double step = (curvature < 0.0) ? h * (y0 - y2) / (2.0 * curvature) : Double.NaN;
+                if (!(Math.abs(step) <= h)) {
+                    // No vertex between the points, so move toward the greater one
+                    if (y0 == y2) break;
+                    t += (y2 > y0) ? h : -h;
+                    continue;
+                }
+                best = Math.max(best, y1 - (y2 - y0) * (y2 - y0) / (8.0 * curvature));
+                if (!search && Math.abs(step) < STEP_TOLERANCE) break;
+                t += step;
+                if (Math.abs(step) < h / 2.0) h /= 4.0;
+            }
+            return best;
+        }
+
+        /*
+         * Solve for t at the extreme in the given direction by the secant method, starting
+         * from the extreme of the plane ellipse, returning NaN if it does not converge nearby
+         * to a maximum (minimum for South and West)
+         */
+        private double solve(int direction) {
+            boolean minimum = direction == SOUTH || direction == WEST;
+            double t0 = (direction == NORTH || direction == SOUTH) ?
+                    Math.atan2(b * vn, a * un) : Math.atan2(b * ve, a * ue);
+            if (minimum) t0 += Math.PI;
+            double d0 = derivative(direction, t0);
+            double t1 = t0 + 1e-3;
+            double d1 = derivative(direction, t1);
+            for (int i = 0; i < SECANT_ITERATIONS; i++) {
+                if (d1 == d0) return t1;
+                double slope = (d1 - d0) / (t1 - t0);
+                // The derivative decreases through a maximum and increases through a minimum
+                if ((minimum ? slope < 0.0 : slope > 0.0) && Math.abs(t1 - t0) > 1e-6) break;
+                double dt = -d1 / slope;
+                if (Math.abs(dt) > 0.5) break;
+                t0 = t1;
+                d0 = d1;
+                t1 += dt;
+                if (Math.abs(dt) < SECANT_TOLERANCE) return t1;
+                d1 = derivative(direction, t1);
+            }
+            return Double.NaN;
+        }
+
+        /*
+         * Derivative with t of the sine of the latitude (North and South), or of a positive
+         * multiple of the derivative of the longitude offset (West and East), on the sphere
+         */
+        private double derivative(int direction, double t) {
+            double cosT = Math.cos(t);
+            double sinT = Math.sin(t);
+            double x = a * cosT;
+            double y = b * sinT;
+            double dx = -a * sinT;
+            double dy = b * cosT;
+            double s = Math.hypot(x, y);
+            if (s == 0.0) return 0.0;
+            double ds = (x * dx + y * dy) / s;
+            double north = x * un + y * vn;
+            double dNorth = dx * un + dy * vn;
+            double sigma = s / radius;
+            double sinSigma = Math.sin(sigma);
+            double cosSigma = Math.cos(sigma);
+            // sin(sigma) / s and its derivative with s
+            double q = sinSigma / s;
+            double dq = (cosSigma / radius - q) / s;
+            double sinLat = sinLat0 * cosSigma + cosLat0 * north * q;
+            double dSinLat = -sinLat0 * sinSigma * ds / radius + cosLat0 * (dNorth * q + north * dq * ds);
+            if (direction == NORTH || direction == SOUTH) return dSinLat;
+            // The longitude offset is atan2(ny, nx), whose derivative has the sign of
+            // nx * dny - ny * dnx
+            double east = x * ue + y * ve;
+            double dEast = dx * ue + dy * ve;
+            double ny = cosLat0 * east * q;
+            double dny = cosLat0 * (dEast * q + east * dq * ds);
+            double nx = cosSigma - sinLat0 * sinLat;
+            double dnx = -sinSigma * ds / radius - sinLat0 * dSinLat;
+            return nx * dny - ny * dnx;
+        }
+
+        /* Sample the latitude and longitude offset all around the boundary, once */
+        private void sample() {
+            if (sinLat != null) return;
+            sinLat = new double[SAMPLES];
+            dLon = new double[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                double t = i * Angle.TWO_PI / SAMPLES;
+                sinLat[i] = sinLat(t);
+                dLon[i] = dLon(t);
+            }
+        }
+
+        /*
+         * Search for t at the extreme in the given direction, by golden section search within a
+         * sample of the given sample
+         */
+        private double search(int direction, int sample) {
+            double step = Angle.TWO_PI / SAMPLES;
+            double lo = (sample - 1) * step;
+            double hi = (sample + 1) * step;
+            double t1 = hi - GOLDEN * (hi - lo);
+            double t2 = lo + GOLDEN * (hi - lo);
+            double v1 = value(direction, t1);
+            double v2 = value(direction, t2);
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (v1 < v2) {
+                    lo = t1;
+                    t1 = t2;
+                    v1 = v2;
+                    t2 = lo + GOLDEN * (hi - lo);
+                    v2 = value(direction, t2);
+                } else {
+                    hi = t2;
+                    t2 = t1;
+                    v2 = v1;
+                    t1 = hi - GOLDEN * (hi - lo);
+                    v1 = value(direction, t1);
+                }
+            }
+            return (lo + hi) / 2.0;
+        }
+
+        /* Compute the boundary point at t on the ellipsoid into lonLat */
+        private void point(GeodesicConstants g, double lon0, double tanU1, double t, double[] lonLat) {
+            double x = a * Math.cos(t);
+            double y = b * Math.sin(t);
+            double east = x * ue + y * ve;
+            double north = x * un + y * vn;
+            double s = Math.hypot(east, north);
+            if (s == 0.0) {
+                lonLat[0] = lon0;
+                lonLat[1] = Math.atan(tanU1 / g.fo);
+            } else {
+                Geodetic2DArc.direct(g, lon0, tanU1, east / s, north / s, s, lonLat);
+            }
+        }
+
+        /* The value to maximize of a sample in the given direction */
+        private double sampleValue(int direction, int i) {
+            switch (direction) {
+                case NORTH: return sinLat[i];
+                case SOUTH: return -sinLat[i];
+                case WEST: return -dLon[i];
+                default: return dLon[i];
+            }
+        }
+
+        /* The value to maximize at t in the given direction */
+        private double value(int direction, double t) {
+            switch (direction) {
+                case NORTH: return sinLat(t);
+                case SOUTH: return -sinLat(t);
+                case WEST: return -dLon(t);
+                default: return dLon(t);
+            }
+        }
+
+        /* Sine of the latitude of the boundary point at t, on the sphere */
+        private double sinLat(double t) {
+            double x = a * Math.cos(t);
+            double y = b * Math.sin(t);
+            double north = x * un + y * vn;
+            double s = Math.hypot(x, y);
+            if (s == 0.0) return sinLat0;
+            double sigma = s / radius;
+            return sinLat0 * Math.cos(sigma) + cosLat0 * Math.sin(sigma) * (north / s);
+        }
+
+        /* Longitude offset from the center of the boundary point at t, on the sphere */
+        private double dLon(double t) {
+            double x = a * Math.cos(t);
+            double y = b * Math.sin(t);
+            double east = x * ue + y * ve;
+            double north = x * un + y * vn;
+            double s = Math.hypot(x, y);
+            if (s == 0.0) return 0.0;
+            double sigma = s / radius;
+            double sinSigma = Math.sin(sigma);
+            double cosSigma = Math.cos(sigma);
+            double sinLat = sinLat0 * cosSigma + cosLat0 * sinSigma * (north / s);
+            return Math.atan2(sinSigma * (east / s) * cosLat0, cosSigma - sinLat0 * sinLat);
+        }
     }
 
     /**
@@ -231,6 +666,59 @@ public class Geodetic2DBounds implements Serializable {
         else if (southLat.inRadians > latRad) southLat = lat;
     }
 
+    /**
+     * This method is used to extend this bounding box to include every point of a
+     * GeodeticPointBuffer.  The result is the same as calling include for each point in
+     * turn, but the edges are tracked as primitive values, so at most four Longitude and
+     * Latitude objects are created for the whole buffer.
+     *
+     * @param points GeodeticPointBuffer of points to include in bounding box.
+     * @throws NullPointerException if points is null
+     */
+    public void include(GeodeticPointBuffer points) {
+        int n = points.size();
+        double[] lons = points.getLongitudes();
+        double[] lats = points.getLatitudes();
+        double west = westLon.inRadians, east = eastLon.inRadians;
+        double south = southLat.inRadians, north = northLat.inRadians;
+        for (int i = 0; i < n; i++) {
+            double lon = lons[i];
+            if (!inInterval(lon, west, east)) {
+                double headDist = radiansEast(east, lon);
+                double tailDist = radiansEast(lon, west);
+                // if equidistant, prefer smaller lon value
+                // to be west end of new interval
+                if (headDist < tailDist) east = lon;
+                else if (tailDist < headDist) west = lon;
+                else if (west < lon) east = lon;
+                else west = lon;
+            }
+            double lat = lats[i];
+            if (north < lat) north = lat;
+            else if (south > lat) south = lat;
+        }
+        if (west != westLon.inRadians) westLon = new Longitude(west);
+        if (east != eastLon.inRadians) eastLon = new Longitude(east);
+        if (south != southLat.inRadians) southLat = new Latitude(south);
+        if (north != northLat.inRadians) northLat = new Latitude(north);
+    }
+
+    /*
+     * Primitive equivalent of Longitude.inInterval, for normalized radians (which are
+     * always within [-PI, PI), so the wrapped case needs no limits). Non short circuit
+     * operators leave the date line case as the only branch.
+     */
+    static boolean inInterval(double testRad, double westRad, double eastRad) {
+        return (westRad <= eastRad) ? (westRad <= testRad) & (testRad <= eastRad)
+                : (westRad <= testRad) | (testRad <= eastRad);
+    }
+
+    /* Primitive equivalent of Longitude.radiansEast, for normalized radians */
+    private static double radiansEast(double fromRad, double toRad) {
+        double diff = Angle.normalize(toRad - fromRad);
+        return (diff < 0.0) ? Angle.TWO_PI + diff : diff;
+    }
+
     private static final String OOPS = "Impossible bounding box topology case";
 
     /**
@@ -253,15 +741,15 @@ public class Geodetic2DBounds implements Serializable {
 
         // If current Longitude interval (A) is already the whole globe,
         // then just exit
+        if (this.isAllLongitudes())
+            return;
         Longitude westA = this.westLon;
         Longitude eastA = this.eastLon;
-        if ((westA.inRadians == -Math.PI) && (eastA.inRadians == -Math.PI))
-            return;
         // If new Longitude interval (B) is already the whole globe,
         // then just use it and exit
         Longitude westB = bbox.westLon;
         Longitude eastB = bbox.eastLon;
-        if ((westB.inRadians == -Math.PI) && (eastB.inRadians == -Math.PI)) {
+        if (bbox.isAllLongitudes()) {
             this.westLon = westB;
             this.eastLon = eastB;
             return;
@@ -322,32 +810,125 @@ public class Geodetic2DBounds implements Serializable {
     /**
      * This method grows this Geodetic2DBounds by extending its bounds by the
      * specified number of meters in each of the east, west, north, and south
-     * directions.
+     * directions, so that it contains every point within that distance of the box
+     * on the WGS-84 Ellipsoid.  This is the fast form of grow, computed without any
+     * geodesic solutions: the latitude offset is the distance divided by the least
+     * meridional radius of curvature that the offset could span, and the longitude
+     * offset is the distance divided by the radius of the parallel at the critical
+     * latitude (the grown edge farthest from the equator, where the parallels are
+     * shortest).  Like the exact form, it is computed for a millimeter more than the
+     * distance.  The result is never smaller than the exact one, and larger by a few
+     * parts per thousand of the distance (more in longitude near the poles).  If the
+     * grown box would reach past a pole, it ends at that pole and spans all longitudes,
+     * and if it would span all longitudes it spans -180 to +180 degrees.  Otherwise it
+     * may wrap around the date line as usual.
      *
      * @param meters amount by which to grow the box.  Must be >= 0.
      * @throws IllegalArgumentException if meters is less than 0
      */
     public void grow(double meters) {
+        grow(meters, false);
+    }
+
+    /**
+     * This method grows this Geodetic2DBounds by extending its bounds by the
+     * specified number of meters in each of the east, west, north, and south
+     * directions, as by the grow method taking just the distance, optionally exactly.
+     * In exact mode the latitude offsets are the exact meridian distances, and the
+     * longitude offset is the exact longitude extent of a geodesic circle around the
+     * corner farthest from the equator, so the result is the bounding box of all points
+     * within the distance of this box.  Like the analytic circle bounds, it is computed
+     * for a millimeter more than the distance, so that it contains those points when
+     * they are computed with either geodesic solution.
+     *
+     * @param meters amount by which to grow the box.  Must be >= 0.
+     * @param exact  true for the exact bounds, false for the faster conservative ones
+     * @throws IllegalArgumentException if meters is less than 0
+     */
+    public void grow(double meters, boolean exact) {
         if (meters == 0) return;
         if (meters < 0)
             throw new IllegalArgumentException("meters must be positive");
-        Longitude eastLon = this.getEastLon();
-        Longitude westLon = this.getWestLon();
-        Latitude northLat = this.getNorthLat();
-        Latitude southLat = this.getSouthLat();
-        // Extend this bbox the specified number of meters from each corner point
-        Geodetic2DPoint ne = new Geodetic2DPoint(eastLon, northLat);
-        for (Geodetic2DPoint pt : new Geodetic2DCircle(ne, meters).boundary(8))
-            this.include(pt);
-        Geodetic2DPoint nw = new Geodetic2DPoint(westLon, northLat);
-        for (Geodetic2DPoint pt : new Geodetic2DCircle(nw, meters).boundary(8))
-            this.include(pt);
-        Geodetic2DPoint se = new Geodetic2DPoint(eastLon, southLat);
-        for (Geodetic2DPoint pt : new Geodetic2DCircle(se, meters).boundary(8))
-            this.include(pt);
-        Geodetic2DPoint sw = new Geodetic2DPoint(westLon, southLat);
-        for (Geodetic2DPoint pt : new Geodetic2DCircle(sw, meters).boundary(8))
-            this.include(pt);
+        double north = northLat.inRadians;
+        double south = southLat.inRadians;
+        double dLon;
+        if (exact) {
+            KarneyGeodesic geodesic = WGS84.getKarneyGeodesic();
+            double critical = Math.max(Math.abs(north), Math.abs(south));
+            double distance = meters + MARGIN;
+            north = geodesic.meridianLatitude(north, distance);
+            south = geodesic.meridianLatitude(south, -distance);
+            dLon = geodesic.circleLongitudeExtent(critical, distance);
+        } else {
+            // Grown by the same margin as exact mode, so it is never smaller than that
+            double distance = meters + MARGIN;
+            north = northOf(north, distance);
+            south = -northOf(-south, distance);
+            double critical = Math.max(Math.abs(north), Math.abs(south));
+            dLon = distance / parallelRadius(critical);
+        }
+        // Bounds that already span all longitudes must not be widened (Longitude.radiansEast
+        // returns zero for both forms)
+        boolean allLon = isAllLongitudes();
+        if (Double.isNaN(north)) {
+            // Past the North Pole
+            setNorthLat(new Latitude(Math.PI / 2));
+            allLon = true;
+        } else setNorthLat(new Latitude(north));
+        if (Double.isNaN(south)) {
+            // Past the South Pole
+            setSouthLat(new Latitude(-Math.PI / 2));
+            allLon = true;
+        } else setSouthLat(new Latitude(south));
+        if (allLon || !(westLon.radiansEast(eastLon) + 2.0 * dLon < Angle.TWO_PI)) {
+            if (westLon.inRadians != -Math.PI || eastLon.inRadians != -Math.PI) {
+                setWestLon(new Longitude(-Math.PI));
+                setEastLon(new Longitude(ALL_EAST));
+            }
+        } else {
+            setWestLon(new Longitude(westLon.inRadians - dLon));
+            setEastLon(new Longitude(eastLon.inRadians + dLon));
+        }
+    }
+
+    /*
+     * Whether these bounds span all longitudes, in either of the forms used for that: West
+     * and East both -PI, as made by the include methods (+PI normalizes to -PI), or West -PI
+     * and East ALL_EAST, as made by the analytic circle and ellipse bounds and by grow.
+     */
+    private boolean isAllLongitudes() {
+        return (westLon.inRadians == -Math.PI) &&
+                (eastLon.inRadians == -Math.PI || eastLon.inRadians == ALL_EAST);
+    }
+
+    /*
+     * Latitude in radians reached by going the specified distance in meters North from lat,
+     * or NaN if that would pass the North Pole.  The meridional radius of curvature grows
+     * away from the equator, so the least radius over every latitude that the distance
+     * could reach (at most distance divided by the radius at the equator) is used, which
+     * never falls short.
+     */
+    private static double northOf(double lat, double meters) {
+        double farthest = Math.min(lat + meters / meridianRadius(0.0), Math.PI / 2);
+        double least = (lat <= 0.0 && farthest >= 0.0) ? 0.0 :
+                Math.min(Math.abs(lat), Math.abs(farthest));
+        double north = lat + meters / meridianRadius(least);
+        return (north < Math.PI / 2) ? north : Double.NaN;
+    }
+
+    /* Meridional radius of curvature of the WGS-84 Ellipsoid at lat, in meters */
+    private static double meridianRadius(double lat) {
+        double e2 = WGS84.getEccentricitySquared();
+        double sinLat = Math.sin(lat);
+        double w2 = 1.0 - e2 * sinLat * sinLat;
+        return WGS84.getEquatorialRadius() * (1.0 - e2) / (w2 * Math.sqrt(w2));
+    }
+
+    /* Radius of the parallel of the WGS-84 Ellipsoid at lat, in meters */
+    private static double parallelRadius(double lat) {
+        double sinLat = Math.sin(lat);
+        return WGS84.getEquatorialRadius() * Math.cos(lat) /
+                Math.sqrt(1.0 - WGS84.getEccentricitySquared() * sinLat * sinLat);
     }
 
     /**
@@ -359,8 +940,112 @@ public class Geodetic2DBounds implements Serializable {
 	 * @throws NullPointerException if testPoint is null
      */
     public boolean contains(Geodetic2DPoint testPoint) {
-        return (testPoint.getLatitude().inInterval(southLat, northLat) &&
-                testPoint.getLongitude().inInterval(westLon, eastLon));
+        return contains(westLon.inRadians, southLat.inRadians, eastLon.inRadians, northLat.inRadians,
+                testPoint.getLongitude().inRadians, testPoint.getLatitude().inRadians);
+    }
+
+    /**
+     * This predicate method determines whether the specified point is contained within
+     * the bounding box with the specified edges, all in radians.  It gives the same
+     * result as the contains(Geodetic2DPoint) method of a Geodetic2DBounds with those
+     * edges, without any Longitude or Latitude objects, so that large sets of points held
+     * as primitive values can be filtered quickly.  Longitudes must be normalized to the
+     * interval [-PI, PI), as they are in Longitude objects and GeodeticPointBuffers; the
+     * west edge may be greater than the east edge when the box crosses the date line.
+     *
+     * @param west west edge of the bounding box, in radians
+     * @param south south edge of the bounding box, in radians
+     * @param east east edge of the bounding box, in radians
+     * @param north north edge of the bounding box, in radians
+     * @param lon longitude of the point to test, in radians
+     * @param lat latitude of the point to test, in radians
+     * @return true if the point is within the bounding box, false otherwise
+     */
+    public static boolean contains(double west, double south, double east, double north,
+                                   double lon, double lat) {
+        return inInterval(lon, west, east) & (south <= lat) & (lat <= north);
+    }
+
+    /**
+     * This method tests each of the points with longitudes and latitudes (in radians)
+     * from the specified arrays for containment within this bounding box, setting the
+     * bit of the output BitSet with the same index for those that are contained.  The
+     * output is cleared first and its bits are set in place, and the number of points
+     * tested is lon.length.  The result for each point is the same as that of the
+     * contains(Geodetic2DPoint) method, but the edges of this bounding box are read only
+     * once, and nothing is allocated unless the output must grow to hold the bits.
+     *
+     * @param lon array of point longitudes, in radians normalized to [-PI, PI)
+     * @param lat array of point latitudes, in radians
+     * @param out BitSet to receive the results, one bit per point
+     * @return number of points contained within this bounding box
+     * @throws IllegalArgumentException if lat is shorter than lon
+     * @throws NullPointerException if lon, lat or out are null
+     */
+    public int contains(double[] lon, double[] lat, BitSet out) {
+        return contains(lon, lat, lon.length, out);
+    }
+
+    /**
+     * This method tests each of the points of a GeodeticPointBuffer for containment
+     * within this bounding box, setting the bit of the output BitSet with the same index
+     * for those that are contained.  The output is cleared first and its bits are set in
+     * place.  The result for each point is the same as that of the
+     * contains(Geodetic2DPoint) method.
+     *
+     * @param points GeodeticPointBuffer of points to test
+     * @param out BitSet to receive the results, one bit per point
+     * @return number of points contained within this bounding box
+     * @throws NullPointerException if points or out are null
+     */
+    public int contains(GeodeticPointBuffer points, BitSet out) {
+        return contains(points.getLongitudes(), points.getLatitudes(), points.size(), out);
+    }
+
+    /*
+     * Test the first n points of the arrays, with the date line case decided once per 64
+     * points.  The results are gathered into a word without branching, then set in the
+     * BitSet a run of bits at a time, since setting its bits one at a time costs more
+     * than the tests themselves.
+     */
+    private int contains(double[] lon, double[] lat, int n, BitSet out) {
+        if (lat.length < n)
+            throw new IllegalArgumentException("lat must be at least as long as lon");
+        double west = westLon.inRadians, east = eastLon.inRadians;
+        double south = southLat.inRadians, north = northLat.inRadians;
+        out.clear();
+        int count = 0;
+        for (int base = 0; base < n; base += 64) {
+            int end = Math.min(base + 64, n);
+            long word = 0L;
+            if (west <= east) {
+                for (int i = base; i < end; i++) {
+                    double x = lon[i], y = lat[i];
+                    boolean in = (west <= x) & (x <= east) & (south <= y) & (y <= north);
+                    word |= (in ? 1L : 0L) << i;
+                }
+            } else {
+                for (int i = base; i < end; i++) {
+                    double x = lon[i], y = lat[i];
+                    boolean in = ((west <= x) | (x <= east)) & (south <= y) & (y <= north);
+                    word |= (in ? 1L : 0L) << i;
+                }
+            }
+            count += setBits(word, base, out);
+        }
+        return count;
+    }
+
+    /* Set the bits of the word in the BitSet, from the given index, and count them */
+    private static int setBits(long word, int base, BitSet out) {
+        int count = Long.bitCount(word);
+        while (word != 0L) {
+            int from = Long.numberOfTrailingZeros(word);
+            int to = from + Long.numberOfTrailingZeros(~(word >>> from));
+            out.set(base + from, base + to);
+            word = (to == 64) ? 0L : word & (-1L << to);
+        }
+        return count;
     }
 
     /**
@@ -372,10 +1057,13 @@ public class Geodetic2DBounds implements Serializable {
 	 * @throws NullPointerException if testBox is null
      */
     public boolean contains(Geodetic2DBounds testBox) {
-        return (testBox.southLat.inInterval(this.southLat, this.northLat) &&
-                testBox.northLat.inInterval(this.southLat, this.northLat) &&
+        if (!(testBox.southLat.inInterval(this.southLat, this.northLat) &&
+                testBox.northLat.inInterval(this.southLat, this.northLat)))
+            return false;
+        if (this.isAllLongitudes()) return true;
+        return !testBox.isAllLongitudes() &&
                 testBox.westLon.inInterval(this.westLon, this.eastLon) &&
-                testBox.eastLon.inInterval(this.westLon, this.eastLon));
+                testBox.eastLon.inInterval(this.westLon, this.eastLon);
     }
 
     /**
@@ -388,12 +1076,66 @@ public class Geodetic2DBounds implements Serializable {
 	 * @throws NullPointerException if testBox is null
      */
     public boolean intersects(Geodetic2DBounds testBox) {
-        return !((testBox.southLat.inRadians >= northLat.inRadians) ||
-                (testBox.northLat.inRadians <= southLat.inRadians) ||
-                ((testBox.westLon.inInterval(eastLon, westLon)) &&
-                        (testBox.eastLon.inInterval(eastLon, westLon)) &&
-                        (!westLon.inInterval(
-                                testBox.westLon, testBox.eastLon))));
+        return intersects(westLon.inRadians, southLat.inRadians, eastLon.inRadians, northLat.inRadians,
+                testBox.westLon.inRadians, testBox.southLat.inRadians,
+                testBox.eastLon.inRadians, testBox.northLat.inRadians);
+    }
+
+    /**
+     * This predicate method determines whether two bounding boxes with the specified
+     * edges, all in radians, have any area in common.  It gives the same result as the
+     * intersects method of a Geodetic2DBounds with the first set of edges, given one with
+     * the second set, without any Longitude or Latitude objects.  Longitudes must be
+     * normalized to the interval [-PI, PI).
+     *
+     * @param west west edge of the first bounding box, in radians
+     * @param south south edge of the first bounding box, in radians
+     * @param east east edge of the first bounding box, in radians
+     * @param north north edge of the first bounding box, in radians
+     * @param testWest west edge of the second bounding box, in radians
+     * @param testSouth south edge of the second bounding box, in radians
+     * @param testEast east edge of the second bounding box, in radians
+     * @param testNorth north edge of the second bounding box, in radians
+     * @return true if the bounding boxes intersect
+     */
+    public static boolean intersects(double west, double south, double east, double north,
+                                     double testWest, double testSouth, double testEast, double testNorth) {
+        // The boxes are disjoint in longitude when both ends of the test box fall in the
+        // gap east of this box, and the west edge of this box is not within the test box
+        return (testSouth < north) & (testNorth > south) &
+                !(inInterval(testWest, east, west) & inInterval(testEast, east, west) &
+                        !inInterval(west, testWest, testEast));
+    }
+
+    /**
+     * This method tests each of an array of bounding boxes for intersection with this
+     * bounding box, setting the bit of the output BitSet with the same index for those
+     * that intersect.  The output is cleared first and its bits are set in place.  The
+     * result for each box is the same as that of the intersects method, but the edges of
+     * this bounding box are read only once.
+     *
+     * @param boxes array of Geodetic2DBounds to test
+     * @param out BitSet to receive the results, one bit per bounding box
+     * @return number of bounding boxes that intersect this one
+     * @throws NullPointerException if boxes, any of its elements, or out are null
+     */
+    public int intersects(Geodetic2DBounds[] boxes, BitSet out) {
+        double west = westLon.inRadians, east = eastLon.inRadians;
+        double south = southLat.inRadians, north = northLat.inRadians;
+        out.clear();
+        int count = 0;
+        for (int base = 0; base < boxes.length; base += 64) {
+            int end = Math.min(base + 64, boxes.length);
+            long word = 0L;
+            for (int i = base; i < end; i++) {
+                Geodetic2DBounds box = boxes[i];
+                boolean in = intersects(west, south, east, north, box.westLon.inRadians, box.southLat.inRadians,
+                        box.eastLon.inRadians, box.northLat.inRadians);
+                word |= (in ? 1L : 0L) << i;
+            }
+            count += setBits(word, base, out);
+        }
+        return count;
     }
 
     /**
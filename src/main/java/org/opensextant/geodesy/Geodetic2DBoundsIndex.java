@@ -0,0 +1,415 @@
+/****************************************************************************************
+ *  Geodetic2DBoundsIndex.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The Geodetic2DBoundsIndex class is an in-memory spatial index of items that each have a
+ * Geodetic2DBounds, for finding the items whose bounds contain a point, intersect another
+ * bounding box, or come within a geodesic distance of a point (a Geodetic2DCircle),
+ * without testing every item.  It is a static R-tree, bulk loaded with the Sort-Tile-
+ * Recursive (STR) algorithm of Leutenegger, Lopez and Edgington (1997): it is built once
+ * from all of the items and cannot be changed afterwards, its nodes are fully packed, and
+ * they are held in flat arrays of primitive values rather than as objects.<p/>
+ *
+ * Bounding boxes that cross the date line (those with a west longitude greater than their
+ * east longitude) are indexed as two boxes, one on either side of it, but each item is
+ * found at most once by a query.  Bounds that reach a pole or span all longitudes need no
+ * special handling.  The bounds are copied when the index is built, so later changes to
+ * the Geodetic2DBounds objects are not seen by the index.<p/>
+ *
+ * An index is immutable once built, so any number of threads may query it at once.
+ *
+ * @param <T> type of the items indexed
+ */
+public class Geodetic2DBoundsIndex<T> {
+
+    // Number of children of each node (the last node of each level may have fewer)
+    private static final int NODE_SIZE = 16;
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+    private static final KarneyGeodesic GEODESIC = WGS84.getKarneyGeodesic();
+    // Every path on the ellipsoid is at least (1 - e^2) and at most 1 / sqrt(1 - e^2) times
+    // as long as the path with the same latitudes and longitudes on a sphere of radius a
+    // (the bounds of the meridional and prime vertical radii of curvature divided by a)
+    private static final double SPHERE_MIN = 1.0 - WGS84.getEccentricitySquared();
+    private static final double SPHERE_MAX = 1.0 / Math.sqrt(SPHERE_MIN);
+
+    @NonNull private final List<T> items;
+    // Bounds of each item, in radians
+    @NonNull private final double[] itemWest, itemSouth, itemEast, itemNorth;
+    // Tree levels, from the leaves (level 0, one entry per box or half box) up to the
+    // top level of at most NODE_SIZE nodes. Each node covers the children from
+    // child[level][k] up to but not including childEnd[level][k] on the level below,
+    // and each leaf holds the index of its item in child[0][k] (complemented for the
+    // half of a box on the east side of the date line).
+    @NonNull private final double[][] west, south, east, north;
+    @NonNull private final int[][] child, childEnd;
+
+    /**
+     * This constructor builds the index of a list of items and their bounds, where the
+     * bounds of each item are at the same position in the list of bounds.
+     *
+     * @param items  List of items to index
+     * @param bounds List of the Geodetic2DBounds of each item
+     * @throws IllegalArgumentException if the lists are not the same size
+     * @throws NullPointerException if either list, or any of the bounds, is null
+     */
+    public Geodetic2DBoundsIndex(List<? extends T> items, List<? extends Geodetic2DBounds> bounds) {
+        int n = items.size();
+        if (bounds.size() != n)
+            throw new IllegalArgumentException("items and bounds must be the same size");
+        this.items = new ArrayList<T>(items);
+        itemWest = new double[n];
+        itemSouth = new double[n];
+        itemEast = new double[n];
+        itemNorth = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            Geodetic2DBounds bbox = bounds.get(i);
+            itemWest[i] = bbox.getWestLon().inRadians;
+            itemSouth[i] = bbox.getSouthLat().inRadians;
+            itemEast[i] = bbox.getEastLon().inRadians;
+            itemNorth[i] = bbox.getNorthLat().inRadians;
+            count += (itemWest[i] > itemEast[i]) ? 2 : 1;
+        }
+
+        // Leaf entries, splitting boxes that cross the date line
+        double[] w = new double[count], s = new double[count];
+        double[] e = new double[count], nn = new double[count];
+        int[] first = new int[count], end = null;
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            w[k] = itemWest[i];
+            s[k] = itemSouth[i];
+            e[k] = itemEast[i];
+            nn[k] = itemNorth[i];
+            first[k++] = i;
+            if (itemWest[i] > itemEast[i]) {
+                e[k - 1] = Math.PI;
+                w[k] = -Math.PI;
+                s[k] = itemSouth[i];
+                e[k] = itemEast[i];
+                nn[k] = itemNorth[i];
+                first[k++] = ~i;
+            }
+        }
+
+        // Sort each level into tiles, then pack each NODE_SIZE run into a parent node
+        List<double[]> wl = new ArrayList<double[]>(), sl = new ArrayList<double[]>();
+        List<double[]> el = new ArrayList<double[]>(), nl = new ArrayList<double[]>();
+        List<int[]> fl = new ArrayList<int[]>(), endl = new ArrayList<int[]>();
+        while (true) {
+            int[] order = strOrder(w, s, e, nn, count);
+            w = permute(w, order);
+            s = permute(s, order);
+            e = permute(e, order);
+            nn = permute(nn, order);
+            first = permute(first, order);
+            if (end != null) end = permute(end, order);
+            wl.add(w);
+            sl.add(s);
+            el.add(e);
+            nl.add(nn);
+            fl.add(first);
+            endl.add(end);
+            if (count <= NODE_SIZE) break;
+            int parents = (count + NODE_SIZE - 1) / NODE_SIZE;
+            double[] pw = new double[parents], ps = new double[parents];
+            double[] pe = new double[parents], pn = new double[parents];
+            int[] pFirst = new int[parents], pEnd = new int[parents];
+            for (int p = 0; p < parents; p++) {
+                int from = p * NODE_SIZE, to = Math.min(count, from + NODE_SIZE);
+                pw[p] = w[from];
+                ps[p] = s[from];
+                pe[p] = e[from];
+                pn[p] = nn[from];
+                for (int j = from + 1; j < to; j++) {
+                    pw[p] = Math.min(pw[p], w[j]);
+                    ps[p] = Math.min(ps[p], s[j]);
+                    pe[p] = Math.max(pe[p], e[j]);
+                    pn[p] = Math.max(pn[p], nn[j]);
+                }
+                pFirst[p] = from;
+                pEnd[p] = to;
+            }
+            w = pw;
+            s = ps;
+            e = pe;
+            nn = pn;
+            first = pFirst;
+            end = pEnd;
+            count = parents;
+        }
+        west = wl.toArray(new double[wl.size()][]);
+        south = sl.toArray(new double[sl.size()][]);
+        east = el.toArray(new double[el.size()][]);
+        north = nl.toArray(new double[nl.size()][]);
+        child = fl.toArray(new int[fl.size()][]);
+        childEnd = endl.toArray(new int[endl.size()][]);
+    }
+
+    /*
+     * Order the rectangles of a level by the Sort-Tile-Recursive algorithm: sort them by
+     * the longitude of their centers, cut them into vertical slices of whole nodes, then
+     * sort each slice by the latitude of their centers. The sort keys are the centers
+     * as floats, packed above the index of each rectangle so that plain longs are sorted.
+     */
+    private static int[] strOrder(double[] w, double[] s, double[] e, double[] n, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = key(w[i] + e[i]) | i;
+        Arrays.sort(keys);
+        int pages = (count + NODE_SIZE - 1) / NODE_SIZE;
+        int slices = Math.max(1, (int) Math.ceil(Math.sqrt(pages)));
+        int sliceSize = NODE_SIZE * ((pages + slices - 1) / slices);
+        for (int from = 0; from < count; from += sliceSize) {
+            int to = Math.min(count, from + sliceSize);
+            for (int j = from; j < to; j++) {
+                int i = (int) keys[j];
+                keys[j] = key(s[i] + n[i]) | i;
+            }
+            Arrays.sort(keys, from, to);
+        }
+        int[] order = new int[count];
+        for (int j = 0; j < count; j++) order[j] = (int) keys[j];
+        return order;
+    }
+
+    /* Order preserving key of a value, in the upper 32 bits */
+    private static long key(double value) {
+        int bits = Float.floatToIntBits((float) value);
+        return ((long) (bits ^ ((bits >> 31) & 0x7fffffff))) << 32;
+    }
+
+    private static double[] permute(double[] values, int[] order) {
+        double[] result = new double[order.length];
+        for (int j = 0; j < order.length; j++) result[j] = values[order[j]];
+        return result;
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] result = new int[order.length];
+        for (int j = 0; j < order.length; j++) result[j] = values[order[j]];
+        return result;
+    }
+
+    /**
+     * This method returns the number of items in this index.
+     *
+     * @return number of items indexed
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * This method finds the items whose bounds contain the specified point, that is, the
+     * items whose Geodetic2DBounds contains method would return true for it.
+     *
+     * @param point Geodetic2DPoint to look up
+     * @return List of the items whose bounds contain the point, in no particular order
+     * @throws NullPointerException if point is null
+     */
+    @NonNull
+    public List<T> findContaining(Geodetic2DPoint point) {
+        double lon = point.getLongitude().inRadians, lat = point.getLatitude().inRadians;
+        return find(new Query(lon, lat, lon, lat));
+    }
+
+    /**
+     * This method finds the items whose bounds have at least one point in common with
+     * the specified bounding box, including those that only touch its edges.
+     *
+     * @param bbox Geodetic2DBounds to look up
+     * @return List of the items whose bounds intersect bbox, in no particular order
+     * @throws NullPointerException if bbox is null
+     */
+    @NonNull
+    public List<T> findIntersecting(Geodetic2DBounds bbox) {
+        return find(new Query(bbox.getWestLon().inRadians, bbox.getSouthLat().inRadians,
+                bbox.getEastLon().inRadians, bbox.getNorthLat().inRadians));
+    }
+
+    /**
+     * This method finds the items whose bounds come within the radius of the specified
+     * circle of its center, measured along the geodesic on the WGS-84 Ellipsoid, so it
+     * includes those that contain the center.  Candidates are found with the bounds of the
+     * circle, then the distance from the center to the nearest point of their bounds is
+     * checked.
+     *
+     * @param circle Geodetic2DCircle to look up
+     * @return List of the items whose bounds intersect the circle, in no particular order
+     * @throws IllegalArgumentException if the radius of the circle is out of the legal
+     *                                  range of a Geodetic2DArc distance
+     * @throws NullPointerException if circle is null
+     */
+    @NonNull
+    public List<T> findIntersecting(Geodetic2DCircle circle) {
+        return find(new CircleQuery(circle));
+    }
+
+    /* Search every level from the top down */
+    private List<T> find(Query query) {
+        List<T> found = new ArrayList<T>();
+        int top = west.length - 1;
+        search(query, top, 0, west[top].length, found);
+        return found;
+    }
+
+    private void search(Query query, int level, int from, int to, List<T> found) {
+        double[] w = west[level], s = south[level], e = east[level], n = north[level];
+        int[] first = child[level];
+        for (int k = from; k < to; k++) {
+            if (!query.overlaps(w[k], s[k], e[k], n[k])) continue;
+            if (level > 0) {
+                search(query, level - 1, first[k], childEnd[level][k], found);
+                continue;
+            }
+            int i = first[k];
+            if (i < 0) {
+                // East half of a box crossing the date line: skip it if the west half
+                // also overlaps the query, since the item is found there
+                i = ~i;
+                if (query.overlaps(itemWest[i], itemSouth[i], Math.PI, itemNorth[i])) continue;
+            }
+            if (query.matches(itemWest[i], itemSouth[i], itemEast[i], itemNorth[i]))
+                found.add(items.get(i));
+        }
+    }
+
+    /*
+     * A query box, in radians, that may cross the date line. Its overlap test with the
+     * boxes of the tree (which never cross it) includes their edges, so for point and box
+     * queries it is exact, and every item that it finds matches.
+     */
+    private static class Query {
+        final double west, south, east, north;
+        final boolean wraps;
+
+        Query(double west, double south, double east, double north) {
+            this.west = west;
+            this.south = south;
+            this.east = east;
+            this.north = north;
+            wraps = west > east;
+        }
+
+        boolean overlaps(double w, double s, double e, double n) {
+            if (south > n || north < s) return false;
+            return wraps ? (e >= west || w <= east) : (e >= west && w <= east);
+        }
+
+        boolean matches(double w, double s, double e, double n) {
+            return true;
+        }
+    }
+
+    /*
+     * A circle query, which finds candidates with the bounds of the circle, then matches
+     * those whose distance from the center is no more than the radius. The distance on the
+     * sphere settles all but the candidates whose distance is within a percent or so of
+     * the radius, which need the geodesic distance.
+     */
+    private static final class CircleQuery extends Query {
+        private final double lon, lat, radius;
+
+        CircleQuery(Geodetic2DCircle circle) {
+            this(new Geodetic2DBounds(circle), circle);
+        }
+
+        private CircleQuery(Geodetic2DBounds bbox, Geodetic2DCircle circle) {
+            super(bbox.getWestLon().inRadians, bbox.getSouthLat().inRadians,
+                    bbox.getEastLon().inRadians, bbox.getNorthLat().inRadians);
+            lon = circle.getCenter().getLongitude().inRadians;
+            lat = circle.getCenter().getLatitude().inRadians;
+            radius = circle.getRadius();
+        }
+
+        @Override
+        boolean matches(double w, double s, double e, double n) {
+            boolean inLon = Geodetic2DBounds.inInterval(lon, w, e);
+            if (inLon && (s <= lat) && (lat <= n)) return true;
+            double sphere = inLon ? Math.max(s - lat, lat - n)
+                    : Math.min(sphereAngle(lon, lat, w, s, n), sphereAngle(lon, lat, e, s, n));
+            sphere *= WGS84.getEquatorialRadius();
+            if (sphere * SPHERE_MAX <= radius) return true;
+            if (sphere * SPHERE_MIN > radius) return false;
+            return distance(lon, lat, w, s, e, n, inLon) <= radius;
+        }
+    }
+
+    /*
+     * Geodesic distance in meters from a point to the nearest point of a bounding box
+     * (all in radians) that does not contain it. A point within the longitudes of the box
+     * is nearest to it along its own meridian (meridians are the shortest paths between
+     * parallels); otherwise the nearest point of the box is on its west or east edge.
+     */
+    private static double distance(double lon, double lat, double w, double s, double e, double n,
+                                   boolean inLon) {
+        if (inLon) return GEODESIC.inverse(lon, lat, lon, (lat > n) ? n : s, null);
+        return Math.min(meridianDistance(lon, lat, w, s, n), meridianDistance(lon, lat, e, s, n));
+    }
+
+    /*
+     * Latitude of the nearest point to a point on the meridian at edgeLon between the
+     * latitudes s and n, on the sphere. The cosine of the angle from the point is
+     * A sin(phi) + B cos(phi), which is greatest at atan2(A, B), or at the pole on the side
+     * of the point if that is over the pole (when B is negative).
+     */
+    private static double sphereLatitude(double lon, double lat, double edgeLon, double s, double n) {
+        double sinLat = Math.sin(lat), cosB = Math.cos(lat) * Math.cos(edgeLon - lon);
+        double phi = (cosB >= 0.0) ? Math.atan2(sinLat, cosB)
+                : (sinLat >= 0.0) ? Math.PI / 2.0 : -Math.PI / 2.0;
+        return Math.max(s, Math.min(n, phi));
+    }
+
+    /* Angle on the sphere from a point to the nearest point of a meridian segment */
+    private static double sphereAngle(double lon, double lat, double edgeLon, double s, double n) {
+        double phi = sphereLatitude(lon, lat, edgeLon, s, n);
+        double dLon = edgeLon - lon;
+        double sin1 = Math.sin(lat), cos1 = Math.cos(lat);
+        double sin2 = Math.sin(phi), cos2 = Math.cos(phi);
+        double x = cos2 * Math.sin(dLon), y = cos1 * sin2 - sin1 * cos2 * Math.cos(dLon);
+        return Math.atan2(Math.sqrt(x * x + y * y), sin1 * sin2 + cos1 * cos2 * Math.cos(dLon));
+    }
+
+    /*
+     * Geodesic distance in meters from a point to the nearest point of the meridian at
+     * edgeLon between the latitudes s and n. The nearest point on the sphere is the first
+     * guess; then each step moves along the meridian by the along track component (on the
+     * sphere) of the geodesic to the point, which is zero where the geodesic meets the
+     * meridian at a right angle. Every distance is to a point on the edge, so the least one
+     * is never too small.
+     */
+    private static double meridianDistance(double lon, double lat, double edgeLon, double s, double n) {
+        double phi = sphereLatitude(lon, lat, edgeLon, s, n);
+        double[] azimuths = new double[2];
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            double d = GEODESIC.inverse(edgeLon, phi, lon, lat, azimuths);
+            best = Math.min(best, d);
+            double sigma = d / WGS84.getEquatorialRadius();
+            double step = Math.atan2(Math.sin(sigma) * Math.cos(azimuths[0]), Math.cos(sigma));
+            double next = Math.max(s, Math.min(n, phi + step));
+            if (Math.abs(next - phi) < 1e-12) break;
+            phi = next;
+        }
+        return best;
+    }
+}
@@ -31,6 +31,8 @@ import java.util.ArrayList;
  */
 public class Geodetic2DCircle {
 
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+
     @NonNull private Geodetic2DPoint center;
 
     private double radius;
@@ -107,17 +109,103 @@ public class Geodetic2DCircle {
 	@NonNull
     public Iterable<Geodetic2DPoint> boundary(int nPoints) {
         ArrayList<Geodetic2DPoint> ptList = new ArrayList<Geodetic2DPoint>(nPoints);
-        Angle compassDirection = new Angle(-Math.PI); // Start from South direction
-        Angle inc = new Angle(2.0 * Math.PI / (double) nPoints); // degree increments
-        Geodetic2DArc arc = new Geodetic2DArc(center, radius, compassDirection);
+        if (nPoints == 0) throw new ArithmeticException("Number of points must be greater than 0");
+        double[] lon = new double[nPoints];
+        double[] lat = new double[nPoints];
+        makeBoundary(nPoints, lon, lat);
         for (int i = 0; i < nPoints; i++) {
-            ptList.add(arc.getPoint2());
-            compassDirection = compassDirection.add(inc);
-            arc.setForwardAzimuth(compassDirection);
+            ptList.add(new Geodetic2DPoint(new Longitude(lon[i]), new Latitude(lat[i])));
         }
         return ptList;
     }
 
+    /**
+     * This method computes equally spaced points on the boundary of this circle, on the
+     * WGS-84 Ellipsoid, storing them in caller supplied arrays instead of creating objects.
+     * The points are the same as those of the boundary method returning Geodetic2DPoints
+     * (the first is due South), and the number of points computed is lon.length.
+     *
+     * @param lon array to receive the longitude of each point, in radians
+     * @param lat array to receive the latitude of each point, in radians
+     * @throws IllegalArgumentException if lat is shorter than lon, or the radius is out of
+     *                                  the legal range of a Geodetic2DArc distance
+     * @throws NullPointerException if lon or lat are null
+     */
+    public void boundary(double[] lon, double[] lat) {
+        int nPoints = lon.length;
+        if (lat.length < nPoints)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + nPoints + ")");
+        makeBoundary(nPoints, lon, lat);
+    }
+
+    /**
+     * This method computes nPoints equally spaced points on the boundary of this circle, on
+     * the WGS-84 Ellipsoid, replacing the contents of a GeodeticPointBuffer with them (at
+     * elevation 0).  The points are the same as those of the boundary method returning
+     * Geodetic2DPoints (the first is due South).
+     *
+     * @param nPoints number of points on boundary to compute
+     * @param points  buffer to receive the boundary points
+     * @throws IllegalArgumentException if nPoints is negative, or the radius is out of the
+     *                                  legal range of a Geodetic2DArc distance
+     * @throws NullPointerException if points is null
+     */
+    public void boundary(int nPoints, GeodeticPointBuffer points) {
+        // Checked before the buffer is cleared, so a bad argument leaves it unchanged
+        if (nPoints < 0)
+            throw new IllegalArgumentException("Number of points must not be negative: " + nPoints);
+        points.clear();
+        points.setSize(nPoints);
+        makeBoundary(nPoints, points.getLongitudes(), points.getLatitudes());
+    }
+
+    /*
+     * Solve the direct problem from the center for each direction of the table
+     */
+    private void makeBoundary(int nPoints, double[] lon, double[] lat) {
+        if (nPoints == 0) return;
+        GeodesicConstants g = WGS84.getGeodesicConstants();
+        Geodetic2DArc.validateDistance(g, radius);
+        Directions d = Directions.CACHE.get(nPoints);
+        double lon1 = center.getLongitude().inRadians;
+        double tanU1 = Geodetic2DArc.reducedTan(g, center.getLatitude().inRadians);
+        double[] lonLat = new double[2];
+        for (int i = 0; i < nPoints; i++) {
+            Geodetic2DArc.direct(g, lon1, tanU1, d.sin[i], d.cos[i], radius, lonLat);
+            lon[i] = Angle.normalize(lonLat[0]);
+            lat[i] = lonLat[1];
+        }
+    }
+
+    /*
+     * Sines and cosines of the directions of nPoints equally spaced boundary points, starting
+     * due South.  Each direction is the previous one plus the increment, normalized as
+     * Angle.add does, so that the points are exactly those the object version always made.
+     * The last table made is kept in CACHE.
+     */
+    private static final class Directions {
+        static final LastTableCache<Directions> CACHE = new LastTableCache<Directions>() {
+            Directions make(int nPoints) {
+                return new Directions(nPoints);
+            }
+        };
+
+        final double[] sin;
+        final double[] cos;
+
+        private Directions(int nPoints) {
+            sin = new double[nPoints];
+            cos = new double[nPoints];
+            double inc = Angle.normalize(2.0 * Math.PI / (double) nPoints);
+            double az = -Math.PI;
+            for (int i = 0; i < nPoints; i++) {
+                sin[i] = Math.sin(az);
+                cos[i] = Math.cos(az);
+                az = Angle.normalize(az + inc);
+            }
+        }
+    }
+
     /**
      * This method returns a hash code for this Geodetic2DCircle object.
      * Circles that have equal parameters have the same hash code, since
@@ -41,6 +41,8 @@ import java.util.List;
 public class Geodetic2DEllipse implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+
     @NonNull private Geodetic2DPoint center;
     private double semiMajorAxis;
     private double semiMinorAxis;
@@ -105,6 +107,45 @@ public class Geodetic2DEllipse implements Serializable {
     	return blist;
     }
     
+    /**
+     * This method computes count points on the boundary of this ellipse, on the WGS-84
+     * Ellipsoid, storing them in caller supplied arrays instead of creating objects.  The
+     * points are the same as those of the boundary method returning Geodetic2DPoints, and
+     * the number of points computed is lon.length (a multiple of four for best results).
+     *
+     * @param lon array to receive the longitude of each point, in radians
+     * @param lat array to receive the latitude of each point, in radians
+     * @throws IllegalArgumentException if lat is shorter than lon, or the semi major axis is
+     *                                  out of the legal range of a Geodetic2DArc distance
+     * @throws NullPointerException if lon or lat are null
+     */
+    public void boundary(double[] lon, double[] lat) {
+        int count = lon.length;
+        if (lat.length < count)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + count + ")");
+        makeBoundary(count, lon, lat);
+    }
+
+    /**
+     * This method computes count points on the boundary of this ellipse, on the WGS-84
+     * Ellipsoid, replacing the contents of a GeodeticPointBuffer with them (at elevation 0).
+     * The points are the same as those of the boundary method returning Geodetic2DPoints.
+     *
+     * @param count  the number of points on the boundary, a multiple of four for best results
+     * @param points buffer to receive the boundary points
+     * @throws IllegalArgumentException if count is negative, or the semi major axis is out
+     *                                  of the legal range of a Geodetic2DArc distance
+     * @throws NullPointerException if points is null
+     */
+    public void boundary(int count, GeodeticPointBuffer points) {
+        // Checked before the buffer is cleared, so a bad argument leaves it unchanged
+        if (count < 0)
+            throw new IllegalArgumentException("Number of points must not be negative: " + count);
+        points.clear();
+        points.setSize(count);
+        makeBoundary(count, points.getLongitudes(), points.getLatitudes());
+    }
+
     /**
      * Make a boundary list for a given count
      * @param count the number of slices in the boundary list
@@ -112,45 +153,81 @@ public class Geodetic2DEllipse implements Serializable {
      */
 	@NonNull
     private List<Geodetic2DPoint> makeBoundary(int count) {
-    	// omega is the ellipse orientation angle (final rotation adjustment)
-        Angle omega = new Angle(getOrientation().inRadians());
-        // theta is the normalized circular sweep angle that
-        // varys from -180 to +180 degrees
-        Angle theta = new Angle(-Math.PI);
-        // delta is the variable angular increment value
-        Angle delta;
+        double[] lon = new double[count];
+        double[] lat = new double[count];
+        makeBoundary(count, lon, lat);
+        List<Geodetic2DPoint> rval = new ArrayList<Geodetic2DPoint>(count);
+        for (int i = 0; i < count; i++) {
+            rval.add(new Geodetic2DPoint(new Longitude(lon[i]), new Latitude(lat[i])));
+        }
+        return rval;
+    }
 
-        // Use polar coordinate equation for an ellipse, where e is the
-        // eccentricity.  Angle (theta) sweeps around the circle, and r
-        // changes as a function of it
-        double t, r;
-        double a = getSemiMajorAxis();
-        double b = getSemiMinorAxis();
-        double e = Math.sqrt(1.0 - ((b * b) / (a * a)));
+    /*
+     * Compute count boundary points into the arrays.  The polar coordinate equation for an
+     * ellipse gives the distance r from the center as a function of the sweep angle theta
+     * (r = b / sqrt(1 - e^2 cos^2 theta), where e is the eccentricity), and the direct
+     * problem is solved from the center at azimuth theta plus the orientation (normalized
+     * as Angle.add does, so that the points are exactly those the object version always
+     * made).
+     */
+    private void makeBoundary(int count, double[] lon, double[] lat) {
+        if (count == 0) return;
+        GeodesicConstants g = WGS84.getGeodesicConstants();
+        double a = semiMajorAxis;
+        double b = semiMinorAxis;
+        Geodetic2DArc.validateDistance(g, a);
+        Geodetic2DArc.validateDistance(g, b);
+        double e = (a > 0.0) ? Math.sqrt(1.0 - ((b * b) / (a * a))) : 0.0;
+        double omega = Angle.normalize(orientation.inRadians);
+        SweepAngles sweep = SweepAngles.CACHE.get(count);
+        double lon1 = center.getLongitude().inRadians;
+        double tanU1 = Geodetic2DArc.reducedTan(g, center.getLatitude().inRadians);
+        double[] lonLat = new double[2];
+        for (int i = 0; i < count; i++) {
+            double t = sweep.cos[i];
+            double r = b / Math.sqrt(1.0 - (e * e * t * t));
+            double azimuth = Angle.normalize(sweep.theta[i] + omega);
+            Geodetic2DArc.direct(g, lon1, tanU1, Math.sin(azimuth), Math.cos(azimuth), r, lonLat);
+            lon[i] = Angle.normalize(lonLat[0]);
+            lat[i] = lonLat[1];
+        }
+    }
 
-        // nominal delta in degrees (average angle for n steps around circle)
-        double nDelta = 360.0 / count;
-        Angle nominalDelta = new Angle(nDelta, Angle.DEGREES);
+    /*
+     * Sweep angles theta of count boundary points, and their cosines.  Theta starts at -180
+     * degrees and its step varies from 0 to twice the nominal step (360 / count) as
+     * 1 - cos(2 * i * nominal step), making small steps near the major axis and larger ones
+     * near the minor axis.  The steps are computed in degrees and summed with normalization
+     * as Angle does, so the angles are exactly those the object version always used.  The
+     * last table made is kept in CACHE.
+     */
+    private static final class SweepAngles {
+        static final LastTableCache<SweepAngles> CACHE = new LastTableCache<SweepAngles>() {
+            SweepAngles make(int count) {
+                return new SweepAngles(count);
+            }
+        };
+
+        final double[] theta;
+        final double[] cos;
 
-        // We compute r as a function of theta,
-        // then rotate by ellipse orientation amount
-        Geodetic2DArc arc = new Geodetic2DArc(getCenter(), 0.0, omega);
-        Angle stepAngle = new Angle(0.0, Angle.DEGREES);
-        List<Geodetic2DPoint> rval = new ArrayList<Geodetic2DPoint>();
-        for (int step = 0; step < count; step++) {
-            // y cycles from -1 to +1 to -1 from 0 deg to 180 deg, repeats
-            double y = ((1.0 - Math.cos(stepAngle.inRadians() * 2.0)) - 1.0);
-            // delta varies from 0 to 2 * nominal delta
-            // to make small steps near major axis and larger ones near minor
-            delta = new Angle(nDelta + (nDelta * y), Angle.DEGREES);
-            theta = theta.add(delta);
-            t = Math.cos(theta.inRadians());
-            r = b / (Math.sqrt(1.0 - (e * e * t * t)));
-            arc.setDistanceAndAzimuth(r, theta.add(omega));
-            rval.add(arc.getPoint2());
-            stepAngle = stepAngle.add(nominalDelta);
+        private SweepAngles(int count) {
+            theta = new double[count];
+            cos = new double[count];
+            double nDelta = 360.0 / count;
+            double nominalDelta = Angle.normalize(Math.toRadians(nDelta));
+            double stepAngle = 0.0;
+            double th = -Math.PI;
+            for (int i = 0; i < count; i++) {
+                // y cycles from -1 to +1 to -1 from 0 deg to 180 deg, repeats
+                double y = ((1.0 - Math.cos(stepAngle * 2.0)) - 1.0);
+                th = Angle.normalize(th + Angle.normalize(Math.toRadians(nDelta + (nDelta * y))));
+                theta[i] = th;
+                cos[i] = Math.cos(th);
+                stepAngle = Angle.normalize(stepAngle + nominalDelta);
+            }
         }
-        return rval;
     }
     
     /**
@@ -104,17 +104,68 @@ public class Geodetic2DPoint implements GeoPoint, Serializable {
         if (n == -1)
             throw new IllegalArgumentException("Geodetic2DPoint string (" +
                     geoStr + ") is missing comma lon-lat separator");
-        String part1 = geoStr.substring(0, n);
-        String part2 = geoStr.substring(n + 1);
-        try {
-            lon = new Longitude(part1);
-            lat = new Latitude(part2);
-        } catch (IllegalArgumentException ex) {
-            lat = new Latitude(part1);
-            lon = new Longitude(part2);
+        double[] lonLat = new double[2];
+        if (!parseRadians(geoStr, 0, n, geoStr.length(), lonLat)) {
+            // Parse again the slow way to throw an exception with the reason of the failure
+            lat = new Latitude(geoStr.substring(0, n));
+            lon = new Longitude(geoStr.substring(n + 1));
+        } else {
+            lon = new Longitude(lonLat[0]);
+            lat = new Latitude(lonLat[1]);
         }
     }
 
+    /**
+     * This method parses a String with the same syntax as the Geodetic2DPoint(String)
+     * constructor, but returns null instead of throwing an exception if the syntax is
+     * invalid (or the String is null or empty).
+     *
+     * @param geoStr Normal form is same as toString output.
+     * @return Geodetic2DPoint, or null if geoStr is not a valid lon-lat or lat-lon point
+     */
+    public static Geodetic2DPoint tryParse(String geoStr) {
+        if (geoStr == null) return null;
+        double[] lonLat = new double[2];
+        if (!parseRadians(geoStr, 0, geoStr.length(), lonLat)) return null;
+        return new Geodetic2DPoint(new Longitude(lonLat[0]), new Latitude(lonLat[1]));
+    }
+
+    /*
+     * Parse text[start, end) as the String constructor would but without creating objects,
+     * storing the longitude and latitude in radians into lonLat[0] and lonLat[1], or return
+     * false if the String constructor would throw.
+     */
+    static boolean parseRadians(CharSequence text, int start, int end, double[] lonLat) {
+        // Same trimming, enclosing parentheses and comma separator as the String constructor
+        while ((start < end) && (text.charAt(start) <= ' ')) start++;
+        while ((end > start) && (text.charAt(end - 1) <= ' ')) end--;
+        if (start == end) return false;
+        if ((text.charAt(start) == '(') && (text.charAt(end - 1) == ')')) {
+            start++;
+            end--;
+        }
+        int comma = start;
+        while ((comma < end) && (text.charAt(comma) != ',')) comma++;
+        return (comma < end) && parseRadians(text, start, comma, end, lonLat);
+    }
+
+    /*
+     * Parse the longitude and latitude in radians of text[start, end) split at the given comma
+     * index, trying lon-lat order, then lat-lon order, without exceptions in between
+     */
+    private static boolean parseRadians(CharSequence text, int start, int comma, int end, double[] lonLat) {
+        double lonRad = Longitude.parseRadians(text, start, comma);
+        double latRad = Double.isNaN(lonRad) ? lonRad : Latitude.parseRadians(text, comma + 1, end);
+        if (Double.isNaN(latRad)) {
+            latRad = Latitude.parseRadians(text, start, comma);
+            lonRad = Double.isNaN(latRad) ? latRad : Longitude.parseRadians(text, comma + 1, end);
+        }
+        if (Double.isNaN(lonRad)) return false;
+        lonLat[0] = lonRad;
+        lonLat[1] = latRad;
+        return true;
+    }
+
     /**
      * This constructor generates a new Geodetic2DPoint drawn from a distribution
      * that is uniform over the surface of a sphere. See the following web site
@@ -0,0 +1,659 @@
+/****************************************************************************************
+ *  GeodeticTableLoader.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The GeodeticTableLoader class loads the coordinates of the rows of a delimited text table
+ * (CSV, TSV and the like), such as a large extract with latitude and longitude or MGRS
+ * columns, into a GeodeticPointBuffer. The coordinates are parsed directly from the bytes
+ * of the table, with the same rules as the String constructors, but without creating
+ * objects per row. The table is read from a channel (or memory mapped, for a FileChannel)
+ * in chunks ending on line boundaries, which are parsed in parallel by a pool of threads
+ * while the next chunks are read, and merged back in row order.<p/>
+ *
+ * Each row gets its point from the first configured source whose fields are not blank:
+ * <ul>
+ * <li>separate latitude and longitude columns, each parsed as by the Latitude and Longitude
+ * String constructors (so decimal degrees and degrees, minutes and seconds may be mixed),</li>
+ * <li>a point column holding both coordinates, parsed as by the Geodetic2DPoint String
+ * constructor (the field must then be quoted if it contains the delimiter),</li>
+ * <li>an MGRS column, parsed by an MGRSParser with the WGS 84 Ellipsoid and the default non
+ * strict rules, which gives the center of the MGRS cell as the MGRS String constructors do
+ * (or its southwest corner, see setMGRSCellCenters).</li>
+ * </ul>
+ * Rows are numbered from zero after the header lines. Rows without coordinates or with
+ * invalid coordinates are skipped, and their numbers are reported by getBadRows; empty
+ * lines are counted as rows, but are neither loaded nor reported.<p/>
+ *
+ * Lines end with LF or CR LF. Fields may be enclosed in double quotes (with two double
+ * quotes for one inside a field), but records may not span lines. The table must be in
+ * an ASCII compatible encoding; fields with other characters are decoded with the Charset
+ * of the loader (UTF-8 by default).<p/>
+ *
+ * A GeodeticTableLoader holds the configuration and the results of the last load, so an
+ * instance should not be shared between threads without synchronization, although each
+ * load uses several threads internally.
+ */
+public class GeodeticTableLoader {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 23;     // 8 MB
+    private static final int CHUNKS_PER_MAP = 64;               // chunks per memory mapped region
+    private static final long MAX_MAP_SIZE = 1L << 30;          // 1 GB
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Field roles, indexing the column of each source of coordinates
+    private static final int LAT = 0;
+    private static final int LON = 1;
+    private static final int POINT = 2;
+    private static final int MGRS = 3;
+
+    // Configuration
+    private final byte delimiter;
+    private final int[] columns = {-1, -1, -1, -1};         // column of each role, -1 if none
+    private int headerLines;
+    private int threads;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean mgrsCellCenters = true;
+    @NonNull private Charset charset = UTF_8;
+
+    // Results of the last load
+    @NonNull private GeodeticPointBuffer points = new GeodeticPointBuffer(0);
+    private long rowCount;
+    @NonNull private long[] badRows = new long[0];
+    private int badCount;
+
+    /**
+     * This constructor takes the delimiter character that separates the fields of a row, such
+     * as ',' for CSV or '\t' for TSV. Parsing uses as many threads as there are processors.
+     *
+     * @param delimiter ASCII field delimiter, other than a double quote or a line end
+     * @throws IllegalArgumentException if delimiter is not a valid delimiter
+     */
+    public GeodeticTableLoader(char delimiter) {
+        if ((delimiter > 127) || (delimiter == '"') || (delimiter == '\n') || (delimiter == '\r'))
+            throw new IllegalArgumentException("Invalid field delimiter: " + (int) delimiter);
+        this.delimiter = (byte) delimiter;
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * This method sets the columns holding the latitude and longitude of each row, counted
+     * from zero. Setting both to -1 stops using separate latitude and longitude columns.
+     *
+     * @param latColumn column of the latitudes, or -1
+     * @param lonColumn column of the longitudes, or -1
+     * @throws IllegalArgumentException if only one column is -1, if a column is less than
+     *                                  -1, or if they are the same column
+     */
+    public void setLatLonColumns(int latColumn, int lonColumn) {
+        if ((latColumn < -1) || (lonColumn < -1) || ((latColumn == -1) != (lonColumn == -1)) ||
+                ((latColumn != -1) && (latColumn == lonColumn)))
+            throw new IllegalArgumentException("Invalid lat/lon columns: " + latColumn + ", " + lonColumn);
+        columns[LAT] = latColumn;
+        columns[LON] = lonColumn;
+    }
+
+    /**
+     * This method sets the column holding both coordinates of each row, in any of the forms
+     * of the Geodetic2DPoint String constructor, counted from zero.
+     *
+     * @param pointColumn column of the points, or -1 to stop using a point column
+     * @throws IllegalArgumentException if pointColumn is less than -1
+     */
+    public void setPointColumn(int pointColumn) {
+        if (pointColumn < -1) throw new IllegalArgumentException("Invalid point column: " + pointColumn);
+        columns[POINT] = pointColumn;
+    }
+
+    /**
+     * This method sets the column holding the MGRS coordinate of each row, counted from zero.
+     *
+     * @param mgrsColumn column of the MGRS coordinates, or -1 to stop using an MGRS column
+     * @throws IllegalArgumentException if mgrsColumn is less than -1
+     */
+    public void setMGRSColumn(int mgrsColumn) {
+        if (mgrsColumn < -1) throw new IllegalArgumentException("Invalid MGRS column: " + mgrsColumn);
+        columns[MGRS] = mgrsColumn;
+    }
+
+    /**
+     * This method sets whether the point loaded for an MGRS coordinate is the center of the
+     * MGRS cell, as returned by MGRS.toGeodetic2DPoint for an MGRS made from a String (the
+     * default), or the southwest corner of the cell.  The corner saves un-projecting a second
+     * point per row, but is up to a cell diagonal away from the center (about 0.7 meters for
+     * 1 meter cells, and 70.7 km for 100 km cells).
+     *
+     * @param centers true to load cell centers, false to load southwest corners
+     */
+    public void setMGRSCellCenters(boolean centers) {
+        this.mgrsCellCenters = centers;
+    }
+
+    /**
+     * This method sets the number of lines at the start of the table that are skipped
+     * (column headings), zero by default.
+     *
+     * @param headerLines number of header lines
+     * @throws IllegalArgumentException if headerLines is negative
+     */
+    public void setHeaderLines(int headerLines) {
+        if (headerLines < 0) throw new IllegalArgumentException("Invalid header lines: " + headerLines);
+        this.headerLines = headerLines;
+    }
+
+    /**
+     * This method sets the number of threads that parse chunks of the table. With one
+     * thread, the table is parsed by the thread calling load.
+     *
+     * @param threads number of parsing threads
+     * @throws IllegalArgumentException if threads is less than one
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        this.threads = threads;
+    }
+
+    /**
+     * This method sets the size in bytes of the chunks of the table given to each parsing
+     * thread, 8 MB by default. Chunks end on line boundaries, so a chunk holding a longer
+     * line is longer.
+     *
+     * @param chunkSize chunk size in bytes
+     * @throws IllegalArgumentException if chunkSize is less than one
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * This method sets the Charset used to decode the fields that are not plain ASCII,
+     * UTF-8 by default. It must be an ASCII compatible encoding.
+     *
+     * @param charset Charset of the table
+     * @throws IllegalArgumentException if charset is null
+     */
+    public void setCharset(Charset charset) {
+        if (charset == null) throw new IllegalArgumentException("Charset cannot be null");
+        this.charset = charset;
+    }
+
+    /**
+     * This method loads the rows of a table read from a channel, until the end of the
+     * stream. A FileChannel is memory mapped from its current position to its end, and
+     * its position is then set to its end; other channels must be blocking channels.
+     *
+     * @param in channel to read the table from
+     * @throws IOException if an I/O error occurs while reading the channel
+     * @throws NullPointerException if in is null
+     */
+    public void load(ReadableByteChannel in) throws IOException {
+        if (in instanceof FileChannel) {
+            load((FileChannel) in);
+            return;
+        }
+        Loading loading = new Loading();
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(chunkSize);
+            boolean eof = false;
+            while (!eof) {
+                while (buf.hasRemaining()) {
+                    if (in.read(buf) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                int len = buf.position();
+                int end = eof ? len : lastLineEnd(buf, 0, len);
+                if (end == 0 && !eof) {
+                    // A line longer than the buffer: read more of it
+                    ByteBuffer bigger = ByteBuffer.allocate(2 * buf.capacity());
+                    buf.flip();
+                    bigger.put(buf);
+                    buf = bigger;
+                    continue;
+                }
+                split(loading, buf, 0, end);
+                // The next buffer starts with the rest of the last line (the chunks of this
+                // buffer may still be being parsed, so it is left as it is)
+                ByteBuffer next = ByteBuffer.allocate(Math.max(chunkSize, 2 * (len - end)));
+                ByteBuffer rest = buf.duplicate();
+                rest.limit(len);
+                rest.position(end);
+                next.put(rest);
+                buf = next;
+            }
+            loading.finish();
+        } finally {
+            loading.close();
+        }
+    }
+
+    /**
+     * This method loads the rows of a table in a file, which is memory mapped from the
+     * current position of the FileChannel to its end. The position of the FileChannel is
+     * then set to its end.
+     *
+     * @param file FileChannel of the table
+     * @throws IOException if an I/O error occurs while mapping the file
+     * @throws NullPointerException if file is null
+     */
+    public void load(FileChannel file) throws IOException {
+        Loading loading = new Loading();
+        try {
+            long pos = file.position();
+            long size = file.size();
+            // Map regions of many chunks at a time, ending on line boundaries
+            long region = Math.min(MAX_MAP_SIZE, (long) chunkSize * CHUNKS_PER_MAP);
+            while (pos < size) {
+                long len = Math.min(region, size - pos);
+                ByteBuffer map = file.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                int end = (pos + len == size) ? (int) len : lastLineEnd(map, 0, (int) len);
+                if (end == 0) throw new IOException("Line longer than " + len + " bytes at byte " + pos);
+                split(loading, map, 0, end);
+                pos += end;
+            }
+            loading.finish();
+            file.position(size);
+        } finally {
+            loading.close();
+        }
+    }
+
+    /**
+     * This method loads the rows of a table held in a ByteBuffer (which may be memory mapped),
+     * from its position to its limit. The position and limit of the buffer are not changed.
+     *
+     * @param table ByteBuffer holding the table
+     * @throws NullPointerException if table is null
+     */
+    public void load(ByteBuffer table) {
+        Loading loading = new Loading();
+        try {
+            split(loading, table, table.position(), table.limit());
+            loading.finish();
+        } catch (IOException e) {
+            // No channel is read, so only an interruption of the parsing threads gets here
+            throw new IllegalStateException(e);
+        } finally {
+            loading.close();
+        }
+    }
+
+    /**
+     * This accessor method returns the points of the valid rows of the last load, in row order.
+     *
+     * @return GeodeticPointBuffer of the loaded points
+     */
+    @NonNull
+    public GeodeticPointBuffer getPoints() {
+        return points;
+    }
+
+    /**
+     * This accessor method returns the number of rows of the last load, not counting the
+     * header lines, including the empty and bad rows.
+     *
+     * @return number of rows
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This accessor method returns the number of rows of the last load that were skipped
+     * because they had no coordinates or invalid coordinates.
+     *
+     * @return number of bad rows
+     */
+    public int getBadRowCount() {
+        return badCount;
+    }
+
+    /**
+     * This accessor method returns the numbers (from zero after the header lines) of the rows
+     * of the last load that were skipped because they had no coordinates or invalid coordinates.
+     *
+     * @return new array of the bad row numbers, in increasing order
+     */
+    @NonNull
+    public long[] getBadRows() {
+        return Arrays.copyOf(badRows, badCount);
+    }
+
+    /* Return the index after the last line end in buf[start, end), or start if there is none */
+    private static int lastLineEnd(ByteBuffer buf, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buf.get(i) == '\n') return i + 1;
+        }
+        return start;
+    }
+
+    /* Return the index after the first line end in buf[start, end), or end if there is none */
+    private static int nextLineEnd(ByteBuffer buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buf.get(i) == '\n') return i + 1;
+        }
+        return end;
+    }
+
+    /*
+     * Give buf[start, end), which ends on a line boundary (or at the end of the table), to
+     * the parsing threads in chunks of about chunkSize bytes that end on line boundaries
+     */
+    private void split(Loading loading, ByteBuffer buf, int start, int end) throws IOException {
+        start = loading.skipHeader(buf, start, end);
+        while (start < end) {
+            int stop = end;
+            if (end - start > chunkSize) {
+                stop = lastLineEnd(buf, start, start + chunkSize);
+                if (stop == start) stop = nextLineEnd(buf, start + chunkSize, end);
+            }
+            loading.submit(buf, start, stop);
+            start = stop;
+        }
+    }
+
+    /* Append the results of the next chunk of the table */
+    private void merge(Chunk chunk) {
+        points.addAll(chunk.points);
+        if (badCount + chunk.badCount > badRows.length)
+            badRows = Arrays.copyOf(badRows, Math.max(badCount + chunk.badCount, 2 * badRows.length));
+        for (int i = 0; i < chunk.badCount; i++) badRows[badCount++] = rowCount + chunk.badRows[i];
+        rowCount += chunk.rows;
+    }
+
+    /*
+     * The state of one load: the header lines left to skip, and the chunks that have been
+     * submitted to the thread pool (if any) but not merged yet, in table order
+     */
+    private final class Loading {
+        private final ExecutorService pool;
+        private final ArrayDeque<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+        private int headerLeft = headerLines;
+
+        Loading() {
+            points = new GeodeticPointBuffer();
+            rowCount = 0;
+            badRows = new long[0];
+            badCount = 0;
+            pool = (threads > 1) ? Executors.newFixedThreadPool(threads) : null;
+        }
+
+        /* Return the index after the header lines left to skip at the start of buf[start, end) */
+        int skipHeader(ByteBuffer buf, int start, int end) {
+            while ((headerLeft > 0) && (start < end)) {
+                start = nextLineEnd(buf, start, end);
+                headerLeft--;
+            }
+            return start;
+        }
+
+        /* Parse buf[start, end), in the thread pool if there is one, merging finished chunks */
+        void submit(final ByteBuffer buf, final int start, final int end) throws IOException {
+            if (pool == null) {
+                merge(new ChunkParser().parse(buf, start, end));
+                return;
+            }
+            // Limit the chunks waiting to be merged, so that reading cannot outrun parsing
+            while (pending.size() >= 2 * threads) merge(next());
+            pending.add(pool.submit(new Callable<Chunk>() {
+                public Chunk call() {
+                    return new ChunkParser().parse(buf, start, end);
+                }
+            }));
+        }
+
+        /* Merge all of the chunks still pending */
+        void finish() throws IOException {
+            while (!pending.isEmpty()) merge(next());
+        }
+
+        /* Wait for the oldest pending chunk to be parsed */
+        private Chunk next() throws IOException {
+            Future<Chunk> future = pending.remove();
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while loading table");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IOException(cause);
+            }
+        }
+
+        /* Stop the thread pool, abandoning any chunks still pending */
+        void close() {
+            if (pool != null) pool.shutdownNow();
+        }
+    }
+
+    /* The points and bad rows (numbered from the first row of the chunk) of a chunk of the table */
+    private static final class Chunk {
+        final GeodeticPointBuffer points;
+        long[] badRows = new long[16];
+        int badCount;
+        int rows;
+
+        Chunk(int capacity) {
+            points = new GeodeticPointBuffer(capacity);
+        }
+
+        void addBadRow(int row) {
+            if (badCount == badRows.length) badRows = Arrays.copyOf(badRows, 2 * badCount);
+            badRows[badCount++] = row;
+        }
+    }
+
+    /*
+     * A CharSequence view of bytes of a ByteBuffer as ISO 8859-1 characters, so that plain
+     * ASCII fields are parsed in place.
+     */
+    private static final class ByteField implements CharSequence {
+        private ByteBuffer buf;
+        private int off;
+        private int len;
+
+        CharSequence set(ByteBuffer buf, int off, int len) {
+            this.buf = buf;
+            this.off = off;
+            this.len = len;
+            return this;
+        }
+
+        public int length() {
+            return len;
+        }
+
+        public char charAt(int index) {
+            if ((index < 0) || (len <= index)) throw new IndexOutOfBoundsException("index " + index);
+            return (char) (buf.get(off + index) & 0xFF);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[len];
+            for (int i = 0; i < len; i++) chars[i] = (char) (buf.get(off + i) & 0xFF);
+            return new String(chars);
+        }
+    }
+
+    /*
+     * The parser of the rows of one chunk of the table, with its own MGRSParser and scratch
+     * space, so that chunks are parsed in parallel without sharing any state.
+     */
+    private final class ChunkParser {
+        private final MGRSParser mgrs = new MGRSParser();
+        private final ByteField field = new ByteField();
+        private final double[] lonLat = new double[2];
+        private final int lastColumn;                   // last column used by a role
+        private final int[] start = new int[4];         // first byte of the field of each role
+        private final int[] end = new int[4];           // index after the field, -1 if missing
+        private final boolean[] plain = new boolean[4]; // true if the field is unquoted ASCII
+        private byte[] scratch = new byte[64];
+        private ByteBuffer buf;
+
+        ChunkParser() {
+            int last = -1;
+            for (int column : columns) last = Math.max(last, column);
+            lastColumn = last;
+        }
+
+        /* Parse the rows of buf[from, to), which starts and ends on line boundaries */
+        Chunk parse(ByteBuffer buf, int from, int to) {
+            this.buf = buf;
+            Chunk chunk = new Chunk(Math.max(16, (to - from) / 64));
+            int row = 0;
+            for (int lineStart = from; lineStart < to; row++) {
+                int lineEnd = lineStart;
+                while ((lineEnd < to) && (buf.get(lineEnd) != '\n')) lineEnd++;
+                int next = lineEnd + 1;
+                if ((lineEnd > lineStart) && (buf.get(lineEnd - 1) == '\r')) lineEnd--;
+                if (lineEnd > lineStart) {
+                    if (parseRow(lineStart, lineEnd)) chunk.points.add(lonLat[0], lonLat[1]);
+                    else chunk.addBadRow(row);
+                }
+                lineStart = next;
+            }
+            chunk.rows = row;
+            this.buf = null;
+            return chunk;
+        }
+
+        /* Parse the point of the row in buf[from, to) into lonLat, or return false if it has none */
+        private boolean parseRow(int from, int to) {
+            findFields(from, to);
+            if ((columns[LAT] >= 0) && !(isBlank(LAT) && isBlank(LON))) {
+                CharSequence text = text(LAT);
+                lonLat[1] = Latitude.parseRadians(text, 0, text.length());
+                text = text(LON);
+                lonLat[0] = Longitude.parseRadians(text, 0, text.length());
+                return !(Double.isNaN(lonLat[0]) || Double.isNaN(lonLat[1]));
+            }
+            if ((columns[POINT] >= 0) && !isBlank(POINT)) {
+                CharSequence text = text(POINT);
+                return Geodetic2DPoint.parseRadians(text, 0, text.length(), lonLat);
+            }
+            if ((columns[MGRS] >= 0) && !isBlank(MGRS)) {
+                boolean valid = plain[MGRS] ? mgrs.tryParse(buf, start[MGRS], end[MGRS] - start[MGRS]) :
+                        mgrs.tryParse(text(MGRS));
+                if (!valid) return false;
+                if (mgrsCellCenters) return mgrs.getCenterInRadians(lonLat);
+                lonLat[0] = mgrs.getLongitudeInRadians();
+                lonLat[1] = mgrs.getLatitudeInRadians();
+                return true;
+            }
+            return false;
+        }
+
+        /* Find the fields of each role in the row in buf[from, to) */
+        private void findFields(int from, int to) {
+            Arrays.fill(end, -1);
+            int p = from;
+            for (int column = 0; column <= lastColumn; column++) {
+                int fieldStart = p;
+                boolean ascii = true;
+                boolean quoted = false;
+                while ((p < to) && (buf.get(p) == ' ')) p++;
+                if ((p < to) && (buf.get(p) == '"')) {
+                    // Skip to the closing quote, passing over doubled quotes
+                    quoted = true;
+                    for (p++; p < to; p++) {
+                        byte b = buf.get(p);
+                        if (b == '"') {
+                            if ((p + 1 < to) && (buf.get(p + 1) == '"')) p++;
+                            else break;
+                        }
+                    }
+                }
+                byte b;
+                while ((p < to) && ((b = buf.get(p)) != delimiter)) {
+                    if (b < 0) ascii = false;
+                    p++;
+                }
+                for (int role = 0; role < columns.length; role++) {
+                    if (columns[role] == column) {
+                        start[role] = fieldStart;
+                        end[role] = p;
+                        plain[role] = ascii && !quoted;
+                    }
+                }
+                if (p >= to) break;
+                p++;
+            }
+        }
+
+        /* Whether the field of the role is missing, or has only blanks and quotes */
+        private boolean isBlank(int role) {
+            for (int p = start[role]; p < end[role]; p++) {
+                byte b = buf.get(p);
+                if ((b != '"') && ((b < 0) || (b > ' '))) return false;
+            }
+            return true;
+        }
+
+        /*
+         * Return the text of the field of the role, as a view of the bytes if it is plain
+         * ASCII, or else unquoted and decoded with the Charset of the loader
+         */
+        private CharSequence text(int role) {
+            int p = start[role];
+            int to = end[role];
+            if (to < 0) return "";
+            if (plain[role]) return field.set(buf, p, to - p);
+            if (scratch.length < to - p) scratch = new byte[Math.max(to - p, 2 * scratch.length)];
+            int n = 0;
+            while ((p < to) && (buf.get(p) == ' ')) p++;
+            if ((p < to) && (buf.get(p) == '"')) {
+                for (p++; p < to; p++) {
+                    byte b = buf.get(p);
+                    if (b == '"') {
+                        if ((p + 1 < to) && (buf.get(p + 1) == '"')) p++;
+                        else {
+                            p++;
+                            break;
+                        }
+                    }
+                    scratch[n++] = b;
+                }
+            }
+            while (p < to) scratch[n++] = buf.get(p++);
+            return new String(scratch, 0, n, charset);
+        }
+    }
+}
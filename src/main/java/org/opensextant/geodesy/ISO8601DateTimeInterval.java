@@ -14,10 +14,6 @@
  ***********************************************************************************/
 package org.opensextant.geodesy;
 
-import java.util.Calendar;
-import java.util.Date;
-import java.util.GregorianCalendar;
-
 /**
  * The ISO8601DateTimeInterval class is a simple wrapper for a time interval
  * with a start and end time.
@@ -52,66 +48,54 @@ public class ISO8601DateTimeInterval extends ISO8601DateTimePoint {
 
     /**
      * Constructor that takes an ISO Date Time String time point or interval.
+     * A point of reduced precision (e.g. a year or a day) is the interval from its
+     * first to its last millisecond, and two points separated by "--" are the interval
+     * from the start of the first to the end of the second.
      *
      * @param isoDateTimeStr String containing ISO 8601 Date Time point or interval
      * @throws IllegalArgumentException if a parsing error occurs
      */
     public ISO8601DateTimeInterval(String isoDateTimeStr) {
-        try {
-            int i = isoDateTimeStr.indexOf("--");
-            if (i > 0) {
-                ISO8601DateTimeInterval tSeg1 =
-                        new ISO8601DateTimeInterval(isoDateTimeStr.substring(0, i));
-                ISO8601DateTimeInterval tSeg2 =
-                        new ISO8601DateTimeInterval(isoDateTimeStr.substring(i + 2));
-                long startTime1 = tSeg1.getStartTimeInMillis();
-                long startTime2 = tSeg2.getStartTimeInMillis();
-                long endTime1 = tSeg1.getEndTimeInMillis();
-                long endTime2 = tSeg2.getEndTimeInMillis();
-                if (startTime1 > startTime2 || endTime1 > endTime2)
-                    throw new IllegalArgumentException(INVALID_ORDER  + " for " + isoDateTimeStr);
-                this.startTime = startTime1;
-                this.endTime = endTime2;
-            } else {
-                String toParse = isoDateTimeStr;
-                int eoy = toParse.indexOf("-");
-                if (eoy < 0) eoy = toParse.length();
-                int n = toParse.length();
-                toParse = toParse.replace(" ", "T");
-                toParse += dtSuffix.substring(n - eoy);
-                Integer calField = null;
-                if (n == eoy) calField = Calendar.YEAR;
-                else if (n == eoy + 3) calField = Calendar.MONTH;
-                else if (n == eoy + 6) calField = Calendar.DAY_OF_MONTH;
-                else if (n == eoy + 9) calField = Calendar.HOUR_OF_DAY;
-                else if (n == eoy + 12) calField = Calendar.MINUTE;
-                else if (n == eoy + 15) calField = Calendar.SECOND;
-                GregorianCalendar cal = new GregorianCalendar(UTC_TIMEZONE);
-                Date d1 = DF.parse(toParse);
-                cal.setTime(d1);
-                if (calField == null) {
-                    this.startTime = d1.getTime();
-                    this.endTime = this.startTime;
-                } else {
-                    cal.add(calField, 1);
-                    Date d2 = cal.getTime();
-                    this.startTime = d1.getTime();
-                    this.endTime = d2.getTime() - 1;
-                }
-                // Final validation that yyyy-MM-dd is a valid day (round trip test)
-                String ymdInput = toParse.substring(0, toParse.indexOf("T"));
-                String ymdOutput = this.toString();
-                ymdOutput = ymdOutput.substring(0, ymdOutput.indexOf("T"));
-                if (!ymdInput.equals(ymdOutput))
-					throw new IllegalArgumentException("Invalid ISO 8601 date and time, " +
-                    	isoDateTimeStr);
-			}
-		} catch (IllegalArgumentException ex) {
-			throw ex;
-        } catch (Exception ex) {
+        long[] times = new long[2];
+        if (!parse(isoDateTimeStr, times, true))
             throw new IllegalArgumentException("Invalid ISO 8601 date and time, " +
-                    isoDateTimeStr, ex);
+                    isoDateTimeStr);
+        this.startTime = times[0];
+        this.endTime = times[1];
+    }
+
+    /**
+     * This method parses an ISO Date Time String time point or interval like the String
+     * constructor, but returns null instead of throwing an exception if the String is
+     * invalid (or null).
+     *
+     * @param isoDateTimeStr String containing ISO 8601 Date Time point or interval
+     * @return ISO8601DateTimeInterval, or null if a parsing error occurs
+     */
+    public static ISO8601DateTimeInterval tryParse(String isoDateTimeStr) {
+        long[] times = new long[2];
+        if (!parse(isoDateTimeStr, times, false)) return null;
+        return new ISO8601DateTimeInterval(times[0], times[1]);
+    }
+
+    /*
+     * Parse the point or interval into the start and end times, returning false if the
+     * String is invalid, or throwing an exception for points out of order if raise is true
+     */
+    private static boolean parse(String isoDateTimeStr, long[] times, boolean raise) {
+        if (isoDateTimeStr == null) return false;
+        int n = isoDateTimeStr.length();
+        int i = isoDateTimeStr.indexOf("--");
+        if (i <= 0) return parse(isoDateTimeStr, 0, n, times);
+        long[] times2 = new long[2];
+        if (!parse(isoDateTimeStr, 0, i, times) || !parse(isoDateTimeStr, i + 2, n, times2))
+            return false;
+        if (times[0] > times2[0] || times[1] > times2[1]) {
+            if (!raise) return false;
+            throw new IllegalArgumentException(INVALID_ORDER + " for " + isoDateTimeStr);
         }
+        times[1] = times2[1];
+        return true;
     }
 
     /**
@@ -179,7 +163,9 @@ public class ISO8601DateTimeInterval extends ISO8601DateTimePoint {
      */
     @Override
     public String toString() {
-        return DF.format(new Date(this.startTime)) +
-                "--" + DF.format(new Date(this.endTime));
+        StringBuilder buf = new StringBuilder(50);
+        format(this.startTime, buf);
+        format(this.endTime, buf.append("--"));
+        return buf.toString();
     }
 }
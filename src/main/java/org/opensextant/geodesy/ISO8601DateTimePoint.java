@@ -14,7 +14,6 @@
  ***********************************************************************************/
 package org.opensextant.geodesy;
 
-import java.util.Date;
 import java.util.TimeZone;
 
 /**
@@ -23,12 +22,24 @@ import java.util.TimeZone;
  * String constructor and toString method that respectively parse and format dates
  * and times in the ISO 8601 format. Partial dates are parsed to the beginning of the
  * time interval they define.
+ * <p>
+ * Dates are read and written in the same calendar as java.util.GregorianCalendar, which
+ * switches from the Julian to the Gregorian calendar on 1582-10-15, and times are in UTC.
+ * The text is parsed and formatted directly rather than through a SimpleDateFormat.
  */
 public class ISO8601DateTimePoint implements Comparable<ISO8601DateTimePoint> {
     protected static final String INVALID_POINT = "invalid time point";
 
     protected final static TimeZone UTC_TIMEZONE = TimeZone.getTimeZone("UTC");
+    /**
+     * @deprecated no longer used to parse date time strings
+     */
+    @Deprecated
     protected final static String dtSuffix = "-01-01T00:00:00.000Z";
+    /**
+     * @deprecated no longer used to parse or format date time strings
+     */
+    @Deprecated
     protected final static SafeDateFormat DF;
 
     static {
@@ -62,26 +73,228 @@ public class ISO8601DateTimePoint implements Comparable<ISO8601DateTimePoint> {
      * @throws IllegalArgumentException if a parsing error occurs
      */
     public ISO8601DateTimePoint(String isoDateTimeStr) {
-		String ymdInput, ymdOutput;
-        try {
-            String toParse = isoDateTimeStr;
-            int eoy = toParse.indexOf("-");
-            if (eoy < 0) eoy = toParse.length();
-            int n = toParse.length();
-            toParse = toParse.replace(" ", "T");
-            toParse += dtSuffix.substring(n - eoy);
-            this.startTime = DF.parse(toParse).getTime();
-            // Final validation that yyyy-MM-dd is a valid day (round trip test)
-            ymdInput = toParse.substring(0, toParse.indexOf("T"));
-            ymdOutput = this.toString();
-            ymdOutput = ymdOutput.substring(0, ymdOutput.indexOf("T"));
-        } catch (Exception ex) {
+        long[] times = new long[2];
+        if (isoDateTimeStr == null ||
+                !parse(isoDateTimeStr, 0, isoDateTimeStr.length(), times))
             throw new IllegalArgumentException("Invalid ISO 8601 date and time, " +
-                    isoDateTimeStr, ex);
-        }
-		if (!ymdInput.equals(ymdOutput))
-				throw new IllegalArgumentException("Invalid ISO 8601 date and time, " +
                     isoDateTimeStr);
+        this.startTime = times[0];
+    }
+
+    /**
+     * This method parses an ISO Date Time String like the String constructor, but
+     * returns null instead of throwing an exception if the String is invalid (or null).
+     *
+     * @param isoDateTimeStr String containing an ISO 8601 Date Time point or interval
+     * @return ISO8601DateTimePoint, or null if a parsing error occurs
+     */
+    public static ISO8601DateTimePoint tryParse(String isoDateTimeStr) {
+        long[] times = new long[2];
+        if (isoDateTimeStr == null ||
+                !parse(isoDateTimeStr, 0, isoDateTimeStr.length(), times)) return null;
+        return new ISO8601DateTimePoint(times[0]);
+    }
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60000L;
+    private static final long MILLIS_PER_HOUR = 3600000L;
+    private static final long MILLIS_PER_DAY = 86400000L;
+    // Epoch day of 1582-10-15, the first day of the Gregorian calendar (the day after
+    // 1582-10-04 in the Julian calendar)
+    private static final long GREGORIAN_CUTOVER_DAY = -141427L;
+    // Lengths of the reduced precision intervals, or -1 and -2 for a year and a month
+    private static final long YEAR = -1L;
+    private static final long MONTH = -2L;
+
+    /**
+     * This method parses the ISO 8601 date time point between the start and end indices
+     * of the text, in the form yyyy-MM-dd'T'HH:mm:ss.SSS'Z' or a prefix of it ending
+     * after the year, month, day, hour, minute, second or 1 to 3 fraction digits. A
+     * space may replace the 'T', and the year may have more than 4 digits (without a
+     * leading zero). The start and end times of the interval defined by the given
+     * precision are stored in times[0] and times[1], e.g. 2011-06 means the interval
+     * from 2011-06-01T00:00:00.000Z to 2011-06-30T23:59:59.999Z.
+     *
+     * @param text  text containing an ISO 8601 date time point
+     * @param start index of the first character of the point
+     * @param end   index after the last character of the point
+     * @param times array receiving the start and end times in milliseconds
+     * @return true if the text is a valid date and time, otherwise false (and times is
+     *         unchanged)
+     */
+    static boolean parse(CharSequence text, int start, int end, long[] times) {
+        // Year: 4 digits, or up to 8 digits without a leading zero
+        int i = start;
+        long year = 0;
+        while (i < end && i - start < 8) {
+            char c = text.charAt(i);
+            if (c < '0' || '9' < c) break;
+            year = 10 * year + (c - '0');
+            i++;
+        }
+        int digits = i - start;
+        if (digits < 4 || (digits > 4 && text.charAt(start) == '0') || year == 0)
+            return false;
+        if (i == end) return setTimes(times, year, 1, 1, 0L, YEAR);
+
+        int month = twoDigits(text, i, end, '-');
+        if (month < 1 || 12 < month) return false;
+        if ((i += 3) == end) return setTimes(times, year, month, 1, 0L, MONTH);
+
+        int day = twoDigits(text, i, end, '-');
+        if (day < 1 || daysInMonth(year, month) < day ||
+                (year == 1582 && month == 10 && 4 < day && day < 15)) return false;
+        if ((i += 3) == end) return setTimes(times, year, month, day, 0L, MILLIS_PER_DAY);
+
+        int hour = (text.charAt(i) == ' ') ?
+                twoDigits(text, i, end, ' ') : twoDigits(text, i, end, 'T');
+        if (hour < 0 || 23 < hour) return false;
+        long millis = hour * MILLIS_PER_HOUR;
+        if ((i += 3) == end) return setTimes(times, year, month, day, millis, MILLIS_PER_HOUR);
+
+        int minute = twoDigits(text, i, end, ':');
+        if (minute < 0 || 59 < minute) return false;
+        millis += minute * MILLIS_PER_MINUTE;
+        if ((i += 3) == end) return setTimes(times, year, month, day, millis, MILLIS_PER_MINUTE);
+
+        int second = twoDigits(text, i, end, ':');
+        if (second < 0 || 59 < second) return false;
+        millis += second * MILLIS_PER_SECOND;
+        if ((i += 3) == end) return setTimes(times, year, month, day, millis, MILLIS_PER_SECOND);
+
+        // Fraction of a second: 1 to 3 digits, then 'Z' only after all 3
+        if (text.charAt(i++) != '.') return false;
+        int scale = 100;
+        for (; i < end && scale > 0; i++, scale /= 10) {
+            char c = text.charAt(i);
+            if (c < '0' || '9' < c) break;
+            millis += scale * (c - '0');
+        }
+        if (scale == 100) return false;
+        if (scale == 0 && i < end && text.charAt(i) == 'Z') i++;
+        return (i == end) && setTimes(times, year, month, day, millis, 1L);
+    }
+
+    /*
+     * Read the separator and the two digits starting at index i of the text, returning
+     * their value, or -1 if there are not two digits after the separator
+     */
+    private static int twoDigits(CharSequence text, int i, int end, char separator) {
+        if (end - i < 3 || text.charAt(i) != separator) return -1;
+        int d1 = text.charAt(i + 1) - '0';
+        int d2 = text.charAt(i + 2) - '0';
+        return (d1 < 0 || 9 < d1 || d2 < 0 || 9 < d2) ? -1 : 10 * d1 + d2;
+    }
+
+    /*
+     * Store the start time of the given date plus the milliseconds into the day, and the
+     * last millisecond of the interval of the given length (or of the year or month)
+     */
+    private static boolean setTimes(long[] times, long year, int month, int day,
+                                    long millis, long length) {
+        long startTime = epochDay(year, month, day) * MILLIS_PER_DAY + millis;
+        long endTime;
+        if (length == YEAR)
+            endTime = epochDay(year + 1, 1, 1) * MILLIS_PER_DAY;
+        else if (length == MONTH)
+            endTime = ((month == 12) ? epochDay(year + 1, 1, 1) :
+                    epochDay(year, month + 1, 1)) * MILLIS_PER_DAY;
+        else
+            endTime = startTime + length;
+        times[0] = startTime;
+        times[1] = endTime - 1;
+        return true;
+    }
+
+    /* Number of days in the month, with the Julian leap year rule before 1583 */
+    private static int daysInMonth(long year, int month) {
+        if (month == 2)
+            return ((year % 4 == 0) && (year < 1583 || year % 100 != 0 || year % 400 == 0)) ?
+                    29 : 28;
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    /*
+     * Number of days from 1970-01-01 to the given date, in the Julian calendar before
+     * 1582-10-15 and the Gregorian calendar after. Days are counted in eras of 400
+     * (Gregorian) or 4 (Julian) years starting on March 1, so that leap days fall at
+     * the end of a year.
+     */
+    private static long epochDay(long year, int month, int day) {
+        long y = (month <= 2) ? year - 1 : year;
+        int dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        boolean julian = (year < 1582) || (year == 1582 && (month < 10 ||
+                (month == 10 && day < 15)));
+        if (julian) {
+            long era = floorDiv(y, 4L);
+            long yearOfEra = y - era * 4L;
+            return era * 1461L + yearOfEra * 365L + dayOfYear - 719470L;
+        }
+        long era = floorDiv(y, 400L);
+        long yearOfEra = y - era * 400L;
+        return era * 146097L + yearOfEra * 365L + yearOfEra / 4L - yearOfEra / 100L +
+                dayOfYear - 719468L;
+    }
+
+    /* Integer division rounding towards negative infinity */
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (q * y != x && (x < 0) != (y < 0)) ? q - 1 : q;
+    }
+
+    /**
+     * This method formats the time as an ISO 8601 date time point in the form
+     * yyyy-MM-dd'T'HH:mm:ss.SSS'Z', appending it to the buffer. Years before 1 AD are
+     * formatted as years of the BC era (with no era designator), as SimpleDateFormat
+     * does.
+     *
+     * @param time time in milliseconds since 1970-01-01T00:00:00.000Z
+     * @param buf  buffer to append the formatted time to
+     */
+    static void format(long time, StringBuilder buf) {
+        long day = floorDiv(time, MILLIS_PER_DAY);
+        int millis = (int) (time - day * MILLIS_PER_DAY);
+        long era, dayOfEra, yearOfEra;
+        if (day >= GREGORIAN_CUTOVER_DAY) {
+            long z = day + 719468L;
+            era = floorDiv(z, 146097L);
+            dayOfEra = z - era * 146097L;
+            yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36524L -
+                    dayOfEra / 146096L) / 365L;
+            dayOfEra -= yearOfEra * 365L + yearOfEra / 4L - yearOfEra / 100L;
+            era *= 400L;
+        } else {
+            long z = day + 719470L;
+            era = floorDiv(z, 1461L);
+            dayOfEra = z - era * 1461L;
+            yearOfEra = Math.min(dayOfEra / 365L, 3L);
+            dayOfEra -= yearOfEra * 365L;
+            era *= 4L;
+        }
+        // dayOfEra is now the day of the year starting on March 1
+        int mp = (int) (5L * dayOfEra + 2L) / 153;
+        int dayOfMonth = (int) dayOfEra - (153 * mp + 2) / 5 + 1;
+        int month = (mp < 10) ? mp + 3 : mp - 9;
+        long year = era + yearOfEra + ((month <= 2) ? 1 : 0);
+        if (year <= 0) year = 1 - year;
+
+        String y = Long.toString(year);
+        for (int i = y.length(); i < 4; i++) buf.append('0');
+        buf.append(y);
+        appendTwoDigits(buf.append('-'), month);
+        appendTwoDigits(buf.append('-'), dayOfMonth);
+        appendTwoDigits(buf.append('T'), millis / 3600000);
+        appendTwoDigits(buf.append(':'), millis / 60000 % 60);
+        appendTwoDigits(buf.append(':'), millis / 1000 % 60);
+        millis %= 1000;
+        buf.append('.').append((char) ('0' + millis / 100));
+        appendTwoDigits(buf, millis % 100);
+        buf.append('Z');
+    }
+
+    /* Append the value from 0 to 99 as two digits */
+    private static void appendTwoDigits(StringBuilder buf, int value) {
+        buf.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
     }
 
     /**
@@ -137,6 +350,8 @@ public class ISO8601DateTimePoint implements Comparable<ISO8601DateTimePoint> {
      */
     @Override
     public String toString() {
-        return DF.format(new Date(this.startTime));
+        StringBuilder buf = new StringBuilder(24);
+        format(this.startTime, buf);
+        return buf.toString();
     }
 }
@@ -0,0 +1,1081 @@
+/****************************************************************************************
+ *  KarneyGeodesic.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The KarneyGeodesic class solves the geodesic problems on an Ellipsoid with the
+ * algorithms of C. F. F. Karney, "Algorithms for geodesics", J. Geodesy 87, 43-55 (2013),
+ * adapted from the GeographicLib implementation (MIT/X11 License) to take primitive
+ * values in radians. Unlike the Vincenty solution used by default in Geodetic2DArc, the
+ * inverse solution converges for every pair of points, including nearly and exactly
+ * antipodal ones, and needs a bounded amount of work: a spherical or astroid based first
+ * guess, then at most a few dozen Newton or bisection steps (two or three for most
+ * points). Results are accurate to about 15 nanometers.<p/>
+ *
+ * There is one shared instance per Ellipsoid (see Ellipsoid.getKarneyGeodesic). It is
+ * immutable, so it may be used by several threads at once; each call uses only its own
+ * small scratch arrays. Select it for a Geodetic2DArc with GeodesicSolver.KARNEY.
+ */
+public final class KarneyGeodesic {
+
+    private static final int GEODESIC_ORDER = 6;
+    private static final int nA1 = GEODESIC_ORDER, nC1 = GEODESIC_ORDER, nC1p = GEODESIC_ORDER,
+            nA2 = GEODESIC_ORDER, nC2 = GEODESIC_ORDER, nA3 = GEODESIC_ORDER, nA3x = nA3,
+            nC3 = GEODESIC_ORDER, nC3x = (nC3 * (nC3 - 1)) / 2;
+
+    // Iteration limits: Newton's method, then bisection (which always converges)
+    private static final int MAXIT1 = 20;
+    private static final int MAXIT2 = MAXIT1 + 53 + 10;
+
+    private static final double TINY = Math.sqrt(Double.MIN_VALUE);
+    private static final double TOL0 = Math.ulp(1.0);
+    private static final double TOL1 = 200 * TOL0;
+    private static final double TOL2 = Math.sqrt(TOL0);
+    private static final double TOLB = TOL0 * TOL2;
+    private static final double XTHRESH = 1000 * TOL2;
+
+    @NonNull private final Ellipsoid ellip;
+    private final double a, b, f, f1, ep2, n, etol2;
+    private final double[] A3x = new double[nA3x];
+    private final double[] C3x = new double[nC3x];
+
+    /*
+     * This constructor computes the series coefficients for an Ellipsoid. Use the
+     * Ellipsoid.getKarneyGeodesic method to get the shared instance instead.
+     */
+    KarneyGeodesic(Ellipsoid ellip) {
+        this.ellip = ellip;
+        a = ellip.getEquatorialRadius();
+        f = ellip.getFlattening();
+        f1 = 1 - f;
+        double e2 = f * (2 - f);
+        ep2 = e2 / sq(f1);
+        n = f / (2 - f);
+        b = a * f1;
+        etol2 = 0.1 * TOL2 / Math.sqrt(Math.max(0.001, Math.abs(f)) * Math.min(1.0, 1 - f / 2) / 2);
+        A3coeff();
+        C3coeff();
+    }
+
+    /**
+     * This accessor method returns the Ellipsoid this geodesic solver works on.
+     *
+     * @return Ellipsoid model of the earth
+     */
+    @NonNull
+    public Ellipsoid getEllipsoid() {
+        return ellip;
+    }
+
+    /**
+     * This method solves the inverse geodesic problem: it returns the shortest distance in
+     * meters between two points on the surface of the Ellipsoid, and optionally the azimuths
+     * of the geodesic at each end.  It always converges.
+     *
+     * @param lon1     longitude of point 1 in radians
+     * @param lat1     latitude of point 1 in radians
+     * @param lon2     longitude of point 2 in radians
+     * @param lat2     latitude of point 2 in radians
+     * @param azimuths if not null, receives the forward azimuth at point 1 (index 0) and at
+     *                 point 2 (index 1), in radians clockwise from North
+     * @return distance in meters
+     */
+    public double inverse(double lon1, double lat1, double lon2, double lat2, double[] azimuths) {
+        Work w = new Work();
+        double s12 = inverse(Math.toDegrees(lat1), Math.toDegrees(lon1),
+                Math.toDegrees(lat2), Math.toDegrees(lon2), w);
+        if (azimuths != null) {
+            azimuths[0] = Math.toRadians(atan2d(w.salp1, w.calp1));
+            azimuths[1] = Math.toRadians(atan2d(w.salp2, w.calp2));
+        }
+        return s12;
+    }
+
+    /**
+     * This method solves the direct geodesic problem: it finds the point at the specified
+     * distance from point 1 along the geodesic that starts with the specified azimuth.
+     *
+     * @param lon1     longitude of point 1 in radians
+     * @param lat1     latitude of point 1 in radians
+     * @param azimuth  forward azimuth at point 1 in radians clockwise from North
+     * @param distance distance in meters from point 1 (may be negative)
+     * @param lonLat   array to receive the longitude (index 0) and latitude (index 1) of
+     *                 point 2 in radians; if it has a third element, it receives the forward
+     *                 azimuth at point 2 in radians
+     * @throws NullPointerException if lonLat is null
+     */
+    public void direct(double lon1, double lat1, double azimuth, double distance, double[] lonLat) {
+        double azi1 = angNormalize(Math.toDegrees(azimuth));
+        double[] p = new double[2];
+        sincosd(p, angRound(azi1));
+        Line line = new Line(Math.toDegrees(lat1), Math.toDegrees(lon1), p[0], p[1]);
+        line.position(distance, lonLat);
+    }
+
+    /**
+     * This method computes points equally spaced along the geodesic between two points,
+     * including both end points.  The number of points computed is lon.length (at least 2):
+     * lon[0] and lat[0] are point 1, and the last elements are point 2.  The geodesic is
+     * solved once, so this is much faster than solving the direct problem for each point.
+     *
+     * @param lon1 longitude of point 1 in radians
+     * @param lat1 latitude of point 1 in radians
+     * @param lon2 longitude of point 2 in radians
+     * @param lat2 latitude of point 2 in radians
+     * @param lon  array to receive the longitudes of the points in radians
+     * @param lat  array to receive the latitudes of the points in radians
+     * @return distance in meters between consecutive points
+     * @throws IllegalArgumentException if lon has fewer than 2 elements, or lat is shorter
+     * @throws NullPointerException if lon or lat are null
+     */
+    public double waypoints(double lon1, double lat1, double lon2, double lat2, double[] lon, double[] lat) {
+        int count = lon.length;
+        if (count < 2 || lat.length < count)
+            throw new IllegalArgumentException("Waypoint arrays must hold at least 2 points");
+        Work w = new Work();
+        double lat1d = Math.toDegrees(lat1);
+        double s12 = inverse(lat1d, Math.toDegrees(lon1), Math.toDegrees(lat2), Math.toDegrees(lon2), w);
+        Line line = new Line(lat1d, Math.toDegrees(lon1), w.salp1, w.calp1);
+        double ds = s12 / (count - 1);
+        double[] lonLat = new double[2];
+        lon[0] = Angle.normalize(lon1);
+        lat[0] = lat1;
+        for (int i = 1; i < count - 1; i++) {
+            line.position(i * ds, lonLat);
+            lon[i] = lonLat[0];
+            lat[i] = lonLat[1];
+        }
+        lon[count - 1] = Angle.normalize(lon2);
+        lat[count - 1] = lat2;
+        return ds;
+    }
+
+    /*
+     * This method returns the latitude in radians reached by going the specified distance
+     * due North along the meridian from a latitude in radians (due South if the distance is
+     * negative), or NaN if that would pass a pole.
+     */
+    double meridianLatitude(double lat1, double distance) {
+        // Along a meridian alp0 = 0, so k2 = ep2 and eps = n
+        double[] C1a = new double[nC1 + 1];
+        double[] C1pa = new double[nC1p + 1];
+        C1f(n, C1a);
+        C1pf(n, C1pa);
+        double sbet1 = f1 * Math.sin(lat1), cbet1 = Math.cos(lat1);
+        double sig1 = Math.atan2(sbet1, cbet1);
+        double tau2 = sig1 + sinCosSeries(true, Math.sin(sig1), Math.cos(sig1), C1a) +
+                distance / (b * (1 + A1m1f(n)));
+        double sig2 = tau2 + sinCosSeries(true, Math.sin(tau2), Math.cos(tau2), C1pa);
+        if (Math.abs(sig2) > Math.PI / 2) return Double.NaN;
+        return Math.atan2(Math.sin(sig2), f1 * Math.cos(sig2));
+    }
+
+    /*
+     * This method returns the distance in meters along the meridian from a latitude in
+     * radians to the North Pole (use the negated latitude for the South Pole).
+     */
+    double poleDistance(double lat1) {
+        double[] C1a = new double[nC1 + 1];
+        C1f(n, C1a);
+        double sig1 = Math.atan2(f1 * Math.sin(lat1), Math.cos(lat1));
+        double tau1 = sig1 + sinCosSeries(true, Math.sin(sig1), Math.cos(sig1), C1a);
+        return b * (1 + A1m1f(n)) * (Math.PI / 2 - tau1);
+    }
+
+    /*
+     * This method returns the longitude offset in radians, from the center, of the points of
+     * extreme longitude of a geodesic circle (the points at the specified distance from the
+     * center), or NaN if the circle contains a pole.  At those points the geodesic from the
+     * center runs due East or West, so they are its vertices: with reduced latitude betP,
+     * cos(alp0) = sin(betP), and sin(bet0) = sin(betP) * cos(sig12), where sig12 is the arc
+     * on the auxiliary sphere for the distance.  sig12 depends only weakly on betP (through
+     * eps), so a fixed point iteration converges in a few steps.
+     */
+    double circleLongitudeExtent(double lat0, double distance) {
+        double[] C1pa = new double[nC1p + 1];
+        double[] C3a = new double[nC3];
+        double sbet0 = f1 * Math.sin(Math.abs(lat0)), cbet0 = Math.cos(lat0);
+        sbet0 /= Math.hypot(sbet0, cbet0);
+        double sbetP = sbet0, eps = 0, sigC = 0;
+        for (int i = 0; i < 10; i++) {
+            double k2 = sq(sbetP) * ep2;
+            eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+            C1pf(eps, C1pa);
+            // Go back from the vertex, where tau = sig = pi/2, to the center
+            double tauC = Math.PI / 2 - distance / (b * (1 + A1m1f(eps)));
+            sigC = tauC + sinCosSeries(true, Math.sin(tauC), Math.cos(tauC), C1pa);
+            if (!(sigC > 0)) return Double.NaN;
+            double next = sbet0 / Math.sin(sigC);    // sin(sigC) = cos(sig12)
+            if (!(next < 1)) return Double.NaN;
+            boolean done = Math.abs(next - sbetP) <= TOL1;
+            sbetP = next;
+            if (done) break;
+        }
+        double salp0 = Math.sqrt((1 - sbetP) * (1 + sbetP));
+        // omg = pi/2 at the vertex, and tan(omg) = sin(alp0) * tan(sig)
+        double domg = Math.PI / 2 - Math.atan2(salp0 * Math.sin(sigC), Math.cos(sigC));
+        C3f(eps, C3a);
+        double B3C = sinCosSeries(true, Math.sin(sigC), Math.cos(sigC), C3a);
+        return domg - f * A3f(eps) * salp0 * ((Math.PI / 2 - sigC) - B3C);
+    }
+
+    /*
+     * Scratch space and intermediate results for one inverse calculation
+     */
+    private static final class Work {
+        final double[] p = new double[2];
+        final double[] C1a = new double[nC1 + 1];
+        final double[] C2a = new double[nC2 + 1];
+        final double[] C3a = new double[nC3];
+        // Lengths results
+        double s12b, m12b, m0;
+        // InverseStart and Lambda12 results
+        double sig12, salp1, calp1, salp2, calp2, dnm;
+        double ssig1, csig1, ssig2, csig2, eps, domg12, v, dlam12;
+    }
+
+    /*
+     * The inverse problem in degrees, returning the distance in meters and leaving the
+     * sines and cosines of the azimuths at each end in w.salp1, w.calp1, w.salp2 and w.calp2.
+     */
+    private double inverse(double lat1, double lon1, double lat2, double lon2, Work w) {
+        final double[] p = w.p;
+        lat1 = latFix(lat1);
+        lat2 = latFix(lat2);
+        // Compute longitude difference (angDiff does this carefully)
+        angDiff(lon1, lon2, p);
+        double lon12 = p[0], lon12s = p[1];
+        // Make longitude difference positive
+        int lonsign = lon12 >= 0 ? 1 : -1;
+        // If very close to being on the same half-meridian, then make it so
+        lon12 = lonsign * angRound(lon12);
+        lon12s = angRound((180 - lon12) - lonsign * lon12s);
+        double lam12 = Math.toRadians(lon12), slam12, clam12;
+        sincosd(p, lon12 > 90 ? lon12s : lon12);
+        slam12 = p[0];
+        clam12 = (lon12 > 90 ? -1 : 1) * p[1];
+
+        // If really close to the equator, treat as on equator
+        lat1 = angRound(lat1);
+        lat2 = angRound(lat2);
+        // Swap points so that point with higher (abs) latitude is point 1
+        int swapp = Math.abs(lat1) < Math.abs(lat2) ? -1 : 1;
+        if (swapp < 0) {
+            lonsign *= -1;
+            double t = lat1;
+            lat1 = lat2;
+            lat2 = t;
+        }
+        // Make lat1 <= 0
+        int latsign = lat1 < 0 ? 1 : -1;
+        lat1 *= latsign;
+        lat2 *= latsign;
+
+        double sbet1, cbet1, sbet2, cbet2, s12x, m12x;
+        sincosd(p, lat1);
+        sbet1 = f1 * p[0];
+        cbet1 = p[1];
+        // Ensure cbet1 = +epsilon at poles
+        norm(p, sbet1, cbet1);
+        sbet1 = p[0];
+        cbet1 = Math.max(TINY, p[1]);
+
+        sincosd(p, lat2);
+        sbet2 = f1 * p[0];
+        cbet2 = p[1];
+        norm(p, sbet2, cbet2);
+        sbet2 = p[0];
+        cbet2 = Math.max(TINY, p[1]);
+
+        // Force bet2 = +/- bet1 exactly when they are nearly so (used by lambda12)
+        if (cbet1 < -sbet1) {
+            if (cbet2 == cbet1) sbet2 = sbet2 < 0 ? sbet1 : -sbet1;
+        } else {
+            if (Math.abs(sbet2) == -sbet1) cbet2 = cbet1;
+        }
+
+        double dn1 = Math.sqrt(1 + ep2 * sq(sbet1));
+        double dn2 = Math.sqrt(1 + ep2 * sq(sbet2));
+
+        double sig12, calp1, salp1, calp2 = Double.NaN, salp2 = Double.NaN;
+        s12x = Double.NaN;
+
+        boolean meridian = lat1 == -90 || slam12 == 0;
+        if (meridian) {
+            // Endpoints are on a single full meridian, so the geodesic might lie on a meridian
+            calp1 = clam12;
+            salp1 = slam12;     // Head to the target longitude
+            calp2 = 1;
+            salp2 = 0;          // At the target we're heading north
+            // tan(bet) = tan(sig) * cos(alp)
+            double ssig1 = sbet1, csig1 = calp1 * cbet1;
+            double ssig2 = sbet2, csig2 = calp2 * cbet2;
+            // sig12 = sig2 - sig1
+            sig12 = Math.atan2(Math.max(0.0, csig1 * ssig2 - ssig1 * csig2), csig1 * csig2 + ssig1 * ssig2);
+            lengths(n, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, true, true, w);
+            s12x = w.s12b;
+            m12x = w.m12b;
+            if (sig12 < 1 || m12x >= 0) {
+                if (sig12 < 3 * TINY || (sig12 < TOL0 && (s12x < 0 || m12x < 0)))
+                    sig12 = s12x = 0;
+                s12x *= b;
+            } else {
+                // m12 < 0, i.e., too close to anti-podal
+                meridian = false;
+            }
+        } else {
+            calp1 = salp1 = Double.NaN;
+        }
+
+        if (!meridian && sbet1 == 0 && (f <= 0 || lon12s >= f * 180)) {
+            // Geodesic runs along equator
+            calp1 = calp2 = 0;
+            salp1 = salp2 = 1;
+            s12x = a * lam12;
+        } else if (!meridian) {
+            // Now point1 and point2 belong within a hemisphere bounded by a meridian and
+            // geodesic is neither meridional or equatorial.  Find a starting point for Newton.
+            inverseStart(sbet1, cbet1, sbet2, cbet2, lam12, slam12, clam12, w);
+            sig12 = w.sig12;
+            salp1 = w.salp1;
+            calp1 = w.calp1;
+            if (sig12 >= 0) {
+                // Short lines (inverseStart sets salp2, calp2, dnm)
+                salp2 = w.salp2;
+                calp2 = w.calp2;
+                s12x = sig12 * b * w.dnm;
+            } else {
+                // Newton's method, keeping a bracket (alp1a, alp1b) of the root, and falling
+                // back to bisection of the bracket when a Newton step is not useful
+                double ssig1 = Double.NaN, csig1 = Double.NaN, ssig2 = Double.NaN, csig2 = Double.NaN;
+                double eps = Double.NaN;
+                double salp1a = TINY, calp1a = 1, salp1b = TINY, calp1b = -1;
+                boolean tripn = false, tripb = false;
+                for (int numit = 0; numit < MAXIT2; ++numit) {
+                    lambda12(sbet1, cbet1, dn1, sbet2, cbet2, dn2, salp1, calp1, slam12, clam12,
+                            numit < MAXIT1, w);
+                    double v = w.v;
+                    salp2 = w.salp2;
+                    calp2 = w.calp2;
+                    sig12 = w.sig12;
+                    ssig1 = w.ssig1;
+                    csig1 = w.csig1;
+                    ssig2 = w.ssig2;
+                    csig2 = w.csig2;
+                    eps = w.eps;
+                    double dv = w.dlam12;
+                    // Reversed test to allow escape with NaNs
+                    if (tripb || !(Math.abs(v) >= (tripn ? 8 : 1) * TOL0)) break;
+                    // Update bracketing values
+                    if (v > 0 && (numit < MAXIT1 || calp1 / salp1 > calp1b / salp1b)) {
+                        salp1b = salp1;
+                        calp1b = calp1;
+                    } else if (v < 0 && (numit < MAXIT1 || calp1 / salp1 < calp1a / salp1a)) {
+                        salp1a = salp1;
+                        calp1a = calp1;
+                    }
+                    if (numit < MAXIT1 && dv > 0) {
+                        double dalp1 = -v / dv;
+                        double sdalp1 = Math.sin(dalp1), cdalp1 = Math.cos(dalp1);
+                        double nsalp1 = salp1 * cdalp1 + calp1 * sdalp1;
+                        if (nsalp1 > 0 && Math.abs(dalp1) < Math.PI) {
+                            calp1 = calp1 * cdalp1 - salp1 * sdalp1;
+                            salp1 = nsalp1;
+                            norm(p, salp1, calp1);
+                            salp1 = p[0];
+                            calp1 = p[1];
+                            // Use convergence conditions based on epsilon when slope -> 0
+                            tripn = Math.abs(v) <= 16 * TOL0;
+                            continue;
+                        }
+                    }
+                    // Newton's step was not usable, so bisect the bracket
+                    salp1 = (salp1a + salp1b) / 2;
+                    calp1 = (calp1a + calp1b) / 2;
+                    norm(p, salp1, calp1);
+                    salp1 = p[0];
+                    calp1 = p[1];
+                    tripn = false;
+                    tripb = (Math.abs(salp1a - salp1) + (calp1a - calp1) < TOLB ||
+                            Math.abs(salp1 - salp1b) + (calp1 - calp1b) < TOLB);
+                }
+                lengths(eps, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, true, false, w);
+                s12x = w.s12b * b;
+            }
+        }
+
+        // Convert calp, salp to azimuth accounting for lonsign, swapp, latsign
+        if (swapp < 0) {
+            double t = salp1;
+            salp1 = salp2;
+            salp2 = t;
+            t = calp1;
+            calp1 = calp2;
+            calp2 = t;
+        }
+        w.salp1 = salp1 * swapp * lonsign;
+        w.calp1 = calp1 * swapp * latsign;
+        w.salp2 = salp2 * swapp * lonsign;
+        w.calp2 = calp2 * swapp * latsign;
+        return 0 + s12x;    // Convert -0 to 0
+    }
+
+    /*
+     * Distance (s12b) and reduced length (m12b) for a geodesic in units of b
+     */
+    private void lengths(double eps, double sig12, double ssig1, double csig1, double dn1,
+                         double ssig2, double csig2, double dn2, boolean distance, boolean reduced, Work w) {
+        double[] C1a = w.C1a, C2a = w.C2a;
+        double m0x = 0, J12 = 0, A1, A2 = 0;
+        A1 = A1m1f(eps);
+        C1f(eps, C1a);
+        if (reduced) {
+            A2 = A2m1f(eps);
+            C2f(eps, C2a);
+            m0x = A1 - A2;
+            A2 = 1 + A2;
+        }
+        A1 = 1 + A1;
+        if (distance) {
+            double B1 = sinCosSeries(true, ssig2, csig2, C1a) - sinCosSeries(true, ssig1, csig1, C1a);
+            w.s12b = A1 * (sig12 + B1);
+            if (reduced) {
+                double B2 = sinCosSeries(true, ssig2, csig2, C2a) - sinCosSeries(true, ssig1, csig1, C2a);
+                J12 = m0x * sig12 + (A1 * B1 - A2 * B2);
+            }
+        } else if (reduced) {
+            // Assume here that nC1 >= nC2
+            for (int l = 1; l <= nC2; ++l)
+                C2a[l] = A1 * C1a[l] - A2 * C2a[l];
+            J12 = m0x * sig12 + (sinCosSeries(true, ssig2, csig2, C2a) - sinCosSeries(true, ssig1, csig1, C2a));
+        }
+        if (reduced) {
+            w.m0 = m0x;
+            // Missing a factor of b.  Add parens around (csig1 * ssig2) and (ssig1 * csig2) to
+            // ensure accurate cancellation in the case of coincident points.
+            w.m12b = dn2 * (csig1 * ssig2) - dn1 * (ssig1 * csig2) - csig1 * csig2 * J12;
+        }
+    }
+
+    /* Solve k^4+2*k^3-(x^2+y^2-1)*k^2-2*y^2*k-y^2 = 0 for positive root k */
+    private static double astroid(double x, double y) {
+        double k;
+        double p = sq(x), q = sq(y), r = (p + q - 1) / 6;
+        if (!(q == 0 && r <= 0)) {
+            // Avoid possible division by zero when r = 0 by multiplying equations for s and t by r^3 and r, resp.
+            double S = p * q / 4, r2 = sq(r), r3 = r * r2;
+            // The discriminant of the quadratic equation for T3.  This is zero on the evolute curve p^(1/3)+q^(1/3) = 1
+            double disc = S * (S + 2 * r3);
+            double u = r;
+            if (disc >= 0) {
+                double T3 = S + r3;
+                // Pick the sign on the sqrt to maximize abs(T3), to minimize loss of precision
+                T3 += T3 < 0 ? -Math.sqrt(disc) : Math.sqrt(disc);
+                double T = Math.cbrt(T3);
+                // T can be zero; but then r2 / T -> 0.
+                u += T + (T != 0 ? r2 / T : 0);
+            } else {
+                // T is complex, but the way u is defined the result is real
+                double ang = Math.atan2(Math.sqrt(-disc), -(S + r3));
+                u += 2 * r * Math.cos(ang / 3);
+            }
+            double v = Math.sqrt(sq(u) + q);      // guaranteed positive
+            // Avoid loss of accuracy when u < 0
+            double uv = u < 0 ? q / (v - u) : u + v;  // u+v, guaranteed positive
+            double wk = (uv - q) / (2 * v);           // positive?
+            k = uv / (Math.sqrt(uv + sq(wk)) + wk);   // guaranteed positive
+        } else {
+            // y = 0 with |x| <= 1.  Handle this case directly, for y small, positive root is k = abs(y)/sqrt(1-x^2)
+            k = 0;
+        }
+        return k;
+    }
+
+    /*
+     * Starting point for Newton's method in w.salp1 and w.calp1 (with w.sig12 = -1), or,
+     * for short lines that need no iteration, the solution with w.sig12 >= 0
+     */
+    private void inverseStart(double sbet1, double cbet1, double sbet2, double cbet2,
+                              double lam12, double slam12, double clam12, Work w) {
+        w.sig12 = -1;
+        double sbet12 = sbet2 * cbet1 - cbet2 * sbet1;
+        double cbet12 = cbet2 * cbet1 + sbet2 * sbet1;
+        double sbet12a = sbet2 * cbet1 + cbet2 * sbet1;
+        boolean shortline = cbet12 >= 0 && sbet12 < 0.5 && cbet2 * lam12 < 0.5;
+        double somg12, comg12;
+        if (shortline) {
+            double sbetm2 = sq(sbet1 + sbet2);
+            // sin((bet1+bet2)/2)^2 = (sbet1 + sbet2)^2 / ((sbet1 + sbet2)^2 + (cbet1 + cbet2)^2)
+            sbetm2 /= sbetm2 + sq(cbet1 + cbet2);
+            w.dnm = Math.sqrt(1 + ep2 * sbetm2);
+            double omg12 = lam12 / (f1 * w.dnm);
+            somg12 = Math.sin(omg12);
+            comg12 = Math.cos(omg12);
+        } else {
+            somg12 = slam12;
+            comg12 = clam12;
+        }
+
+        w.salp1 = cbet2 * somg12;
+        w.calp1 = comg12 >= 0 ?
+                sbet12 + cbet2 * sbet1 * sq(somg12) / (1 + comg12) :
+                sbet12a - cbet2 * sbet1 * sq(somg12) / (1 - comg12);
+
+        double ssig12 = Math.hypot(w.salp1, w.calp1);
+        double csig12 = sbet1 * sbet2 + cbet1 * cbet2 * comg12;
+
+        if (shortline && ssig12 < etol2) {
+            // really short lines
+            w.salp2 = cbet1 * somg12;
+            w.calp2 = sbet12 - cbet1 * sbet2 * (comg12 >= 0 ? sq(somg12) / (1 + comg12) : 1 - comg12);
+            norm(w.p, w.salp2, w.calp2);
+            w.salp2 = w.p[0];
+            w.calp2 = w.p[1];
+            // Set return value
+            w.sig12 = Math.atan2(ssig12, csig12);
+        } else if (Math.abs(n) > 0.1 ||       // Skip astroid calc if too eccentric
+                csig12 >= 0 ||
+                ssig12 >= 6 * Math.abs(n) * Math.PI * sq(cbet1)) {
+            // Nothing to do, zeroth order spherical approximation is OK
+        } else {
+            // Scale lam12 and bet2 to x, y coordinate system where antipodal point is at
+            // origin and singular point is at y = 0, x = -1 (the Ellipsoid is oblate)
+            double lam12x = Math.atan2(-slam12, -clam12); // lam12 - pi
+            double k2 = sq(sbet1) * ep2;
+            double eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+            double lamscale = f * cbet1 * A3f(eps) * Math.PI;
+            double betscale = lamscale * cbet1;
+            double x = lam12x / lamscale;
+            double y = sbet12a / betscale;
+
+            if (y > -TOL1 && x > -1 - XTHRESH) {
+                // strip near cut
+                w.salp1 = Math.min(1.0, -x);
+                w.calp1 = -Math.sqrt(1 - sq(w.salp1));
+            } else {
+                // Estimate alp1, by solving the astroid problem
+                double k = astroid(x, y);
+                double omg12a = lamscale * (-x * k / (1 + k));
+                somg12 = Math.sin(omg12a);
+                comg12 = -Math.cos(omg12a);
+                // Update spherical estimate of alp1 using omg12 instead of lam12
+                w.salp1 = cbet2 * somg12;
+                w.calp1 = sbet12a - cbet2 * sbet1 * sq(somg12) / (1 - comg12);
+            }
+        }
+        // Sanity check on starting guess.  Backwards check allows NaN through.
+        if (!(w.salp1 <= 0)) {
+            norm(w.p, w.salp1, w.calp1);
+            w.salp1 = w.p[0];
+            w.calp1 = w.p[1];
+        } else {
+            w.salp1 = 1;
+            w.calp1 = 0;
+        }
+    }
+
+    /*
+     * Longitude difference for a geodesic starting with azimuth alp1, less the target lam12
+     * (left in w.v), with its derivative (in w.dlam12) if diffp
+     */
+    private void lambda12(double sbet1, double cbet1, double dn1, double sbet2, double cbet2, double dn2,
+                          double salp1, double calp1, double slam120, double clam120,
+                          boolean diffp, Work w) {
+        if (sbet1 == 0 && calp1 == 0)
+            // Break degeneracy of equatorial line.  This case has already been handled.
+            calp1 = -TINY;
+
+        // sin(alp1) * cos(bet1) = sin(alp0)
+        double salp0 = salp1 * cbet1;
+        double calp0 = Math.hypot(calp1, salp1 * sbet1); // calp0 > 0
+
+        double somg1, comg1, somg2, comg2, somg12, comg12;
+        // tan(bet1) = tan(sig1) * cos(alp1)
+        // tan(omg1) = sin(alp0) * tan(sig1) = tan(omg1)=tan(alp1)*sin(bet1)
+        w.ssig1 = sbet1;
+        somg1 = salp0 * sbet1;
+        w.csig1 = comg1 = calp1 * cbet1;
+        norm(w.p, w.ssig1, w.csig1);
+        w.ssig1 = w.p[0];
+        w.csig1 = w.p[1];
+
+        // Enforce symmetries in the case abs(bet2) = -bet1.
+        w.salp2 = cbet2 != cbet1 ? salp0 / cbet2 : salp1;
+        // calp2 = sqrt(1 - sq(salp2)) = sqrt(sq(calp0) - sq(sbet2)) / cbet2
+        w.calp2 = cbet2 != cbet1 || Math.abs(sbet2) != -sbet1 ?
+                Math.sqrt(sq(calp1 * cbet1) +
+                        (cbet1 < -sbet1 ?
+                                (cbet2 - cbet1) * (cbet1 + cbet2) :
+                                (sbet1 - sbet2) * (sbet1 + sbet2))) / cbet2 :
+                Math.abs(calp1);
+        // tan(bet2) = tan(sig2) * cos(alp2)
+        // tan(omg2) = sin(alp0) * tan(sig2).
+        w.ssig2 = sbet2;
+        somg2 = salp0 * sbet2;
+        w.csig2 = comg2 = w.calp2 * cbet2;
+        norm(w.p, w.ssig2, w.csig2);
+        w.ssig2 = w.p[0];
+        w.csig2 = w.p[1];
+
+        // sig12 = sig2 - sig1, limit to [0, pi]
+        w.sig12 = Math.atan2(Math.max(0.0, w.csig1 * w.ssig2 - w.ssig1 * w.csig2),
+                w.csig1 * w.csig2 + w.ssig1 * w.ssig2);
+
+        // omg12 = omg2 - omg1, limit to [0, pi]
+        somg12 = Math.max(0.0, comg1 * somg2 - somg1 * comg2);
+        comg12 = comg1 * comg2 + somg1 * somg2;
+        // eta = omg12 - lam120
+        double eta = Math.atan2(somg12 * clam120 - comg12 * slam120,
+                comg12 * clam120 + somg12 * slam120);
+        double k2 = sq(calp0) * ep2;
+        w.eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+        C3f(w.eps, w.C3a);
+        double B312 = (sinCosSeries(true, w.ssig2, w.csig2, w.C3a) -
+                sinCosSeries(true, w.ssig1, w.csig1, w.C3a));
+        w.domg12 = -f * A3f(w.eps) * salp0 * (w.sig12 + B312);
+        w.v = eta + w.domg12;
+
+        if (diffp) {
+            if (w.calp2 == 0) {
+                w.dlam12 = -2 * f1 * dn1 / sbet1;
+            } else {
+                lengths(w.eps, w.sig12, w.ssig1, w.csig1, dn1, w.ssig2, w.csig2, dn2, false, true, w);
+                w.dlam12 = w.m12b * f1 / (w.calp2 * cbet2);
+            }
+        }
+    }
+
+    /*
+     * A geodesic line from a point with a given azimuth, set up for evaluating positions
+     * along it at given distances (the GeographicLib GeodesicLine, for positions only)
+     */
+    private final class Line {
+        private final double lat1, lon1, salp0, calp0, k2;
+        private final double ssig1, csig1, somg1, comg1, stau1, ctau1;
+        private final double A1m1, B11, A3c, B31;
+        private final double[] C1a = new double[nC1 + 1];
+        private final double[] C1pa = new double[nC1p + 1];
+        private final double[] C3a = new double[nC3];
+
+        Line(double lat1, double lon1, double salp1, double calp1) {
+            double[] p = new double[2];
+            this.lat1 = latFix(lat1);
+            this.lon1 = lon1;
+            double cbet1, sbet1;
+            sincosd(p, angRound(this.lat1));
+            sbet1 = f1 * p[0];
+            cbet1 = p[1];
+            // Ensure cbet1 = +epsilon at poles
+            norm(p, sbet1, cbet1);
+            sbet1 = p[0];
+            cbet1 = Math.max(TINY, p[1]);
+
+            // Evaluate alp0 from sin(alp1) * cos(bet1) = sin(alp0)
+            salp0 = salp1 * cbet1; // alp0 in [0, pi/2 - |bet1|]
+            calp0 = Math.hypot(calp1, salp1 * sbet1);
+            // Evaluate sig with tan(bet1) = tan(sig1) * cos(alp1), and omg1 with
+            // tan(omg1) = sin(alp0) * tan(sig1)
+            somg1 = salp0 * sbet1;
+            double c = sbet1 != 0 || calp1 != 0 ? cbet1 * calp1 : 1;
+            comg1 = c;
+            norm(p, sbet1, c);
+            ssig1 = p[0];
+            csig1 = p[1];     // sig1 in (-pi, pi]
+
+            k2 = sq(calp0) * ep2;
+            double eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+
+            A1m1 = A1m1f(eps);
+            C1f(eps, C1a);
+            B11 = sinCosSeries(true, ssig1, csig1, C1a);
+            double s = Math.sin(B11), co = Math.cos(B11);
+            // tau1 = sig1 + B11
+            stau1 = ssig1 * co + csig1 * s;
+            ctau1 = csig1 * co - ssig1 * s;
+
+            C1pf(eps, C1pa);
+
+            C3f(eps, C3a);
+            A3c = -f * salp0 * A3f(eps);
+            B31 = sinCosSeries(true, ssig1, csig1, C3a);
+        }
+
+        /* Position (and azimuth, if room) at distance s12 along this line, in radians */
+        void position(double s12, double[] lonLat) {
+            // Interpret s12 as distance
+            double tau12 = s12 / (b * (1 + A1m1));
+            double s = Math.sin(tau12), c = Math.cos(tau12);
+            // tau2 = tau1 + tau12
+            double B12 = -sinCosSeries(true, stau1 * c + ctau1 * s, ctau1 * c - stau1 * s, C1pa);
+            double sig12 = tau12 - (B12 - B11);
+            double ssig12 = Math.sin(sig12), csig12 = Math.cos(sig12);
+
+            // sig2 = sig1 + sig12
+            double ssig2 = ssig1 * csig12 + csig1 * ssig12;
+            double csig2 = csig1 * csig12 - ssig1 * ssig12;
+            // sin(bet2) = cos(alp0) * sin(sig2)
+            double sbet2 = calp0 * ssig2;
+            double cbet2 = Math.hypot(salp0, calp0 * csig2);
+            if (cbet2 == 0)
+                // I.e., salp0 = 0, csig2 = 0.  Break the degeneracy in this case
+                cbet2 = csig2 = TINY;
+            // tan(omg2) = sin(alp0) * tan(sig2)
+            double somg2 = salp0 * ssig2, comg2 = csig2;  // No need to normalize
+            // omg12 = omg2 - omg1
+            double omg12 = Math.atan2(somg2 * comg1 - comg2 * somg1, comg2 * comg1 + somg2 * somg1);
+            double lam12 = omg12 + A3c * (sig12 + (sinCosSeries(true, ssig2, csig2, C3a) - B31));
+            double lon12 = Math.toDegrees(lam12);
+            double lon2 = angNormalize(lon1 + angNormalize(lon12));
+            lonLat[0] = Angle.normalize(Math.toRadians(lon2));
+            lonLat[1] = Math.toRadians(atan2d(sbet2, f1 * cbet2));
+            // tan(alp0) = cos(sig2)*tan(alp2)
+            if (lonLat.length > 2) lonLat[2] = Math.toRadians(atan2d(salp0, calp0 * csig2));
+        }
+    }
+
+    // Series coefficients (from GeographicLib, for series of order 6)
+
+    private double A3f(double eps) {
+        // Evaluate A3
+        return polyval(nA3 - 1, A3x, 0, eps);
+    }
+
+    private void C3f(double eps, double[] c) {
+        // Evaluate C3 coeffs
+        // Elements c[1] thru c[nC3 - 1] are set
+        double mult = 1;
+        int o = 0;
+        for (int l = 1; l < nC3; ++l) { // l is index of C3[l]
+            int m = nC3 - l - 1;          // order of polynomial in eps
+            mult *= eps;
+            c[l] = mult * polyval(m, C3x, o, eps);
+            o += m + 1;
+        }
+    }
+
+    // The scale factor A1-1 = mean value of (d/dsigma)I1 - 1
+    private static double A1m1f(double eps) {
+        final double[] coeff = {
+                // (1-eps)*A1-1, polynomial in eps2 of order 3
+                1, 4, 64, 0, 256,
+        };
+        int m = nA1 / 2;
+        double t = polyval(m, coeff, 0, sq(eps)) / coeff[m + 1];
+        return (t + eps) / (1 - eps);
+    }
+
+    // The coefficients C1[l] in the Fourier expansion of B1
+    private static void C1f(double eps, double[] c) {
+        final double[] coeff = {
+                // C1[1]/eps^1, polynomial in eps2 of order 2
+                -1, 6, -16, 32,
+                // C1[2]/eps^2, polynomial in eps2 of order 2
+                -9, 64, -128, 2048,
+                // C1[3]/eps^3, polynomial in eps2 of order 1
+                9, -16, 768,
+                // C1[4]/eps^4, polynomial in eps2 of order 1
+                3, -5, 512,
+                // C1[5]/eps^5, polynomial in eps2 of order 0
+                -7, 1280,
+                // C1[6]/eps^6, polynomial in eps2 of order 0
+                -7, 2048,
+        };
+        double eps2 = sq(eps), d = eps;
+        int o = 0;
+        for (int l = 1; l <= nC1; ++l) { // l is index of C1p[l]
+            int m = (nC1 - l) / 2;         // order of polynomial in eps^2
+            c[l] = d * polyval(m, coeff, o, eps2) / coeff[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    // The coefficients C1p[l] in the Fourier expansion of B1p
+    private static void C1pf(double eps, double[] c) {
+        final double[] coeff = {
+                // C1p[1]/eps^1, polynomial in eps2 of order 2
+                205, -432, 768, 1536,
+                // C1p[2]/eps^2, polynomial in eps2 of order 2
+                4005, -4736, 3840, 12288,
+                // C1p[3]/eps^3, polynomial in eps2 of order 1
+                -225, 116, 384,
+                // C1p[4]/eps^4, polynomial in eps2 of order 1
+                -7173, 2695, 7680,
+                // C1p[5]/eps^5, polynomial in eps2 of order 0
+                3467, 7680,
+                // C1p[6]/eps^6, polynomial in eps2 of order 0
+                38081, 61440,
+        };
+        double eps2 = sq(eps), d = eps;
+        int o = 0;
+        for (int l = 1; l <= nC1p; ++l) { // l is index of C1p[l]
+            int m = (nC1p - l) / 2;         // order of polynomial in eps^2
+            c[l] = d * polyval(m, coeff, o, eps2) / coeff[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    // The scale factor A2-1 = mean value of (d/dsigma)I2 - 1
+    private static double A2m1f(double eps) {
+        final double[] coeff = {
+                // (eps+1)*A2-1, polynomial in eps2 of order 3
+                -11, -28, -192, 0, 256,
+        };
+        int m = nA2 / 2;
+        double t = polyval(m, coeff, 0, sq(eps)) / coeff[m + 1];
+        return (t - eps) / (1 + eps);
+    }
+
+    // The coefficients C2[l] in the Fourier expansion of B2
+    private static void C2f(double eps, double[] c) {
+        final double[] coeff = {
+                // C2[1]/eps^1, polynomial in eps2 of order 2
+                1, 2, 16, 32,
+                // C2[2]/eps^2, polynomial in eps2 of order 2
+                35, 64, 384, 2048,
+                // C2[3]/eps^3, polynomial in eps2 of order 1
+                15, 80, 768,
+                // C2[4]/eps^4, polynomial in eps2 of order 1
+                7, 35, 512,
+                // C2[5]/eps^5, polynomial in eps2 of order 0
+                63, 1280,
+                // C2[6]/eps^6, polynomial in eps2 of order 0
+                77, 2048,
+        };
+        double eps2 = sq(eps), d = eps;
+        int o = 0;
+        for (int l = 1; l <= nC2; ++l) { // l is index of C2[l]
+            int m = (nC2 - l) / 2;         // order of polynomial in eps^2
+            c[l] = d * polyval(m, coeff, o, eps2) / coeff[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    // The scale factor A3 = mean value of (d/dsigma)I3
+    private void A3coeff() {
+        final double[] coeff = {
+                // A3, coeff of eps^5, polynomial in n of order 0
+                -3, 128,
+                // A3, coeff of eps^4, polynomial in n of order 1
+                -2, -3, 64,
+                // A3, coeff of eps^3, polynomial in n of order 2
+                -1, -3, -1, 16,
+                // A3, coeff of eps^2, polynomial in n of order 2
+                3, -1, -2, 8,
+                // A3, coeff of eps^1, polynomial in n of order 1
+                1, -1, 2,
+                // A3, coeff of eps^0, polynomial in n of order 0
+                1, 1,
+        };
+        int o = 0, k = 0;
+        for (int j = nA3 - 1; j >= 0; --j) { // coeff of eps^j
+            int m = Math.min(nA3 - j - 1, j);  // order of polynomial in n
+            A3x[k++] = polyval(m, coeff, o, n) / coeff[o + m + 1];
+            o += m + 2;
+        }
+    }
+
+    // The coefficients C3[l] in the Fourier expansion of B3
+    private void C3coeff() {
+        final double[] coeff = {
+                // C3[1], coeff of eps^5, polynomial in n of order 0
+                3, 128,
+                // C3[1], coeff of eps^4, polynomial in n of order 1
+                2, 5, 128,
+                // C3[1], coeff of eps^3, polynomial in n of order 2
+                -1, 3, 3, 64,
+                // C3[1], coeff of eps^2, polynomial in n of order 2
+                -1, 0, 1, 8,
+                // C3[1], coeff of eps^1, polynomial in n of order 1
+                -1, 1, 4,
+                // C3[2], coeff of eps^5, polynomial in n of order 0
+                5, 256,
+                // C3[2], coeff of eps^4, polynomial in n of order 1
+                1, 3, 128,
+                // C3[2], coeff of eps^3, polynomial in n of order 2
+                -3, -2, 3, 64,
+                // C3[2], coeff of eps^2, polynomial in n of order 2
+                1, -3, 2, 32,
+                // C3[3], coeff of eps^5, polynomial in n of order 0
+                7, 512,
+                // C3[3], coeff of eps^4, polynomial in n of order 1
+                -10, 9, 384,
+                // C3[3], coeff of eps^3, polynomial in n of order 2
+                5, -9, 5, 192,
+                // C3[4], coeff of eps^5, polynomial in n of order 0
+                7, 512,
+                // C3[4], coeff of eps^4, polynomial in n of order 1
+                -14, 7, 512,
+                // C3[5], coeff of eps^5, polynomial in n of order 0
+                21, 2560,
+        };
+        int o = 0, k = 0;
+        for (int l = 1; l < nC3; ++l) {        // l is index of C3[l]
+            for (int j = nC3 - 1; j >= l; --j) { // coeff of eps^j
+                int m = Math.min(nC3 - j - 1, j);  // order of polynomial in n
+                C3x[k++] = polyval(m, coeff, o, n) / coeff[o + m + 1];
+                o += m + 2;
+            }
+        }
+    }
+
+    // Math helpers (GeographicLib's GeoMath, with pairs returned in a 2 element array)
+
+    private static double sq(double x) {
+        return x * x;
+    }
+
+    /* Evaluate a polynomial of order n with coefficients p[s] through p[s + n] at x */
+    private static double polyval(int n, double[] p, int s, double x) {
+        double y = n < 0 ? 0 : p[s++];
+        while (--n >= 0) y = y * x + p[s++];
+        return y;
+    }
+
+    /* Evaluate a sine (sinp) or cosine series with Clenshaw summation */
+    private static double sinCosSeries(boolean sinp, double sinx, double cosx, double[] c) {
+        int k = c.length, n = k - (sinp ? 1 : 0);
+        double ar = 2 * (cosx - sinx) * (cosx + sinx);  // 2 * cos(2 * x)
+        double y0 = (n & 1) != 0 ? c[--k] : 0, y1 = 0;   // accumulators for sum
+        // Now n is even
+        n /= 2;
+        while (n-- > 0) {
+            // Unroll loop x 2, so accumulators return to their original role
+            y1 = ar * y0 - y1 + c[--k];
+            y0 = ar * y1 - y0 + c[--k];
+        }
+        return sinp
+                ? 2 * sinx * cosx * y0    // sin(2 * x) * y0
+                : cosx * (y0 - y1);       // cos(x) * (y0 - y1)
+    }
+
+    private static void norm(double[] p, double sinx, double cosx) {
+        double r = Math.hypot(sinx, cosx);
+        p[0] = sinx / r;
+        p[1] = cosx / r;
+    }
+
+    /* Error free sum: p[0] = u + v rounded, p[1] = the rounding error */
+    private static void sum(double u, double v, double[] p) {
+        double s = u + v;
+        double up = s - v;
+        double vpp = s - up;
+        up -= u;
+        vpp -= v;
+        p[0] = s;
+        p[1] = -(up + vpp);
+    }
+
+    private static double angNormalize(double x) {
+        x = Math.IEEEremainder(x, 360.0);
+        return x == -180 ? 180 : x;
+    }
+
+    private static double latFix(double x) {
+        return Math.abs(x) > 90 ? Double.NaN : x;
+    }
+
+    /* Exact difference y - x of two angles in degrees, reduced to (-180, 180], as p[0] + p[1] */
+    private static void angDiff(double x, double y, double[] p) {
+        sum(angNormalize(-x), angNormalize(y), p);
+        double d = angNormalize(p[0]), t = p[1];
+        sum(d == 180 && t > 0 ? -180 : d, t, p);
+    }
+
+    /* Coarsen a value close to zero, to avoid near singular cases */
+    private static double angRound(double x) {
+        final double z = 1 / 16.0;
+        if (x == 0) return 0;
+        double y = Math.abs(x);
+        // The compiler mustn't "simplify" z - (z - y) to y
+        y = y < z ? z - (z - y) : y;
+        return x < 0 ? -y : y;
+    }
+
+    /* Sine and cosine of an angle in degrees, with exact reduction to [-45, 45] */
+    private static void sincosd(double[] p, double x) {
+        double r = x % 360.0;
+        int q = (int) Math.round(r / 90);     // If r is NaN this returns 0
+        r -= 90 * q;
+        // now abs(r) <= 45
+        r = Math.toRadians(r);
+        double s = Math.sin(r), c = Math.cos(r);
+        double sinx, cosx;
+        switch (q & 3) {
+            case 0:
+                sinx = s;
+                cosx = c;
+                break;
+            case 1:
+                sinx = c;
+                cosx = -s;
+                break;
+            case 2:
+                sinx = -s;
+                cosx = -c;
+                break;
+            default:
+                sinx = -c;
+                cosx = s;
+                break;
+        }
+        if (x != 0) {
+            sinx += 0.0;
+            cosx += 0.0;
+        }
+        p[0] = sinx;
+        p[1] = cosx;
+    }
+
+    /* atan2 in degrees, with exact results for multiples of 45 degrees */
+    private static double atan2d(double y, double x) {
+        // Reduce the arguments to the first octant (with swaps and sign changes) so that
+        // multiples of 45 degrees come out exactly
+        int q = 0;
+        if (Math.abs(y) > Math.abs(x)) {
+            double t = x;
+            x = y;
+            y = t;
+            q = 2;
+        }
+        if (x < 0) {
+            x = -x;
+            ++q;
+        }
+        // here x >= 0 and x >= abs(y), so angle is in [-pi/4, pi/4]
+        double ang = Math.toDegrees(Math.atan2(y, x));
+        switch (q) {
+            // Note that atan2d(-0.0, 1.0) will return -0.  However, we expect that
+            // atan2d will not be called with y = -0.  If need be, include
+            //   case 0: ang = 0 + ang; break;
+            case 1:
+                ang = (y >= 0 ? 180 : -180) - ang;
+                break;
+            case 2:
+                ang = 90 - ang;
+                break;
+            case 3:
+                ang = -90 + ang;
+                break;
+            default:
+                break;
+        }
+        return ang;
+    }
+}
@@ -0,0 +1,66 @@
+/****************************************************************************************
+ *  LastTableCache.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+/**
+ * The LastTableCache class keeps the last table made for a number of points, for tables
+ * that depend only on that number (such as the directions used by the boundary methods
+ * of Geodetic2DCircle and Geodetic2DEllipse). Callers usually ask for the same number
+ * many times in a row, so one slot is enough to avoid remaking the table.<p/>
+ *
+ * The slot is not locked. The tables must be immutable once made; threads that miss at
+ * the same time each make their own, and whichever is stored last is kept.
+ *
+ * @param <T> type of the cached tables
+ */
+abstract class LastTableCache<T> {
+
+    // The last table made, with the number of points it was made for
+    private static final class Entry<T> {
+        final int size;
+        final T table;
+
+        Entry(int size, T table) {
+            this.size = size;
+            this.table = table;
+        }
+    }
+
+    private volatile Entry<T> last;
+
+    /**
+     * This method returns the table for the specified number of points, reusing the last
+     * one made if it was made for the same number.
+     *
+     * @param size number of points
+     * @return the table for size points
+     */
+    final T get(int size) {
+        Entry<T> e = last;
+        if (e == null || e.size != size) {
+            e = new Entry<T>(size, make(size));
+            last = e;
+        }
+        return e.table;
+    }
+
+    /**
+     * This method makes a new table for the specified number of points.
+     *
+     * @param size number of points
+     * @return a new immutable table for size points
+     */
+    abstract T make(int size);
+}
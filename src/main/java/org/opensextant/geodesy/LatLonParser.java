@@ -32,6 +32,18 @@ import java.util.EmptyStackException;
 
 /**
  * LatLonParser
+ * <p/>
+ * Normalizes free form latitude/longitude strings (decimal degrees, degrees minutes seconds
+ * with or without separators, N/S/E/W hemisphere letters or +/- signs, and the Garmin Etrex
+ * format) into a form that the Geodetic2DPoint String constructor can parse.
+ * <p/>
+ * The parse methods follow the same grammar but decode the coordinates in a single pass over
+ * a CharSequence, giving the longitude and latitude that the Geodetic2DPoint constructor would
+ * get from the normalized string, including its lon-lat or lat-lon order detection. They create
+ * no objects when the coordinate values have at most 15 digits each; anything else (letters
+ * within numbers, longer digit strings) is handed over to the String based parsers. Each call
+ * to a parse method overwrites the results of the previous call, so an instance should not be
+ * shared between threads without synchronization when these methods are used.
  *
  * @author TAYLOR
  */
@@ -99,6 +111,53 @@ public class LatLonParser {
     //
     private static final Set<String> signSet = new HashSet<String>();
 
+    //
+    //  Exact powers of ten for decoding decimal numbers of up to 15 digits
+    //
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private static final int MAX_DIGITS = 15;
+    private static final double PI_OVER_2 = Math.PI / 2.0;
+
+    //
+    //  Results of the last call to one of the parse methods
+    //
+    private double lonRad;          // longitude in radians
+    private double latRad;          // latitude in radians
+
+    //
+    //  Scratch state of the parse methods.  The tokens are scanned from the end of the text,
+    //  as parseString pops them off its token stack, and run through both of its stack
+    //  machines at once (the regular one for 5 tokens or less, the split DMS one otherwise).
+    //  Coordinate tokens are kept as start and end index pairs in the order they are pushed.
+    //
+    private CharSequence text;                          // text being parsed
+    private final int[] regularCoords = new int[4];     // first two coordinates of regular machine
+    private final char[] regularSigns = new char[5];    // sign stack of regular machine
+    private int regularCoordCount;
+    private int regularSignCount;
+    private boolean regularFailed;                      // multiple sign characters found
+    private final int[] splitCoords = new int[12];      // first six coordinates of split DMS machine
+    private char splitTopSign;                          // top of split DMS machine sign stack
+    private char splitNextSign;                         // entry below the top of that stack
+    private int splitCoordCount;
+    private int splitSignCount;
+    private int splitTokenCounter;
+
+    //
+    //  The two output coordinates, in the order of the normalized string, each with its sign
+    //  and one to three numeric components (degrees, then minutes and seconds).  Components
+    //  are stored as four indexes: start and end of integer digits, start and end of
+    //  fractional digits (-1 start when there is no decimal point).
+    //
+    private final char[] coordSigns = new char[2];
+    private final int[] componentCounts = new int[2];
+    private final int[] components = new int[24];
+
+    private final StringBuilder etrex = new StringBuilder();   // normalized Etrex string
+
     static {
 
         //
@@ -670,5 +729,419 @@ public class LatLonParser {
 
 		return outString.toString();
 	}
-}
 
+    /**
+     * This method parses a lat lon coordinate string in any of the forms accepted by
+     * parseString.  The coordinates are the same as those of the Geodetic2DPoint created
+     * from the normalized string returned by parseString, and are read back with the
+     * accessor methods.
+     *
+     * @param latLon lat lon coordinate CharSequence
+     * @throws IllegalArgumentException if invalid lat/lon string received
+     */
+    public void parse(CharSequence latLon) {
+        if (latLon == null) {
+            throw new IllegalArgumentException("null value for lat/lon string is invalid");
+        }
+        parse(latLon, 0, latLon.length());
+    }
+
+    /**
+     * This method parses the lat lon coordinate string held in part of a CharSequence,
+     * from index start (inclusive) to index end (exclusive).
+     *
+     * @param latLon CharSequence containing a lat lon coordinate string
+     * @param start  index of the first character of the coordinate string
+     * @param end    index after the last character of the coordinate string
+     * @throws IllegalArgumentException if invalid lat/lon string received
+     * @throws IndexOutOfBoundsException if start or end are outside of latLon
+     * @throws NullPointerException if latLon is null
+     */
+    public void parse(CharSequence latLon, int start, int end) {
+        if ((start < 0) || (end < start) || (latLon.length() < end))
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end +
+                    ", length " + latLon.length());
+        text = latLon;
+        try {
+            if (!scan(start, end)) {
+                parseNormalized(parseString(latLon.subSequence(start, end).toString()));
+            } else if (!decode()) {
+                throw new IllegalArgumentException("Invalid lat/lon coordinate values in \"" +
+                        latLon.subSequence(start, end) + "\"");
+            }
+        } catch (EmptyStackException e) {
+            throw new IllegalArgumentException("ERROR: not enough sign stack entries", e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("ERROR: invalid coordinate in \"" +
+                    latLon.subSequence(start, end) + "\"", e);
+        } finally {
+            text = null;
+        }
+    }
+
+    /**
+     * This method parses a specialized Garmin Etrex lat lon coordinate string, as described
+     * for parseEtrexString.  The coordinates are the same as those of the Geodetic2DPoint
+     * created from the normalized string returned by parseEtrexString, and are read back
+     * with the accessor methods.
+     *
+     * @param latLon Etrex lat lon coordinate CharSequence
+     * @throws IllegalArgumentException if invalid lat/lon string received
+     */
+    public void parseEtrex(CharSequence latLon) {
+        if ((latLon == null) || (latLon.length() == 0)) {
+            throw new IllegalArgumentException("empty value for lat/lon string is invalid");
+        }
+        //
+        //  Same token selection as parseEtrexString: the first token, then the first
+        //  token after it that is not a separator (or the last one there is)
+        //
+        int end = latLon.length();
+        int firstEnd = etrexTokenEnd(latLon, 0, end);
+        int secondStart = 0;
+        int secondEnd = firstEnd;
+        for (int p = firstEnd; p < end; p = secondEnd) {
+            secondStart = p;
+            secondEnd = etrexTokenEnd(latLon, p, end);
+            if (!isSeparator(latLon.charAt(p))) break;
+        }
+        etrex.setLength(0);
+        if (appendEtrexToken(latLon, 0, firstEnd)) {
+            etrex.append(',');
+            if (appendEtrexToken(latLon, secondStart, secondEnd)) {
+                parse(etrex, 0, etrex.length());
+                return;
+            }
+        }
+        // Non ASCII letters are left to String.toUpperCase
+        try {
+            parseNormalized(parseEtrexString(latLon.toString()));
+        } catch (EmptyStackException e) {
+            throw new IllegalArgumentException("ERROR: not enough sign stack entries", e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("ERROR: invalid coordinate in \"" + latLon + "\"", e);
+        }
+    }
+
+    /**
+     * This accessor method returns the longitude of the last parsed coordinate in radians.
+     *
+     * @return longitude in radians, normalized to the range [-PI, PI)
+     */
+    public double getLongitudeInRadians() {
+        return lonRad;
+    }
+
+    /**
+     * This accessor method returns the latitude of the last parsed coordinate in radians.
+     *
+     * @return latitude in radians
+     */
+    public double getLatitudeInRadians() {
+        return latRad;
+    }
+
+    /**
+     * This accessor method returns the longitude of the last parsed coordinate in decimal degrees.
+     *
+     * @return longitude in decimal degrees, normalized to the range [-180, 180)
+     */
+    public double getLongitudeAsDegrees() {
+        return Math.toDegrees(lonRad);
+    }
+
+    /**
+     * This accessor method returns the latitude of the last parsed coordinate in decimal degrees.
+     *
+     * @return latitude in decimal degrees
+     */
+    public double getLatitudeAsDegrees() {
+        return Math.toDegrees(latRad);
+    }
+
+    /* Get the results from a string normalized by parseString */
+    private void parseNormalized(String latLon) {
+        Geodetic2DPoint point = new Geodetic2DPoint(latLon);
+        lonRad = point.getLongitude().inRadians();
+        latRad = point.getLatitude().inRadians();
+    }
+
+    /* Delimiters of parseString: the separators and the sign characters */
+    private static boolean isSeparator(char c) {
+        switch (c) {
+            case '/': case ',': case '|': case '\u00B0': case '\'': case '"': case 'd': case 'm':
+            case 's': case ':': case ';': case '\t': case '\n': case '\r': case ' ':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-' || c == 'N' || c == 'S' || c == 'E' || c == 'W';
+    }
+
+    /* End of the Etrex token starting at start: the separators of parseEtrexString are single
+     * character tokens, the '/' and 's' characters are not among them */
+    private static int etrexTokenEnd(CharSequence latLon, int start, int end) {
+        char c = latLon.charAt(start);
+        if (c != '/' && c != 's' && isSeparator(c)) return start + 1;
+        int p = start + 1;
+        while (p < end) {
+            c = latLon.charAt(p);
+            if (c != '/' && c != 's' && isSeparator(c)) break;
+            p++;
+        }
+        return p;
+    }
+
+    /* Append an Etrex token without its '-' characters as getToken would return it,
+     * returns false if the token has non ASCII characters */
+    private boolean appendEtrexToken(CharSequence latLon, int start, int end) {
+        if (isSeparator(latLon.charAt(start))) {
+            etrex.append(',');
+            return true;
+        }
+        for (int p = start; p < end; p++) {
+            char c = latLon.charAt(p);
+            if (c >= 128) return false;
+            if (c != '-') etrex.append(Character.toUpperCase(c));
+        }
+        return true;
+    }
+
+    /*
+     * Scan the tokens of text[start, end) from last to first, stepping both stack machines
+     * of parseString, and pick the output coordinates.  Returns false if a token is not
+     * a plain decimal number (with at most 15 digits), which is left to parseString.
+     */
+    private boolean scan(int start, int end) {
+        int tokenCount = 0;
+        regularCoordCount = 0;
+        regularSignCount = 0;
+        regularFailed = false;
+        splitCoordCount = 0;
+        splitSignCount = 0;
+        splitTokenCounter = 0;
+        int p = end;
+        while (p > start) {
+            int tokenEnd = p;
+            char c = text.charAt(--p);
+            char sign = noSign;
+            boolean separator = false;
+            if (isSeparator(c)) {
+                separator = true;
+            } else if (isSign(c)) {
+                sign = c;
+            } else {
+                while ((p > start) && !isSeparator(c = text.charAt(p - 1)) && !isSign(c)) p--;
+                c = text.charAt(p);
+                // getToken upper cases the token, so a word starting with n, e or w is a sign
+                if (c == 'n' || c == 'e' || c == 'w') sign = Character.toUpperCase(c);
+                else if (!isNumber(p, tokenEnd)) return false;
+            }
+            tokenCount++;
+            if (separator) {
+                if (regularCoordCount > regularSignCount) pushRegularSign(noSign);
+                else if (regularSignCount > regularCoordCount) regularFailed = true;
+                if ((splitTokenCounter == 3) && (splitSignCount == 0)) pushSplitSign(noSign);
+            } else if (sign != noSign) {
+                pushRegularSign(sign);
+                splitTokenCounter = 0;
+                pushSplitSign(sign);
+            } else {
+                if (regularCoordCount < 2) {
+                    regularCoords[2 * regularCoordCount] = p;
+                    regularCoords[2 * regularCoordCount + 1] = tokenEnd;
+                }
+                regularCoordCount++;
+                splitTokenCounter++;
+                if (splitCoordCount < 6) {
+                    splitCoords[2 * splitCoordCount] = p;
+                    splitCoords[2 * splitCoordCount + 1] = tokenEnd;
+                }
+                splitCoordCount++;
+            }
+        }
+
+        if (tokenCount > 5) {
+            if (splitSignCount < 2) pushSplitSign(noSign);
+            if (splitCoordCount == 6) {
+                if (splitSignCount < 2)
+                    throw new IllegalArgumentException("ERROR: not enough sign stack entries");
+                setSplitComponents(0, 10, splitTopSign);
+                setSplitComponents(1, 4, splitNextSign);
+            } else if (splitCoordCount == 2) {
+                if (splitSignCount < 2)
+                    throw new IllegalArgumentException("ERROR: not enough coordinate stack entries");
+                setComponents(0, splitCoords[2], splitCoords[3], splitTopSign);
+                setComponents(1, splitCoords[0], splitCoords[1], splitNextSign);
+            } else {
+                throw new IllegalArgumentException("ERROR - irregular coordinate count:  " + splitCoordCount);
+            }
+        } else {
+            if (regularFailed || (regularSignCount > regularCoordCount))
+                throw new IllegalArgumentException("ERROR: multiple sign characters");
+            if (regularCoordCount > regularSignCount) pushRegularSign(noSign);
+            if (regularCoordCount != 2)
+                throw new IllegalArgumentException("ERROR - irregular coordinate count:  " + regularCoordCount);
+            setComponents(0, regularCoords[2], regularCoords[3], regularSigns[1]);
+            setComponents(1, regularCoords[0], regularCoords[1], regularSigns[0]);
+        }
+        return true;
+    }
+
+    /* Regular machine sees at most 5 tokens, so at most 5 signs */
+    private void pushRegularSign(char sign) {
+        if (regularSignCount < regularSigns.length) regularSigns[regularSignCount] = sign;
+        regularSignCount++;
+    }
+
+    private void pushSplitSign(char sign) {
+        splitNextSign = splitTopSign;
+        splitTopSign = sign;
+        splitSignCount++;
+    }
+
+    /* A plain decimal number: digits with at most one decimal point */
+    private boolean isNumber(int start, int end) {
+        int digits = 0;
+        boolean point = false;
+        for (int p = start; p < end; p++) {
+            char c = text.charAt(p);
+            if (c >= '0' && c <= '9') digits++;
+            else if (c == '.' && !point) point = true;
+            else return false;
+        }
+        return (digits > 0) && (digits <= MAX_DIGITS);
+    }
+
+    private int indexOfPoint(int start, int end) {
+        for (int p = start; p < end; p++) {
+            if (text.charAt(p) == '.') return p;
+        }
+        return -1;
+    }
+
+    private void addComponent(int coord, int intStart, int intEnd, int fracStart, int fracEnd) {
+        int i = 12 * coord + 4 * componentCounts[coord]++;
+        components[i] = intStart;
+        components[i + 1] = intEnd;
+        components[i + 2] = fracStart;
+        components[i + 3] = fracEnd;
+    }
+
+    /* Three split DMS tokens, the first at index first in splitCoords and the others below */
+    private void setSplitComponents(int coord, int first, char sign) {
+        coordSigns[coord] = sign;
+        componentCounts[coord] = 0;
+        for (int i = first; i > first - 6; i -= 2) {
+            int start = splitCoords[i];
+            int end = splitCoords[i + 1];
+            int point = indexOfPoint(start, end);
+            if (point < 0) addComponent(coord, start, end, -1, -1);
+            else addComponent(coord, start, point, point + 1, end);
+        }
+    }
+
+    /*
+     * Split a coordinate token into D M S components as splitCoordinateString does.  Digits
+     * past (D)DD MM SS are fractional seconds, unless there is a fractional part already
+     * in which case they are dropped.
+     */
+    private void setComponents(int coord, int start, int end, char sign) {
+        coordSigns[coord] = sign;
+        componentCounts[coord] = 0;
+        int point = indexOfPoint(start, end);
+        if (end - start <= 3) {
+            if (point < 0) addComponent(coord, start, end, -1, -1);
+            else addComponent(coord, start, point, point + 1, end);
+            return;
+        }
+        int intEnd = (point < 0) ? end : point;
+        boolean fraction = (point >= 0) && (point + 1 < end);
+        int ddCount = ((sign == 'E') || (sign == 'W') || ((point >= 0) && (intEnd - start == 7))) ? 3 : 2;
+        int p = start;
+        for (int field = 0; ; field++) {
+            int fieldEnd = Math.min(p + ((field == 0) ? ddCount : 2), intEnd);
+            if ((fieldEnd == intEnd) || (field == 2)) {
+                if (fraction) addComponent(coord, p, fieldEnd, point + 1, end);
+                else if (fieldEnd < intEnd) addComponent(coord, p, fieldEnd, fieldEnd, intEnd);
+                else addComponent(coord, p, fieldEnd, -1, -1);
+                return;
+            }
+            addComponent(coord, p, fieldEnd, -1, -1);
+            p = fieldEnd;
+        }
+    }
+
+    /* Value of a component, which has at most 15 digits so a single division rounds exactly */
+    private double componentValue(int i) {
+        long value = 0;
+        for (int p = components[i]; p < components[i + 1]; p++) {
+            value = 10 * value + (text.charAt(p) - '0');
+        }
+        int fracStart = components[i + 2];
+        if (fracStart < 0) return value;
+        int fracEnd = components[i + 3];
+        for (int p = fracStart; p < fracEnd; p++) {
+            value = 10 * value + (text.charAt(p) - '0');
+        }
+        return value / POW10[fracEnd - fracStart];
+    }
+
+    /*
+     * Angle in radians of an output coordinate as the Latitude or Longitude String
+     * constructor would parse it, or NaN where they would throw an exception.
+     */
+    private double angle(int coord, boolean latitude) {
+        char sign = coordSigns[coord];
+        if ((sign == 'N') || (sign == 'S')) {
+            if (!latitude) return Double.NaN;
+            sign = (sign == 'N') ? '+' : '-';
+        } else if ((sign == 'E') || (sign == 'W')) {
+            if (latitude) return Double.NaN;
+            sign = (sign == 'E') ? '+' : '-';
+        }
+        int i = 12 * coord;
+        double deg = componentValue(i);
+        if (sign == '-') deg = -deg;
+        double rad;
+        if (componentCounts[coord] == 1) {
+            rad = Math.toRadians(deg);
+        } else {
+            // Only least-significant component of angle can be fractional
+            if (components[i + 2] >= 0) return Double.NaN;
+            double min = componentValue(i + 4);
+            double sec = 0.0;
+            if (componentCounts[coord] == 3) {
+                if (components[i + 6] >= 0) return Double.NaN;
+                sec = componentValue(i + 8);
+            }
+            if ((60.0 <= min) || (60.0 <= sec)) return Double.NaN;
+            double ddeg = Math.abs(deg) + (min / 60.0) + (sec / 3600.0);
+            rad = Math.toRadians(((deg < 0.0) ? -1.0 : +1.0) * ddeg);
+        }
+        if (Math.abs(rad) > (4.0 * Angle.TWO_PI)) return Double.NaN;
+        rad = Angle.normalize(rad);
+        // Angle flips the sign of a "-0" degrees string after the fact
+        if ((sign == '-') && (componentCounts[coord] > 1) && (components[i + 1] - components[i] == 1)
+                && (text.charAt(components[i]) == '0')) rad = -rad;
+        if (latitude && ((rad < -PI_OVER_2) || (PI_OVER_2 < rad))) return Double.NaN;
+        return rad;
+    }
+
+    /* Decode the coordinates as lon-lat, or lat-lon if that fails, like Geodetic2DPoint */
+    private boolean decode() {
+        double lon = angle(0, false);
+        double lat = Double.isNaN(lon) ? lon : angle(1, true);
+        if (Double.isNaN(lat)) {
+            lat = angle(0, true);
+            lon = Double.isNaN(lat) ? lat : angle(1, false);
+            if (Double.isNaN(lon)) return false;
+        }
+        lonRad = lon;
+        latRad = lat;
+        return true;
+    }
+}
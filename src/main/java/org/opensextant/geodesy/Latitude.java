@@ -58,6 +58,69 @@ public class Latitude extends Angle {
      */
     public Latitude(String latStr) {
 		if (latStr == null) throw new IllegalArgumentException("latStr cannot be null");
+        double rad = parseRadians(latStr, 0, latStr.length());
+        // Parse again the slow way to throw an exception with the reason of the failure
+        if (Double.isNaN(rad)) rad = parseString(latStr);
+        this.init(rad, Angle.RADIANS);
+    }
+
+    /**
+     * This method parses a latitude string like the String constructor does, but returns null
+     * instead of throwing an exception if the string can not be successfully parsed.
+     *
+     * @param latStr latitude value string
+     * @return new Latitude, or null if the string is null or not a valid latitude
+     */
+    public static Latitude tryParse(String latStr) {
+        if (latStr == null) return null;
+        double rad = parseRadians(latStr, 0, latStr.length());
+        return Double.isNaN(rad) ? null : new Latitude(rad);
+    }
+
+    /*
+     * Parse text[start, end) as the String constructor would but without creating objects,
+     * returning the latitude in radians or NaN if the String constructor would throw.
+     */
+    static double parseRadians(CharSequence text, int start, int end) {
+        while ((start < end) && (text.charAt(start) <= ' ')) start++;
+        while ((end > start) && (text.charAt(end - 1) <= ' ')) end--;
+        if (start == end) return Double.NaN;
+        for (int p = start; p < end; p++) {
+            char c = text.charAt(p);
+            if ((c >= 128) && (c != '\u00B0')) {
+                // Leave the upper case conversion of other characters to String
+                try {
+                    return inRange(parseString(text.subSequence(start, end).toString()));
+                } catch (IllegalArgumentException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        char suffix = Character.toUpperCase(text.charAt(end - 1));
+        char sign = Angle.NO_SIGN;
+        if (suffix == 'N') sign = '+';
+        else if (suffix == 'S') sign = '-';
+        else if ((suffix == 'E') || (suffix == 'W')) return Double.NaN;
+        if (sign != Angle.NO_SIGN) {
+            // No numeric sign prefix when direction char suffix is present
+            char prefix = text.charAt(start);
+            if ((prefix == '+') || (prefix == '-')) return Double.NaN;
+            end--;
+        }
+        double rad = Angle.parse(text, start, end, sign);
+        return inRange(rad);
+    }
+
+    /* NaN for a value beyond the poles */
+    private static double inRange(double rad) {
+        if ((rad < -PI_OVER_2) || (PI_OVER_2 < rad)) return Double.NaN;
+        return rad;
+    }
+
+    /*
+     * Parse a String with String operations, throwing an exception with the reason of the failure.
+     */
+    private static double parseString(String latStr) {
         latStr = latStr.trim().toUpperCase();
         int n = latStr.length() - 1;
 		if (n < 0) throw new IllegalArgumentException("Latitude must be non-empty value");
@@ -76,7 +139,7 @@ public class Latitude extends Angle {
             // Strip off the suffix and add the sign based on direction indicator
             latStr = sign + latStr.substring(0, n);
         }
-        this.init(new Angle(latStr).inRadians(), Angle.RADIANS);
+        return new Angle(latStr).inRadians();
     }
 
     /**
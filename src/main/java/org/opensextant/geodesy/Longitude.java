@@ -49,6 +49,62 @@ public class Longitude extends Angle {
      */
     public Longitude(String lonStr) {
 		if (lonStr == null) throw new IllegalArgumentException("lonStr cannot be null");
+        double rad = parseRadians(lonStr, 0, lonStr.length());
+        // Parse again the slow way to throw an exception with the reason of the failure
+        if (Double.isNaN(rad)) rad = parseString(lonStr);
+        this.init(rad, Angle.RADIANS);
+    }
+
+    /**
+     * This method parses a longitude string like the String constructor does, but returns null
+     * instead of throwing an exception if the string can not be successfully parsed.
+     *
+     * @param lonStr longitude value string
+     * @return new Longitude, or null if the string is null or not a valid longitude
+     */
+    public static Longitude tryParse(String lonStr) {
+        if (lonStr == null) return null;
+        double rad = parseRadians(lonStr, 0, lonStr.length());
+        return Double.isNaN(rad) ? null : new Longitude(rad);
+    }
+
+    /*
+     * Parse text[start, end) as the String constructor would but without creating objects,
+     * returning the longitude in radians or NaN if the String constructor would throw.
+     */
+    static double parseRadians(CharSequence text, int start, int end) {
+        while ((start < end) && (text.charAt(start) <= ' ')) start++;
+        while ((end > start) && (text.charAt(end - 1) <= ' ')) end--;
+        if (start == end) return Double.NaN;
+        for (int p = start; p < end; p++) {
+            char c = text.charAt(p);
+            if ((c >= 128) && (c != '\u00B0')) {
+                // Leave the upper case conversion of other characters to String
+                try {
+                    return parseString(text.subSequence(start, end).toString());
+                } catch (IllegalArgumentException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        char suffix = Character.toUpperCase(text.charAt(end - 1));
+        char sign = Angle.NO_SIGN;
+        if (suffix == 'E') sign = '+';
+        else if (suffix == 'W') sign = '-';
+        else if ((suffix == 'N') || (suffix == 'S')) return Double.NaN;
+        if (sign != Angle.NO_SIGN) {
+            // No numeric sign prefix when direction char suffix is present
+            char prefix = text.charAt(start);
+            if ((prefix == '+') || (prefix == '-')) return Double.NaN;
+            end--;
+        }
+        return Angle.parse(text, start, end, sign);
+    }
+
+    /*
+     * Parse a String with String operations, throwing an exception with the reason of the failure.
+     */
+    private static double parseString(String lonStr) {
         lonStr = lonStr.trim().toUpperCase();
         int n = lonStr.length() - 1;
 		if (n < 0) throw new IllegalArgumentException("Longitude must be non-empty value");
@@ -67,7 +123,7 @@ public class Longitude extends Angle {
             // Strip off the suffix and add the sign based on direction indicator
             lonStr = sign + lonStr.substring(0, n);
         }
-        this.init(new Angle(lonStr).inRadians(), Angle.RADIANS);
+        return new Angle(lonStr).inRadians();
     }
 
     /**
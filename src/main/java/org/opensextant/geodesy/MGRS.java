@@ -15,8 +15,9 @@
  ***************************************************************************/
 package org.opensextant.geodesy;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.text.DecimalFormat;
+import java.nio.CharBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +52,14 @@ public class MGRS implements GeoPoint, Serializable {
     private static final Logger log = LoggerFactory.getLogger(MGRS.class);
 
     private static final int ONEHT = 100000;
-    private static final int TWOMIL = 2000000;
+
+    // Longest distance from a point in a cell to a corner, in meters per meter of precision:
+    // the diagonal, sqrt(2), over the least UTM scale factor, 0.9996, rounded up
+    private static final double CORNER_REACH = 1.5;
+
+    // Degrees from the zone central meridian within which cell corners convert from UTM:
+    // the 9 degree UTM distortion limit, less the 1.5 degree shift of the special zones
+    private static final double SAFE_LON_FROM_CM = 9.0 - 1.5;
 
     private static final Ellipsoid WGS_84 = Ellipsoid.getInstance("WGS 84");
     private static final Ellipsoid CLARKE_1866 = Ellipsoid.getInstance("Clarke 1866");
@@ -69,12 +77,12 @@ public class MGRS implements GeoPoint, Serializable {
     // centered at each pole.  1st array is x (E-W direction), 2nd is y (N-S)
     //
     // MGRS Square letters for North Polar Region
-    private static final char[][] UPS_NorthGrid = {
+    static final char[][] UPS_NorthGrid = {
             {'R', 'S', 'T', 'U', 'X', 'Y', 'Z', 'A', 'B', 'C', 'F', 'G', 'H', 'J'},
             {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'J', 'K', 'L', 'M', 'N', 'P'}
     };
     // MGRS Square letters for South Polar Region
-    private static final char[][] UPS_SouthGrid = {
+    static final char[][] UPS_SouthGrid = {
             {'J', 'K', 'L', 'P', 'Q', 'R', 'S', 'T', 'U', 'X', 'Y', 'Z',
                     'A', 'B', 'C', 'F', 'G', 'H', 'J', 'K', 'L', 'P', 'Q', 'R'},
             {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'J', 'K', 'L', 'M',
@@ -116,7 +124,7 @@ public class MGRS implements GeoPoint, Serializable {
     // letter of each set represents a 100,000 meter false easting reference point, increasing by
     // 100,000 for each letter and ending each set at 800,000.
     //
-    private static final char[][] UTM_EastingGrid = {
+    static final char[][] UTM_EastingGrid = {
             {'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'},       // Set 3 and 6
             {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'},       // Set 1 and 4
             {'J', 'K', 'L', 'M', 'N', 'P', 'Q', 'R'}        // Set 2 and 5
@@ -139,7 +147,7 @@ public class MGRS implements GeoPoint, Serializable {
     // commonly used datums or not.  For example, the North American Datum 83 (NAD83), which is based
     // on the GRS 1980 ellipsoid model, is considered the "new" MGRS grid, while the NAD27 datum based
     // on the Clarke 1866 ellipsoid model is an example of the "old" MGRS grid starting point.
-    private static final char[] UTM_NorthingGrid = {
+    static final char[] UTM_NorthingGrid = {
             'A', 'B', 'C', 'D', 'E',    // Odd lonZones using new datums place 'A' at Equator
             'F', 'G', 'H', 'J', 'K',    // Even lonZones using new datums place 'F' at Equator
             'L', 'M', 'N', 'P', 'Q',    // Odd lonZones using old datums place 'L' at Equator
@@ -147,7 +155,7 @@ public class MGRS implements GeoPoint, Serializable {
     };
 
     // This helper method returns the UTM_NorthingGrid index at the Equator for this ellipsoid and lonZone
-    private static int equatorIndex(Ellipsoid ellip, int lonZone) {
+    static int equatorIndex(Ellipsoid ellip, int lonZone) {
         // Find the equator starting index
         boolean newDatum = ((ellip == WGS_84) ||
                 ((ellip != CLARKE_1866) && (ellip != CLARKE_1880) &&
@@ -182,11 +190,12 @@ public class MGRS implements GeoPoint, Serializable {
     private int precision;           // one of {100000, 10000, 1000, 100, 10, 1} cell side in meters
 
     private Geodetic2DPoint pointInCell;    // Initial precise point or center of cell
-    private Geodetic2DPoint llCorner;       // Lower-Left corner of most precise containing cell
-    private Geodetic2DPoint urCorner;       // Upper-Right corner of most precise containing cell
-    private Geodetic2DBounds bbox;          // Bounding box of MGRS cell (contains precise coordinate)
 
-    private static final DecimalFormat FMT = new DecimalFormat("00000"); // Instance Formatter for eastings & northings
+    // UTM or UPS coordinates of the Lower-Left corner of most precise containing cell
+    private char hemisphere;
+    private int gridEasting;
+    private int gridNorthing;
+    private volatile Geodetic2DBounds bbox; // Bounding box of MGRS cell, computed when first needed
 
     // Initialize this MGRS object from String notation
     // If argument 'strict' is true, exception will be thrown for non optimal projection encodings
@@ -196,234 +205,39 @@ public class MGRS implements GeoPoint, Serializable {
 	 */
     private void initFromString(final CharSequence mgrs, boolean strict)
             throws IllegalArgumentException {
-        if (mgrs == null) {
-            throw new IllegalArgumentException("null value for MGRS String is invalid");
-        }
-
-        // Normalize the string by removing separators and converting case
-        // Remove embedded whitespace, non-breaking spaces, slashes, dashes, null characters, and convert to uppercase
-        final StringBuilder mgrsBuf = new StringBuilder(mgrs.length());
-        for (int i = 0; i < mgrs.length(); i++) {
-            final char c = mgrs.charAt(i);
-            if ((!Character.isWhitespace(c)) && (!Character.isSpaceChar(c)) && (c != '-') && (c != '/') && (((int) c) != 0))
-                mgrsBuf.append(Character.toUpperCase(c));
-        }
-        if (mgrsBuf.length() == 0) {
-            throw new IllegalArgumentException("empty value for MGRS String is invalid");
-        }
-
-        // Parse leading digits as UTM lon zone (1 to 60), if present
-        int i = 0;
-
-        while (Character.isDigit(mgrsBuf.charAt(i))) {
-            i++;
-            if (i >= mgrsBuf.length()) {
-                throw new IllegalArgumentException("MGRS String parse error, string was entirely numeric: " + mgrsBuf);
-            }
-        }
-
-        if ((1 <= i) && (i <= 2)) {
-            lonZone = Integer.parseInt(mgrsBuf.substring(0, i));
-            UTM.validateLonZone(lonZone);
-        } else if (i == 0) {
-            lonZone = 0; // UPS parameters
-        } else {
-            throw new IllegalArgumentException("MGRS String parse error, " + i + " digit number '" +
-                    mgrsBuf.substring(0, i) + "' is too large for UTM longitudinal zone");
-        }
-        // UTM coordinates are signaled by the presence of a longitudinal zone number
-        final boolean utmCoord = (lonZone > 0);
-
-        // Parse next letter as lat band, validate latBand alone & with lonZone, if present
-        if (i >= mgrsBuf.length()) {
-            // NOTE: this should never occur with pre-tests above
-            throw new IllegalArgumentException("MGRS String parse error, " +
-                    "expecting letter for UTM or UPS latitudinal band, found end of string");
-        } else {
-            latBand = mgrsBuf.charAt(i++);
-            if (utmCoord) UTM.validateZoneAndBand(lonZone, latBand);
-            else UPS.validatePolarZone(latBand);
-        }
-
-        // Now parse the MGRS square's x and y identifiers, which we require for both UTM and UPS
-        // Note however, that this could be modified to accept UTM cells without MGRS square ids.
-        if (mgrsBuf.length() - i < 2) {
-            // MGRS square needed for poles, and we also choose to require it for UTM coordinates
-            throw new IllegalArgumentException("MGRS String parse error," +
-                    " expecting 2 alpha characters for MGRS square, found only one, or end of string: " +
-                    mgrsBuf.subSequence(i, mgrsBuf.length()));
-        } else {
-            // Set instance variables based on MGRS square identifiers, and validate syntax
-            xSquare = mgrsBuf.charAt(i++);
-            if (!Character.isLetter(xSquare)) {
-                throw new IllegalArgumentException("xSquare character was not a letter: " + xSquare);
-            }
-            ySquare = mgrsBuf.charAt(i++);
-            if (!Character.isLetter(ySquare)) {
-                throw new IllegalArgumentException("ySquare character was not a letter: " + ySquare);
-            }
-        }
-
-        // Finally, if present, parse next string of digits as easting & northing; compute precision
-        easting = 0;
-        northing = 0;
-        precision = ONEHT;
-        final String en = mgrsBuf.substring(i);
-        int n = en.length();
-        if (n > 0) {
-            if (n > 10) {
-                throw new IllegalArgumentException("Length of easting/northing values exceeded 10: " + n + ": " + en);
-            } else if ((n % 2) != 0) {
-                throw new IllegalArgumentException("Length of easting/northing values was odd: " + n + ": " + en);
-            }
-            int k = n / 2;
-            precision = (int) Math.pow(10.0, 5.0 - k);
-            easting = Integer.parseInt(en.substring(0, k)) * precision;
-            northing = Integer.parseInt(en.substring(k)) * precision;
-        }
-
-        // Now, convert UTM or UPS parameters into a Geodetic2DPoint for the Southwest corner point
-        if (utmCoord) {
-            // Convert the MGRS parameters for a UTM projection (longitudinal zone, hemisphere,
-            // easting and northing) to a geodetic coordinate for the southwestern corner of the MGRS square.
-            char hemisphere = UTM.getHemisphere(latBand);
-
-            // Compute utmEasting and validate
-            int utmEasting = ONEHT + easting;
-            boolean found = false;
-            for (char c : UTM_EastingGrid[(lonZone % 3)]) {
-                found = (c == xSquare);
-                if (found) break;
-                else utmEasting += ONEHT;
-            }
-            if (!found) throw new IllegalArgumentException("Invalid MGRS easting square identifier '" +
-                    xSquare + "' for longitudinal zone " + lonZone);
-
-            // Compute utmNorthing and validate
-            int utmNorthing = northing;
-            int y0 = equatorIndex(ellipsoid, lonZone);
-            int yi = y0;
-            while (UTM_NorthingGrid[yi] != ySquare) {
-                utmNorthing += ONEHT;
-                yi = (yi + 1) % 20;
-                if (yi == y0) {
-                    // Error if we wrap around the sequence without finding the ySquare character
-                    throw new IllegalArgumentException("Invalid MGRS northing square identifier '" + ySquare +
-                            "' for longitudinal zone " + lonZone);
-                }
-            }
-            // Adjust the northing to be at least beyond the min Northing for the latBand
-            int minNorthing = UTM.minNorthing(latBand);
-            while (utmNorthing < minNorthing) utmNorthing += TWOMIL;
-
-            // Validate that the utmNorthing within range for the lonZone, latBand pair
-            if (utmNorthing >= UTM.maxNorthing(lonZone, latBand)) {
-                throw new IllegalArgumentException("MGRS northing out of range for square identifier '" + ySquare +
-                        "' in longitudinal zone " + lonZone);
-            }
+        // Parse and validate the MGRS string components, including the southwest corner
+        MGRSParser parser = new MGRSParser((ellipsoid != null) ? ellipsoid : WGS_84, strict);
+        parser.parse(mgrs);
+        initFromParser(parser);
+    }
 
-            // Now, un-project from the UTM parameters back to geodetic coordinates
-            UTM llUTM = new UTM(lonZone, hemisphere, utmEasting, utmNorthing);
-            llCorner = llUTM.getGeodetic();
-            double delta = precision / 2.0;
-            UTM cpUTM = new UTM(lonZone, hemisphere, utmEasting + delta, utmNorthing + delta);
+    /*
+     * This method is used to initialize an MGRS coordinate from the results of an MGRSParser
+     * that has successfully parsed a coordinate
+     */
+    private void initFromParser(MGRSParser parser) {
+        lonZone = parser.getLonZone();
+        latBand = parser.getLatBand();
+        xSquare = parser.getXSquare();
+        ySquare = parser.getYSquare();
+        easting = parser.getEasting();
+        northing = parser.getNorthing();
+        precision = parser.getPrecision();
+
+        // Now, convert UTM or UPS parameters into a Geodetic2DPoint for the center point
+        // (the corner points are only converted if the bounding box is asked for)
+        hemisphere = parser.getHemisphere();
+        gridEasting = parser.getGridEasting();
+        gridNorthing = parser.getGridNorthing();
+        double delta = precision / 2.0;
+        if (lonZone > 0) {
+            UTM cpUTM = new UTM(lonZone, hemisphere, gridEasting + delta, gridNorthing + delta);
             pointInCell = cpUTM.getGeodetic();
-            UTM urUTM = new UTM(lonZone, hemisphere, utmEasting + precision, utmNorthing + precision);
-            urCorner = urUTM.getGeodetic();
-
-            // Validate that the easting's longitude is within the lonZone specified
-            double lonDeg = pointInCell.getLongitude().inDegrees();
-            double minLonDeg = UTM.minLonDegrees(lonZone, latBand);
-            double maxLonDeg = UTM.maxLonDegrees(lonZone, latBand);
-            if ((lonDeg < minLonDeg) || (maxLonDeg <= lonDeg)) {
-                // Allow if we're within about a meter of one of the boundaries
-                Latitude lat = pointInCell.getLatitude();
-                Geodetic2DPoint pMin = new Geodetic2DPoint(new Longitude(minLonDeg, Angle.DEGREES), lat);
-                if (ellipsoid.orthodromicDistance(pMin, pointInCell) > 1.0) {
-                    Geodetic2DPoint pMax = new Geodetic2DPoint(new Longitude(maxLonDeg, Angle.DEGREES), lat);
-                    if (ellipsoid.orthodromicDistance(pMax, pointInCell) > 1.0) {
-                        String msg = "MGRS easting out of range for square identifier '" +
-                                xSquare + "' in longitudinal zone " + lonZone;
-                        if (strict) throw new IllegalArgumentException(msg);
-                        else log.debug(msg);
-                    }
-                }
-            }
         } else {
-            // Convert the MGRS parameters for a UPS projection (polar latitude band, easting and
-            // northing) to a geodetic coordinate for the southwestern corner of the MGRS square
-            char hemisphere;
-            int gridEasting = 0;        /* Easting for 100,000 meter grid square      */
-            int gridNorthing = 0;       /* Northing for 100,000 meter grid square     */
-
-            char[][] gridLetters;
-
-            // UPS latBand already validated ("Y' or 'Z' for North Pole, 'A' or 'B' for South)
-            if (latBand >= 'Y') {
-                // North Polar Region
-                hemisphere = 'N';
-                gridLetters = UPS_NorthGrid;
-            } else {
-                // South Polar Region
-                hemisphere = 'S';
-                gridLetters = UPS_SouthGrid;
-            }
-            // See if xSquare is valid and compute gridEasting
-            // Use latBand to restrict our search to the appropriate half of the letter table
-            boolean west = ((latBand == 'A') || (latBand == 'Y'));
-            n = gridLetters[0].length / 2;
-            int x0 = west ? 0 : n;
-            int xn = x0 + n;
-            boolean found = false;
-            for (i = x0; i < xn; i++) {
-                if (found = (xSquare == gridLetters[0][i])) {
-                    gridEasting = ONEHT * (i - n);
-                    break;
-                }
-            }
-            if (!found) {
-                // One legal case is S Polar region along lon 180 deg exactly, where xSquare
-                // should be an 'A' even though it is not found by the above search method
-                if (west && (xSquare == 'A') && (easting == 0)) {
-                    gridEasting = 0;
-                } else {
-                    throw new IllegalArgumentException("First letter of MGRS square identifier ('" +
-                            xSquare + "') is invalid for UPS " + hemisphere + " Polar Region");
-                }
-            }
-            // See if ySquare is valid and compute gridNorthing
-            n = gridLetters[1].length;
-            found = false;
-            for (i = 0; i < n; i++) {
-                if (found = (ySquare == gridLetters[1][i])) {
-                    gridNorthing = ONEHT * (i - (n / 2));
-                    break;
-                }
-            }
-            if (!found) {
-                throw new IllegalArgumentException("Second letter of MGRS square identifier ('" +
-                        ySquare + "') is invalid for UPS " + hemisphere + " Polar Region");
-            }
-
-            double upsEasting = UPS.FALSE_EASTING + gridEasting + easting;
-            double upsNorthing = UPS.FALSE_NORTHING + gridNorthing + northing;
-            UPS llUPS = new UPS(hemisphere, upsEasting, upsNorthing);
-            llCorner = llUPS.getGeodetic();
-            double delta = precision / 2.0;
-            UPS cpUPS = new UPS(hemisphere, upsEasting + delta, upsNorthing + delta);
+            UPS cpUPS = new UPS(hemisphere, gridEasting + delta, gridNorthing + delta);
             pointInCell = cpUPS.getGeodetic();
-            UPS urUPS = new UPS(hemisphere, upsEasting + precision, upsNorthing + precision);
-            urCorner = urUPS.getGeodetic();
-
-            // Validate that the latitude is within the polar regions
-            if (utmCoord(pointInCell.getLatitude())) {
-                String msg = "MGRS coordinate corresponds to a UPS " +
-                        "point outside a polar region";
-                if (strict) throw new IllegalArgumentException(msg);
-                else log.debug(msg);
-            }
         }
-        bbox = new Geodetic2DBounds(llCorner, urCorner);
+        if (!cornersAreSafe()) bbox = cellBounds();
     }
 
     /*
@@ -437,7 +251,7 @@ public class MGRS implements GeoPoint, Serializable {
             UTM cpUTM = (ellipsoid != WGS_84) ? new UTM(ellipsoid, pointInCell) : new UTM(pointInCell);
             lonZone = cpUTM.getLonZone();
             latBand = cpUTM.getLatBand();
-            char hemisphere = UTM.getHemisphere(latBand);
+            hemisphere = UTM.getHemisphere(latBand);
 
             // Determine xSquare identifier and adjust UTM easting to be relative to be MGRS square
             int utmEasting = (int) Math.floor(cpUTM.getEasting());
@@ -449,12 +263,10 @@ public class MGRS implements GeoPoint, Serializable {
             ySquare = ySquare4UTM(ellipsoid, lonZone, utmNorthing);
             northing = utmNorthing - ((utmNorthing / ONEHT) * ONEHT);
 
-            // Create the geodetic points for the smallest containing cell (1 meter per side)
+            // Keep the corner of the smallest containing cell (1 meter per side)
             precision = 1;
-            UTM llUTM = new UTM(lonZone, hemisphere, utmEasting, utmNorthing);
-            llCorner = llUTM.getGeodetic();
-            UTM urUTM = new UTM(lonZone, hemisphere, utmEasting + precision, utmNorthing + precision);
-            urCorner = urUTM.getGeodetic();
+            gridEasting = utmEasting;
+            gridNorthing = utmNorthing;
         } else {
             // If sufficiently close to a pole, longitude should be zero (by convention)
             if (((Math.abs(lat.difference(NORTH_POLE).inDegrees()) < 1e-8) ||
@@ -467,7 +279,7 @@ public class MGRS implements GeoPoint, Serializable {
             UPS cpUPS = (ellipsoid != WGS_84) ? new UPS(ellipsoid, pointInCell) : new UPS(pointInCell);
             lonZone = 0;
             latBand = cpUPS.getPolarZone();
-            char hemisphere = cpUPS.getHemisphere();
+            hemisphere = cpUPS.getHemisphere();
 
             // Determine xSquare identifier and adjust UPS zone easting to be relative to MGRS square
             int upsEasting = (int) Math.floor(cpUPS.getEasting());
@@ -479,14 +291,63 @@ public class MGRS implements GeoPoint, Serializable {
             ySquare = ySquare4UPS(latBand, upsNorthing);
             northing = upsNorthing - ((upsNorthing / ONEHT) * ONEHT);
 
-            // Create the geodetic points for the smallest containing cell (1 meter per side)
+            // Keep the corner of the smallest containing cell (1 meter per side)
             precision = 1;
-            UPS llUPS = new UPS(hemisphere, upsEasting, upsNorthing);
+            gridEasting = upsEasting;
+            gridNorthing = upsNorthing;
+        }
+        if (!cornersAreSafe()) bbox = cellBounds();
+    }
+
+    /*
+     * Whether the corners of this cell are certain to convert from UTM without an exception,
+     * judging from the point in the cell, so that converting them can be left until the
+     * bounding box is needed.  Cells with a corner outside the UTM easting and northing
+     * ranges, and cells that may reach the distortion limit of their lon zone, the polar
+     * limits of UTM or band 'X' of lon zones 32, 34 or 36, have their corners converted when
+     * they are constructed, so that the same MGRS values are rejected (with the same
+     * exceptions) as when the corners were always converted.  UPS cells also take that
+     * eager path: they are rare, and the UPS range checks would need their own bounds here.
+     */
+    private boolean cornersAreSafe() {
+        if (lonZone == 0) return false;
+        if (!UTM.isValidEasting(gridEasting) || !UTM.isValidEasting(gridEasting + precision) ||
+                !UTM.isValidNorthing(gridNorthing) || !UTM.isValidNorthing(gridNorthing + precision))
+            return false;
+
+        // Bound the distance from the point in the cell to a corner as changes in latitude
+        // and longitude, using the least radii of curvature of the ellipsoid: a(1 - e^2) along
+        // the meridian at the equator, and a times the cosine of latitude along a parallel
+        Ellipsoid ellip = (ellipsoid != null) ? ellipsoid : WGS_84;
+        double a = ellip.getEquatorialRadius();
+        double reach = CORNER_REACH * precision;
+        double latDeg = pointInCell.getLatitudeAsDegrees();
+        double dLat = Math.toDegrees(reach / (a * (1.0 - ellip.getEccentricitySquared())));
+        if (latDeg + dLat >= UTM.MAX_NORTH_LATDEG || latDeg - dLat <= UTM.MIN_SOUTH_LATDEG) return false;
+        double maxLat = Math.abs(latDeg) + dLat;
+        if (maxLat >= 72.0 && (lonZone == 32 || lonZone == 34 || lonZone == 36)) return false;
+        double dLon = Math.toDegrees(reach / (a * Math.cos(Math.toRadians(maxLat))));
+
+        double cm = Math.toRadians(6.0 * lonZone - 183.0);
+        double fromCM = Math.toDegrees(Math.abs(Angle.normalize(pointInCell.getLongitude().inRadians() - cm)));
+        return fromCM + dLon < SAFE_LON_FROM_CM;
+    }
+
+    /* Convert the corners of this cell from UTM or UPS into its bounding box */
+    private Geodetic2DBounds cellBounds() {
+        Geodetic2DPoint llCorner, urCorner;
+        if (lonZone > 0) {
+            UTM llUTM = new UTM(lonZone, hemisphere, gridEasting, gridNorthing);
+            llCorner = llUTM.getGeodetic();
+            UTM urUTM = new UTM(lonZone, hemisphere, gridEasting + precision, gridNorthing + precision);
+            urCorner = urUTM.getGeodetic();
+        } else {
+            UPS llUPS = new UPS(hemisphere, gridEasting, gridNorthing);
             llCorner = llUPS.getGeodetic();
-            UPS urUPS = new UPS(hemisphere, upsEasting + precision, upsNorthing + precision);
+            UPS urUPS = new UPS(hemisphere, gridEasting + precision, gridNorthing + precision);
             urCorner = urUPS.getGeodetic();
         }
-        bbox = new Geodetic2DBounds(llCorner, urCorner);
+        return new Geodetic2DBounds(llCorner, urCorner);
     }
 
     /**
@@ -551,6 +412,51 @@ public class MGRS implements GeoPoint, Serializable {
         initFromString(mgrs, strict);
     }
 
+    /*
+     * This constructor takes the results of an MGRSParser that has successfully parsed a
+     * coordinate, with the Ellipsoid of the parser
+     */
+    private MGRS(MGRSParser parser) {
+        ellipsoid = parser.getEllipsoid();
+        initFromParser(parser);
+    }
+
+    /**
+     * This method parses an MGRS coordinate CharSequence with the WGS 84 Ellipsoid and the
+     * default non strict parsing rules, like the MGRS(CharSequence) constructor, but returns
+     * null instead of throwing an exception if the coordinate is invalid (or null).
+     *
+     * @param mgrs Military Grid Reference System coordinate CharSequence
+     * @return MGRS object, or null if mgrs is not a valid MGRS coordinate
+     */
+    public static MGRS tryParse(CharSequence mgrs) {
+        return tryParse(WGS_84, mgrs, false);
+    }
+
+    /**
+     * This method parses an MGRS coordinate CharSequence, like the MGRS(Ellipsoid,
+     * CharSequence, boolean) constructor, but returns null instead of throwing an exception
+     * if the coordinate is invalid (or null).  The syntax and the MGRS square identifiers are
+     * checked without exceptions; only the rare cells that pass these checks, but whose
+     * center or corners cannot be converted from UTM or UPS, are rejected by catching the
+     * exception of the conversion.
+     *
+     * @param ellip  Ellipsoid model of the earth to use in projections
+     * @param mgrs   Military Grid Reference System coordinate CharSequence
+     * @param strict boolean indicating if parsing rules should be strictly enforced
+     * @return MGRS object, or null if mgrs is not a valid MGRS coordinate
+     * @throws NullPointerException if ellip is null
+     */
+    public static MGRS tryParse(Ellipsoid ellip, CharSequence mgrs, boolean strict) {
+        MGRSParser parser = new MGRSParser(ellip, strict);
+        if (!parser.tryParse(mgrs)) return null;
+        try {
+            return new MGRS(parser);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
     /**
      * This constructor takes an Ellipsoid object and a Geodetic2DPoint object (lon-lat point).
      *
@@ -706,12 +612,20 @@ public class MGRS implements GeoPoint, Serializable {
     }
 
     /**
-     * This method returns the Geodetic2DBounds for this MGRS cell.
+     * This method returns the Geodetic2DBounds for this MGRS cell.  The corners of the cell
+     * are converted from UTM or UPS the first time this method is called, rather than when
+     * this MGRS object is constructed, since most uses of MGRS never need them.
      *
      * @return Geodetic2DBounds for MGRS cell, containing precise geodetic if used for construction
      */
     public Geodetic2DBounds getBoundingBox() {
-        return bbox;
+        Geodetic2DBounds bounds = bbox;
+        if (bounds == null) {
+            // Two threads may both compute the same bounds, but either result may be kept
+            bounds = cellBounds();
+            bbox = bounds;
+        }
+        return bounds;
     }
 
     /**
@@ -723,6 +637,14 @@ public class MGRS implements GeoPoint, Serializable {
         return precision;
     }
 
+    /*
+     * Pack the components of this MGRS coordinate into an MGRSCell id at the specified
+     * precision (see MGRSCell.fromMGRS).
+     */
+    long toCell(int precisionDigits) {
+        return MGRSCell.pack(lonZone, latBand, xSquare, ySquare, easting, northing, precisionDigits);
+    }
+
     /**
      * This method returns a hash code for this MGRS object. It only depends on the
      * MGRS point in cell (which is either the Geodetic2DPoint used to construct this
@@ -778,22 +700,63 @@ public class MGRS implements GeoPoint, Serializable {
      * @throws IllegalArgumentException - exception if precision is out of range (0..5)
      */
     public String toString(int precisionDigits) {
-        if (precisionDigits < 0 || precisionDigits > 5)
-            throw new IllegalArgumentException("Precision must be an integer in the range 0..5");
+        char[] chars = new char[encodedLength(precisionDigits)];
+        return new String(chars, 0, format(precisionDigits, chars));
+    }
 
-        StringBuilder mgrsStr = new StringBuilder();
+    /**
+     * This method appends the MGRS string of this cell at the specified precision to a
+     * StringBuilder, giving the same characters as toString(precisionDigits) without
+     * creating a String, so callers writing many MGRS strings can reuse one buffer.
+     *
+     * @param buf             StringBuilder to append to
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return buf, to allow chaining
+     * @throws IllegalArgumentException - exception if precision is out of range (0..5)
+     * @throws NullPointerException if buf is null
+     */
+    public StringBuilder appendTo(StringBuilder buf, int precisionDigits) {
+        char[] chars = new char[encodedLength(precisionDigits)];
+        return buf.append(chars, 0, format(precisionDigits, chars));
+    }
+
+    /**
+     * This method appends the MGRS string of this cell at the specified precision to an
+     * Appendable, such as a Writer, giving the same characters as toString(precisionDigits)
+     * without creating a String.
+     *
+     * @param out             Appendable to append to
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return out, to allow chaining
+     * @throws IOException if out throws an IOException
+     * @throws IllegalArgumentException - exception if precision is out of range (0..5)
+     * @throws NullPointerException if out is null
+     */
+    public Appendable appendTo(Appendable out, int precisionDigits) throws IOException {
+        if (out instanceof StringBuilder) return appendTo((StringBuilder) out, precisionDigits);
+        char[] chars = new char[encodedLength(precisionDigits)];
+        return out.append(CharBuffer.wrap(chars, 0, format(precisionDigits, chars)));
+    }
+
+    /*
+     * Write the MGRS string at the specified precision into chars (at least
+     * encodedLength(precisionDigits) long), returning its length.  The easting and northing
+     * are zero padded and truncated digit by digit, so no formatter (or lock) is needed.
+     */
+    private int format(int precisionDigits, char[] chars) {
+        int n = 0;
         // Include UTM lon Zone if this square is not in a polar region
-        if (utmCoord(pointInCell.getLatitude())) mgrsStr.append(lonZone);
-        // Include the 3 letter MGRS square identifiers
-        mgrsStr.append(latBand);
-        mgrsStr.append(xSquare);
-        mgrsStr.append(ySquare);
-        synchronized(FMT) {
-            // Add the correct easting and northing values truncated at the specified precision
-            mgrsStr.append(FMT.format(easting).substring(0, precisionDigits));
-            mgrsStr.append(FMT.format(northing).substring(0, precisionDigits));
+        if (utmCoord(pointInCell.getLatitude())) {
+            if (lonZone >= 10) chars[n++] = (char) ('0' + lonZone / 10);
+            chars[n++] = (char) ('0' + lonZone % 10);
         }
-        return mgrsStr.toString();
+        // Include the 3 letter MGRS square identifiers
+        chars[n++] = latBand;
+        chars[n++] = xSquare;
+        chars[n++] = ySquare;
+        // Add the correct easting and northing values truncated at the specified precision
+        appendDigits(easting, northing, precisionDigits, chars, n);
+        return n + 2 * precisionDigits;
     }
 
     /**
@@ -813,4 +776,249 @@ public class MGRS implements GeoPoint, Serializable {
         else log.error("Invalid MGRS precision - shouldn't happen");
         return toString(precisionDigits);
     }
+
+    /**
+     * This method returns the number of characters in each fixed width record written by
+     * the encode methods for the specified precision: 2 for the UTM lon zone, 3 for the lat
+     * band and MGRS square identifiers, and precisionDigits each for easting and northing.
+     *
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return number of characters in each encoded MGRS record
+     * @throws IllegalArgumentException - exception if precision is out of range (0..5)
+     */
+    public static int encodedLength(int precisionDigits) {
+        if (precisionDigits < 0 || precisionDigits > 5)
+            throw new IllegalArgumentException("Precision must be an integer in the range 0..5");
+        return 5 + 2 * precisionDigits;
+    }
+
+    /**
+     * This method encodes many geodetic points, given as parallel arrays of decimal degrees,
+     * into MGRS strings at the specified precision, assuming the WGS 84 Ellipsoid.  See the
+     * encode method taking an Ellipsoid for details.
+     *
+     * @param lonDeg          longitudes of the points to encode, in decimal degrees
+     * @param latDeg          latitudes of the points to encode, in decimal degrees
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             char array to receive lonDeg.length fixed width records
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or array sizes do not agree
+     * @throws NullPointerException if any of the arrays are null
+     */
+    public static int encode(double[] lonDeg, double[] latDeg, int precisionDigits, char[] out) {
+        return encode(WGS_84, lonDeg, latDeg, precisionDigits, out);
+    }
+
+    /**
+     * This method encodes many geodetic points, given as parallel arrays of decimal degrees,
+     * into MGRS strings at the specified precision.  Each record parses to the same MGRS cell
+     * as creating an MGRS object for the point and calling its toString(precisionDigits)
+     * method, though the record layout differs as described below.  It creates no objects
+     * per point: it skips the cell corner and bounding box computations,
+     * reuses one set of projections for the whole batch, and writes its output directly into
+     * the caller's buffer.<p/>
+     *
+     * Record i is written to out[i * w] through out[i * w + w - 1], where w is the value of
+     * encodedLength(precisionDigits).  To keep every record the same width, the UTM lon zone
+     * is always written with 2 digits (e.g. "04QFJ12345678"), and UPS records, which have no lon
+     * zone, start with 2 blanks.  Points that cannot be encoded (NaN values, latitudes beyond
+     * a pole, or non-zero longitudes at a pole) are written as an all blank record rather than
+     * stopping the batch, so the caller can detect them without exception handling.  The
+     * MGRS String constructors ignore the leading blanks and zeros of these records.
+     *
+     * @param ellip           Ellipsoid model of the earth to use in projections
+     * @param lonDeg          longitudes of the points to encode, in decimal degrees
+     * @param latDeg          latitudes of the points to encode, in decimal degrees
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             char array to receive lonDeg.length fixed width records
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or array sizes do not agree
+     * @throws NullPointerException if ellip or any of the arrays are null
+     */
+    public static int encode(Ellipsoid ellip, double[] lonDeg, double[] latDeg, int precisionDigits,
+                             char[] out) {
+        int width = encodedLength(precisionDigits);
+        int n = lonDeg.length;
+        if (latDeg.length != n)
+            throw new IllegalArgumentException("Longitude and latitude arrays differ in length");
+        if (out.length / width < n)
+            throw new IllegalArgumentException("Output buffer is too small for " + n + " records");
+
+        BatchEncoder encoder = new BatchEncoder(ellip);
+        int count = 0;
+        for (int i = 0, off = 0; i < n; i++, off += width) {
+            // Round trip through radians exactly as Longitude and Latitude objects do
+            double lonRad, latRad;
+            try {
+                lonRad = Angle.normalize(Math.toRadians(lonDeg[i]));
+                latRad = Angle.normalize(Math.toRadians(latDeg[i]));
+            } catch (IllegalArgumentException ex) {
+                // Infinite or too big angle, which the encoder writes as a blank record
+                lonRad = latRad = Double.NaN;
+            }
+            if (encoder.encode(lonRad, latRad, precisionDigits, out, off)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * This method encodes the points of a GeodeticPointBuffer into MGRS strings at the
+     * specified precision, assuming the WGS 84 Ellipsoid.  See the encode method taking
+     * an Ellipsoid and a GeodeticPointBuffer for details.
+     *
+     * @param points          geodetic points to encode (elevations are ignored)
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             char array to receive points.size() fixed width records
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or out is too small
+     * @throws NullPointerException if points or out are null
+     */
+    public static int encode(GeodeticPointBuffer points, int precisionDigits, char[] out) {
+        return encode(WGS_84, points, precisionDigits, out);
+    }
+
+    /**
+     * This method encodes the points of a GeodeticPointBuffer into MGRS strings at the
+     * specified precision.  The output records are the same as those of the encode method
+     * taking arrays of decimal degrees (see there for the record layout), but since the
+     * buffer already holds normalized radians, no angle conversions are needed to project
+     * the points.
+     *
+     * @param ellip           Ellipsoid model of the earth to use in projections
+     * @param points          geodetic points to encode (elevations are ignored)
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             char array to receive points.size() fixed width records
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or out is too small
+     * @throws NullPointerException if ellip, points or out are null
+     */
+    public static int encode(Ellipsoid ellip, GeodeticPointBuffer points, int precisionDigits, char[] out) {
+        int width = encodedLength(precisionDigits);
+        int n = points.size();
+        if (out.length / width < n)
+            throw new IllegalArgumentException("Output buffer is too small for " + n + " records");
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+
+        BatchEncoder encoder = new BatchEncoder(ellip);
+        int count = 0;
+        for (int i = 0, off = 0; i < n; i++, off += width) {
+            if (encoder.encode(lon[i], lat[i], precisionDigits, out, off)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * The BatchEncoder class holds the projection state shared by every point of a batch
+     * encoding: one UTMConverter, and the polar projections, which are made the first time
+     * a point in each polar cap is encoded.  The project method leaves the MGRS components
+     * of its point in the instance variables, from which the encode method writes a fixed
+     * width record and the cell method packs an MGRSCell id.
+     */
+    static final class BatchEncoder {
+        private final Ellipsoid ellip;
+        private final UTMConverter utm;
+        private final double[] en = new double[2];
+        private PolarStereographic north;
+        private PolarStereographic south;
+
+        // MGRS components of the last point projected
+        int lonZone;            // 0 means this is a UPS coordinate, 1..60 means UTM coordinate
+        char latBand;
+        char xSquare;
+        char ySquare;
+        int gridEasting;        // UTM or UPS easting in whole meters
+        int gridNorthing;       // UTM or UPS northing in whole meters
+
+        BatchEncoder(Ellipsoid ellip) {
+            this.ellip = ellip;
+            this.utm = new UTMConverter(ellip);
+        }
+
+        /* Find the MGRS components of one point (in normalized radians), returning false if invalid */
+        boolean project(double lonRad, double latRad) {
+            try {
+                if (!(Math.abs(latRad) <= Math.PI / 2.0) || Double.isNaN(lonRad))
+                    throw new IllegalArgumentException("Invalid geodetic coordinate");
+                double lon = Math.toDegrees(lonRad);
+                double lat = Math.toDegrees(latRad);
+                if ((UTM.MIN_SOUTH_LATDEG <= lat) && (lat < UTM.MAX_NORTH_LATDEG)) {
+                    utm.convert(lon, lat, lonRad, latRad);
+                    lonZone = utm.getLonZone();
+                    gridEasting = (int) Math.floor(utm.getEasting());
+                    gridNorthing = (int) Math.floor(utm.getNorthing());
+                    latBand = utm.getLatBand();
+                    xSquare = xSquare4UTM(lonZone, gridEasting);
+                    ySquare = ySquare4UTM(ellip, lonZone, gridNorthing);
+                } else {
+                    // If sufficiently close to a pole, longitude should be zero (by convention)
+                    if ((90.0 - Math.abs(lat) < 1e-8) && (Math.abs(lon) > 1e-8))
+                        throw new IllegalArgumentException("Longitude should be zero at a Pole, lon: " + lon);
+                    PolarStereographic ps;
+                    if (lat > 0.0) {
+                        if (north == null) north = polarProjection(ellip, UPS.NORTH_POLAR);
+                        ps = north;
+                    } else {
+                        if (south == null) south = polarProjection(ellip, UPS.SOUTH_POLAR);
+                        ps = south;
+                    }
+                    ps.toPolarStereographic(lonRad, latRad, en);
+                    lonZone = 0;
+                    gridEasting = (int) Math.floor(en[0] + UPS.FALSE_EASTING);
+                    gridNorthing = (int) Math.floor(en[1] + UPS.FALSE_NORTHING);
+                    if (lat > 0.0) latBand = (gridEasting < UPS.FALSE_EASTING) ? 'Y' : 'Z';
+                    else latBand = (gridEasting < UPS.FALSE_EASTING) ? 'A' : 'B';
+                    xSquare = xSquare4UPS(latBand, gridEasting);
+                    ySquare = ySquare4UPS(latBand, gridNorthing);
+                }
+                return true;
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        }
+
+        /* Write the record for one point (in normalized radians) at out[off], returning false if invalid */
+        boolean encode(double lonRad, double latRad, int precisionDigits, char[] out, int off) {
+            if (!project(lonRad, latRad)) {
+                int width = encodedLength(precisionDigits);
+                for (int j = off; j < off + width; j++) out[j] = ' ';
+                return false;
+            }
+            if (lonZone == 0) {
+                out[off] = ' ';
+                out[off + 1] = ' ';
+            } else {
+                out[off] = (char) ('0' + lonZone / 10);
+                out[off + 1] = (char) ('0' + lonZone % 10);
+            }
+            out[off + 2] = latBand;
+            out[off + 3] = xSquare;
+            out[off + 4] = ySquare;
+            appendDigits(gridEasting % ONEHT, gridNorthing % ONEHT, precisionDigits, out, off + 5);
+            return true;
+        }
+
+        /* Pack the MGRSCell id of one point (in normalized radians), or MGRSCell.INVALID */
+        long cell(double lonRad, double latRad, int precisionDigits) {
+            if (!project(lonRad, latRad)) return MGRSCell.INVALID;
+            return MGRSCell.pack(lonZone, latBand, xSquare, ySquare,
+                    gridEasting % ONEHT, gridNorthing % ONEHT, precisionDigits);
+        }
+    }
+
+    /* Make a Polar Stereographic projection for the UPS encodings of the batch encode method */
+    private static PolarStereographic polarProjection(Ellipsoid ellip, Latitude latOfTrueScale) {
+        PolarStereographic ps = new PolarStereographic(latOfTrueScale);
+        ps.setEllipsoid(ellip);
+        return ps;
+    }
+
+    /* Write the leading precisionDigits digits of 5 digit easting and northing values into out */
+    private static void appendDigits(int easting, int northing, int precisionDigits, char[] out, int off) {
+        int div = 10000;
+        for (int k = 0; k < precisionDigits; k++, div /= 10) {
+            out[off + k] = (char) ('0' + (easting / div) % 10);
+            out[off + precisionDigits + k] = (char) ('0' + (northing / div) % 10);
+        }
+    }
 }
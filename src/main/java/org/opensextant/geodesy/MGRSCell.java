@@ -0,0 +1,513 @@
+/****************************************************************************************
+ *  MGRSCell.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The MGRSCell class packs an MGRS cell into a single primitive long id, so that cells can
+ * be used as keys in sorts, joins and hash tables without creating MGRS objects or Strings.
+ * An id holds exactly the components of an MGRS string: the UTM lon zone (0 for UPS), the
+ * lat band and 100 km square letters, the easting and northing within the square truncated
+ * to the precision, and the number of precision digits (0 to 5).  Two MGRS strings for the
+ * same cell at the same precision therefore have the same id, whatever the leading zeros,
+ * case or spacing of the strings, and ids sort by grid zone, then 100 km square, then
+ * easting and northing.  Every valid id is non-negative, so INVALID (-1) can mark points
+ * that cannot be encoded.<p/>
+ *
+ * Ids can be made from MGRS objects, MGRS strings and geodetic points (one at a time or a
+ * whole GeodeticPointBuffer at once, with no objects per point), and turned back into MGRS
+ * strings and objects.  The parent, child and neighbor methods navigate between cells, and
+ * MGRSCellCounts aggregates counts or sums by cell.  The square letters depend on the
+ * ellipsoid used to encode a point, so methods that convert ids to geodetic positions
+ * (toMGRS and neighbor) assume the WGS 84 Ellipsoid, as the MGRS String constructors do.
+ */
+public final class MGRSCell {
+
+    /**
+     * The id returned by the batch encode methods for points that cannot be encoded,
+     * and by tryFromString for invalid MGRS strings.
+     */
+    public static final long INVALID = -1L;
+
+    private static final Ellipsoid WGS_84 = Ellipsoid.getInstance("WGS 84");
+
+    // Cell side in meters for each number of precision digits
+    private static final int[] CELL_SIZE = {100000, 10000, 1000, 100, 10, 1};
+    private static final int ONEHT = 100000;
+
+    // Bit layout of an id, from the most significant end: 6 bits for the lon zone, 5 bits
+    // each for the lat band and square letters (as offsets from 'A'), 17 bits each for the
+    // easting and northing in meters within the square, and 3 bits for the precision digits.
+    private static final int ZONE_SHIFT = 52;
+    private static final int BAND_SHIFT = 47;
+    private static final int X_SHIFT = 42;
+    private static final int Y_SHIFT = 37;
+    private static final int EASTING_SHIFT = 20;
+    private static final int NORTHING_SHIFT = 3;
+    private static final long LETTER_MASK = 0x1FL;
+    private static final long METERS_MASK = 0x1FFFFL;
+    private static final long DIGITS_MASK = 0x7L;
+
+    private MGRSCell() {
+        // static methods only
+    }
+
+    /*
+     * Pack the components of an MGRS cell into an id, truncating the easting and northing
+     * (0 to 99,999 meters within the square) at the specified precision.
+     */
+    static long pack(int lonZone, char latBand, char xSquare, char ySquare, int easting,
+                     int northing, int precisionDigits) {
+        int size = CELL_SIZE[precisionDigits];
+        return ((long) lonZone << ZONE_SHIFT) |
+                ((long) (latBand - 'A') << BAND_SHIFT) |
+                ((long) (xSquare - 'A') << X_SHIFT) |
+                ((long) (ySquare - 'A') << Y_SHIFT) |
+                ((long) (easting - easting % size) << EASTING_SHIFT) |
+                ((long) (northing - northing % size) << NORTHING_SHIFT) |
+                precisionDigits;
+    }
+
+    /* Validate the number of precision digits */
+    private static void checkDigits(int precisionDigits) {
+        if (precisionDigits < 0 || precisionDigits > 5)
+            throw new IllegalArgumentException("Precision must be an integer in the range 0..5");
+    }
+
+    /* Validate an id, returning its number of precision digits */
+    private static int checkCell(long cell) {
+        int digits = (int) (cell & DIGITS_MASK);
+        if (cell < 0L || digits > 5)
+            throw new IllegalArgumentException("Invalid MGRS cell id " + cell);
+        return digits;
+    }
+
+    /* Number of precision digits for a cell side in meters */
+    private static int digits(int precision) {
+        for (int d = 0; d < CELL_SIZE.length; d++) {
+            if (CELL_SIZE[d] == precision) return d;
+        }
+        throw new IllegalArgumentException("Invalid MGRS precision " + precision);
+    }
+
+    /**
+     * This method returns the id of the cell of an MGRS coordinate at its natural precision.
+     *
+     * @param mgrs MGRS coordinate
+     * @return MGRS cell id
+     * @throws NullPointerException if mgrs is null
+     */
+    public static long fromMGRS(MGRS mgrs) {
+        return mgrs.toCell(digits(mgrs.getPrecision()));
+    }
+
+    /**
+     * This method returns the id of the cell of an MGRS coordinate at the specified precision.
+     * As with the toString(precisionDigits) method of MGRS, asking for more digits than the
+     * coordinate was given with selects the southwest cell within the coarser cell.
+     *
+     * @param mgrs            MGRS coordinate
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return MGRS cell id
+     * @throws IllegalArgumentException error if precision is out of range
+     * @throws NullPointerException if mgrs is null
+     */
+    public static long fromMGRS(MGRS mgrs, int precisionDigits) {
+        checkDigits(precisionDigits);
+        return mgrs.toCell(precisionDigits);
+    }
+
+    /**
+     * This method parses an MGRS string (with the rules of a default MGRSParser) and returns
+     * the id of its cell, at the precision of the string.
+     *
+     * @param mgrs Military Grid Reference System coordinate CharSequence
+     * @return MGRS cell id
+     * @throws IllegalArgumentException error if the MGRS coordinate is invalid
+     */
+    public static long fromString(CharSequence mgrs) {
+        MGRSParser parser = new MGRSParser();
+        parser.parse(mgrs);
+        return fromParser(parser);
+    }
+
+    /**
+     * This method parses an MGRS string (with the rules of a default MGRSParser) and returns
+     * the id of its cell, at the precision of the string, like fromString, but returns INVALID
+     * instead of throwing an exception if the MGRS coordinate is invalid (or null).
+     *
+     * @param mgrs Military Grid Reference System coordinate CharSequence
+     * @return MGRS cell id, or INVALID
+     */
+    public static long tryFromString(CharSequence mgrs) {
+        MGRSParser parser = new MGRSParser();
+        return parser.tryParse(mgrs) ? fromParser(parser) : INVALID;
+    }
+
+    /**
+     * This method returns the id of the cell of the coordinate last parsed by an MGRSParser,
+     * at the precision it was given with.  Reusing one parser in this way makes ids from many
+     * strings (or ASCII bytes) without creating any objects per coordinate.
+     *
+     * @param parser MGRSParser that has successfully parsed a coordinate
+     * @return MGRS cell id
+     * @throws NullPointerException if parser is null
+     */
+    public static long fromParser(MGRSParser parser) {
+        return pack(parser.getLonZone(), parser.getLatBand(), parser.getXSquare(), parser.getYSquare(),
+                parser.getEasting(), parser.getNorthing(), digits(parser.getPrecision()));
+    }
+
+    /**
+     * This method returns the id of the MGRS cell containing a geodetic point at the specified
+     * precision, assuming the WGS 84 Ellipsoid.  It gives the same cell as creating an MGRS
+     * object for the point, without computing the cell corners and bounding box.
+     *
+     * @param point           Geodetic2DPoint to encode
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return MGRS cell id
+     * @throws IllegalArgumentException error if precision is out of range, or if the point
+     *                                  is at a pole with a non-zero longitude
+     * @throws NullPointerException if point is null
+     */
+    public static long fromGeodetic(Geodetic2DPoint point, int precisionDigits) {
+        checkDigits(precisionDigits);
+        long cell = new MGRS.BatchEncoder(WGS_84).cell(point.getLongitude().inRadians(),
+                point.getLatitude().inRadians(), precisionDigits);
+        if (cell == INVALID)
+            throw new IllegalArgumentException("Point " + point + " cannot be encoded in MGRS");
+        return cell;
+    }
+
+    /**
+     * This method encodes the points of a GeodeticPointBuffer into MGRS cell ids at the
+     * specified precision, assuming the WGS 84 Ellipsoid.  See the encode method taking an
+     * Ellipsoid for details.
+     *
+     * @param points          geodetic points to encode (elevations are ignored)
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             long array to receive points.size() ids
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or out is too small
+     * @throws NullPointerException if points or out are null
+     */
+    public static int encode(GeodeticPointBuffer points, int precisionDigits, long[] out) {
+        return encode(WGS_84, points, precisionDigits, out);
+    }
+
+    /**
+     * This method encodes the points of a GeodeticPointBuffer into MGRS cell ids at the
+     * specified precision.  It projects the points exactly as the batch encode methods of
+     * MGRS do, sharing one set of projections for the whole batch, but packs each result
+     * into out[i] instead of writing characters.  Points that cannot be encoded (points at
+     * a pole with a non-zero longitude) are given the INVALID id rather than stopping the
+     * batch.
+     *
+     * @param ellip           Ellipsoid model of the earth to use in projections
+     * @param points          geodetic points to encode (elevations are ignored)
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @param out             long array to receive points.size() ids
+     * @return number of points successfully encoded
+     * @throws IllegalArgumentException error if precision is out of range, or out is too small
+     * @throws NullPointerException if ellip, points or out are null
+     */
+    public static int encode(Ellipsoid ellip, GeodeticPointBuffer points, int precisionDigits, long[] out) {
+        checkDigits(precisionDigits);
+        int n = points.size();
+        if (out.length < n)
+            throw new IllegalArgumentException("Output buffer is too small for " + n + " ids");
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+
+        MGRS.BatchEncoder encoder = new MGRS.BatchEncoder(ellip);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            long cell = encoder.cell(lon[i], lat[i], precisionDigits);
+            out[i] = cell;
+            if (cell != INVALID) count++;
+        }
+        return count;
+    }
+
+    /**
+     * This method returns the UTM lon zone of a cell.
+     *
+     * @param cell MGRS cell id
+     * @return UTM lon zone (1 to 60), or 0 for a UPS cell
+     */
+    public static int getLonZone(long cell) {
+        return (int) (cell >>> ZONE_SHIFT);
+    }
+
+    /**
+     * This method returns the lat band letter of a cell.
+     *
+     * @param cell MGRS cell id
+     * @return lat band letter ('A', 'B', 'Y' or 'Z' for a UPS cell)
+     */
+    public static char getLatBand(long cell) {
+        return (char) ('A' + ((cell >>> BAND_SHIFT) & LETTER_MASK));
+    }
+
+    /**
+     * This method returns the letter of the column of 100 km squares holding a cell.
+     *
+     * @param cell MGRS cell id
+     * @return MGRS square x letter
+     */
+    public static char getXSquare(long cell) {
+        return (char) ('A' + ((cell >>> X_SHIFT) & LETTER_MASK));
+    }
+
+    /**
+     * This method returns the letter of the row of 100 km squares holding a cell.
+     *
+     * @param cell MGRS cell id
+     * @return MGRS square y letter
+     */
+    public static char getYSquare(long cell) {
+        return (char) ('A' + ((cell >>> Y_SHIFT) & LETTER_MASK));
+    }
+
+    /**
+     * This method returns the easting of the west edge of a cell, relative to the west edge
+     * of its 100 km square.
+     *
+     * @param cell MGRS cell id
+     * @return meters east of the MGRS square's west edge (0 to 99,999)
+     */
+    public static int getEasting(long cell) {
+        return (int) ((cell >>> EASTING_SHIFT) & METERS_MASK);
+    }
+
+    /**
+     * This method returns the northing of the south edge of a cell, relative to the south
+     * edge of its 100 km square.
+     *
+     * @param cell MGRS cell id
+     * @return meters north of the MGRS square's south edge (0 to 99,999)
+     */
+    public static int getNorthing(long cell) {
+        return (int) ((cell >>> NORTHING_SHIFT) & METERS_MASK);
+    }
+
+    /**
+     * This method returns the number of digits used for each of the easting and northing
+     * of a cell.
+     *
+     * @param cell MGRS cell id
+     * @return precision digits (0 to 5)
+     * @throws IllegalArgumentException error if cell is not a valid id
+     */
+    public static int getPrecisionDigits(long cell) {
+        return checkCell(cell);
+    }
+
+    /**
+     * This method returns the precision of a cell, which is its side in meters.
+     *
+     * @param cell MGRS cell id
+     * @return precision One of {100000, 10000, 1000, 100, 10, 1}
+     * @throws IllegalArgumentException error if cell is not a valid id
+     */
+    public static int getPrecision(long cell) {
+        return CELL_SIZE[checkCell(cell)];
+    }
+
+    /**
+     * This method returns the MGRS string of a cell, in the same form as the toString
+     * method of MGRS (no leading zero on the lon zone, and no lon zone for UPS).
+     *
+     * @param cell MGRS cell id
+     * @return MGRS coordinate string at the precision of the cell
+     * @throws IllegalArgumentException error if cell is not a valid id
+     */
+    public static String toString(long cell) {
+        int digits = checkCell(cell);
+        int lonZone = getLonZone(cell);
+        StringBuilder buf = new StringBuilder(5 + 2 * digits);
+        if (lonZone != 0) buf.append(lonZone);
+        buf.append(getLatBand(cell)).append(getXSquare(cell)).append(getYSquare(cell));
+        appendDigits(buf, getEasting(cell), digits);
+        appendDigits(buf, getNorthing(cell), digits);
+        return buf.toString();
+    }
+
+    /* Append the leading digits of a 5 digit value */
+    private static void appendDigits(StringBuilder buf, int value, int digits) {
+        for (int k = 0, div = 10000; k < digits; k++, div /= 10) {
+            buf.append((char) ('0' + (value / div) % 10));
+        }
+    }
+
+    /**
+     * This method makes an MGRS object for a cell, assuming the WGS 84 Ellipsoid.
+     *
+     * @param cell MGRS cell id
+     * @return MGRS object for the cell, at its precision
+     * @throws IllegalArgumentException error if cell is not a valid id
+     */
+    @NonNull
+    public static MGRS toMGRS(long cell) {
+        return new MGRS(toString(cell));
+    }
+
+    /**
+     * This method returns the cell one precision digit coarser that contains a cell.
+     *
+     * @param cell MGRS cell id, with a precision of 1 to 5 digits
+     * @return MGRS cell id of the parent cell
+     * @throws IllegalArgumentException error if cell is not a valid id, or is a 100 km square
+     */
+    public static long parent(long cell) {
+        return parent(cell, checkCell(cell) - 1);
+    }
+
+    /**
+     * This method returns the cell at a coarser (or the same) precision that contains a
+     * cell.  The ancestor has the same grid zone and 100 km square as the cell.
+     *
+     * @param cell            MGRS cell id
+     * @param precisionDigits int value from 0 to the precision digits of cell, inclusive
+     * @return MGRS cell id of the ancestor cell
+     * @throws IllegalArgumentException error if cell is not a valid id, or precision is out of range
+     */
+    public static long parent(long cell, int precisionDigits) {
+        int digits = checkCell(cell);
+        if (precisionDigits < 0 || precisionDigits > digits)
+            throw new IllegalArgumentException("Precision must be an integer in the range 0.." + digits);
+        return pack(getLonZone(cell), getLatBand(cell), getXSquare(cell), getYSquare(cell),
+                getEasting(cell), getNorthing(cell), precisionDigits);
+    }
+
+    /**
+     * This method returns one of the 100 cells, one precision digit finer, that a cell is
+     * divided into.  The children keep the grid zone of the cell, so where a cell is cut by
+     * a lat band or lon zone edge, some children lie partly or wholly outside of that zone.
+     *
+     * @param cell   MGRS cell id, with a precision of 0 to 4 digits
+     * @param column column of the child from the west edge of the cell (0 to 9)
+     * @param row    row of the child from the south edge of the cell (0 to 9)
+     * @return MGRS cell id of the child cell
+     * @throws IllegalArgumentException error if cell is not a valid id or is at 1 meter
+     *                                  precision, or column or row is out of range
+     */
+    public static long child(long cell, int column, int row) {
+        int digits = checkCell(cell);
+        if (digits == 5)
+            throw new IllegalArgumentException("1 meter MGRS cells have no children");
+        if (column < 0 || column > 9 || row < 0 || row > 9)
+            throw new IllegalArgumentException("Child column and row must be in the range 0..9");
+        int size = CELL_SIZE[digits + 1];
+        return pack(getLonZone(cell), getLatBand(cell), getXSquare(cell), getYSquare(cell),
+                getEasting(cell) + column * size, getNorthing(cell) + row * size, digits + 1);
+    }
+
+    /**
+     * This method returns the cell at the same precision that lies dx cells east and dy
+     * cells north of a cell (negative values going west and south), assuming the WGS 84
+     * Ellipsoid.  The center of that cell is found by stepping through the projection grid
+     * of the starting cell, then un-projected and encoded again, so the result has the
+     * proper lat band, 100 km square and lon zone when the step crosses a band, square,
+     * zone or UPS boundary (including the Norway and Svalbard special zones).  Near such a
+     * boundary the result is the cell containing that center, which need not share a full
+     * edge with the starting cell.
+     *
+     * @param cell MGRS cell id
+     * @param dx   number of cells to step east
+     * @param dy   number of cells to step north
+     * @return MGRS cell id of the neighboring cell
+     * @throws IllegalArgumentException error if cell is not a valid id, or the step leaves
+     *                                  the UPS grid or reaches a point with no MGRS cell
+     */
+    public static long neighbor(long cell, int dx, int dy) {
+        int digits = checkCell(cell);
+        if (dx == 0 && dy == 0) return cell;
+        int lonZone = getLonZone(cell);
+        char latBand = getLatBand(cell);
+        double size = CELL_SIZE[digits];
+        int[] corner = new int[2];
+        gridCorner(cell, corner);
+        double easting = corner[0] + (dx + 0.5) * size;
+        double northing = corner[1] + (dy + 0.5) * size;
+        double[] lonLat = new double[2];
+        if (lonZone == 0) {
+            UPS.validateEasting(easting);
+            UPS.validateNorthing(northing);
+            PolarStereographic ps = new PolarStereographic((latBand >= 'Y') ? UPS.NORTH_POLAR : UPS.SOUTH_POLAR);
+            ps.toGeodetic(easting - UPS.FALSE_EASTING, northing - UPS.FALSE_NORTHING, lonLat);
+        } else {
+            // Use the projection of the starting cell, with its special zone central meridian,
+            // which is still accurate well beyond the nominal easting range of the zone
+            TransverseMercator tm = UTM.getProjection(WGS_84, lonZone, latBand, false);
+            tm.toGeodetic(easting - UTM.FALSE_EASTING,
+                    (latBand < 'N') ? northing - UTM.FALSE_NORTHING : northing, lonLat);
+        }
+        double lonRad = Angle.normalize(lonLat[0]);
+        double latRad = lonLat[1];
+        // Longitude is zero at a pole by convention
+        if (Math.PI / 2.0 - Math.abs(latRad) < 1e-10) lonRad = 0.0;
+        long result = new MGRS.BatchEncoder(WGS_84).cell(lonRad, latRad, digits);
+        if (result == INVALID)
+            throw new IllegalArgumentException("No MGRS cell at (" + dx + ", " + dy + ") from " + toString(cell));
+        return result;
+    }
+
+    /*
+     * Find the UTM or UPS easting and northing of the southwest corner of a cell (with the
+     * WGS 84 lettering).  This follows MGRSParser, except that a cell only has to reach into
+     * its lat band, so that coarse cells cut by the south edge of the band are accepted.
+     */
+    private static void gridCorner(long cell, int[] corner) {
+        int lonZone = getLonZone(cell);
+        char latBand = getLatBand(cell);
+        char xSquare = getXSquare(cell);
+        char ySquare = getYSquare(cell);
+        if (lonZone == 0) {
+            char[][] letters = (latBand >= 'Y') ? MGRS.UPS_NorthGrid : MGRS.UPS_SouthGrid;
+            int half = letters[0].length / 2;
+            boolean west = (latBand == 'A') || (latBand == 'Y');
+            int x = indexOf(letters[0], xSquare, west ? 0 : half, west ? half : letters[0].length);
+            // Like MGRSParser, allow square 'A' along lon 180 deg in the South Polar region
+            if (x < 0 && west && xSquare == 'A') x = half;
+            int y = indexOf(letters[1], ySquare, 0, letters[1].length);
+            if (x < 0 || y < 0)
+                throw new IllegalArgumentException("Invalid UPS square in MGRS cell " + toString(cell));
+            corner[0] = UPS.FALSE_EASTING + ONEHT * (x - half) + getEasting(cell);
+            corner[1] = UPS.FALSE_NORTHING + ONEHT * (y - letters[1].length / 2) + getNorthing(cell);
+        } else {
+            char[] columns = MGRS.UTM_EastingGrid[lonZone % 3];
+            int x = indexOf(columns, xSquare, 0, columns.length);
+            int y = indexOf(MGRS.UTM_NorthingGrid, ySquare, 0, MGRS.UTM_NorthingGrid.length);
+            if (x < 0 || y < 0)
+                throw new IllegalArgumentException("Invalid UTM square in MGRS cell " + toString(cell));
+            int rows = MGRS.UTM_NorthingGrid.length;
+            int northing = ONEHT * ((y - MGRS.equatorIndex(WGS_84, lonZone) + rows) % rows) + getNorthing(cell);
+            int minNorthing = UTM.minNorthing(latBand);
+            while (northing + CELL_SIZE[checkCell(cell)] <= minNorthing) northing += rows * ONEHT;
+            corner[0] = ONEHT * (x + 1) + getEasting(cell);
+            corner[1] = northing;
+        }
+    }
+
+    /* Index of a letter in part of a grid letter table, or -1 if not found */
+    private static int indexOf(char[] letters, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (letters[i] == c) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,269 @@
+/****************************************************************************************
+ *  MGRSCellCounts.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * The MGRSCellCounts class aggregates long values (counts, or sums such as populations or
+ * durations) by MGRS cell, keyed by MGRSCell ids.  It is an open addressing hash table over
+ * two primitive arrays, so unlike a HashMap of Long to Long it creates no objects per cell
+ * or per update, and it can count a whole array of ids from MGRSCell.encode in one call.
+ * Counts for cells at a finer precision can be rolled up into their parent cells, and the
+ * counts of several tables (made by separate threads, say) can be merged.  A
+ * MGRSCellCounts is not thread safe.
+ */
+public class MGRSCellCounts {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;        // largest power of two array length
+    private static final long EMPTY = MGRSCell.INVALID;    // no valid id is negative
+
+    private long[] cells;           // ids, or EMPTY for a free slot
+    private long[] counts;          // value for the id in the same slot
+    private int size;               // number of ids in this table
+    private int shift;              // 64 - log2(capacity), to take the top bits of a hash
+
+    /**
+     * This constructor makes an empty table.
+     */
+    public MGRSCellCounts() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * This constructor makes an empty table with room for the specified number of cells
+     * before it needs to grow.
+     *
+     * @param expectedCells number of distinct cells expected
+     * @throws IllegalArgumentException if expectedCells is negative, or more than 2^29
+     */
+    public MGRSCellCounts(int expectedCells) {
+        if (expectedCells < 0)
+            throw new IllegalArgumentException("Expected cells must not be negative");
+        allocate(capacityFor(expectedCells));
+    }
+
+    /* Smallest power of two capacity that holds the specified number of cells */
+    private static int capacityFor(long expectedCells) {
+        if (expectedCells > MAX_CAPACITY / 2)
+            throw new IllegalArgumentException("Too many cells for one table: " + expectedCells);
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedCells) capacity *= 2;
+        return capacity;
+    }
+
+    /* Make empty arrays of the specified power of two capacity */
+    private void allocate(int capacity) {
+        cells = new long[capacity];
+        counts = new long[capacity];
+        Arrays.fill(cells, EMPTY);
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /* Slot holding cell, or the free slot where it belongs (Fibonacci hashing, linear probing) */
+    private int slot(long cell) {
+        int mask = cells.length - 1;
+        int i = (int) ((cell * 0x9E3779B97F4A7C15L) >>> shift);
+        while (cells[i] != cell && cells[i] != EMPTY) i = (i + 1) & mask;
+        return i;
+    }
+
+    /* Change to the specified power of two capacity, re-inserting every cell */
+    private void resize(int capacity) {
+        long[] oldCells = cells;
+        long[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] != EMPTY) {
+                int j = slot(oldCells[i]);
+                cells[j] = oldCells[i];
+                counts[j] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * This method adds one to the count of a cell.
+     *
+     * @param cell MGRS cell id
+     * @throws IllegalArgumentException if cell is negative (such as MGRSCell.INVALID), or
+     *                                  a new cell would make more than 2^29 cells
+     */
+    public void add(long cell) {
+        add(cell, 1L);
+    }
+
+    /**
+     * This method adds an amount to the value of a cell.  A cell that has not been seen
+     * before starts from zero, and stays in the table even if its value returns to zero.
+     *
+     * @param cell   MGRS cell id
+     * @param amount value to add to the cell
+     * @throws IllegalArgumentException if cell is negative (such as MGRSCell.INVALID), or
+     *                                  a new cell would make more than 2^29 cells
+     */
+    public void add(long cell, long amount) {
+        if (cell < 0L)
+            throw new IllegalArgumentException("Invalid MGRS cell id " + cell);
+        int i = slot(cell);
+        if (cells[i] == EMPTY) {
+            if (size + 1 > cells.length / 2) {
+                resize(capacityFor(size + 1L));
+                i = slot(cell);
+            }
+            cells[i] = cell;
+            size++;
+        }
+        counts[i] += amount;
+    }
+
+    /**
+     * This method adds one to the count of each cell in the first n elements of an array of
+     * ids, such as the output of MGRSCell.encode.  INVALID ids are skipped.
+     *
+     * @param ids MGRS cell ids
+     * @param n   number of ids to count
+     * @return number of ids counted (n less the number of INVALID ids)
+     * @throws IllegalArgumentException if n is negative or greater than ids.length, an id
+     *                                  other than INVALID is negative, or a new cell would
+     *                                  make more than 2^29 cells
+     * @throws NullPointerException if ids is null
+     */
+    public int addAll(long[] ids, int n) {
+        if (n < 0 || n > ids.length)
+            throw new IllegalArgumentException("Count " + n + " is outside of 0.." + ids.length);
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            if (ids[k] != MGRSCell.INVALID) {
+                add(ids[k], 1L);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * This method adds the values of every cell in another table to this one.
+     *
+     * @param other MGRSCellCounts to merge into this one
+     * @throws IllegalArgumentException if the tables together have more than 2^29 cells
+     * @throws NullPointerException if other is null
+     */
+    public void addAll(MGRSCellCounts other) {
+        // Make room for every cell first: inserting the other table's cells in its slot
+        // order into a smaller table puts them in long runs that every insert probes through
+        int capacity = capacityFor((long) size + other.size);
+        if (capacity > cells.length) resize(capacity);
+        long[] otherCells = other.cells;
+        long[] otherCounts = other.counts;
+        for (int i = 0; i < otherCells.length; i++) {
+            if (otherCells[i] != EMPTY) add(otherCells[i], otherCounts[i]);
+        }
+    }
+
+    /**
+     * This method returns the value of a cell.
+     *
+     * @param cell MGRS cell id
+     * @return value of the cell, or zero if it has not been added
+     */
+    public long get(long cell) {
+        if (cell < 0L) return 0L;
+        int i = slot(cell);
+        return (cells[i] == EMPTY) ? 0L : counts[i];
+    }
+
+    /**
+     * This method returns whether a cell has been added to this table.
+     *
+     * @param cell MGRS cell id
+     * @return true if the cell has a value in this table
+     */
+    public boolean contains(long cell) {
+        return cell >= 0L && cells[slot(cell)] == cell;
+    }
+
+    /**
+     * This method returns the number of distinct cells in this table.
+     *
+     * @return number of cells
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method returns whether this table has no cells.
+     *
+     * @return true if no cell has been added since this table was made or cleared
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This method removes every cell from this table, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(cells, EMPTY);
+        Arrays.fill(counts, 0L);
+        size = 0;
+    }
+
+    /**
+     * This method returns the ids of the cells in this table in ascending order, which
+     * groups them by grid zone and 100 km square.
+     *
+     * @return new array of size() MGRS cell ids
+     */
+    @NonNull
+    public long[] cells() {
+        long[] result = new long[size];
+        int k = 0;
+        for (long cell : cells) {
+            if (cell != EMPTY) result[k++] = cell;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * This method makes a new table with the values of this one summed into cells at a
+     * coarser precision (see MGRSCell.parent).  Cells already at or coarser than that
+     * precision keep their own ids.
+     *
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @return new MGRSCellCounts at the specified precision
+     * @throws IllegalArgumentException error if precision is out of range
+     */
+    @NonNull
+    public MGRSCellCounts rollUp(int precisionDigits) {
+        if (precisionDigits < 0 || precisionDigits > 5)
+            throw new IllegalArgumentException("Precision must be an integer in the range 0..5");
+        MGRSCellCounts result = new MGRSCellCounts();
+        for (int i = 0; i < cells.length; i++) {
+            long cell = cells[i];
+            if (cell != EMPTY) {
+                if (MGRSCell.getPrecisionDigits(cell) > precisionDigits)
+                    cell = MGRSCell.parent(cell, precisionDigits);
+                result.add(cell, counts[i]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,676 @@
+/****************************************************************************************
+ *  MGRSCellCover.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The MGRSCellCover class enumerates the MGRS cells at a given precision (0 to 5 digits)
+ * that cover a Geodetic2DBounds or a Geodetic2DCircle, as MGRSCell ids.  Every cell holding
+ * a point of the area is returned exactly once, along with a few cells that only come
+ * within a small margin of its edge, so the cover can replace probing the area point by
+ * point with MGRS objects.  Cells are returned one grid zone (UTM lon zone and lat band,
+ * or UPS polar half) at a time, from the UPS zones through UTM zone 60, and within a grid
+ * zone row by row from south to north, west to east.<p/>
+ *
+ * For each grid zone the area touches (including the Norway and Svalbard special zones and
+ * both sides of the date line), the area is clipped to the grid zone in longitude and
+ * latitude, and only the boundary of that piece is projected into the zone's UTM or UPS
+ * grid.  The cells of each row are then found by intersecting the row with the projected
+ * boundary, and stepped through in easting without projecting any cell, so the work is
+ * proportional to the length of the boundary plus the number of cells returned.  Cells
+ * are computed lazily as the cover is iterated, with the WGS 84 Ellipsoid.  An
+ * MGRSCellCover is not thread safe.
+ */
+public class MGRSCellCover {
+
+    private static final Ellipsoid WGS_84 = Ellipsoid.getInstance("WGS 84");
+    private static final double A = WGS_84.getEquatorialRadius();
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double HALF_PI = Math.PI / 2.0;
+    private static final int ONEHT = 100000;
+    private static final int[] CELL_SIZE = {100000, 10000, 1000, 100, 10, 1};
+
+    // Limits on the length of the boundary segments projected into a grid
+    private static final double MIN_SEGMENT = 100.0;
+    private static final double MAX_SEGMENT = 10000.0;
+
+    // UPS grid zones, then UTM lat bands, in the order they are enumerated
+    private static final char[] UPS_BANDS = {'A', 'B', 'Y', 'Z'};
+    private static final String UTM_BANDS = "CDEFGHJKLMNPQRSTUVWX";
+
+    // Offset that keeps packed column numbers positive
+    private static final int OFFSET = 1 << 30;
+
+    private final int precisionDigits;
+    private final int size;                 // cell side in meters
+
+    // Bounding box of the area, for selecting grid zones
+    private final double bboxWest, bboxSouth, bboxEast, bboxNorth;
+
+    // The area as a ring in longitude and latitude: a rectangle, or the sampled circle boundary
+    private final boolean rectangle;
+    private final double ringWest, ringWidth;     // rectangle longitudes (width up to 2 PI)
+    private final double[] ringLon;               // circle boundary, with longitudes unwrapped
+    private final double[] ringLat;
+    private final double poleLat;                 // latitude of the pole a circle contains, or NaN
+    private final double margin;                  // error of the ring, in meters
+
+    // Grid zone being enumerated (gzd counts through the UPS and then the UTM grid zones)
+    private int gzd = -1;
+    private int lonZone;                    // 0 for UPS
+    private char latBand;
+    private final Grid grid = new Grid();
+
+    // Polar projections, made when the area first reaches each polar region
+    private PolarStereographic psNorth;
+    private PolarStereographic psSouth;
+
+    // Current row, with its column ranges, and the next column
+    private int row;
+    private int lastRow;
+    private int[] ranges = new int[16];     // merged [first, last] column pairs of this row
+    private int rangeCount;
+    private int range;
+    private int column;
+    private boolean ready;                  // whether (row, column) is the next cell
+
+    /**
+     * This constructor makes a cover of a Geodetic2DBounds, including its edges.
+     *
+     * @param bbox            bounding box to cover
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @throws IllegalArgumentException error if precision is out of range
+     * @throws NullPointerException if bbox is null
+     */
+    public MGRSCellCover(Geodetic2DBounds bbox, int precisionDigits) {
+        this.precisionDigits = checkDigits(precisionDigits);
+        this.size = CELL_SIZE[precisionDigits];
+        bboxWest = bbox.getWestLon().inRadians();
+        bboxEast = bbox.getEastLon().inRadians();
+        bboxSouth = bbox.getSouthLat().inRadians();
+        bboxNorth = bbox.getNorthLat().inRadians();
+        rectangle = true;
+        ringWest = bboxWest;
+        ringWidth = lonWidth(bboxWest, bboxEast);
+        ringLon = null;
+        ringLat = null;
+        poleLat = Double.NaN;
+        margin = 0.0;
+    }
+
+    /**
+     * This constructor makes a cover of a Geodetic2DCircle, including its boundary.  The
+     * boundary is sampled finely enough (relative to the cell size) that only cells near
+     * the boundary are included without holding a point of the circle.  A circle that
+     * contains both poles is covered by its bounding box.
+     *
+     * @param circle          circle to cover
+     * @param precisionDigits int value from 0 to 5, inclusive
+     * @throws IllegalArgumentException error if precision is out of range, or the radius
+     *                                  is out of the legal range of a Geodetic2DArc distance
+     * @throws NullPointerException if circle is null
+     */
+    public MGRSCellCover(Geodetic2DCircle circle, int precisionDigits) {
+        this.precisionDigits = checkDigits(precisionDigits);
+        this.size = CELL_SIZE[precisionDigits];
+        Geodetic2DBounds bbox = new Geodetic2DBounds(circle);
+        bboxWest = bbox.getWestLon().inRadians();
+        bboxEast = bbox.getEastLon().inRadians();
+        bboxSouth = bbox.getSouthLat().inRadians();
+        bboxNorth = bbox.getNorthLat().inRadians();
+        ringWest = bboxWest;
+        ringWidth = lonWidth(bboxWest, bboxEast);
+
+        // Sample the boundary at twice the ring resolution: the odd points are the true
+        // midpoints of the ring's edges, measuring how far those edges are from the circle
+        double radius = circle.getRadius();
+        double target = Math.max(size / 10.0, 0.1);
+        int n = (int) Math.min(1 << 16, Math.max(64, Math.ceil(Math.sqrt(5.0 * radius / target))));
+        double[] lon = new double[2 * n];
+        double[] lat = new double[2 * n];
+        circle.boundary(lon, lat);
+
+        // Unwrap the ring's longitudes, so a ring around a pole winds through 2 PI
+        double[] ringX = new double[n];
+        double[] ringY = new double[n];
+        double err = 0.0;
+        ringX[0] = lon[0];
+        ringY[0] = lat[0];
+        for (int i = 0; i < n; i++) {
+            double dx = Angle.normalize(lon[(2 * i + 2) % (2 * n)] - lon[2 * i]);
+            if (i + 1 < n) {
+                ringX[i + 1] = ringX[i] + dx;
+                ringY[i + 1] = lat[2 * i + 2];
+            }
+            double midLon = lon[2 * i] + dx / 2.0;
+            double midLat = (lat[2 * i] + lat[(2 * i + 2) % (2 * n)]) / 2.0;
+            err = Math.max(err, WGS_84.haversineDistance(midLon, midLat, lon[2 * i + 1], lat[2 * i + 1]));
+        }
+        double winding = ringX[n - 1] + Angle.normalize(lon[0] - lon[2 * n - 2]) - ringX[0];
+
+        double lon0 = circle.getCenter().getLongitude().inRadians();
+        double lat0 = circle.getCenter().getLatitude().inRadians();
+        boolean north = WGS_84.karneyDistance(lon0, lat0, 0.0, HALF_PI) <= radius;
+        boolean south = WGS_84.karneyDistance(lon0, lat0, 0.0, -HALF_PI) <= radius;
+        if ((north || south) != (Math.abs(winding) > Math.PI) || (north && south)) {
+            // The ring does not describe the circle in longitude and latitude (it contains
+            // both poles, or passes too close to one), so fall back to its bounding box
+            rectangle = true;
+            ringLon = null;
+            ringLat = null;
+            poleLat = Double.NaN;
+            margin = 0.0;
+        } else {
+            rectangle = false;
+            ringLon = ringX;
+            ringLat = ringY;
+            poleLat = north ? HALF_PI : south ? -HALF_PI : Double.NaN;
+            // Allow for the ring's edges bulging more between their midpoints and ends
+            margin = 1.5 * err;
+        }
+    }
+
+    /* Validate the number of precision digits */
+    private static int checkDigits(int precisionDigits) {
+        if (precisionDigits < 0 || precisionDigits > 5)
+            throw new IllegalArgumentException("Precision must be an integer in the range 0..5");
+        return precisionDigits;
+    }
+
+    /*
+     * Width in radians of the longitudes from west to east, where both are normalized (as
+     * in Geodetic2DBounds, so a whole turn ends just short of PI, and west == east is a
+     * single meridian)
+     */
+    private static double lonWidth(double west, double east) {
+        return (west <= east) ? east - west : east - west + TWO_PI;
+    }
+
+    /* Primitive equivalent of Longitude.radiansEast, for normalized radians */
+    private static double radiansEast(double fromRad, double toRad) {
+        double diff = Angle.normalize(toRad - fromRad);
+        return (diff < 0.0) ? TWO_PI + diff : diff;
+    }
+
+    /**
+     * This method returns the number of digits used for each of the easting and northing
+     * of the cells of this cover.
+     *
+     * @return precision digits (0 to 5)
+     */
+    public int getPrecisionDigits() {
+        return precisionDigits;
+    }
+
+    /**
+     * This method returns whether there are more cells in this cover.
+     *
+     * @return true if next will return another cell
+     */
+    public boolean hasNext() {
+        while (!ready) {
+            if (rangeCount > 0 && range < rangeCount) {
+                if (column <= ranges[2 * range + 1]) {
+                    ready = true;
+                } else if (++range < rangeCount) {
+                    column = ranges[2 * range];
+                }
+            } else if (row < lastRow) {
+                row++;
+                rowRanges();
+            } else if (!nextZone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method returns the id of the next cell in this cover.
+     *
+     * @return MGRS cell id
+     * @throws NoSuchElementException if there are no more cells
+     */
+    public long next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        return cell(column++, row);
+    }
+
+    /* Pack the id of the cell at a column and row of the current grid zone */
+    private long cell(int col, int r) {
+        int easting = col * size;
+        int northing = r * size;
+        char xSquare;
+        char ySquare;
+        if (lonZone == 0) {
+            char[][] letters = (latBand >= 'Y') ? MGRS.UPS_NorthGrid : MGRS.UPS_SouthGrid;
+            xSquare = letters[0][(int) Math.floor((easting - UPS.FALSE_EASTING) / (double) ONEHT) + letters[0].length / 2];
+            ySquare = letters[1][(int) Math.floor((northing - UPS.FALSE_NORTHING) / (double) ONEHT) + letters[1].length / 2];
+        } else {
+            xSquare = MGRS.UTM_EastingGrid[lonZone % 3][easting / ONEHT - 1];
+            ySquare = MGRS.UTM_NorthingGrid[(MGRS.equatorIndex(WGS_84, lonZone) + northing / ONEHT) % 20];
+        }
+        return MGRSCell.pack(lonZone, latBand, xSquare, ySquare, easting % ONEHT, northing % ONEHT,
+                precisionDigits);
+    }
+
+    /* Advance to the next grid zone that the area reaches, returning false after the last one */
+    private boolean nextZone() {
+        int count = UPS_BANDS.length + 60 * UTM_BANDS.length();
+        while (++gzd < count) {
+            double west, east, south, north;
+            if (gzd < UPS_BANDS.length) {
+                lonZone = 0;
+                latBand = UPS_BANDS[gzd];
+                west = (latBand == 'A' || latBand == 'Y') ? -Math.PI : 0.0;
+                east = west + Math.PI;
+                south = (latBand < 'Y') ? -HALF_PI : Math.toRadians(UTM.MAX_NORTH_LATDEG);
+                north = (latBand < 'Y') ? Math.toRadians(UTM.MIN_SOUTH_LATDEG) : HALF_PI;
+            } else {
+                int i = gzd - UPS_BANDS.length;
+                lonZone = 1 + i / UTM_BANDS.length();
+                latBand = UTM_BANDS.charAt(i % UTM_BANDS.length());
+                if (latBand == 'X' && (lonZone == 32 || lonZone == 34 || lonZone == 36)) continue;
+                west = Math.toRadians(UTM.minLonDegrees(lonZone, latBand));
+                east = Math.toRadians(UTM.maxLonDegrees(lonZone, latBand));
+                south = Math.toRadians(UTM.minLatDegrees(latBand));
+                north = Math.toRadians(UTM.maxLatDegrees(latBand));
+            }
+            if (!(south <= bboxNorth && bboxSouth <= north) || !lonOverlaps(west, east)) continue;
+            if (grid.build(west, east, south, north)) {
+                row = grid.firstRow;
+                lastRow = grid.lastRow;
+                rowRanges();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Whether the longitude interval of the area's bounding box meets [west, east] */
+    private boolean lonOverlaps(double west, double east) {
+        double width = lonWidth(bboxWest, bboxEast);
+        if (width + (east - west) >= TWO_PI) return true;
+        return radiansEast(bboxWest, west) <= width ||
+                radiansEast(west, bboxWest) <= east - west;
+    }
+
+    /* Find the merged column ranges of the current row of the current grid zone */
+    private void rowRanges() {
+        rangeCount = 0;
+        range = 0;
+        if (!grid.validRow(row)) return;
+        rangeCount = grid.columns(row);
+        if (rangeCount > 0) column = ranges[0];
+    }
+
+    /* Add a column range to the current row, growing the ranges array if needed */
+    private void addRange(int first, int last, int count) {
+        if (2 * count + 2 > ranges.length) ranges = Arrays.copyOf(ranges, 2 * ranges.length);
+        ranges[2 * count] = first;
+        ranges[2 * count + 1] = last;
+    }
+
+    /**
+     * The Grid class holds the part of the area within one grid zone, as the edges of its
+     * boundary projected into the zone's UTM or UPS grid, and finds the columns of the cells
+     * of each row that the area reaches.  It is reused from one grid zone to the next.
+     */
+    private final class Grid {
+        private TransverseMercator tm;
+        private PolarStereographic ps;
+        private double lonC;                        // longitude the zone's ring is relative to
+        private double falseNorthing;
+        private final double[] en = new double[2];
+
+        // Edges of the projected boundary, as x0, y0, x1, y1 quadruples
+        private double[] edges = new double[256];
+        private int edgeCount;
+        private double delta;                       // margin around the edges, in meters
+        private double yMin, yMax;
+
+        // Edges in order of their south ends, and the edges that reach the current row
+        private long[] order = new long[64];
+        private int nextEdge;
+        private int[] active = new int[64];
+        private int activeCount;
+
+        // Scratch space for clipping and the crossings and ranges of a row
+        private double[] ring = new double[64];
+        private double[] clipA = new double[64];
+        private double[] clipB = new double[64];
+        private double[] crossings = new double[16];
+        private long[] pieces = new long[16];
+
+        int firstRow;
+        int lastRow;
+
+        /* Project the part of the area within a grid zone, returning false if it is empty */
+        boolean build(double west, double east, double south, double north) {
+            edgeCount = 0;
+            delta = 0.0;
+            yMin = Double.MAX_VALUE;
+            yMax = -Double.MAX_VALUE;
+            if (lonZone == 0) {
+                tm = null;
+                lonC = (east + west) / 2.0;
+                if (latBand >= 'Y') {
+                    if (psNorth == null) psNorth = polarProjection(UPS.NORTH_POLAR);
+                    ps = psNorth;
+                } else {
+                    if (psSouth == null) psSouth = polarProjection(UPS.SOUTH_POLAR);
+                    ps = psSouth;
+                }
+                falseNorthing = UPS.FALSE_NORTHING;
+            } else {
+                ps = null;
+                tm = UTM.getProjection(WGS_84, lonZone, latBand, false);
+                lonC = (east + west) / 2.0;
+                falseNorthing = (latBand < 'N') ? UTM.FALSE_NORTHING : 0.0;
+            }
+            double w = west - lonC;
+            double e = east - lonC;
+
+            // Clip each copy of the ring (shifted by a full turn) that can reach the zone
+            int n = makeRing();
+            double xLo = Double.MAX_VALUE, xHi = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                xLo = Math.min(xLo, ring[2 * i]);
+                xHi = Math.max(xHi, ring[2 * i]);
+            }
+            for (int k = -1; k <= 1; k++) {
+                double shift = k * TWO_PI;
+                if (xHi + shift < w || e < xLo + shift) continue;
+                int m = clip(n, shift, w, e, south, north);
+                if (m > 0) project(m);
+            }
+            if (edgeCount == 0) return false;
+            delta += 1.01 * margin + 0.01;
+
+            // Order the edges by their south ends (quantized to 1/16 meter, rounding down)
+            if (order.length < edgeCount) order = new long[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                double y = Math.min(edges[4 * i + 1], edges[4 * i + 3]) - yMin;
+                order[i] = ((long) Math.floor(y * 16.0) << 24) | i;
+            }
+            Arrays.sort(order, 0, edgeCount);
+            nextEdge = 0;
+            activeCount = 0;
+            firstRow = (int) Math.floor((yMin - delta) / size);
+            lastRow = (int) Math.floor((yMax + delta) / size);
+            return true;
+        }
+
+        /* Make the ring of the area in longitudes relative to lonC, returning its vertex count */
+        private int makeRing() {
+            if (rectangle) {
+                double x0 = Angle.normalize(ringWest - lonC);
+                double x1 = x0 + ringWidth;
+                ensureRing(4);
+                ring[0] = x0; ring[1] = bboxSouth;
+                ring[2] = x1; ring[3] = bboxSouth;
+                ring[4] = x1; ring[5] = bboxNorth;
+                ring[6] = x0; ring[7] = bboxNorth;
+                return 4;
+            }
+            int n = ringLon.length;
+            double x0 = Angle.normalize(ringLon[0] - lonC) - ringLon[0];
+            int count = Double.isNaN(poleLat) ? n : n + 3;
+            ensureRing(count);
+            for (int i = 0; i < n; i++) {
+                ring[2 * i] = ringLon[i] + x0;
+                ring[2 * i + 1] = ringLat[i];
+            }
+            if (count > n) {
+                // Close a ring around a pole along the pole (as a line of latitude)
+                double xEnd = ring[2 * n - 2] + Angle.normalize(ringLon[0] - ringLon[n - 1]);
+                ring[2 * n] = xEnd;
+                ring[2 * n + 1] = ringLat[0];
+                ring[2 * n + 2] = xEnd;
+                ring[2 * n + 3] = poleLat;
+                ring[2 * n + 4] = ring[0];
+                ring[2 * n + 5] = poleLat;
+            }
+            return count;
+        }
+
+        private void ensureRing(int n) {
+            if (ring.length < 2 * n) ring = new double[2 * n];
+        }
+
+        /* Clip the shifted ring to a rectangle (Sutherland-Hodgman) into clipA, returning its size */
+        private int clip(int n, double shift, double w, double e, double s, double no) {
+            if (clipA.length < 4 * n + 16) {
+                clipA = new double[4 * n + 16];
+                clipB = new double[4 * n + 16];
+            }
+            for (int i = 0; i < n; i++) {
+                clipA[2 * i] = ring[2 * i] + shift;
+                clipA[2 * i + 1] = ring[2 * i + 1];
+            }
+            n = clipSide(clipA, n, clipB, 0, w, true);
+            n = clipSide(clipB, n, clipA, 0, e, false);
+            n = clipSide(clipA, n, clipB, 1, s, true);
+            n = clipSide(clipB, n, clipA, 1, no, false);
+            return n;
+        }
+
+        /* Keep the part of a ring on one side of a line x = bound (axis 0) or y = bound (axis 1) */
+        private int clipSide(double[] in, int n, double[] out, int axis, double bound, boolean above) {
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                int p = (i + n - 1) % n;
+                double cur = in[2 * i + axis];
+                double prev = in[2 * p + axis];
+                boolean curIn = above ? cur >= bound : cur <= bound;
+                boolean prevIn = above ? prev >= bound : prev <= bound;
+                if (curIn != prevIn) {
+                    double t = (bound - prev) / (cur - prev);
+                    double other = in[2 * p + 1 - axis] + t * (in[2 * i + 1 - axis] - in[2 * p + 1 - axis]);
+                    out[2 * m + axis] = bound;
+                    out[2 * m + 1 - axis] = other;
+                    m++;
+                }
+                if (curIn) {
+                    out[2 * m] = in[2 * i];
+                    out[2 * m + 1] = in[2 * i + 1];
+                    m++;
+                }
+            }
+            return m;
+        }
+
+        /* Project the clipped ring in clipA as densified edges, measuring their deviation */
+        private void project(int n) {
+            double segment = Math.min(MAX_SEGMENT, Math.max(MIN_SEGMENT, 10.0 * size));
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                double x0 = clipA[2 * i], y0 = clipA[2 * i + 1];
+                double x1 = clipA[2 * j], y1 = clipA[2 * j + 1];
+                double cos = Math.max(Math.cos(y0), Math.cos(y1));
+                double length = A * Math.hypot((x1 - x0) * cos, y1 - y0);
+                int steps = (int) Math.min(100000, Math.max(1, Math.ceil(length / segment)));
+                toGrid(x0, y0);
+                double px = en[0], py = en[1];
+                for (int k = 1; k <= steps; k++) {
+                    double t = (double) k / steps;
+                    toGrid(x0 + t * (x1 - x0), y0 + t * (y1 - y0));
+                    double qx = en[0], qy = en[1];
+                    if (steps > 1 || length > MIN_SEGMENT) {
+                        // Distance of the projected midpoint from the straight edge
+                        double tm = (k - 0.5) / steps;
+                        toGrid(x0 + tm * (x1 - x0), y0 + tm * (y1 - y0));
+                        delta = Math.max(delta, distanceToSegment(en[0], en[1], px, py, qx, qy));
+                    }
+                    addEdge(px, py, qx, qy);
+                    px = qx;
+                    py = qy;
+                }
+            }
+        }
+
+        /* Project a point (longitude relative to lonC) into the grid, leaving it in en */
+        private void toGrid(double x, double lat) {
+            double lon = Angle.normalize(lonC + x);
+            if (tm != null) {
+                tm.toTransverseMercator(lon, lat, en);
+                en[0] += UTM.FALSE_EASTING;
+                en[1] += falseNorthing;
+            } else {
+                ps.toPolarStereographic(lon, lat, en);
+                en[0] += UPS.FALSE_EASTING;
+                en[1] += UPS.FALSE_NORTHING;
+            }
+        }
+
+        private void addEdge(double x0, double y0, double x1, double y1) {
+            if (edges.length < 4 * edgeCount + 4) edges = Arrays.copyOf(edges, 2 * edges.length);
+            int k = 4 * edgeCount++;
+            edges[k] = x0;
+            edges[k + 1] = y0;
+            edges[k + 2] = x1;
+            edges[k + 3] = y1;
+            yMin = Math.min(yMin, Math.min(y0, y1));
+            yMax = Math.max(yMax, Math.max(y0, y1));
+        }
+
+        /* Whether a row holds valid cells of the grid zone (as MGRSParser would accept them) */
+        boolean validRow(int r) {
+            long northing = (long) r * size;
+            if (lonZone == 0) {
+                int half = ((latBand >= 'Y') ? MGRS.UPS_NorthGrid : MGRS.UPS_SouthGrid)[1].length / 2;
+                return northing >= UPS.FALSE_NORTHING - half * ONEHT &&
+                        northing < UPS.FALSE_NORTHING + half * ONEHT;
+            }
+            return northing + size > UTM.minNorthing(latBand) &&
+                    northing < UTM.maxNorthing(lonZone, latBand);
+        }
+
+        /*
+         * Find the merged column ranges of a row (cells within delta of an edge, and cells
+         * whose middle line crosses the inside of the boundary), storing them in the cover's
+         * ranges array and returning their number.
+         */
+        int columns(int r) {
+            double y0 = (double) r * size;
+            double lo = y0 - delta;
+            double hi = y0 + size + delta;
+            double ym = y0 + size / 2.0;
+
+            // Update the active edges for this row
+            while (nextEdge < edgeCount && (order[nextEdge] >> 24) / 16.0 + yMin <= hi) {
+                if (active.length == activeCount) active = Arrays.copyOf(active, 2 * activeCount);
+                active[activeCount++] = (int) (order[nextEdge++] & 0xFFFFFFL);
+            }
+            int pieceCount = 0;
+            int crossingCount = 0;
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int k = 4 * active[a];
+                double xa = edges[k], ya = edges[k + 1], xb = edges[k + 2], yb = edges[k + 3];
+                if (Math.max(ya, yb) < lo) continue;     // below this row, and so every later row
+                active[kept++] = active[a];
+                if (Math.min(ya, yb) > hi) continue;
+
+                // Part of the edge within the row, widened by delta
+                double x0 = xa, x1 = xb;
+                if (ya != yb) {
+                    double t0 = Math.max(0.0, Math.min(1.0, (lo - ya) / (yb - ya)));
+                    double t1 = Math.max(0.0, Math.min(1.0, (hi - ya) / (yb - ya)));
+                    x0 = xa + t0 * (xb - xa);
+                    x1 = xa + t1 * (xb - xa);
+                }
+                pieceCount = addPiece(pieceCount, Math.min(x0, x1) - delta, Math.max(x0, x1) + delta);
+
+                // Crossing of the middle line of the row
+                if ((ya <= ym) != (yb <= ym)) {
+                    if (crossings.length == crossingCount) crossings = Arrays.copyOf(crossings, 2 * crossingCount);
+                    crossings[crossingCount++] = xa + (ym - ya) * (xb - xa) / (yb - ya);
+                }
+            }
+            activeCount = kept;
+            Arrays.sort(crossings, 0, crossingCount);
+            for (int c = 0; c + 1 < crossingCount; c += 2) {
+                pieceCount = addPiece(pieceCount, crossings[c], crossings[c + 1]);
+            }
+
+            // Merge the pieces, limited to the columns that have MGRS square letters
+            Arrays.sort(pieces, 0, pieceCount);
+            int minColumn, maxColumn;
+            if (lonZone == 0) {
+                int half = ((latBand >= 'Y') ? MGRS.UPS_NorthGrid : MGRS.UPS_SouthGrid)[0].length / 2;
+                boolean west = (latBand == 'A' || latBand == 'Y');
+                minColumn = (west ? UPS.FALSE_EASTING - half * ONEHT : UPS.FALSE_EASTING) / size;
+                maxColumn = (west ? UPS.FALSE_EASTING : UPS.FALSE_EASTING + half * ONEHT) / size - 1;
+            } else {
+                minColumn = ONEHT / size;
+                maxColumn = 9 * ONEHT / size - 1;
+            }
+            int count = 0;
+            int first = 0, last = -1;
+            for (int p = 0; p < pieceCount; p++) {
+                int a = (int) (pieces[p] >> 32) - OFFSET;
+                int b = (int) pieces[p] - OFFSET;
+                if (last < first) {
+                    first = a;
+                    last = b;
+                } else if (a <= last + 1) {
+                    last = Math.max(last, b);
+                } else {
+                    count = addClamped(count, first, last, minColumn, maxColumn);
+                    first = a;
+                    last = b;
+                }
+            }
+            if (first <= last) count = addClamped(count, first, last, minColumn, maxColumn);
+            return count;
+        }
+
+        /* Add a piece of a row, from x0 to x1 meters, as a range of columns */
+        private int addPiece(int count, double x0, double x1) {
+            if (pieces.length == count) pieces = Arrays.copyOf(pieces, 2 * count);
+            long a = (long) Math.floor(x0 / size) + OFFSET;
+            long b = (long) Math.floor(x1 / size) + OFFSET;
+            pieces[count] = (a << 32) | b;
+            return count + 1;
+        }
+
+        private int addClamped(int count, int first, int last, int min, int max) {
+            first = Math.max(first, min);
+            last = Math.min(last, max);
+            if (first > last) return count;
+            addRange(first, last, count);
+            return count + 1;
+        }
+    }
+
+    /* Make a Polar Stereographic projection for UPS on the WGS 84 Ellipsoid */
+    private static PolarStereographic polarProjection(Latitude latOfTrueScale) {
+        PolarStereographic ps = new PolarStereographic(latOfTrueScale);
+        ps.setEllipsoid(WGS_84);
+        return ps;
+    }
+
+    /* Distance from a point to a line segment */
+    private static double distanceToSegment(double x, double y, double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0, dy = y1 - y0;
+        double len2 = dx * dx + dy * dy;
+        double t = (len2 > 0.0) ? Math.max(0.0, Math.min(1.0, ((x - x0) * dx + (y - y0) * dy) / len2)) : 0.0;
+        return Math.hypot(x - (x0 + t * dx), y - (y0 + t * dy));
+    }
+}
@@ -0,0 +1,797 @@
+/****************************************************************************************
+ *  MGRSParser.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The MGRSParser class is a reusable engine for decoding Military Grid Reference System
+ * (MGRS) coordinates directly from text in memory, such as a range of a CharSequence or
+ * ASCII bytes in an array or (memory-mapped) ByteBuffer. It follows exactly the same syntax
+ * and validation rules as the MGRS String constructors (separators, blanks and case are
+ * ignored), but reads the characters in place instead of copying them, and creates no
+ * objects unless the input is invalid or a bounding box is requested. Each call to a parse
+ * method overwrites the results of the previous call, which are then read back with the
+ * accessor methods: the MGRS string components, and the projected and geodetic coordinates
+ * of the southwest corner of the MGRS cell.<p/>
+ *
+ * When strict parsing is requested, an IllegalArgumentException is also thrown when the
+ * given encoding is not optimal for the projected point (easting out of range or UPS outside
+ * of polar region), as for the MGRS constructors. This check un-projects the center of the
+ * cell, so non strict parsing is faster.<p/>
+ *
+ * The tryParse methods apply the same rules, but return false for an invalid coordinate
+ * instead of throwing an exception, which is much cheaper when many of the strings being
+ * parsed are expected to be invalid (such as candidate coordinates found in free text).<p/>
+ *
+ * An MGRSParser holds the results of the last parse, so an instance should not be
+ * shared between threads without synchronization; give each thread its own instance.
+ */
+public class MGRSParser {
+
+    private static final Logger log = LoggerFactory.getLogger(MGRSParser.class);
+
+    private static final int ONEHT = 100000;
+    private static final int TWOMIL = 2000000;
+
+    // Cell side in meters, indexed by the number of easting (or northing) digits
+    private static final int[] PRECISIONS = {100000, 10000, 1000, 100, 10, 1};
+
+    // Instance Variables
+    @NonNull private final Ellipsoid ellipsoid;     // Ellipsoid earth model used for projections
+    private final boolean strict;                   // true if non optimal encodings are errors
+    @NonNull private final UTMConverter utm;        // UTM projection engine
+    private PolarStereographic north;               // UPS North projection (created when needed)
+    private PolarStereographic south;               // UPS South projection (created when needed)
+    private final double[] result = new double[2];  // Scratch space for projection results
+
+    // Source of the characters being parsed (only one is set at a time)
+    private CharSequence chars;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+    // MGRS parsed string components
+    private int lonZone;            // 0 means this is a UPS coordinate, 1..60 means UTM coordinate
+    private char latBand;
+    private char xSquare;
+    private char ySquare;
+    private int easting;
+    private int northing;
+    private int precision;          // one of {100000, 10000, 1000, 100, 10, 1} cell side in meters
+
+    // Southwest corner of the MGRS cell
+    private char hemisphere;        // Hemisphere char ('N' for Northern, 'S' for Southern)
+    private int gridEasting;        // UTM or UPS easting in meters
+    private int gridNorthing;       // UTM or UPS northing in meters
+    private double lonRad;          // longitude in radians
+    private double latRad;          // latitude in radians
+
+    /**
+     * This constructor takes an ellipsoid and a boolean flag indicating whether strict
+     * parsing rules should be followed.
+     *
+     * @param ellip  Ellipsoid model of the earth to use in projections
+     * @param strict boolean indicating if parsing rules should be strictly enforced
+     * @throws NullPointerException if ellip is null
+     */
+    public MGRSParser(Ellipsoid ellip, boolean strict) {
+        utm = new UTMConverter(ellip);
+        this.ellipsoid = ellip;
+        this.strict = strict;
+    }
+
+    /**
+     * This constructor assumes the WGS 84 Ellipsoid and the default non strict parsing rules.
+     */
+    public MGRSParser() {
+        this(Ellipsoid.getInstance("WGS 84"), false);
+    }
+
+    /**
+     * This method is used to get the Ellipsoid earth model used for projections.
+     *
+     * @return the Ellipsoid earth model being used by this MGRSParser
+     */
+    @NonNull
+    public Ellipsoid getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * This method returns whether this parser follows strict parsing rules.
+     *
+     * @return true if encodings that are not optimal for the projected point are rejected
+     */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * This method parses an MGRS coordinate CharSequence.
+     *
+     * @param mgrs Military Grid Reference System coordinate CharSequence
+     * @throws IllegalArgumentException error if the MGRS coordinate is invalid
+     */
+    public void parse(CharSequence mgrs) {
+        if (mgrs == null) {
+            throw new IllegalArgumentException("null value for MGRS String is invalid");
+        }
+        parse(mgrs, 0, mgrs.length());
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of a CharSequence, from
+     * index start (inclusive) to index end (exclusive).
+     *
+     * @param mgrs  CharSequence containing a Military Grid Reference System coordinate
+     * @param start index of the first character of the coordinate
+     * @param end   index after the last character of the coordinate
+     * @throws IllegalArgumentException error if the MGRS coordinate is invalid
+     * @throws IndexOutOfBoundsException if start or end are outside of mgrs
+     * @throws NullPointerException if mgrs is null
+     */
+    public void parse(CharSequence mgrs, int start, int end) {
+        parse(mgrs, start, end, true);
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of an array of ASCII
+     * (or UTF-8, ISO 8859-1) encoded bytes, from index off for len bytes.
+     *
+     * @param ascii byte array containing a Military Grid Reference System coordinate
+     * @param off   index of the first byte of the coordinate
+     * @param len   number of bytes in the coordinate
+     * @throws IllegalArgumentException error if the MGRS coordinate is invalid
+     * @throws IndexOutOfBoundsException if off or len are outside of ascii
+     * @throws NullPointerException if ascii is null
+     */
+    public void parse(byte[] ascii, int off, int len) {
+        parse(ascii, off, len, true);
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of a ByteBuffer of ASCII
+     * (or UTF-8, ISO 8859-1) encoded bytes, from absolute index off for len bytes.
+     * The position of the buffer is not used, and the coordinate must end at or before its
+     * limit; neither is changed.
+     *
+     * @param ascii ByteBuffer containing a Military Grid Reference System coordinate
+     * @param off   absolute index of the first byte of the coordinate
+     * @param len   number of bytes in the coordinate
+     * @throws IllegalArgumentException error if the MGRS coordinate is invalid
+     * @throws IndexOutOfBoundsException if off or len are outside of the limit of ascii
+     * @throws NullPointerException if ascii is null
+     */
+    public void parse(ByteBuffer ascii, int off, int len) {
+        parse(ascii, off, len, true);
+    }
+
+    /**
+     * This method parses an MGRS coordinate CharSequence, like parse, but returns false
+     * instead of throwing an exception if the MGRS coordinate is invalid (or null). The
+     * results of the previous call are not defined after a false return.
+     *
+     * @param mgrs Military Grid Reference System coordinate CharSequence
+     * @return true if the MGRS coordinate is valid, and its results are available
+     */
+    public boolean tryParse(CharSequence mgrs) {
+        return (mgrs != null) && parse(mgrs, 0, mgrs.length(), false);
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of a CharSequence, from
+     * index start (inclusive) to index end (exclusive), like parse, but returns false
+     * instead of throwing an exception if the MGRS coordinate is invalid.
+     *
+     * @param mgrs  CharSequence containing a Military Grid Reference System coordinate
+     * @param start index of the first character of the coordinate
+     * @param end   index after the last character of the coordinate
+     * @return true if the MGRS coordinate is valid, and its results are available
+     * @throws IndexOutOfBoundsException if start or end are outside of mgrs
+     * @throws NullPointerException if mgrs is null
+     */
+    public boolean tryParse(CharSequence mgrs, int start, int end) {
+        return parse(mgrs, start, end, false);
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of an array of ASCII
+     * (or UTF-8, ISO 8859-1) encoded bytes, from index off for len bytes, like parse,
+     * but returns false instead of throwing an exception if the MGRS coordinate is invalid.
+     *
+     * @param ascii byte array containing a Military Grid Reference System coordinate
+     * @param off   index of the first byte of the coordinate
+     * @param len   number of bytes in the coordinate
+     * @return true if the MGRS coordinate is valid, and its results are available
+     * @throws IndexOutOfBoundsException if off or len are outside of ascii
+     * @throws NullPointerException if ascii is null
+     */
+    public boolean tryParse(byte[] ascii, int off, int len) {
+        return parse(ascii, off, len, false);
+    }
+
+    /**
+     * This method parses the MGRS coordinate held in part of a ByteBuffer of ASCII
+     * (or UTF-8, ISO 8859-1) encoded bytes, from absolute index off for len bytes, like
+     * parse, but returns false instead of throwing an exception if the MGRS coordinate
+     * is invalid. The position of the buffer is not used, and the coordinate must end at or
+     * before its limit; neither is changed.
+     *
+     * @param ascii ByteBuffer containing a Military Grid Reference System coordinate
+     * @param off   absolute index of the first byte of the coordinate
+     * @param len   number of bytes in the coordinate
+     * @return true if the MGRS coordinate is valid, and its results are available
+     * @throws IndexOutOfBoundsException if off or len are outside of the limit of ascii
+     * @throws NullPointerException if ascii is null
+     */
+    public boolean tryParse(ByteBuffer ascii, int off, int len) {
+        return parse(ascii, off, len, false);
+    }
+
+    /* Parse part of a CharSequence, throwing an exception (if raise) or returning false if invalid */
+    private boolean parse(CharSequence mgrs, int start, int end, boolean raise) {
+        if ((start < 0) || (end < start) || (mgrs.length() < end))
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end +
+                    ", length " + mgrs.length());
+        chars = mgrs;
+        try {
+            return parse(start, end, raise);
+        } finally {
+            chars = null;
+        }
+    }
+
+    /* Parse part of a byte array, throwing an exception (if raise) or returning false if invalid */
+    private boolean parse(byte[] ascii, int off, int len, boolean raise) {
+        if ((off < 0) || (len < 0) || (ascii.length - off < len))
+            throw new IndexOutOfBoundsException("offset " + off + ", count " + len +
+                    ", length " + ascii.length);
+        bytes = ascii;
+        try {
+            return parse(off, off + len, raise);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    /* Parse part of a ByteBuffer, throwing an exception (if raise) or returning false if invalid */
+    private boolean parse(ByteBuffer ascii, int off, int len, boolean raise) {
+        if ((off < 0) || (len < 0) || (ascii.limit() - off < len))
+            throw new IndexOutOfBoundsException("offset " + off + ", count " + len +
+                    ", limit " + ascii.limit());
+        buffer = ascii;
+        try {
+            return parse(off, off + len, raise);
+        } finally {
+            buffer = null;
+        }
+    }
+
+    /* Return the character at index i of the current source */
+    private char at(int i) {
+        if (chars != null) return chars.charAt(i);
+        else if (bytes != null) return (char) (bytes[i] & 0xFF);
+        else return (char) (buffer.get(i) & 0xFF);
+    }
+
+    /*
+     * Return the index of the first significant character at or after index i, or end if
+     * there are none.  Whitespace, non-breaking spaces, slashes, dashes and null characters
+     * are not significant.
+     */
+    private int skip(int i, int end) {
+        while (i < end) {
+            char c = at(i);
+            if ((!Character.isWhitespace(c)) && (!Character.isSpaceChar(c)) && (c != '-') && (c != '/') && (((int) c) != 0))
+                break;
+            i++;
+        }
+        return i;
+    }
+
+    /* Return the significant characters from index i to end, converted to upper case (for error messages) */
+    private String text(int i, int end) {
+        StringBuilder buf = new StringBuilder();
+        for (i = skip(i, end); i < end; i = skip(i + 1, end)) buf.append(Character.toUpperCase(at(i)));
+        return buf.toString();
+    }
+
+    /*
+     * Parse the MGRS coordinate from index start (inclusive) to end (exclusive) of the current
+     * source.  This follows MGRS.initFromString, but reads the characters in place.  If the
+     * coordinate is invalid, an exception is thrown when raise is true, and false is returned
+     * (without building the error message) otherwise.
+     */
+    private boolean parse(int start, int end, boolean raise) {
+        int i = skip(start, end);
+        if (i == end) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("empty value for MGRS String is invalid");
+        }
+
+        // Parse leading digits as UTM lon zone (1 to 60), if present
+        int digits = 0;
+        int zone = 0;
+        char c;
+        while (Character.isDigit(c = at(i))) {
+            if (digits++ < 2) zone = (zone * 10) + Character.digit(c, 10);
+            i = skip(i + 1, end);
+            if (i == end) {
+                if (!raise) return false;
+                throw new IllegalArgumentException("MGRS String parse error, string was entirely numeric: " +
+                        text(start, end));
+            }
+        }
+        if (digits > 2) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("MGRS String parse error, " + digits + " digit number '" +
+                    text(start, i) + "' is too large for UTM longitudinal zone");
+        } else if (digits > 0 && !UTM.isValidLonZone(zone)) {
+            if (!raise) return false;
+            UTM.validateLonZone(zone);
+        }
+        lonZone = zone;
+        // UTM coordinates are signaled by the presence of a longitudinal zone number
+        final boolean utmCoord = (lonZone > 0);
+
+        // Parse next letter as lat band, validate latBand alone & with lonZone, if present
+        latBand = Character.toUpperCase(at(i));
+        i = skip(i + 1, end);
+        if (utmCoord ? !UTM.isValidZoneAndBand(lonZone, latBand) : !UPS.isValidPolarZone(latBand)) {
+            if (!raise) return false;
+            if (utmCoord) UTM.validateZoneAndBand(lonZone, latBand);
+            else UPS.validatePolarZone(latBand);
+        }
+
+        // Now parse the MGRS square's x and y identifiers, which we require for both UTM and UPS
+        if ((i == end) || (skip(i + 1, end) == end)) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("MGRS String parse error," +
+                    " expecting 2 alpha characters for MGRS square, found only one, or end of string: " +
+                    text(i, end));
+        }
+        xSquare = Character.toUpperCase(at(i));
+        if (!Character.isLetter(xSquare)) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("xSquare character was not a letter: " + xSquare);
+        }
+        i = skip(i + 1, end);
+        ySquare = Character.toUpperCase(at(i));
+        if (!Character.isLetter(ySquare)) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("ySquare character was not a letter: " + ySquare);
+        }
+        i = skip(i + 1, end);
+
+        // Finally, if present, parse remaining digits as easting & northing; compute precision
+        int n = 0;
+        for (int j = i; j < end; j = skip(j + 1, end)) n++;
+        if (n > 10) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("Length of easting/northing values exceeded 10: " + n + ": " +
+                    text(i, end));
+        } else if ((n % 2) != 0) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("Length of easting/northing values was odd: " + n + ": " +
+                    text(i, end));
+        }
+        int k = n / 2;
+        int e = 0;
+        int no = 0;
+        for (int j = 0, p = i; j < n; j++, p = skip(p + 1, end)) {
+            int d = Character.digit(at(p), 10);
+            if (d < 0) {
+                if (!raise) return false;
+                throw new IllegalArgumentException("Easting/northing values are not all digits: " + text(i, end));
+            }
+            if (j < k) e = (e * 10) + d;
+            else no = (no * 10) + d;
+        }
+        precision = PRECISIONS[k];
+        easting = e * precision;
+        northing = no * precision;
+
+        // Now, convert UTM or UPS parameters into geodetic coordinates for the Southwest corner point
+        return utmCoord ? southwestUTM(raise) : southwestUPS(raise);
+    }
+
+    /*
+     * Convert the parsed MGRS parameters for a UTM projection to the southwest corner of the
+     * cell, throwing an exception (if raise) or returning false if they are invalid
+     */
+    private boolean southwestUTM(boolean raise) {
+        hemisphere = UTM.getHemisphere(latBand);
+
+        // Compute utmEasting and validate
+        int utmEasting = ONEHT + easting;
+        boolean found = false;
+        for (char c : MGRS.UTM_EastingGrid[(lonZone % 3)]) {
+            found = (c == xSquare);
+            if (found) break;
+            else utmEasting += ONEHT;
+        }
+        if (!found) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("Invalid MGRS easting square identifier '" +
+                    xSquare + "' for longitudinal zone " + lonZone);
+        }
+
+        // Compute utmNorthing and validate
+        int utmNorthing = northing;
+        int y0 = MGRS.equatorIndex(ellipsoid, lonZone);
+        int yi = y0;
+        while (MGRS.UTM_NorthingGrid[yi] != ySquare) {
+            utmNorthing += ONEHT;
+            yi = (yi + 1) % 20;
+            if (yi == y0) {
+                // Error if we wrap around the sequence without finding the ySquare character
+                if (!raise) return false;
+                throw new IllegalArgumentException("Invalid MGRS northing square identifier '" + ySquare +
+                        "' for longitudinal zone " + lonZone);
+            }
+        }
+        // Adjust the northing to be at least beyond the min Northing for the latBand
+        int minNorthing = UTM.minNorthing(latBand);
+        while (utmNorthing < minNorthing) utmNorthing += TWOMIL;
+
+        // Validate that the utmNorthing within range for the lonZone, latBand pair
+        if (utmNorthing >= UTM.maxNorthing(lonZone, latBand)) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("MGRS northing out of range for square identifier '" + ySquare +
+                    "' in longitudinal zone " + lonZone);
+        }
+
+        // Now, un-project from the UTM parameters back to geodetic coordinates
+        gridEasting = utmEasting;
+        gridNorthing = utmNorthing;
+        if (raise) utm.toGeodetic(lonZone, hemisphere, utmEasting, utmNorthing);
+        else if (!utm.tryToGeodetic(lonZone, hemisphere, utmEasting, utmNorthing)) return false;
+        lonRad = utm.getLongitudeInRadians();
+        latRad = utm.getLatitudeInRadians();
+
+        if (strict || log.isDebugEnabled()) {
+            // Validate that the easting's longitude is within the lonZone specified
+            double delta = precision / 2.0;
+            if (raise) utm.toGeodetic(lonZone, hemisphere, utmEasting + delta, utmNorthing + delta);
+            else if (!utm.tryToGeodetic(lonZone, hemisphere, utmEasting + delta, utmNorthing + delta)) return false;
+            double lonDeg = utm.getLongitudeAsDegrees();
+            double minLonDeg = UTM.minLonDegrees(lonZone, latBand);
+            double maxLonDeg = UTM.maxLonDegrees(lonZone, latBand);
+            if ((lonDeg < minLonDeg) || (maxLonDeg <= lonDeg)) {
+                // Allow if we're within about a meter of one of the boundaries
+                Latitude lat = new Latitude(utm.getLatitudeInRadians());
+                Geodetic2DPoint pointInCell = new Geodetic2DPoint(new Longitude(utm.getLongitudeInRadians()), lat);
+                Geodetic2DPoint pMin = new Geodetic2DPoint(new Longitude(minLonDeg, Angle.DEGREES), lat);
+                if (ellipsoid.orthodromicDistance(pMin, pointInCell) > 1.0) {
+                    Geodetic2DPoint pMax = new Geodetic2DPoint(new Longitude(maxLonDeg, Angle.DEGREES), lat);
+                    if (ellipsoid.orthodromicDistance(pMax, pointInCell) > 1.0) {
+                        if (strict && !raise) return false;
+                        String msg = "MGRS easting out of range for square identifier '" +
+                                xSquare + "' in longitudinal zone " + lonZone;
+                        if (strict) throw new IllegalArgumentException(msg);
+                        else log.debug(msg);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Convert the parsed MGRS parameters for a UPS projection to the southwest corner of the
+     * cell, throwing an exception (if raise) or returning false if they are invalid
+     */
+    private boolean southwestUPS(boolean raise) {
+        int gridE = 0;        /* Easting for 100,000 meter grid square      */
+        int gridN = 0;        /* Northing for 100,000 meter grid square     */
+
+        char[][] gridLetters;
+
+        // UPS latBand already validated ("Y' or 'Z' for North Pole, 'A' or 'B' for South)
+        if (latBand >= 'Y') {
+            // North Polar Region
+            hemisphere = 'N';
+            gridLetters = MGRS.UPS_NorthGrid;
+        } else {
+            // South Polar Region
+            hemisphere = 'S';
+            gridLetters = MGRS.UPS_SouthGrid;
+        }
+        // See if xSquare is valid and compute gridE
+        // Use latBand to restrict our search to the appropriate half of the letter table
+        boolean west = ((latBand == 'A') || (latBand == 'Y'));
+        int n = gridLetters[0].length / 2;
+        int x0 = west ? 0 : n;
+        int xn = x0 + n;
+        boolean found = false;
+        for (int i = x0; i < xn; i++) {
+            if (found = (xSquare == gridLetters[0][i])) {
+                gridE = ONEHT * (i - n);
+                break;
+            }
+        }
+        if (!found) {
+            // One legal case is S Polar region along lon 180 deg exactly, where xSquare
+            // should be an 'A' even though it is not found by the above search method
+            if (west && (xSquare == 'A') && (easting == 0)) {
+                gridE = 0;
+            } else {
+                if (!raise) return false;
+                throw new IllegalArgumentException("First letter of MGRS square identifier ('" +
+                        xSquare + "') is invalid for UPS " + hemisphere + " Polar Region");
+            }
+        }
+        // See if ySquare is valid and compute gridN
+        n = gridLetters[1].length;
+        found = false;
+        for (int i = 0; i < n; i++) {
+            if (found = (ySquare == gridLetters[1][i])) {
+                gridN = ONEHT * (i - (n / 2));
+                break;
+            }
+        }
+        if (!found) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("Second letter of MGRS square identifier ('" +
+                    ySquare + "') is invalid for UPS " + hemisphere + " Polar Region");
+        }
+
+        gridEasting = UPS.FALSE_EASTING + gridE + easting;
+        gridNorthing = UPS.FALSE_NORTHING + gridN + northing;
+        toGeodeticUPS(gridEasting, gridNorthing);
+        lonRad = result[0];
+        latRad = result[1];
+
+        if (strict || log.isDebugEnabled()) {
+            // Validate that the latitude is within the polar regions
+            double delta = precision / 2.0;
+            toGeodeticUPS(gridEasting + delta, gridNorthing + delta);
+            double latDeg = Math.toDegrees(result[1]);
+            if ((UTM.MIN_SOUTH_LATDEG <= latDeg) && (latDeg < UTM.MAX_NORTH_LATDEG)) {
+                if (strict && !raise) return false;
+                String msg = "MGRS coordinate corresponds to a UPS " +
+                        "point outside a polar region";
+                if (strict) throw new IllegalArgumentException(msg);
+                else log.debug(msg);
+            }
+        }
+        return true;
+    }
+
+    /* Un-project UPS easting and northing for the current hemisphere into the result array */
+    private void toGeodeticUPS(double upsEasting, double upsNorthing) {
+        UPS.validateEasting(upsEasting);
+        UPS.validateNorthing(upsNorthing);
+        PolarStereographic ps;
+        if (hemisphere == 'N') {
+            if (north == null) north = polarProjection(UPS.NORTH_POLAR);
+            ps = north;
+        } else {
+            if (south == null) south = polarProjection(UPS.SOUTH_POLAR);
+            ps = south;
+        }
+        ps.toGeodetic(upsEasting - UPS.FALSE_EASTING, upsNorthing - UPS.FALSE_NORTHING, result);
+        // Normalize as Longitude objects do (the South Pole projection can return +PI)
+        result[0] = Angle.normalize(result[0]);
+    }
+
+    /* Make a Polar Stereographic projection for UPS with the ellipsoid of this parser */
+    private PolarStereographic polarProjection(Latitude latOfTrueScale) {
+        PolarStereographic ps = new PolarStereographic(latOfTrueScale);
+        ps.setEllipsoid(ellipsoid);
+        return ps;
+    }
+
+    /**
+     * This method computes the Geodetic2DBounds of the last parsed MGRS cell.  Unlike the
+     * other accessors, it un-projects the northeast corner of the cell and creates new objects.
+     *
+     * @return Geodetic2DBounds for the last parsed MGRS cell
+     * @throws IllegalArgumentException error if the northeast corner of the cell cannot be un-projected
+     */
+    @NonNull
+    public Geodetic2DBounds getBoundingBox() {
+        double urLonRad;
+        double urLatRad;
+        if (lonZone > 0) {
+            utm.toGeodetic(lonZone, hemisphere, gridEasting + precision, gridNorthing + precision);
+            urLonRad = utm.getLongitudeInRadians();
+            urLatRad = utm.getLatitudeInRadians();
+        } else {
+            toGeodeticUPS(gridEasting + precision, gridNorthing + precision);
+            urLonRad = result[0];
+            urLatRad = result[1];
+        }
+        return new Geodetic2DBounds(
+                new Geodetic2DPoint(new Longitude(lonRad), new Latitude(latRad)),
+                new Geodetic2DPoint(new Longitude(urLonRad), new Latitude(urLatRad)));
+    }
+
+    /**
+     * This method un-projects the center of the last parsed MGRS cell, which is the point
+     * that MGRS objects made from Strings return from toGeodetic2DPoint.  Like getBoundingBox
+     * it un-projects another point of the cell, but it creates no objects.
+     *
+     * @param lonLat array to receive the longitude and latitude of the center, in radians
+     * @return true if the center was un-projected, or false if it cannot be (lonLat is then
+     * unchanged)
+     * @throws ArrayIndexOutOfBoundsException if lonLat has fewer than 2 elements
+     * @throws NullPointerException if lonLat is null
+     */
+    public boolean getCenterInRadians(double[] lonLat) {
+        double delta = precision / 2.0;
+        double centerEasting = gridEasting + delta;
+        double centerNorthing = gridNorthing + delta;
+        if (lonZone > 0) {
+            if (!UTM.isValidEasting(centerEasting) || !UTM.isValidNorthing(centerNorthing) ||
+                    !utm.tryToGeodetic(lonZone, hemisphere, centerEasting, centerNorthing))
+                return false;
+            lonLat[1] = utm.getLatitudeInRadians();
+            lonLat[0] = utm.getLongitudeInRadians();
+        } else {
+            try {
+                toGeodeticUPS(centerEasting, centerNorthing);
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+            lonLat[1] = result[1];
+            lonLat[0] = result[0];
+        }
+        return true;
+    }
+
+    /**
+     * This accessor method returns the UTM longitudinal zone of the last parsed coordinate.
+     *
+     * @return UTM longitudinal zone (1 to 60), or 0 for a UPS coordinate
+     */
+    public int getLonZone() {
+        return lonZone;
+    }
+
+    /**
+     * This accessor method returns the UTM latitudinal band or UPS polar zone of the last
+     * parsed coordinate.
+     *
+     * @return UTM latitudinal band ('C' to 'X', not including 'I' or 'O'), or UPS polar zone
+     * ('A' or 'B' for South Pole, 'Y' or 'Z' for North Pole)
+     */
+    public char getLatBand() {
+        return latBand;
+    }
+
+    /**
+     * This accessor method returns the first (easting) MGRS square identifier of the last
+     * parsed coordinate.
+     *
+     * @return upper case letter identifying the column of the 100,000 meter MGRS square
+     */
+    public char getXSquare() {
+        return xSquare;
+    }
+
+    /**
+     * This accessor method returns the second (northing) MGRS square identifier of the last
+     * parsed coordinate.
+     *
+     * @return upper case letter identifying the row of the 100,000 meter MGRS square
+     */
+    public char getYSquare() {
+        return ySquare;
+    }
+
+    /**
+     * This accessor method returns the easting of the last parsed coordinate, relative to
+     * the west edge of its MGRS square.
+     *
+     * @return meters east of the MGRS square's west edge (0 to 99,999)
+     */
+    public int getEasting() {
+        return easting;
+    }
+
+    /**
+     * This accessor method returns the northing of the last parsed coordinate, relative to
+     * the south edge of its MGRS square.
+     *
+     * @return meters north of the MGRS square's south edge (0 to 99,999)
+     */
+    public int getNorthing() {
+        return northing;
+    }
+
+    /**
+     * This accessor method returns the precision of the last parsed coordinate, which is the
+     * cell side in meters.
+     *
+     * @return precision One of {100000, 10000, 1000, 100, 10, 1}
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * This accessor method returns the hemisphere of the last parsed coordinate.
+     *
+     * @return hemisphere character ('N' for Northern, or 'S' for Southern)
+     */
+    public char getHemisphere() {
+        return hemisphere;
+    }
+
+    /**
+     * This accessor method returns the UTM easting (for a UTM coordinate) or UPS easting
+     * (for a UPS coordinate) of the southwest corner of the last parsed MGRS cell.
+     *
+     * @return positive meters east of the false adjusted central meridian or pole
+     */
+    public int getGridEasting() {
+        return gridEasting;
+    }
+
+    /**
+     * This accessor method returns the UTM northing (for a UTM coordinate) or UPS northing
+     * (for a UPS coordinate) of the southwest corner of the last parsed MGRS cell.
+     *
+     * @return positive meters north of the false adjusted origin or pole
+     */
+    public int getGridNorthing() {
+        return gridNorthing;
+    }
+
+    /**
+     * This accessor method returns the longitude of the southwest corner of the last parsed
+     * MGRS cell in radians.
+     *
+     * @return longitude in radians, normalized to the range [-PI, PI)
+     */
+    public double getLongitudeInRadians() {
+        return lonRad;
+    }
+
+    /**
+     * This accessor method returns the latitude of the southwest corner of the last parsed
+     * MGRS cell in radians.
+     *
+     * @return latitude in radians
+     */
+    public double getLatitudeInRadians() {
+        return latRad;
+    }
+
+    /**
+     * This accessor method returns the longitude of the southwest corner of the last parsed
+     * MGRS cell in decimal degrees.
+     *
+     * @return longitude in decimal degrees, normalized to the range [-180, 180)
+     */
+    public double getLongitudeAsDegrees() {
+        return Math.toDegrees(lonRad);
+    }
+
+    /**
+     * This accessor method returns the latitude of the southwest corner of the last parsed
+     * MGRS cell in decimal degrees.
+     *
+     * @return latitude in decimal degrees
+     */
+    public double getLatitudeAsDegrees() {
+        return Math.toDegrees(latRad);
+    }
+}
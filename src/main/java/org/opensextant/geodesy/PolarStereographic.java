@@ -151,9 +151,27 @@ public class PolarStereographic implements Serializable {
     @NonNull
     public Topocentric2DPoint toPolarStereographic(Longitude lon, Latitude lat)
             throws IllegalArgumentException {
+        double[] en = new double[2];
+        toPolarStereographic(lon.inRadians, lat.inRadians, en);
+        return new Topocentric2DPoint(en[0], en[1]);
+    }
+
+    /**
+     * This method converts geodetic (latitude and longitude) coordinates
+     * to Polar Stereographic projection (easting and northing) coordinates, according
+     * to the current ellipsoid and Polar Stereographic projection coordinates. This
+     * version works on primitive values and stores its result in a caller supplied
+     * array, so that no objects are created when projecting many points.
+     *
+     * @param lonRad longitude to project, in radians
+     * @param latRad latitude to project, in radians
+     * @param en     array of length 2 or more to receive Easting (en[0]) and Northing (en[1]) in meters
+     * @throws IllegalArgumentException error if latitude is in different hemisphere from origin
+     * @throws NullPointerException if en is null
+     */
+    public void toPolarStereographic(double lonRad, double latRad, double[] en)
+            throws IllegalArgumentException {
 
-        double latRad = lat.inRadians;
-        double lonRad = lon.inRadians;
         if ((latRad < 0.0 && !Southern_Hemisphere) || (latRad > 0.0 && Southern_Hemisphere)) {
             throw new IllegalArgumentException("Latitude in different hemisphere " +
                     "from Polar Stereographic origin");
@@ -179,7 +197,8 @@ public class PolarStereographic implements Serializable {
                 northing *= -1.0;
             }
         }
-        return new Topocentric2DPoint(easting, northing);
+        en[0] = easting;
+        en[1] = northing;
     }
 
     /**
@@ -194,6 +213,26 @@ public class PolarStereographic implements Serializable {
      */
     @NonNull
     public Geodetic2DPoint toGeodetic(double easting, double northing) {
+        double[] lonLat = new double[2];
+        toGeodetic(easting, northing, lonLat);
+        return new Geodetic2DPoint(new Longitude(lonLat[0]), new Latitude(lonLat[1]));
+    }
+
+    /**
+     * This method converts Polar Stereographic projection (easting and northing)
+     * coordinates to geodetic (latitude and longitude) coordinates, according to the current
+     * ellipsoid and Polar Stereographic projection parameters. This version works on
+     * primitive values and stores its result in a caller supplied array, so that no
+     * objects are created when un-projecting many points.
+     *
+     * @param easting  X in meters
+     * @param northing Y in meters
+     * @param lonLat   array of length 2 or more to receive longitude (lonLat[0]) and
+     *                 latitude (lonLat[1]) in radians
+     * @throws IllegalArgumentException error if Easting or Northing are out of legal range
+     * @throws NullPointerException if lonLat is null
+     */
+    public void toGeodetic(double easting, double northing, double[] lonLat) {
         double lonRad;
         double latRad;
 
@@ -242,6 +281,7 @@ public class PolarStereographic implements Serializable {
             lonRad *= -1.0;
         }
 
-        return new Geodetic2DPoint(new Longitude(lonRad), new Latitude(latRad));
+        lonLat[0] = lonRad;
+        lonLat[1] = latRad;
     }
 }
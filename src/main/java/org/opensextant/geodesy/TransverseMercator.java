@@ -24,6 +24,8 @@
  ***************************************************************************************/
 package org.opensextant.geodesy;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -33,7 +35,12 @@ import org.slf4j.LoggerFactory;
 /**
  * The TransverseMercator class implements a map projection of the same name, and is used by
  * the Universal Transverse Mercator (UTM) coordinate encoding system for points in the middle
- * Latitudes around the globe.
+ * Latitudes around the globe.<p/>
+ *
+ * Instances made with the public constructor are mutable and should not be shared between
+ * threads. The UTM class keeps a cache of pre-computed, unmodifiable instances (one for each
+ * Ellipsoid and zone central meridian), available from UTM.getProjection, which may be
+ * shared freely; their set methods throw UnsupportedOperationException.
  */
 public class TransverseMercator implements Serializable {
 	private static final long serialVersionUID = 1L;
@@ -55,6 +62,7 @@ public class TransverseMercator implements Serializable {
 
     // Instance variables
     private final boolean distortionWarningException;
+    private boolean unmodifiable;                       // Shared instances may not be changed
 
     @NonNull private Ellipsoid ellipsoid = Ellipsoid.getInstance("WGS 84");
 
@@ -74,6 +82,7 @@ public class TransverseMercator implements Serializable {
     private Longitude centralMeridian;                  // Central Meridian longitude (in radians)
     private double originLatitude;                      // Latitude (in radians) touching projection plane
     private double scale;                               // Scale factor
+    private transient double tmdo;                      // True meridional distance at origin latitude
 
     // Utiltiy Functions
     private double SPHTMD(double lat) {
@@ -83,15 +92,18 @@ public class TransverseMercator implements Serializable {
     }
 
     private double SPHSN(double lat) {
-        return (TranMerc_a / Math.sqrt(1.e0 - TranMerc_es * Math.pow(Math.sin(lat), 2.0)));
+        double s = Math.sin(lat);
+        return (TranMerc_a / Math.sqrt(1.e0 - TranMerc_es * s * s));
     }
 
     private double DENOM(double lat) {
-        return (Math.sqrt(1.e0 - TranMerc_es * Math.pow(Math.sin(lat), 2.0)));
+        double s = Math.sin(lat);
+        return (Math.sqrt(1.e0 - TranMerc_es * s * s));
     }
 
     private double SPHSR(double lat) {
-        return (TranMerc_a * (1.e0 - TranMerc_es) / Math.pow(DENOM(lat), 3.0));
+        double denom = DENOM(lat);
+        return (TranMerc_a * (1.e0 - TranMerc_es) / (denom * denom * denom));
     }
 
     /**
@@ -108,14 +120,50 @@ public class TransverseMercator implements Serializable {
         setScaleFactor(1.0);
     }
 
+    /*
+     * This constructor makes a fully specified instance of TransverseMercator whose
+     * parameters can not be changed afterwards, so that it can be safely shared by many
+     * threads (see UTM.getProjection). Calling any of the set methods on the resulting
+     * object causes an UnsupportedOperationException.
+     */
+    TransverseMercator(Ellipsoid ellip, Longitude centralMeridian, Latitude originLatitude,
+                       double scale, boolean distortionWarningException) {
+        this.distortionWarningException = distortionWarningException;
+        setEllipsoid(ellip);
+        setCentralMeridian(centralMeridian);
+        setOriginLatitude(originLatitude);
+        setScaleFactor(scale);
+        this.unmodifiable = true;
+    }
+
+    /*
+     * This method guards the set methods of shared (unmodifiable) instances.
+     */
+    private void checkModifiable() {
+        if (unmodifiable)
+            throw new UnsupportedOperationException("Shared TransverseMercator projection " +
+                    "can not be modified");
+    }
+
+    /*
+     * The meridional distance of the origin latitude is not serialized (nor was it written
+     * before it was cached), so compute it again after reading this object
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        tmdo = SPHTMD(originLatitude);
+    }
+
     /**
      * This method is used to set the Ellipsoid model parameters.  This is only needed if
      * the default WGS84 ellipsoid is not being used, since WGS84 values are the default.
      *
      * @param ellip Ellipsoid object to use
 	 * @throws NullPointerException if ellip is null
+     * @throws UnsupportedOperationException if this is a shared projection from UTM.getProjection
      */
     public void setEllipsoid(Ellipsoid ellip) {
+        checkModifiable();
         // Only update parameters if ellip has changed
         if (ellipsoid != ellip) {
             ellipsoid = ellip;
@@ -137,6 +185,8 @@ public class TransverseMercator implements Serializable {
             TranMerc_cp = 15.e0 * TranMerc_a * (tn2 - tn3 + 3.e0 * (tn4 - tn5) / 4.e0) / 16.0;
             TranMerc_dp = 35.e0 * TranMerc_a * (tn3 - tn4 + 11.e0 * tn5 / 16.e0) / 48.e0;
             TranMerc_ep = 315.e0 * TranMerc_a * (tn4 - tn5) / 512.e0;
+
+            tmdo = SPHTMD(originLatitude);
         }
     }
 
@@ -155,20 +205,35 @@ public class TransverseMercator implements Serializable {
      * touches ellipsoid) for this TransverseMercator projection object.
      *
      * @param centralMeridian - longitude at which tangential plane touches ellipsoid
+     * @throws UnsupportedOperationException if this is a shared projection from UTM.getProjection
      */
     public void setCentralMeridian(Longitude centralMeridian) {
+        checkModifiable();
         this.centralMeridian = centralMeridian;
     }
 
+    /**
+     * This method returns the central meridian (origin longitude) of this projection.
+     *
+     * @return longitude at which tangential plane touches ellipsoid
+     */
+    @NonNull
+    public Longitude getCentralMeridian() {
+        return centralMeridian;
+    }
+
     /**
      * This method is used to set the origin latitude (point where tangential plane
      * touches ellipsoid) for this TransverseMercator projection object.
      *
      * @param originLatitude latitude at which tangential plane touches ellipsoid
 	 * @throws NullPointerException if originLatitude is null
+     * @throws UnsupportedOperationException if this is a shared projection from UTM.getProjection
      */
     public void setOriginLatitude(Latitude originLatitude) {
+        checkModifiable();
         this.originLatitude = originLatitude.inRadians();
+        this.tmdo = SPHTMD(this.originLatitude);
     }
 
     /**
@@ -176,8 +241,10 @@ public class TransverseMercator implements Serializable {
      *
      * @param scale scaling factor (0.3 .. 3.0)
      * @throws IllegalArgumentException error if scale is out of legal range
+     * @throws UnsupportedOperationException if this is a shared projection from UTM.getProjection
      */
     public void setScaleFactor(double scale) {
+        checkModifiable();
         if ((scale < MIN_SCALE) || (MAX_SCALE < scale))
             throw new IllegalArgumentException("Scale factor outside of valid range (0.3 to 3.0)");
         this.scale = scale;
@@ -196,16 +263,36 @@ public class TransverseMercator implements Serializable {
      */
     public Topocentric2DPoint toTransverseMercator(Longitude lon, Latitude lat)
             throws IllegalArgumentException {
+        double[] en = new double[2];
+        toTransverseMercator(lon.inRadians, lat.inRadians, en);
+        return (new Topocentric2DPoint(en[0], en[1]));
+    }
+
+    /**
+     * This method converts geodetic (latitude and longitude) coordinates
+     * to Transverse Mercator projection (easting and northing) coordinates, according
+     * to the current ellipsoid and Transverse Mercator projection coordinates. This
+     * version works on primitive values and stores its result in a caller supplied
+     * array, so that no objects are created when projecting many points.
+     *
+     * @param lonRad longitude to project, in radians
+     * @param latRad latitude to project, in radians
+     * @param en     array of length 2 or more to receive Easting (en[0]) and Northing (en[1]) in meters
+     * @throws IllegalArgumentException error if longitude too far away from origin's central meridian
+     * @throws NullPointerException if en is null
+     */
+    public void toTransverseMercator(double lonRad, double latRad, double[] en)
+            throws IllegalArgumentException {
 
-        double latitude = lat.inRadians();
-        if (Math.abs(latitude) > MAX_LAT)
+        double latitude = latRad;
+        if (!(Math.abs(latitude) <= MAX_LAT))
             throw new IllegalArgumentException("Latitude is too close to a Pole");
 
         // Delta Longitude
-        double dlam = centralMeridian.difference(lon).inRadians();
+        double dlam = Angle.normalize(lonRad - centralMeridian.inRadians);
 
         // Invalid longitude if greater than 90 degrees from central meridian
-        if (Math.abs(dlam) > PI_OVER_2)
+        if (!(Math.abs(dlam) <= PI_OVER_2))
             throw new IllegalArgumentException("Longitude is more than 90 deg from central meridian");
 
         // Warn if distortion will occur (when Longitude is more than 9 degrees from the Central Meridian)
@@ -222,6 +309,7 @@ public class TransverseMercator implements Serializable {
         double c3;
         double c5;
         double c7;
+        double dlam2;   /* Square of delta longitude                       */
         double eta;     /* constant - TranMerc_ebs *c *c                   */
         double eta2;
         double eta3;
@@ -230,9 +318,7 @@ public class TransverseMercator implements Serializable {
         double sn;      /* Radius of curvature in the prime vertical       */
         double t;       /* Tangent of latitude                             */
         double tan2;
-        double tan3;
         double tan4;
-        double tan5;
         double tan6;
         double t1;      /* Term in coordinate conversion formula - GP to Y */
         double t2;      /* Term in coordinate conversion formula - GP to Y */
@@ -244,7 +330,6 @@ public class TransverseMercator implements Serializable {
         double t8;      /* Term in coordinate conversion formula - GP to Y */
         double t9;      /* Term in coordinate conversion formula - GP to Y */
         double tmd;     /* True Meridional distance                        */
-        double tmdo;    /* True Meridional distance for latitude of origin */
 
         s = Math.sin(latitude);
         c = Math.cos(latitude);
@@ -252,26 +337,21 @@ public class TransverseMercator implements Serializable {
         c3 = c2 * c;
         c5 = c3 * c2;
         c7 = c5 * c2;
-        t = Math.tan(latitude);
+        t = s / c;
         tan2 = t * t;
-        tan3 = tan2 * t;
-        tan4 = tan3 * t;
-        tan5 = tan4 * t;
-        tan6 = tan5 * t;
+        tan4 = tan2 * tan2;
+        tan6 = tan4 * tan2;
         eta = TranMerc_ebs * c2;
         eta2 = eta * eta;
         eta3 = eta2 * eta;
         eta4 = eta3 * eta;
 
         /* radius of curvature in prime vertical */
-        sn = SPHSN(latitude);
+        sn = TranMerc_a / Math.sqrt(1.e0 - TranMerc_es * s * s);
 
         /* True Meridianal Distances */
         tmd = SPHTMD(latitude);
 
-        /*  Origin  */
-        tmdo = SPHTMD(originLatitude);
-
         /* Northing */
         t1 = (tmd - tmdo) * scale;
         t2 = sn * s * c * scale / 2.e0;
@@ -286,9 +366,9 @@ public class TransverseMercator implements Serializable {
         t5 = sn * s * c7 * scale * (1385.e0 - 3111.e0 *
                 tan2 + 543.e0 * tan4 - tan6) / 40320.e0;
 
-        double northing = t1 + Math.pow(dlam, 2.e0) * t2
-                + Math.pow(dlam, 4.e0) * t3 + Math.pow(dlam, 6.e0) * t4
-                + Math.pow(dlam, 8.e0) * t5;
+        // Horner form of the power series in dlam
+        dlam2 = dlam * dlam;
+        en[1] = t1 + dlam2 * (t2 + dlam2 * (t3 + dlam2 * (t4 + dlam2 * t5)));
 
         /* Easting */
         t6 = sn * c * scale;
@@ -299,10 +379,7 @@ public class TransverseMercator implements Serializable {
         t9 = sn * c7 * scale * (61.e0 - 479.e0 * tan2
                 + 179.e0 * tan4 - tan6) / 5040.e0;
 
-        double easting = dlam * t6 + Math.pow(dlam, 3.e0) * t7
-                + Math.pow(dlam, 5.e0) * t8 + Math.pow(dlam, 7.e0) * t9;
-
-        return (new Topocentric2DPoint(easting, northing));
+        en[0] = dlam * (t6 + dlam2 * (t7 + dlam2 * (t8 + dlam2 * t9)));
     }
 
     /**
@@ -317,17 +394,57 @@ public class TransverseMercator implements Serializable {
      */
     public Geodetic2DPoint toGeodetic(double easting, double northing)
             throws IllegalArgumentException {
+        double[] lonLat = new double[2];
+        toGeodetic(easting, northing, lonLat);
+        return (new Geodetic2DPoint(new Longitude(lonLat[0]), new Latitude(lonLat[1])));
+    }
+
+    /**
+     * This method converts Transverse Mercator projection (easting and northing)
+     * coordinates to geodetic (latitude and longitude) coordinates, according to the current
+     * ellipsoid and Transverse Mercator projection parameters. This version stores its
+     * result in a caller supplied array, so that no objects are created when un-projecting
+     * many points.
+     *
+     * @param easting  X in meters
+     * @param northing Y in meters
+     * @param lonLat   array of length 2 or more to receive the normalized longitude (lonLat[0])
+     *                 and latitude (lonLat[1]), in radians
+     * @throws IllegalArgumentException error if Easting or Northing are out of legal range
+     * @throws NullPointerException if lonLat is null
+     */
+    public void toGeodetic(double easting, double northing, double[] lonLat)
+            throws IllegalArgumentException {
+        toGeodetic(easting, northing, lonLat, true);
+    }
+
+    /*
+     * This method converts Transverse Mercator projection coordinates to geodetic
+     * coordinates like toGeodetic, but returns false instead of throwing an exception
+     * when the conversion fails (the contents of lonLat are then undefined).
+     */
+    boolean tryToGeodetic(double easting, double northing, double[] lonLat) {
+        return toGeodetic(easting, northing, lonLat, false);
+    }
+
+    /* Un-project into lonLat, throwing an exception (if raise) or returning false on an error */
+    private boolean toGeodetic(double easting, double northing, double[] lonLat, boolean raise) {
         // Test to make sure signed Easting and Northing values are within valid range
         // Note: These limits are based on approximate 40,000 km earth circumference
-        if ((easting < MIN_EASTING) || (MAX_EASTING < easting))
+        if (!((MIN_EASTING <= easting) && (easting <= MAX_EASTING))) {
+            if (!raise) return false;
             throw new IllegalArgumentException
                     ("Easting value is out of legal range (-10,000,000 .. +10,000,000 m)");
-        if ((northing < MIN_NORTHING) || (MAX_NORTHING < northing))
+        }
+        if (!((MIN_NORTHING <= northing) && (northing <= MAX_NORTHING))) {
+            if (!raise) return false;
             throw new IllegalArgumentException
                     ("Northing value is out of legal range (-5,000,000 .. +5,000,000 m)");
+        }
 
         double c;       /* Cosine of latitude                                   */
         double de;      /* Delta easting - Difference in Easting (Easting-Fe)   */
+        double de2;     /* Square of delta easting                              */
         double dlam;    /* Delta longitude - Difference in Longitude            */
         double eta;     /* constant - TranMerc_ebs *c *c                        */
         double eta2;
@@ -335,10 +452,13 @@ public class TransverseMercator implements Serializable {
         double eta4;
         double ftphi;   /* Footpoint latitude                                   */
         double sn;      /* Radius of curvature in the prime vertical            */
+        double sn2;
         double sr;      /* Radius of curvature in the meridian                  */
         double t;       /* Tangent of latitude                                  */
         double tan2;
         double tan4;
+        double tan6;
+        double scale2;
         double t10;     /* Term in coordinate conversion formula - GP to Y      */
         double t11;     /* Term in coordinate conversion formula - GP to Y      */
         double t12;     /* Term in coordinate conversion formula - GP to Y      */
@@ -348,10 +468,6 @@ public class TransverseMercator implements Serializable {
         double t16;     /* Term in coordinate conversion formula - GP to Y      */
         double t17;     /* Term in coordinate conversion formula - GP to Y      */
         double tmd;     /* True Meridional distance                             */
-        double tmdo;    /* True Meridional distance for latitude of origin      */
-
-        /* True Meridinal Distances for latitude of origin */
-        tmdo = SPHTMD(originLatitude);
 
         /*  Origin  */
         tmd = tmdo + northing / scale;
@@ -371,6 +487,7 @@ public class TransverseMercator implements Serializable {
 
         /* Radius of Curvature in the meridian */
         sn = SPHSN(ftphi);
+        sn2 = sn * sn;
 
         /* Sine Cosine terms */
         c = Math.cos(ftphi);
@@ -379,56 +496,60 @@ public class TransverseMercator implements Serializable {
         t = Math.tan(ftphi);
         tan2 = t * t;
         tan4 = tan2 * tan2;
-        eta = TranMerc_ebs * Math.pow(c, 2);
+        tan6 = tan4 * tan2;
+        eta = TranMerc_ebs * c * c;
         eta2 = eta * eta;
         eta3 = eta2 * eta;
         eta4 = eta3 * eta;
         de = easting;
+        de2 = de * de;
+        scale2 = scale * scale;
 
         /* Latitude */
-        t10 = t / (2.e0 * sr * sn * Math.pow(scale, 2));
-        t11 = t * (5.e0 + 3.e0 * tan2 + eta - 4.e0 * Math.pow(eta, 2)
-                - 9.e0 * tan2 * eta) / (24.e0 * sr * Math.pow(sn, 3)
-                * Math.pow(scale, 4));
+        t10 = t / (2.e0 * sr * sn * scale2);
+        t11 = t * (5.e0 + 3.e0 * tan2 + eta - 4.e0 * eta2
+                - 9.e0 * tan2 * eta) / (24.e0 * sr * sn2 * sn
+                * scale2 * scale2);
         t12 = t * (61.e0 + 90.e0 * tan2 + 46.e0 * eta + 45.E0 * tan4
                 - 252.e0 * tan2 * eta - 3.e0 * eta2 + 100.e0
                 * eta3 - 66.e0 * tan2 * eta2 - 90.e0 * tan4
                 * eta + 88.e0 * eta4 + 225.e0 * tan4 * eta2
                 + 84.e0 * tan2 * eta3 - 192.e0 * tan2 * eta4)
-                / (720.e0 * sr * Math.pow(sn, 5) * Math.pow(scale, 6));
+                / (720.e0 * sr * sn2 * sn2 * sn * scale2 * scale2 * scale2);
         t13 = t * (1385.e0 + 3633.e0 * tan2 + 4095.e0 * tan4 + 1575.e0
-                * Math.pow(t, 6)) / (40320.e0 * sr * Math.pow(sn, 7) * Math.pow(scale, 8));
+                * tan6) / (40320.e0 * sr * sn2 * sn2 * sn2 * sn * scale2 * scale2 * scale2 * scale2);
 
-        // Round value to be accurate to nearest meter in northing
-        double latRad = ftphi - Math.pow(de, 2) * t10 + Math.pow(de, 4) *
-                t11 - Math.pow(de, 6) * t12 + Math.pow(de, 8) * t13;
-        Latitude lat = new Latitude(latRad); // vs. Math.round(latRad * 1e+7) * 1e-7
+        // Horner form of the power series in de
+        double latRad = ftphi - de2 * (t10 - de2 * (t11 - de2 * (t12 - de2 * t13)));
+        if (!(Math.abs(latRad) <= PI_OVER_2)) {
+            if (!raise) return false;
+            throw new IllegalArgumentException("Latitude value exceeds pole value");
+        }
 
         t14 = 1.e0 / (sn * c * scale);
 
-        t15 = (1.e0 + 2.e0 * tan2 + eta) / (6.e0 * Math.pow(sn, 3) * c * Math.pow(scale, 3));
+        t15 = (1.e0 + 2.e0 * tan2 + eta) / (6.e0 * sn2 * sn * c * scale2 * scale);
 
         t16 = (5.e0 + 6.e0 * eta + 28.e0 * tan2 - 3.e0 * eta2
                 + 8.e0 * tan2 * eta + 24.e0 * tan4 - 4.e0
                 * eta3 + 4.e0 * tan2 * eta2 + 24.e0
-                * tan2 * eta3) / (120.e0 * Math.pow(sn, 5) * c
-                * Math.pow(scale, 5));
+                * tan2 * eta3) / (120.e0 * sn2 * sn2 * sn * c
+                * scale2 * scale2 * scale);
 
         t17 = (61.e0 + 662.e0 * tan2 + 1320.e0 * tan4 + 720.e0
-                * Math.pow(t, 6)) / (5040.e0 * Math.pow(sn, 7) * c
-                * Math.pow(scale, 7));
+                * tan6) / (5040.e0 * sn2 * sn2 * sn2 * sn * c
+                * scale2 * scale2 * scale2 * scale);
         /* Difference in Longitude */
-        dlam = de * t14 - Math.pow(de, 3) * t15 + Math.pow(de, 5) * t16 - Math.pow(de, 7) * t17;
+        dlam = de * (t14 - de2 * (t15 - de2 * (t16 - de2 * t17)));
         if (Math.abs(dlam) > MAX_DELTA_LON) {
+            if (distortionWarningException && !raise) return false;
             if (distortionWarningException) throw new IllegalArgumentException(DISTORTION_WARNING);
             else log.debug(DISTORTION_WARNING);
         }
 
         /* Longitude */
-        // Round value to be accurate to nearest meter in easting
-        double lonRad = centralMeridian.inRadians() + dlam;
-        Longitude lon = new Longitude(lonRad); // vs. Math.round(lonRad * 1e+7) * 1e-7
-
-        return (new Geodetic2DPoint(lon, lat));
+        lonLat[0] = Angle.normalize(centralMeridian.inRadians + dlam);
+        lonLat[1] = latRad;
+        return true;
     }
 }
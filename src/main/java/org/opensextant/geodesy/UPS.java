@@ -49,8 +49,8 @@ public class UPS implements Serializable {
     private static final double MAX_EASTING = 4000000.0;
     private static final double MIN_NORTHING = 0.0;
     private static final double MAX_NORTHING = 4000000.0;
-    private static final Latitude NORTH_POLAR = new Latitude(+81, 6, 52.3);
-    private static final Latitude SOUTH_POLAR = new Latitude(-81, 6, 52.3);
+    static final Latitude NORTH_POLAR = new Latitude(+81, 6, 52.3);
+    static final Latitude SOUTH_POLAR = new Latitude(-81, 6, 52.3);
 
     // Static Class Methods
 
@@ -62,17 +62,28 @@ public class UPS implements Serializable {
      * @throws IllegalArgumentException error if UPS Polar Zone is invalid
      */
     public static void validatePolarZone(char polarZone) {
-        if ((polarZone != 'A') && (polarZone != 'B') && (polarZone != 'Y') && (polarZone != 'Z'))
+        if (!isValidPolarZone(polarZone))
             throw new IllegalArgumentException("UPS polar zone '" + polarZone + "' is not valid");
     }
 
+    /**
+     * Test whether a UPS polar zone is valid (by itself), like validatePolarZone, but
+     * return false instead of throwing an exception.
+     *
+     * @param polarZone UPS Polar Zone ('A' or 'B' for Southern, 'Y' or 'Z' for Northern)
+     * @return true if the UPS Polar Zone is valid
+     */
+    public static boolean isValidPolarZone(char polarZone) {
+        return (polarZone == 'A') || (polarZone == 'B') || (polarZone == 'Y') || (polarZone == 'Z');
+    }
+
     /*
      * Validate hemisphere character to see if it is valid (by itself).
      *
      * @param hemisphere UPS Hemisphere character ('N' for North, 'S' for South)
      * @throws IllegalArgumentException error if hemisphere character is invalid
      */
-    private static void validateHemisphere(char hemisphere) {
+    static void validateHemisphere(char hemisphere) {
         if ((hemisphere != 'N') && (hemisphere != 'S'))
             throw new IllegalArgumentException("Invalid hemisphere '" +
                     hemisphere + "', should be 'N' or 'S'");
@@ -84,7 +95,7 @@ public class UPS implements Serializable {
      * @param easting UPS Easting value in meters
      * @throws IllegalArgumentException error if easting value is out of range
      */
-    private static void validateEasting(double easting) {
+    static void validateEasting(double easting) {
         if ((easting < MIN_EASTING) || (MAX_EASTING < easting))
             throw new IllegalArgumentException("Easting value '" + easting +
                     "' is outside of valid range (0 to 4,000,000 meters)");
@@ -96,7 +107,7 @@ public class UPS implements Serializable {
      * @param northing UPS Northing value in meters
      * @throws IllegalArgumentException error if northing value is out of range
      */
-    private static void validateNorthing(double northing) {
+    static void validateNorthing(double northing) {
         if ((northing < MIN_NORTHING) || (MAX_NORTHING < northing))
             throw new IllegalArgumentException("Northing value '" + northing +
                     "' is outside of valid range (0 to 4,000,000 meters)");
@@ -22,6 +22,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
 import java.text.DecimalFormat;
 
@@ -96,7 +99,7 @@ public class UTM implements Serializable {
     private static final double MAX_EASTING = 900000.0;
     private static final double MIN_NORTHING = 0.0;
     private static final double MAX_NORTHING = 10000000.0;
-    private static final double SCALE = 0.9996;
+    static final double SCALE = 0.9996;
     private static final Latitude EQUATOR = new Latitude(0.0);
 
     public static final double FALSE_EASTING = 500000.0;
@@ -116,6 +119,90 @@ public class UTM implements Serializable {
         }
     }
 
+    // Special zone central meridians (Norway and Svalbard)
+    private static final Longitude V31_CENTRAL_MERIDIAN = new Longitude(1.5, Angle.DEGREES);
+    private static final Longitude X31_CENTRAL_MERIDIAN = new Longitude(4.5, Angle.DEGREES);
+    private static final Longitude V32_CENTRAL_MERIDIAN = new Longitude(7.5, Angle.DEGREES);
+    private static final Longitude X37_CENTRAL_MERIDIAN = new Longitude(37.5, Angle.DEGREES);
+
+    // Number of shared projections per Ellipsoid, indexed by projectionIndex (the second
+    // half of each array holds the instances that do not throw distortion exceptions)
+    private static final int PROJECTIONS = 65;
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+
+    /*
+     * This method builds the complete set of shared UTM projections for the given
+     * ellipsoid, which holds on to them (see Ellipsoid.getUTMProjections). Building the
+     * whole set at once before publishing it through a volatile field guarantees that
+     * other threads only ever see fully initialized instances.
+     */
+    static TransverseMercator[] makeProjections(Ellipsoid ellip) {
+        TransverseMercator[] projections = new TransverseMercator[2 * PROJECTIONS];
+        for (int i = 1; i < PROJECTIONS; i++) {
+            Longitude cm;
+            if (i <= 60) cm = CENTRAL_MERIDIAN[i];
+            else if (i == 61) cm = V31_CENTRAL_MERIDIAN;
+            else if (i == 62) cm = V32_CENTRAL_MERIDIAN;
+            else if (i == 63) cm = X31_CENTRAL_MERIDIAN;
+            else cm = X37_CENTRAL_MERIDIAN;
+            projections[i] = new TransverseMercator(ellip, cm, EQUATOR, SCALE, true);
+            projections[PROJECTIONS + i] = new TransverseMercator(ellip, cm, EQUATOR, SCALE, false);
+        }
+        return projections;
+    }
+
+    /*
+     * This method maps a UTM cell (lon zone and lat band) to the index of its projection,
+     * which is the lon zone itself unless the cell is one of the Norway or Svalbard
+     * special zones with a shifted central meridian.
+     */
+    private static int projectionIndex(int lonZone, char latBand) {
+        if (latBand == 'V') {
+            if (lonZone == 31) return 61;
+            else if (lonZone == 32) return 62;
+        } else if (latBand == 'X') {
+            if (lonZone == 31) return 63;
+            else if (lonZone == 37) return 64;
+        }
+        return lonZone;
+    }
+
+    /**
+     * This method returns the TransverseMercator projection for the given ellipsoid and UTM
+     * cell (lon zone and lat band), taking into account the Norway and Svalbard special zones
+     * whose central meridians are shifted. Projections returned by this method throw an
+     * IllegalArgumentException when a point is more than 9 degrees from the central meridian.<p/>
+     *
+     * The result is not a new object: each projection is computed once per Ellipsoid and
+     * cell, and the same instance is returned to every caller.  It is therefore immutable;
+     * its set methods throw an UnsupportedOperationException, so a caller that needs a
+     * projection it can modify should construct its own TransverseMercator.  Being
+     * immutable, the shared projection is safe to use from many threads at once.
+     *
+     * @param ellip   Ellipsoid data model for earth
+     * @param lonZone UTM Longitudinal Zone (1 to 60)
+     * @param latBand UTM latitude band character ('C' to 'X", not including 'I' or 'O')
+     * @return shared, unmodifiable TransverseMercator projection for the UTM cell
+     * @throws NullPointerException     if ellip is null
+     * @throws IllegalArgumentException error if the lon zone is invalid
+     */
+    @NonNull
+    public static TransverseMercator getProjection(Ellipsoid ellip, int lonZone, char latBand) {
+        return getProjection(ellip, lonZone, latBand, true);
+    }
+
+    /*
+     * This method returns the shared projection for the given ellipsoid and UTM cell, with
+     * or without distortion warning exceptions.
+     */
+    static TransverseMercator getProjection(Ellipsoid ellip, int lonZone, char latBand,
+                                            boolean distortionException) {
+        validateLonZone(lonZone);
+        TransverseMercator[] projections = ellip.getUTMProjections();
+        int i = projectionIndex(lonZone, latBand);
+        return distortionException ? projections[i] : projections[PROJECTIONS + i];
+    }
+
     // Initialize min northings for lat bands
     // These tables are used to help assign and validate MGRS square identifiers for northings
     private static final Map<Character, Integer> MIN_NORTHINGS =
@@ -156,11 +243,6 @@ public class UTM implements Serializable {
         }
     }
 
-    private static final Longitude V31_CENTRAL_MERIDIAN = new Longitude(1.5, Angle.DEGREES);
-    private static final Longitude X31_CENTRAL_MERIDIAN = new Longitude(4.5, Angle.DEGREES);
-    private static final Longitude V32_CENTRAL_MERIDIAN = new Longitude(7.5, Angle.DEGREES);
-    private static final Longitude X37_CENTRAL_MERIDIAN = new Longitude(37.5, Angle.DEGREES);
-
     private static final int V31_MAX_NORTHING = (int) Math.round(
             new UTM(new Longitude(0.0, Angle.DEGREES), new Latitude(63, 59, 59.99)).getNorthing());
     private static final int V32_MAX_NORTHING = (int) Math.round(
@@ -268,7 +350,7 @@ public class UTM implements Serializable {
      */
     public static char getLatBand(double latDeg) {
         // validate that latitude is within proper range (allow half degree overlap with UPS)
-        if ((latDeg < -80.5) || (84.5 < latDeg))
+        if (!isLatBandLatitude(latDeg))
             throw new IllegalArgumentException("Latitude value '" + latDeg +
                     "' is out of legal range (-80 deg to 84 deg) for UTM");
 
@@ -373,6 +455,14 @@ public class UTM implements Serializable {
         return (latBand < 'N') ? 'S' : 'N';
     }
 
+    /*
+     * This method tests whether a latitude (in decimal degrees) is within the range of
+     * getLatBand, which allows a half degree overlap with UPS.
+     */
+    static boolean isLatBandLatitude(double latDeg) {
+        return !((latDeg < -80.5) || (84.5 < latDeg));
+    }
+
     /**
      * This method tests longitudinal zone to see if it is valid (by itself).
      *
@@ -380,7 +470,7 @@ public class UTM implements Serializable {
      * @throws IllegalArgumentException error if UTM Longitudinal Zone is invalid
      */
     public static void validateLonZone(int lonZone) {
-        if ((lonZone < 1) || (60 < lonZone))
+        if (!isValidLonZone(lonZone))
             throw new IllegalArgumentException("UTM longitudinal zone '" + lonZone +
                     "' is outside of valid range (1 to 60)");
     }
@@ -392,7 +482,7 @@ public class UTM implements Serializable {
      * @throws IllegalArgumentException error if UTM Latitudinal Band is invalid
      */
     public static void validateLatBand(char latBand) {
-        if ((latBand < 'C') || ('X' < latBand) || (latBand == 'I') || (latBand == 'O'))
+        if (!isValidLatBand(latBand))
             throw new IllegalArgumentException("UTM latitudinal band '" + latBand +
                     "' is not valid");
     }
@@ -409,18 +499,54 @@ public class UTM implements Serializable {
             throws IllegalArgumentException {
         validateLonZone(lonZone);
         validateLatBand(latBand);
-        if ((latBand == 'X') && ((lonZone == 32) || (lonZone == 34) || (lonZone == 36)))
+        if (!isValidZoneAndBand(lonZone, latBand))
             throw new IllegalArgumentException("Invalid longitude zone '" +
                     lonZone + "' in latitude band 'X'");
     }
 
+    /**
+     * This method tests longitudinal zone to see if it is valid (by itself), like
+     * validateLonZone, but returns false instead of throwing an exception.
+     *
+     * @param lonZone UTM Longitudinal Zone (1 to 60)
+     * @return true if the UTM Longitudinal Zone is valid
+     */
+    public static boolean isValidLonZone(int lonZone) {
+        return (1 <= lonZone) && (lonZone <= 60);
+    }
+
+    /**
+     * This method tests latitudinal band to see if it is valid (by itself), like
+     * validateLatBand, but returns false instead of throwing an exception.
+     *
+     * @param latBand UTM Latitudinal Band ('C' to 'X', but not 'I' or 'O')
+     * @return true if the UTM Latitudinal Band is valid
+     */
+    public static boolean isValidLatBand(char latBand) {
+        return ('C' <= latBand) && (latBand <= 'X') && (latBand != 'I') && (latBand != 'O');
+    }
+
+    /**
+     * This method tests longitudinal zone and latitudinal band to see if they are valid
+     * and consistent together, like validateZoneAndBand, but returns false instead of
+     * throwing an exception.
+     *
+     * @param lonZone UTM Longitudinal Zone (1 to 60)
+     * @param latBand UTM Latitudinal Band ('C' to 'X', but not 'I' or 'O')
+     * @return true if the Zone and Band combination is valid
+     */
+    public static boolean isValidZoneAndBand(int lonZone, char latBand) {
+        return isValidLonZone(lonZone) && isValidLatBand(latBand) &&
+                !((latBand == 'X') && ((lonZone == 32) || (lonZone == 34) || (lonZone == 36)));
+    }
+
     /*
      * This method tests hemisphere character to see if it is valid (by itself).
      *
      * @param hemisphere UTM Hemisphere character ('N' for North, 'S' for South)
      * @throws IllegalArgumentException error if hemisphere character is invalid
      */
-    private static void validateHemisphere(char hemisphere) {
+    static void validateHemisphere(char hemisphere) {
         if ((hemisphere != 'N') && (hemisphere != 'S'))
             throw new IllegalArgumentException("Invalid hemisphere '" +
                     hemisphere + "', should be 'N' or 'S'");
@@ -432,29 +558,45 @@ public class UTM implements Serializable {
      * @param easting UTM Easting value in meters
      * @throws IllegalArgumentException error if easting value is out of range
      */
-    private static void validateEasting(double easting) {
-        if ((easting < MIN_EASTING) || (MAX_EASTING < easting))
+    static void validateEasting(double easting) {
+        if (!isValidEasting(easting))
             throw new IllegalArgumentException("Easting value '" + easting +
                     "' is outside of valid range (100,000 to 900,000 meters)");
     }
 
+    /*
+     * This method tests whether an easting value is within the range accepted by
+     * validateEasting, without throwing an exception.
+     */
+    static boolean isValidEasting(double easting) {
+        return !((easting < MIN_EASTING) || (MAX_EASTING < easting));
+    }
+
     /*
      * This method tests northing value to see if it is within allowed positive numerical range.
      *
      * @param northing UTM Northing value in meters
      * @throws IllegalArgumentException error if northing value is out of range
      */
-    private static void validateNorthing(double northing) {
-        if ((northing < MIN_NORTHING) || (MAX_NORTHING < northing))
+    static void validateNorthing(double northing) {
+        if (!isValidNorthing(northing))
             throw new IllegalArgumentException("Northing value '" + northing +
                     "' is outside of valid range (0 to 10,000,000 meters)");
     }
 
+    /*
+     * This method tests whether a northing value is within the range accepted by
+     * validateNorthing, without throwing an exception.
+     */
+    static boolean isValidNorthing(double northing) {
+        return !((northing < MIN_NORTHING) || (MAX_NORTHING < northing));
+    }
+
     // *************************** End of Static Definitions ********************************
 
     // Instance Variables
     @NonNull
-    private final TransverseMercator tm;  // Transverse Mercator projection object (keeper of ellipsoid)
+    private Ellipsoid ellipsoid;          // Ellipsoid earth model (selects the shared projections)
     private int lonZone;            // UTM Longitudinal Zone number (1 to 60)
     private char latBand;           // UTM Lat Band char('C' to 'X', not including 'I' or 'O')
     private char hemisphere;        // Hemisphere char ('N' for Northern, 'S' for Southern)
@@ -474,10 +616,8 @@ public class UTM implements Serializable {
      * @throws NullPointerException if ellip or lonLat are null
      */
     public UTM(Ellipsoid ellip, Geodetic2DPoint lonLat) {
-        tm = new TransverseMercator(true);    // Distortion warning will cause exception
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
-        tm.setEllipsoid(ellip);
+        if (ellip == null) throw new NullPointerException();
+        ellipsoid = ellip;
         this.lonLat = lonLat;
         fromGeodetic();
     }
@@ -493,10 +633,8 @@ public class UTM implements Serializable {
      * @throws NullPointerException if ellip is null
      */
     public UTM(Ellipsoid ellip, Longitude lon, Latitude lat) {
-        tm = new TransverseMercator(true);    // Distortion warning will cause exception
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
-        tm.setEllipsoid(ellip);
+        if (ellip == null) throw new NullPointerException();
+        ellipsoid = ellip;
         lonLat = new Geodetic2DPoint(lon, lat);
         fromGeodetic();
     }
@@ -515,10 +653,8 @@ public class UTM implements Serializable {
      * @throws IllegalArgumentException input parameter error(s)
      */
     public UTM(Ellipsoid ellip, int lonZone, char hemisphere, double easting, double northing) {
-        tm = new TransverseMercator(true);    // Distortion warning will cause exception
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
-        tm.setEllipsoid(ellip);
+        if (ellip == null) throw new NullPointerException();
+        ellipsoid = ellip;
         this.lonZone = lonZone;
         this.hemisphere = hemisphere;
         this.easting = easting;
@@ -534,9 +670,7 @@ public class UTM implements Serializable {
      * @throws NullPointerException if lonLat is null
      */
     public UTM(Geodetic2DPoint lonLat) {
-        tm = new TransverseMercator(true);
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
+        ellipsoid = WGS84;
         this.lonLat = lonLat;
         fromGeodetic();
     }
@@ -550,9 +684,7 @@ public class UTM implements Serializable {
      * @throws NullPointerException if lat or lon are null
      */
     public UTM(Longitude lon, Latitude lat) {
-        tm = new TransverseMercator(true);    // Distortion warning will cause exception
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
+        ellipsoid = WGS84;
         lonLat = new Geodetic2DPoint(lon, lat);
         fromGeodetic();
     }
@@ -571,9 +703,7 @@ public class UTM implements Serializable {
      */
     public UTM(int lonZone, char hemisphere, double easting, double northing,
                boolean distortionException) {
-        tm = new TransverseMercator(distortionException);    // Distortion warning exception?
-        tm.setOriginLatitude(EQUATOR);
-        tm.setScaleFactor(SCALE);
+        ellipsoid = WGS84;
         this.lonZone = lonZone;
         this.hemisphere = hemisphere;
         this.easting = easting;
@@ -612,12 +742,11 @@ public class UTM implements Serializable {
         }
 
         // set nominal central meridian & adjust false values to regain signed offsets
-        Longitude cm = CENTRAL_MERIDIAN[lonZone];
+        TransverseMercator tm = getProjection(ellipsoid, lonZone, 'N', validate);
         double e = easting - FALSE_EASTING;
         double n = (hemisphere == 'S') ? northing - FALSE_NORTHING : northing;
 
         // Un-project to geodetic coordinates, assume no special zone override necessary
-        tm.setCentralMeridian(cm);
         lonLat = tm.toGeodetic(e, n);
 
         // Determine lat band and validate cell combo
@@ -632,12 +761,31 @@ public class UTM implements Serializable {
             // Use the un-projected northing latitude band to determine special case
             // lon zone CM values. Un-project again if central meridian has changed due
             // to special zones
-            Longitude ocm = getCentralMeridian(lonZone, latBand);
-            if (ocm != cm) {
-                tm.setCentralMeridian(ocm);
-                lonLat = tm.toGeodetic(e, n);
-            }
+            TransverseMercator otm = getProjection(ellipsoid, lonZone, latBand, validate);
+            if (otm != tm) lonLat = otm.toGeodetic(e, n);
+        }
+    }
+
+    /*
+     * UTM objects serialized before the projections were shared hold their ellipsoid in a
+     * TransverseMercator field named tm, so take it from there when it is in the stream
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        ObjectStreamClass desc = fields.getObjectStreamClass();
+        if (desc.getField("tm") != null) {
+            TransverseMercator tm = (TransverseMercator) fields.get("tm", null);
+            ellipsoid = (tm != null) ? tm.getEllipsoid() : null;
+        } else {
+            ellipsoid = (Ellipsoid) fields.get("ellipsoid", null);
         }
+        if (ellipsoid == null) ellipsoid = WGS84;
+        lonZone = fields.get("lonZone", 0);
+        latBand = fields.get("latBand", '\0');
+        hemisphere = fields.get("hemisphere", '\0');
+        easting = fields.get("easting", 0.0);
+        northing = fields.get("northing", 0.0);
+        lonLat = (Geodetic2DPoint) fields.get("lonLat", null);
     }
 
     /*
@@ -652,11 +800,11 @@ public class UTM implements Serializable {
 
         hemisphere = getHemisphere(latBand);
 
-        tm.setCentralMeridian(getCentralMeridian(lonZone, latBand));
-        Topocentric2DPoint en = tm.toTransverseMercator(lon, lat);
+        double[] en = new double[2];
+        getProjection(ellipsoid, lonZone, latBand).toTransverseMercator(lon.inRadians, lat.inRadians, en);
 
-        easting = en.getEasting() + FALSE_EASTING;
-        double n = en.getNorthing();
+        easting = en[0] + FALSE_EASTING;
+        double n = en[1];
         // Correct northing for latitudes barely south of the equator
         if ((n < 0.0) && (hemisphere == 'N')) n = 0.0;
         northing = (n < 0.0) ? n + FALSE_NORTHING : n;
@@ -669,7 +817,7 @@ public class UTM implements Serializable {
      * @return the currently set Ellipsoid earth model being used by this UTM object
      */
     public Ellipsoid getEllipsoid() {
-        return tm.getEllipsoid();
+        return ellipsoid;
     }
 
     /**
@@ -765,18 +913,12 @@ public class UTM implements Serializable {
         if (lonZone != utm.lonZone) return false;
         if (Double.compare(utm.northing, northing) != 0) return false;
         if (!lonLat.equals(utm.lonLat)) return false;
-        // TODO: following fails since TransverseMercator does not implement Object.equals(Object) so skip it
-        // if (tm != null ? !tm.equals(utm.tm) : utm.tm != null) return false;
         return true;
     }
 
     @Override
     public int hashCode() {
-        // int result;
         long temp;
-        // TODO: following fails since TransverseMercator does not implement Object.hashCode() so skip it
-        //result = tm != null ? tm.hashCode() : 0;
-        // result = 31 * result + lonZone;
         int result = lonZone;
         result = 31 * result + (int) latBand;
         result = 31 * result + (int) hemisphere;
@@ -0,0 +1,336 @@
+/****************************************************************************************
+ *  UTMConverter.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The UTMConverter class is a reusable engine for converting between geodetic coordinates
+ * and Universal Transverse Mercator (UTM) coordinates using primitive values only. Unlike
+ * the UTM class, which creates several Angle objects and a point for every coordinate, a
+ * UTMConverter creates nothing after construction (it projects with the shared instances
+ * from UTM.getProjection): each call to fromGeodetic or toGeodetic overwrites the results
+ * of the previous call, which are then read back with the accessor methods. The
+ * conversions follow exactly the same rules as the UTM class (including the Norway and
+ * Svalbard special zones), and throw the same IllegalArgumentExceptions for invalid
+ * input.<p/>
+ *
+ * A UTMConverter holds the results of the last conversion, so an instance should not be
+ * shared between threads without synchronization; give each thread its own instance.
+ */
+public class UTMConverter {
+
+    // Instance Variables
+    @NonNull private final Ellipsoid ellipsoid;     // Ellipsoid earth model (selects the shared projections)
+    private final double[] result = new double[2];  // Scratch space for projection results
+
+    private int lonZone;            // UTM Longitudinal Zone number (1 to 60)
+    private char latBand;           // UTM Lat Band char('C' to 'X', not including 'I' or 'O')
+    private char hemisphere;        // Hemisphere char ('N' for Northern, 'S' for Southern)
+    private double easting;         // meters E of false easting origin (relative to lonZone's CM)
+    private double northing;        // meters N of false northing origin (equator for 'N' hemisphere)
+    private double lonRad;          // longitude in radians
+    private double latRad;          // latitude in radians
+
+    /**
+     * This constructor takes an ellipsoid.  If WGS 84 is desired, instead use the
+     * constructor without the ellipsoid parameter, since WGS 84 is the default.
+     *
+     * @param ellip Ellipsoid data model for earth
+     * @throws NullPointerException if ellip is null
+     */
+    public UTMConverter(Ellipsoid ellip) {
+        if (ellip == null) throw new NullPointerException();
+        ellipsoid = ellip;
+    }
+
+    /**
+     * This constructor assumes the WGS 84 Ellipsoid.
+     */
+    public UTMConverter() {
+        this(Ellipsoid.getInstance("WGS 84"));
+    }
+
+    /**
+     * This method is used to get the Ellipsoid earth model used for projections.
+     *
+     * @return the Ellipsoid earth model being used by this UTMConverter
+     */
+    @NonNull
+    public Ellipsoid getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * This method converts a geodetic point, given in decimal degrees, to its UTM
+     * equivalent. The lon zone, lat band, hemisphere, easting and northing are then
+     * available from the accessor methods.
+     *
+     * @param lonDeg longitude of the point to convert, in decimal degrees
+     * @param latDeg latitude of the point to convert, in decimal degrees
+     * @throws IllegalArgumentException error if the point is outside of the UTM domain
+     */
+    public void fromGeodetic(double lonDeg, double latDeg) {
+        convert(lonDeg, latDeg, Angle.normalize(Math.toRadians(lonDeg)), Math.toRadians(latDeg));
+    }
+
+    /**
+     * This method converts every point of a GeodeticPointBuffer to its UTM equivalent,
+     * storing the results for point i at index i of each output array.  The results are
+     * identical to those of UTM objects made from the same points.  Points outside of the
+     * UTM domain do not stop the conversion: their lon zone is set to 0, their lat band to
+     * the blank character and their easting and northing to NaN.  After this call the
+     * accessor methods return the results of the last valid point converted.
+     *
+     * @param points    geodetic points to convert (elevations are ignored)
+     * @param lonZones  array to receive the UTM longitudinal zones
+     * @param latBands  array to receive the UTM latitudinal bands
+     * @param eastings  array to receive the UTM eastings
+     * @param northings array to receive the UTM northings
+     * @return number of points successfully converted
+     * @throws IllegalArgumentException if an output array is shorter than points.size()
+     * @throws NullPointerException if points or an output array is null
+     */
+    public int fromGeodetic(GeodeticPointBuffer points, int[] lonZones, char[] latBands,
+                            double[] eastings, double[] northings) {
+        int n = points.size();
+        if (lonZones.length < n || latBands.length < n || eastings.length < n || northings.length < n)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + n + ")");
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double latDeg = Math.toDegrees(lat[i]);
+            if ((latDeg < -80.5) || (84.5 < latDeg)) {
+                // Outside of the UTM domain (see UTM.getLatBand)
+                lonZones[i] = 0;
+                latBands[i] = ' ';
+                eastings[i] = Double.NaN;
+                northings[i] = Double.NaN;
+                continue;
+            }
+            convert(Math.toDegrees(lon[i]), latDeg, lon[i], lat[i]);
+            lonZones[i] = lonZone;
+            latBands[i] = latBand;
+            eastings[i] = easting;
+            northings[i] = northing;
+            count++;
+        }
+        return count;
+    }
+
+    /* Convert a geodetic point given in both degrees (for the zone and band) and radians */
+    void convert(double lonDeg, double latDeg, double lon, double lat) {
+        char band = UTM.getLatBand(latDeg);
+        int zone = UTM.getLonZone(lonDeg, band);
+        char hemi = UTM.getHemisphere(band);
+
+        UTM.getProjection(ellipsoid, zone, band).toTransverseMercator(lon, lat, result);
+
+        double n = result[1];
+        // Correct northing for latitudes barely south of the equator
+        if ((n < 0.0) && (hemi == 'N')) n = 0.0;
+
+        this.lonZone = zone;
+        this.latBand = band;
+        this.hemisphere = hemi;
+        this.easting = result[0] + UTM.FALSE_EASTING;
+        this.northing = (n < 0.0) ? n + UTM.FALSE_NORTHING : n;
+        this.lonRad = lon;
+        this.latRad = lat;
+    }
+
+    /**
+     * This method converts UTM coordinates to their geodetic equivalent. The longitude,
+     * latitude and lat band are then available from the accessor methods.
+     *
+     * @param lonZone    UTM longitudinal zone (1 to 60)
+     * @param hemisphere character 'N' for Northern or 'S' for Southern hemisphere
+     * @param easting    positive meters east of false adjusted central meridian for lonZone
+     * @param northing   positive meters north of false adjusted origin (equator for 'N' hemisphere)
+     * @throws IllegalArgumentException input parameter error(s)
+     */
+    public void toGeodetic(int lonZone, char hemisphere, double easting, double northing) {
+        // Validate input parameters
+        UTM.validateLonZone(lonZone);
+        UTM.validateHemisphere(hemisphere);
+        UTM.validateEasting(easting);
+        UTM.validateNorthing(northing);
+        toGeodetic(lonZone, hemisphere, easting, northing, true);
+    }
+
+    /*
+     * This method converts UTM coordinates with a valid lonZone and hemisphere, and
+     * easting and northing within the UTM ranges, to their geodetic equivalent like
+     * toGeodetic, but returns false instead of throwing an exception when the point
+     * cannot be un-projected (the accessor values are then undefined).
+     */
+    boolean tryToGeodetic(int lonZone, char hemisphere, double easting, double northing) {
+        return toGeodetic(lonZone, hemisphere, easting, northing, false);
+    }
+
+    /* Un-project validated UTM coordinates, throwing an exception (if raise) or returning false */
+    private boolean toGeodetic(int lonZone, char hemisphere, double easting, double northing,
+                               boolean raise) {
+        // set nominal central meridian & adjust false values to regain signed offsets
+        TransverseMercator tm = UTM.getProjection(ellipsoid, lonZone, 'N');
+        double e = easting - UTM.FALSE_EASTING;
+        double n = (hemisphere == 'S') ? northing - UTM.FALSE_NORTHING : northing;
+
+        // Un-project to geodetic coordinates, assume no special zone override necessary
+        if (raise) tm.toGeodetic(e, n, result);
+        else if (!tm.tryToGeodetic(e, n, result)) return false;
+
+        // Determine lat band and validate cell combo
+        double latDeg = Math.toDegrees(result[1]);
+        if (!raise && !UTM.isLatBandLatitude(latDeg)) return false;
+        char band = UTM.getLatBand(latDeg);
+        if (!raise && !UTM.isValidZoneAndBand(lonZone, band)) return false;
+        UTM.validateZoneAndBand(lonZone, band);
+
+        // Un-project again if central meridian has changed due to special zones
+        if (hemisphere == 'N') {
+            TransverseMercator otm = UTM.getProjection(ellipsoid, lonZone, band);
+            if (otm != tm) {
+                if (raise) otm.toGeodetic(e, n, result);
+                else if (!otm.tryToGeodetic(e, n, result)) return false;
+            }
+        }
+
+        this.lonZone = lonZone;
+        this.latBand = band;
+        this.hemisphere = hemisphere;
+        this.easting = easting;
+        this.northing = northing;
+        this.lonRad = result[0];
+        this.latRad = result[1];
+        return true;
+    }
+
+    /**
+     * This method converts arrays of UTM coordinates to their geodetic equivalents,
+     * storing them in a GeodeticPointBuffer, whose size is set to the length of the
+     * eastings array (elevations are set to 0).  The results are identical to those of
+     * UTM objects made from the same coordinates.  After this call the accessor methods
+     * return the results of the last point converted.
+     *
+     * @param lonZones    UTM longitudinal zones (1 to 60)
+     * @param hemispheres characters 'N' for Northern or 'S' for Southern hemisphere
+     * @param eastings    positive meters east of false adjusted central meridian for each lonZone
+     * @param northings   positive meters north of false adjusted origin (equator for 'N' hemisphere)
+     * @param points      buffer to receive the geodetic points
+     * @throws IllegalArgumentException if an input array is shorter than eastings, or
+     *                                  for input parameter error(s) (the points before the
+     *                                  one in error are converted)
+     * @throws NullPointerException if an array or points is null
+     */
+    public void toGeodetic(int[] lonZones, char[] hemispheres, double[] eastings, double[] northings,
+                           GeodeticPointBuffer points) {
+        int n = eastings.length;
+        if (lonZones.length < n || hemispheres.length < n || northings.length < n)
+            throw new IllegalArgumentException("Array length is less than the number of points (" + n + ")");
+        points.setSize(n);
+        double[] lon = points.getLongitudes();
+        double[] lat = points.getLatitudes();
+        double[] elev = points.getElevations();
+        for (int i = 0; i < n; i++) {
+            toGeodetic(lonZones[i], hemispheres[i], eastings[i], northings[i]);
+            lon[i] = lonRad;
+            lat[i] = latRad;
+            elev[i] = 0.0;
+        }
+    }
+
+    /**
+     * This accessor method returns the UTM longitudinal zone of the last conversion.
+     *
+     * @return UTM longitudinal zone (1 to 60)
+     */
+    public int getLonZone() {
+        return lonZone;
+    }
+
+    /**
+     * This accessor method returns the UTM latitudinal band of the last conversion.
+     *
+     * @return UTM latitudinal band ('C' to 'X', not including 'I' or 'O')
+     */
+    public char getLatBand() {
+        return latBand;
+    }
+
+    /**
+     * This accessor method returns the hemisphere of the last conversion.
+     *
+     * @return hemisphere character ('N' for Northern, or 'S' for Southern)
+     */
+    public char getHemisphere() {
+        return hemisphere;
+    }
+
+    /**
+     * This accessor method returns the UTM easting of the last conversion.
+     *
+     * @return positive meters east of false adjusted central meridian for lonZone
+     */
+    public double getEasting() {
+        return easting;
+    }
+
+    /**
+     * This accessor method returns the UTM northing of the last conversion.
+     *
+     * @return positive meters north of false adjusted origin (equator for 'N' hemisphere)
+     */
+    public double getNorthing() {
+        return northing;
+    }
+
+    /**
+     * This accessor method returns the longitude of the last conversion in radians.
+     *
+     * @return longitude in radians, normalized to the range [-PI, PI)
+     */
+    public double getLongitudeInRadians() {
+        return lonRad;
+    }
+
+    /**
+     * This accessor method returns the latitude of the last conversion in radians.
+     *
+     * @return latitude in radians
+     */
+    public double getLatitudeInRadians() {
+        return latRad;
+    }
+
+    /**
+     * This accessor method returns the longitude of the last conversion in decimal degrees.
+     *
+     * @return longitude in decimal degrees, normalized to the range [-180, 180)
+     */
+    public double getLongitudeAsDegrees() {
+        return Math.toDegrees(lonRad);
+    }
+
+    /**
+     * This accessor method returns the latitude of the last conversion in decimal degrees.
+     *
+     * @return latitude in decimal degrees
+     */
+    public double getLatitudeAsDegrees() {
+        return Math.toDegrees(latRad);
+    }
+}
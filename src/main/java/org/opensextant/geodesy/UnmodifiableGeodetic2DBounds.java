@@ -36,8 +36,8 @@ public class UnmodifiableGeodetic2DBounds extends Geodetic2DBounds {
 	}
 
 	/*
-		Note: grow() throws UnsupportedOperationException only if appropriate include()
-	 	is called and the bounds are attempted to be modified...
+		Note: grow() throws UnsupportedOperationException because it updates the bounds
+	 	through the setter methods overridden below...
 	 */
 
 	public void include(Geodetic2DPoint newPoint) {
@@ -48,6 +48,10 @@ public class UnmodifiableGeodetic2DBounds extends Geodetic2DBounds {
 		throw new UnsupportedOperationException();
 	}
 
+	public void include(GeodeticPointBuffer points) {
+		throw new UnsupportedOperationException();
+	}
+
 	public void setWestLon(final Longitude westLon) {
 		throw new UnsupportedOperationException();
 	}
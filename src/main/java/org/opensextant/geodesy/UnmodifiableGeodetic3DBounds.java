@@ -36,8 +36,8 @@ public class UnmodifiableGeodetic3DBounds extends Geodetic3DBounds {
 	}
 
 	/*
-		Note: grow() throws UnsupportedOperationException only if appropriate include()
-	 	is called and the bounds are attempted to be modified...
+		Note: grow() throws UnsupportedOperationException because it updates the bounds
+	 	through the setter methods overridden below...
 	 */
 
 	public void include(Geodetic3DPoint newPoint) {
@@ -56,6 +56,10 @@ public class UnmodifiableGeodetic3DBounds extends Geodetic3DBounds {
 		throw new UnsupportedOperationException();
 	}
 
+	public void include(GeodeticPointBuffer points) {
+		throw new UnsupportedOperationException();
+	}
+
 	public void setWestLon(final Longitude westLon) {
 		throw new UnsupportedOperationException();
 	}
@@ -136,6 +136,33 @@ public class TestAngle {
 		Assert.assertFalse(r1.equals(r2));
 	}
 
+	@Test
+	public void testParse() {
+		String[][] cases = {
+				{"12.5", "12.5"}, {"-12.5 deg", "-12.5"}, {"12" + Angle.DEGSYM + " 30' 36\"", "12.51"},
+				{"12d 30m 36s", "12.51"}, {"12 DEG 30 MIN 36SEC", "12.51"}, {"37 25'12\"", "37.42"},
+				{"-0 30", "-0.5"}, {"-00 30", "0.5"}, {"0.5 r", "28.64788975654116"},
+				{"1 RADIANS", "57.29577951308232"}, {"-123:45:36", "-123.76"}, {"0.1234567890123456", "0.1234567890123456"}
+		};
+		for (String[] c : cases) {
+			double expected = Double.parseDouble(c[1]);
+			Assert.assertEquals(c[0], expected, new Angle(c[0]).inDegrees(), 1e-12);
+			Assert.assertEquals(c[0], expected, Angle.tryParse(c[0]).inDegrees(), 1e-12);
+		}
+		// Note that "RAD" is taken as degrees with a "D" suffix
+		String[] bad = {"", "12 RAD", "1.5 30", "12 30.5 10", "12 60", "12 30 10 5", "12 30 60", "12 N", "2000", "1 2 3 SEC"};
+		for (String s : bad) {
+			Assert.assertNull(s, Angle.tryParse(s));
+			try {
+				new Angle(s);
+				Assert.fail("Expected to throw IllegalArgumentException for " + s);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		Assert.assertNull(Angle.tryParse(null));
+	}
+
 	@Test
 	public void testDegreeSymbol() throws IOException {
 		InputStreamReader reader = null;
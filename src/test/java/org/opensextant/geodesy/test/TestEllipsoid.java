@@ -23,8 +23,12 @@ import junit.framework.TestCase;
 import junit.textui.TestRunner;
 
 import org.opensextant.geodesy.Ellipsoid;
+import org.opensextant.geodesy.Geodetic2DArc;
 import org.opensextant.geodesy.Geodetic2DPoint;
+import org.opensextant.geodesy.Latitude;
+import org.opensextant.geodesy.Longitude;
 
+import java.util.Random;
 import java.util.Set;
 
 public class TestEllipsoid extends TestCase {
@@ -74,6 +78,46 @@ public class TestEllipsoid extends TestCase {
         assertEquals(11646L, distInKm);
     }
 
+    /**
+     * This method checks the primitive distance methods against Geodetic2DArc, each within
+     * its documented accuracy.
+     */
+    public void testDistanceTiers() {
+        Ellipsoid ellip = Ellipsoid.getInstance("WGS 84");
+        Random r = new Random(2015L);
+        for (int i = 0; i < 5000; i++) {
+            double lon1 = (r.nextDouble() * 2.0 - 1.0) * Math.PI;
+            double lat1 = (r.nextDouble() * 2.0 - 1.0) * 1.5;
+            double lon2, lat2;
+            if (i % 2 == 0) {
+                // short arcs, from about a meter up to tens of kilometers
+                double d = Math.pow(10.0, -6.0 + r.nextDouble() * 4.0);
+                lon2 = lon1 + d * (r.nextDouble() - 0.5);
+                lat2 = lat1 + d * (r.nextDouble() - 0.5);
+            } else {
+                lon2 = (r.nextDouble() * 2.0 - 1.0) * Math.PI;
+                lat2 = (r.nextDouble() * 2.0 - 1.0) * 1.5;
+            }
+            Geodetic2DPoint p1 = new Geodetic2DPoint(new Longitude(lon1), new Latitude(lat1));
+            Geodetic2DPoint p2 = new Geodetic2DPoint(new Longitude(lon2), new Latitude(lat2));
+            double expected;
+            try {
+                expected = new Geodetic2DArc(ellip, p1, p2).getDistanceInMeters();
+            } catch (ArithmeticException ex) {
+                continue;   // nearly antipodal
+            }
+            lon1 = p1.getLongitude().inRadians();
+            lon2 = p2.getLongitude().inRadians();
+            assertEquals(expected, ellip.vincentyDistance(lon1, lat1, lon2, lat2));
+            assertEquals(expected, ellip.orthodromicDistance(p1, p2));
+            assertEquals(expected, ellip.haversineDistance(lon1, lat1, lon2, lat2), 0.006 * expected);
+            if (expected < 19000000.0)
+                assertEquals(expected, ellip.andoyerDistance(lon1, lat1, lon2, lat2), 0.00002 * expected + 1e-6);
+        }
+        assertEquals(0.0, ellip.andoyerDistance(1.0, 0.5, 1.0, 0.5));
+        assertEquals(0.0, ellip.haversineDistance(1.0, 0.5, 1.0, 0.5));
+    }
+
     /**
      * Main method for running class tests.
      *
@@ -45,6 +45,17 @@ public class TestGeoPoint extends TestCase {
         return new Geodetic2DPoint(lon, lat);
     }
 
+    /**
+     * This method is used to make a Geodetic2DPoint from decimal degrees.
+     *
+     * @param lonDeg longitude of the point, in decimal degrees
+     * @param latDeg latitude of the point, in decimal degrees
+     * @return Geodetic2DPoint at the given longitude and latitude
+     */
+    public static Geodetic2DPoint geodetic2DPoint(double lonDeg, double latDeg) {
+        return new Geodetic2DPoint(new Longitude(lonDeg, Angle.DEGREES), new Latitude(latDeg, Angle.DEGREES));
+    }
+
     public static Geodetic3DPoint randomGeodetic3DPoint(Random r) {
         Geodetic2DPoint pt = randomGeodetic2DPoint(r);
         double elev = r.nextInt(1000000);  // stress test at 1,000 km.
@@ -0,0 +1,95 @@
+/****************************************************************************************
+ *  TestGeocentricSolver.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.util.Random;
+
+public class TestGeocentricSolver {
+
+    private static final double[] ALTITUDES = {-1000.0, 0.0, 1000.0, 1e4, 1e5, 4e5, 1e6, 2e6, 3.6e7, 4e7};
+
+    /**
+     * Every solver must stay within its reported precision, from just below the surface
+     * out past geostationary orbit, including latitudes very close to the poles.
+     */
+    @Test
+    public void testPrecision() {
+        Ellipsoid ellip = Ellipsoid.getInstance("WGS 84");
+        double a = ellip.getEquatorialRadius();
+        double es = ellip.getEccentricitySquared();
+        double[] latElev = new double[2];
+        for (GeocentricSolver solver : GeocentricSolver.values()) {
+            Random r = new Random(99L);
+            for (double h : ALTITUDES) {
+                for (int i = 0; i < 2000; i++) {
+                    double phi = (i % 4 == 0)
+                            ? ((i % 8 == 0) ? 1.0 : -1.0) * (Math.PI / 2.0 - Math.pow(10.0, -2.0 - r.nextDouble() * 10.0))
+                            : (r.nextDouble() * 2.0 - 1.0) * Math.PI / 2.0;
+                    double sinPhi = Math.sin(phi);
+                    double n = a / Math.sqrt(1.0 - es * sinPhi * sinPhi);
+                    double p = (n + h) * Math.cos(phi);
+                    double z = ((n * (1.0 - es)) + h) * sinPhi;
+                    solver.solve(ellip, p, z, latElev);
+                    double err = Math.hypot((latElev[0] - phi) * (a + h), latElev[1] - h);
+                    Assert.assertTrue(solver + " error " + err + " at h=" + h + ", lat=" + phi,
+                            err <= solver.getPrecision());
+                }
+            }
+        }
+        // The accurate solvers are much better than the default at low earth orbit altitudes
+        Assert.assertTrue(GeocentricSolver.ITERATIVE.getPrecision() < GeocentricSolver.BOWRING.getPrecision());
+        Assert.assertTrue(GeocentricSolver.VERMEILLE.getPrecision() < GeocentricSolver.BOWRING.getPrecision());
+    }
+
+    @Test
+    public void testFrameOfReference() {
+        FrameOfReference f = new FrameOfReference();
+        Assert.assertEquals(GeocentricSolver.BOWRING, f.getGeocentricSolver());
+        Random r = new Random(7L);
+        int n = 100;
+        double[] x = new double[n], y = new double[n], z = new double[n];
+        double[] lon = new double[n], lat = new double[n], h = new double[n];
+        for (int i = 0; i < n; i++) {
+            Geodetic3DPoint pt = new Geodetic3DPoint(new Longitude(r.nextDouble() * 6.0 - 3.0),
+                    new Latitude(r.nextDouble() * 3.0 - 1.5), 300000.0 + r.nextDouble() * 1700000.0);
+            GeocentricPoint g = f.toGeocentric(pt);
+            x[i] = g.getX();
+            y[i] = g.getY();
+            z[i] = g.getZ();
+        }
+        for (GeocentricSolver solver : GeocentricSolver.values()) {
+            f.setGeocentricSolver(solver);
+            Assert.assertEquals(solver, f.getGeocentricSolver());
+            f.geocentricToGeodetic(x, y, z, lon, lat, h);
+            for (int i = 0; i < n; i++) {
+                Geodetic3DPoint pt = f.toGeodetic(new GeocentricPoint(x[i], y[i], z[i]));
+                Assert.assertEquals(pt.getLongitude().inRadians(), lon[i], 0.0);
+                Assert.assertEquals(pt.getLatitude().inRadians(), lat[i], 0.0);
+                Assert.assertEquals(pt.getElevation(), h[i], 0.0);
+            }
+        }
+        try {
+            f.setGeocentricSolver(null);
+            Assert.fail("Expected NullPointerException");
+        } catch (NullPointerException ex) {
+            // expected
+        }
+    }
+}
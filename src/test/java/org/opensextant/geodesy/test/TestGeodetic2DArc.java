@@ -2,11 +2,20 @@ package org.opensextant.geodesy.test;
 
 import junit.framework.TestCase;
 import org.opensextant.geodesy.Angle;
+import org.opensextant.geodesy.Ellipsoid;
+import org.opensextant.geodesy.GeodesicConstants;
+import org.opensextant.geodesy.GeodesicSolver;
 import org.opensextant.geodesy.Geodetic2DArc;
 import org.opensextant.geodesy.Geodetic2DPoint;
+import org.opensextant.geodesy.KarneyGeodesic;
 import org.opensextant.geodesy.Latitude;
 import org.opensextant.geodesy.Longitude;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 /**
  * Simple tests for Geodetic2DArc
  * @author Jason Mathews, MITRE Corp.
@@ -61,4 +70,77 @@ public class TestGeodetic2DArc extends TestCase {
 		assertFalse(arc.equals(other));
 	}
 
+	public void testSharedConstants() throws Exception {
+		Ellipsoid wgs84 = Ellipsoid.getInstance("WGS 84");
+		GeodesicConstants gc = wgs84.getGeodesicConstants();
+		assertSame(gc, wgs84.getGeodesicConstants());
+		assertSame(wgs84, gc.getEllipsoid());
+		assertNotSame(gc, Ellipsoid.getInstance("Clarke 1866").getGeodesicConstants());
+		assertTrue(gc.getMaxOrthodromicDistance() > 19990000.0 && gc.getMaxOrthodromicDistance() < 20010000.0);
+
+		// A deserialized arc gets its constants back and keeps working
+		Geodetic2DPoint west = new Geodetic2DPoint(new Longitude(30, Angle.DEGREES),
+				new Latitude(30, Angle.DEGREES));
+		Geodetic2DPoint east = new Geodetic2DPoint(new Longitude(31, Angle.DEGREES),
+				new Latitude(31, Angle.DEGREES));
+		Geodetic2DArc arc = new Geodetic2DArc(west, east);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(arc);
+		oos.close();
+		Geodetic2DArc copy = (Geodetic2DArc) new ObjectInputStream(
+				new ByteArrayInputStream(bos.toByteArray())).readObject();
+		assertEquals(arc, copy);
+		copy.setDistanceInMeters(arc.getDistanceInMeters());
+		assertEquals(east, copy.getPoint2());
+	}
+
+	public void testKarneySolver() {
+		Geodetic2DPoint jfk = new Geodetic2DPoint(new Longitude(-73.8, Angle.DEGREES),
+				new Latitude(40.6, Angle.DEGREES));
+		Geodetic2DPoint cdg = new Geodetic2DPoint(new Longitude(2.55, Angle.DEGREES),
+				new Latitude(49.01666667, Angle.DEGREES));
+		Ellipsoid wgs84 = Ellipsoid.getInstance("WGS 84");
+		Geodetic2DArc vincenty = new Geodetic2DArc(wgs84, jfk, cdg);
+		Geodetic2DArc karney = new Geodetic2DArc(wgs84, GeodesicSolver.KARNEY, jfk, cdg);
+		assertEquals(GeodesicSolver.VINCENTY, vincenty.getGeodesicSolver());
+		assertEquals(GeodesicSolver.KARNEY, karney.getGeodesicSolver());
+		assertEquals(5853226.2556, karney.getDistanceInMeters(), 1e-3);
+		assertEquals(vincenty.getDistanceInMeters(), karney.getDistanceInMeters(), 1e-4);
+		assertEquals(53.47021824, karney.getForwardAzimuth().inDegrees(), 1e-7);
+
+		// Direct solution gets back to the same point
+		Geodetic2DArc back = new Geodetic2DArc(wgs84, GeodesicSolver.KARNEY, jfk,
+				karney.getDistanceInMeters(), karney.getForwardAzimuth());
+		assertEquals(cdg.getLongitude().inDegrees(), back.getPoint2().getLongitude().inDegrees(), 1e-9);
+		assertEquals(cdg.getLatitude().inDegrees(), back.getPoint2().getLatitude().inDegrees(), 1e-9);
+
+		// Nearly antipodal points converge (value from GeographicLib)
+		KarneyGeodesic kg = wgs84.getKarneyGeodesic();
+		assertSame(kg, wgs84.getKarneyGeodesic());
+		double[] azimuths = new double[2];
+		assertEquals(19936288.579, kg.inverse(0.0, 0.0, Math.toRadians(179.5), Math.toRadians(0.5),
+				azimuths), 1e-3);
+		assertEquals(20003931.4586, wgs84.karneyDistance(0.0, 0.0, Math.PI, 0.0), 1e-3);
+
+		// Waypoints are equally spaced along the geodesic
+		double[] lon = new double[9];
+		double[] lat = new double[9];
+		double total = wgs84.karneyDistance(jfk.getLongitude().inRadians(), jfk.getLatitude().inRadians(),
+				cdg.getLongitude().inRadians(), cdg.getLatitude().inRadians());
+		double step = kg.waypoints(jfk.getLongitude().inRadians(), jfk.getLatitude().inRadians(),
+				cdg.getLongitude().inRadians(), cdg.getLatitude().inRadians(), lon, lat);
+		assertEquals(total / 8, step, 1e-6);
+		for (int i = 0; i < 8; i++) {
+			assertEquals(step, kg.inverse(lon[i], lat[i], lon[i + 1], lat[i + 1], null), 1e-6);
+		}
+		assertEquals(cdg.getLatitude().inRadians(), lat[8], 0.0);
+		try {
+			kg.waypoints(0.0, 0.0, 1.0, 1.0, new double[1], new double[1]);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
 }
@@ -24,6 +24,10 @@ import junit.textui.TestRunner;
 
 import org.opensextant.geodesy.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Random;
 
 public class TestGeodetic2DBounds extends TestCase {
@@ -87,8 +91,125 @@ public class TestGeodetic2DBounds extends TestCase {
 		double radius = 1 + 1.0 * r.nextInt(1000000);      // stress test at 1,000 km.
 		// note if center point near the poles then # points generating circle make big difference
 		Geodetic2DBounds bbox = new Geodetic2DBounds(pt, radius, 4);
-		Geodetic2DBounds bbox2 = new Geodetic2DBounds(new Geodetic2DCircle(pt, radius)); // uses default nPoints = 4
-		assertEquals(bbox, bbox2);
+		Geodetic2DBounds bbox2 = new Geodetic2DBounds(new Geodetic2DCircle(pt, radius)); // computed analytically
+		assertTrue(bbox2.contains(bbox));
+		assertEquals(new Geodetic2DBounds(pt, radius), bbox2);
+		assertTight(bbox2, new Geodetic2DCircle(pt, radius).boundary(720));
+	}
+
+	/**
+	 * This method tests that the analytic circle and ellipse bounds contain every point of
+	 * their densely sampled boundaries, for sizes from a meter to 10,000 km, and for
+	 * ellipses that pass close to a pole
+	 */
+	public void testAnalyticBoundsContainBoundary() {
+		for (int i = 0; i < 200; i++) {
+			Geodetic2DPoint pt = TestGeoPoint.randomGeodetic2DPoint(r);
+			double a = Math.pow(10.0, 7.0 * r.nextDouble());
+			if (i % 2 == 0) {
+				Geodetic2DCircle circle = new Geodetic2DCircle(pt, a);
+				assertContains(new Geodetic2DBounds(circle), circle.boundary(3600));
+			} else {
+				Geodetic2DEllipse ellipse = new Geodetic2DEllipse(pt, a, a * r.nextDouble(),
+						new Angle(360.0 * r.nextDouble(), Angle.DEGREES));
+				assertContains(new Geodetic2DBounds(ellipse), ellipse.boundary(3600));
+			}
+		}
+		// Semi major axes pointing at a pole, passing it by 1% to 30% of their length
+		for (int i = 0; i < 40; i++) {
+			double a = Math.pow(10.0, 3.0 + 3.0 * r.nextDouble());
+			double gap = a * Math.pow(10.0, -2.0 + 1.5 * r.nextDouble());
+			double lat = 90.0 - Math.toDegrees((a + gap) / 6356752.0);
+			Geodetic2DPoint pt = new Geodetic2DPoint(new Longitude(360.0 * r.nextDouble() - 180.0, Angle.DEGREES),
+					new Latitude(i % 2 == 0 ? lat : -lat, Angle.DEGREES));
+			Geodetic2DEllipse ellipse = new Geodetic2DEllipse(pt, a, a * (0.05 + 0.9 * r.nextDouble()),
+					new Angle(3.0 * r.nextGaussian(), Angle.DEGREES));
+			assertContains(new Geodetic2DBounds(ellipse), ellipse.boundary(3600));
+		}
+	}
+
+	private static void assertContains(Geodetic2DBounds bbox, Iterable<Geodetic2DPoint> points) {
+		for (Geodetic2DPoint p : points) {
+			assertTrue(bbox + " " + p, bbox.contains(p));
+		}
+	}
+
+	/**
+	 * This method tests the analytic circle and ellipse bounds against points sampled
+	 * densely on their boundaries, including pole-containing and date line cases
+	 */
+	public void testAnalyticBounds() {
+		// Circle around the North Pole spans all longitudes
+		Geodetic2DPoint pt = new Geodetic2DPoint(new Longitude(30, 0, 0), new Latitude(89, 0, 0));
+		Geodetic2DBounds bbox = new Geodetic2DBounds(pt, 200000.0);
+		assertEquals(90.0, bbox.getNorthLat().inDegrees(), 0.0);
+		assertEquals(-180.0, bbox.getWestLon().inDegrees(), 0.0);
+		assertEquals(180.0, bbox.getEastLon().inDegrees(), 1e-9);
+		assertTrue(bbox.contains(new Geodetic2DPoint(new Longitude(-150, 0, 0), new Latitude(89, 30, 0))));
+		assertTight(bbox, new Geodetic2DCircle(pt, 200000.0).boundary(720));
+
+		// The 4 point sampled bounds miss that pole
+		Geodetic2DBounds sampled = new Geodetic2DBounds(pt, 200000.0, 4);
+		assertTrue(sampled.getNorthLat().inDegrees() < 89.9);
+
+		// Circle just short of the pole does not span all longitudes
+		bbox = new Geodetic2DBounds(pt, 100000.0);
+		assertTrue(bbox.getNorthLat().inDegrees() < 90.0);
+		assertTrue(bbox.getWestLon().inDegrees() > -180.0);
+		assertTight(bbox, new Geodetic2DCircle(pt, 100000.0).boundary(720));
+
+		// Ellipse across the date line
+		pt = new Geodetic2DPoint(new Longitude(-179.5, Angle.DEGREES), new Latitude(-20.0, Angle.DEGREES));
+		Geodetic2DEllipse ellipse = new Geodetic2DEllipse(pt, 300000.0, 100000.0, new Angle(60.0, Angle.DEGREES));
+		bbox = new Geodetic2DBounds(ellipse);
+		assertTrue(bbox.getWestLon().inDegrees() > bbox.getEastLon().inDegrees());
+		assertTight(bbox, ellipse.boundary(720));
+
+		// Ellipse around the South Pole, and random ones
+		pt = new Geodetic2DPoint(new Longitude(100, 0, 0), new Latitude(-88, 0, 0));
+		ellipse = new Geodetic2DEllipse(pt, 400000.0, 50000.0, new Angle(0.0, Angle.DEGREES));
+		bbox = new Geodetic2DBounds(ellipse);
+		assertEquals(-90.0, bbox.getSouthLat().inDegrees(), 0.0);
+		assertEquals(-180.0, bbox.getWestLon().inDegrees(), 0.0);
+		assertEquals(180.0, bbox.getEastLon().inDegrees(), 1e-9);
+		assertTight(bbox, ellipse.boundary(720));
+		for (int i = 0; i < 100; i++) {
+			pt = TestGeoPoint.randomGeodetic2DPoint(r);
+			double a = 1 + 1.0 * r.nextInt(1000000);
+			ellipse = new Geodetic2DEllipse(pt, a, a * r.nextDouble(),
+					new Angle(360.0 * r.nextDouble(), Angle.DEGREES));
+			assertTight(ellipse.toString(), new Geodetic2DBounds(ellipse), ellipse.boundary(720));
+		}
+	}
+
+	private static void assertTight(Geodetic2DBounds bbox, Iterable<Geodetic2DPoint> points) {
+		assertTight(bbox.toString(), bbox, points);
+	}
+
+	/*
+	 * Assert that the bounds contain the points, and that they are no larger than the
+	 * bounds of the points plus 1/1000 of their size (and the millimeter margin), unless
+	 * they reach a pole (where the sampled points can fall well short)
+	 */
+	private static void assertTight(String message, Geodetic2DBounds bbox, Iterable<Geodetic2DPoint> points) {
+		final double margin = 1e-9;     // radians of latitude, well over a millimeter
+		Geodetic2DBounds sampled = null;
+		for (Geodetic2DPoint p : points) {
+			if (sampled == null) sampled = new Geodetic2DBounds(p);
+			else sampled.include(p);
+			assertTrue(message, bbox.contains(p));
+		}
+		assertNotNull(sampled);
+		double north = bbox.getNorthLat().inRadians();
+		double south = bbox.getSouthLat().inRadians();
+		if (north < Math.PI / 2 && south > -Math.PI / 2) {
+			double height = sampled.getNorthLat().inRadians() - sampled.getSouthLat().inRadians();
+			assertEquals(message, sampled.getNorthLat().inRadians(), north, 1e-3 * height + margin);
+			assertEquals(message, sampled.getSouthLat().inRadians(), south, 1e-3 * height + margin);
+			double width = sampled.getWestLon().radiansEast(sampled.getEastLon());
+			assertEquals(message, width, bbox.getWestLon().radiansEast(bbox.getEastLon()),
+					1e-3 * width + 2.0 * margin / Math.cos(Math.max(north, -south)));
+		}
 	}
 
     public void testGeodetic2DArc() {
@@ -161,6 +282,12 @@ public class TestGeodetic2DBounds extends TestCase {
 		} catch (UnsupportedOperationException e) {
 			// expected
 		}
+		try {
+			readonlyCopy.include(new GeodeticPointBuffer(1));
+			fail("readonly bounds expected to throw UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
 		try {
 			readonlyCopy.setEastLon(east.getLongitude());
 			fail("readonly bounds expected to throw UnsupportedOperationException");
@@ -318,6 +445,140 @@ public class TestGeodetic2DBounds extends TestCase {
 		assertTrue(diff <= shouldBe);
     }
 
+	/**
+	 * Test the analytic grow against circles sampled around the edges of the original
+	 * bounds, across the date line and over the poles
+	 */
+	public void testGrowAnalytic() {
+		for (int i = 0; i < 50; i++) {
+			Geodetic2DPoint p1 = TestGeoPoint.randomGeodetic2DPoint(r);
+			Geodetic2DPoint p2 = new Geodetic2DPoint(
+					new Longitude(p1.getLongitudeAsDegrees() + 3.0 * r.nextDouble(), Angle.DEGREES),
+					new Latitude(Math.min(89.0, p1.getLatitudeAsDegrees() + 2.0 * r.nextDouble()), Angle.DEGREES));
+			Geodetic2DBounds bbox = new Geodetic2DBounds(p1);
+			bbox.include(p2);
+			double meters = 100.0 + 200000.0 * r.nextDouble();
+			Geodetic2DBounds fast = new Geodetic2DBounds(bbox);
+			fast.grow(meters);
+			Geodetic2DBounds exact = new Geodetic2DBounds(bbox);
+			exact.grow(meters, true);
+			List<Geodetic2DPoint> points = new ArrayList<Geodetic2DPoint>();
+			for (Geodetic2DPoint c : edgePoints(bbox)) {
+				for (Geodetic2DPoint p : new Geodetic2DCircle(c, meters).boundary(720)) points.add(p);
+			}
+			String message = bbox + " + " + meters;
+			assertTight(message, exact, points);
+			assertTrue(message, fast.contains(exact) || fast.getNorthLat().inDegrees() == 90.0 ||
+					fast.getSouthLat().inDegrees() == -90.0);
+			assertTrue(message, fast.getNorthLat().inRadians() >= exact.getNorthLat().inRadians());
+			assertTrue(message, fast.getSouthLat().inRadians() <= exact.getSouthLat().inRadians());
+		}
+
+		// Date line wrap
+		Geodetic2DBounds bbox = new Geodetic2DBounds(
+				new Geodetic2DPoint(new Longitude(179.5, Angle.DEGREES), new Latitude(10.0, Angle.DEGREES)),
+				new Geodetic2DPoint(new Longitude(-179.5, Angle.DEGREES), new Latitude(11.0, Angle.DEGREES)));
+		bbox.grow(100000.0);
+		assertTrue(bbox.getWestLon().inDegrees() > 0.0 && bbox.getWestLon().inDegrees() < 179.0);
+		assertTrue(bbox.getEastLon().inDegrees() < 0.0 && bbox.getEastLon().inDegrees() > -179.0);
+
+		// Pole overflow covers all longitudes
+		for (boolean exact : new boolean[] { false, true }) {
+			bbox = new Geodetic2DBounds(
+					new Geodetic2DPoint(new Longitude(10.0, Angle.DEGREES), new Latitude(-89.5, Angle.DEGREES)),
+					new Geodetic2DPoint(new Longitude(11.0, Angle.DEGREES), new Latitude(-89.0, Angle.DEGREES)));
+			bbox.grow(100000.0, exact);
+			assertEquals(-90.0, bbox.getSouthLat().inDegrees(), 0.0);
+			assertEquals(-180.0, bbox.getWestLon().inDegrees(), 0.0);
+			assertEquals(180.0, bbox.getEastLon().inDegrees(), 1e-9);
+			assertTrue(bbox.contains(new Geodetic2DPoint(new Longitude(-100.0, Angle.DEGREES),
+					new Latitude(-89.5, Angle.DEGREES))));
+		}
+
+		// Growing past all longitudes short of a pole, then growing again
+		bbox = new Geodetic2DBounds(
+				new Geodetic2DPoint(new Longitude(-170.0, Angle.DEGREES), new Latitude(70.0, Angle.DEGREES)),
+				new Geodetic2DPoint(new Longitude(175.0, Angle.DEGREES), new Latitude(75.0, Angle.DEGREES)));
+		bbox.grow(600000.0);
+		assertTrue(bbox.getNorthLat().inDegrees() < 90.0);
+		assertEquals(-180.0, bbox.getWestLon().inDegrees(), 0.0);
+		assertEquals(180.0, bbox.getEastLon().inDegrees(), 1e-9);
+		bbox.grow(1000.0);
+		assertEquals(-180.0, bbox.getWestLon().inDegrees(), 0.0);
+		assertEquals(180.0, bbox.getEastLon().inDegrees(), 1e-9);
+
+		// Either form of all longitudes is the whole globe to include and contains
+		Geodetic2DBounds dateLine = new Geodetic2DBounds(
+				new Geodetic2DPoint(new Longitude(170.0, Angle.DEGREES), new Latitude(71.0, Angle.DEGREES)),
+				new Geodetic2DPoint(new Longitude(-170.0, Angle.DEGREES), new Latitude(72.0, Angle.DEGREES)));
+		assertFalse(dateLine.contains(bbox));
+		assertTrue(bbox.contains(dateLine));
+		Geodetic2DBounds legacy = new Geodetic2DBounds(bbox);
+		legacy.setWestLon(new Longitude(-Math.PI));
+		legacy.setEastLon(new Longitude(Math.PI));
+		assertTrue(legacy.contains(bbox));
+		assertTrue(bbox.contains(legacy));
+		Geodetic2DBounds merged = new Geodetic2DBounds(dateLine);
+		merged.include(bbox);
+		assertEquals(-180.0, merged.getWestLon().inDegrees(), 0.0);
+		assertEquals(180.0, merged.getEastLon().inDegrees(), 1e-9);
+		merged = new Geodetic2DBounds(bbox);
+		merged.include(dateLine);
+		assertEquals(bbox, merged);
+
+		try {
+			bbox.grow(-1.0);
+			fail("Expected to throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test that the fast grow is never smaller than the exact one, and contains every
+	 * boundary point of the circles of the grown distance centered on the corners and edge
+	 * midpoints of the original bounds, including the points at their latitude extremes
+	 */
+	public void testGrowFastContainsCircles() {
+		for (int i = 0; i < 3000; i++) {
+			Geodetic2DPoint p1 = TestGeoPoint.randomGeodetic2DPoint(r);
+			Geodetic2DPoint p2 = new Geodetic2DPoint(
+					new Longitude(p1.getLongitudeAsDegrees() + 3.0 * r.nextDouble(), Angle.DEGREES),
+					new Latitude(Math.min(89.0, p1.getLatitudeAsDegrees() + 2.0 * r.nextDouble()), Angle.DEGREES));
+			Geodetic2DBounds bbox = new Geodetic2DBounds(p1);
+			bbox.include(p2);
+			double meters = 100.0 + 200000.0 * r.nextDouble();
+			Geodetic2DBounds fast = new Geodetic2DBounds(bbox);
+			fast.grow(meters);
+			Geodetic2DBounds exact = new Geodetic2DBounds(bbox);
+			exact.grow(meters, true);
+			assertTrue(bbox + " + " + meters, fast.contains(exact));
+			if (i % 10 != 0) continue;
+			for (Geodetic2DPoint c : edgePoints(bbox)) {
+				for (Geodetic2DPoint p : new Geodetic2DCircle(c, meters).boundary(720)) {
+					assertTrue(bbox + " + " + meters + " misses " + p, fast.contains(p));
+				}
+			}
+		}
+	}
+
+	/* Corners and edge midpoints of the bounds */
+	private static List<Geodetic2DPoint> edgePoints(Geodetic2DBounds bbox) {
+		List<Geodetic2DPoint> points = new ArrayList<Geodetic2DPoint>();
+		double west = bbox.getWestLon().inRadians();
+		double width = bbox.getWestLon().radiansEast(bbox.getEastLon());
+		double south = bbox.getSouthLat().inRadians();
+		double height = bbox.getNorthLat().inRadians() - south;
+		for (int i = 0; i <= 2; i++) {
+			for (int j = 0; j <= 2; j++) {
+				if (i == 1 && j == 1) continue;
+				points.add(new Geodetic2DPoint(new Longitude(west + i * width / 2.0),
+						new Latitude(south + j * height / 2.0)));
+			}
+		}
+		return points;
+	}
+
 	public void testApproxEquals() {
 		Geodetic2DPoint west = new Geodetic2DPoint(new Longitude(30, Angle.DEGREES),
                 new Latitude(30, Angle.DEGREES));
@@ -343,6 +604,72 @@ public class TestGeodetic2DBounds extends TestCase {
 		assertTrue(bbox2.equals(bbox, 0.001));
 	}
 
+	/**
+	 * Test the primitive and batch contains and intersects methods against the
+	 * Longitude and Latitude interval tests, including date line and whole globe boxes
+	 */
+	public void testBatchPredicates() {
+		GeodeticPointBuffer points = new GeodeticPointBuffer(1000);
+		for (int i = 0; i < 1000; i++) {
+			points.add(TestGeoPoint.randomGeodetic2DPoint(r));
+		}
+		points.add(new Geodetic2DPoint(new Longitude(-180.0, Angle.DEGREES), new Latitude(0.0, Angle.DEGREES)));
+		Geodetic2DBounds[] boxes = new Geodetic2DBounds[200];
+		for (int i = 0; i < boxes.length; i++) {
+			boxes[i] = new Geodetic2DBounds(TestGeoPoint.randomGeodetic2DPoint(r));
+			boxes[i].include(TestGeoPoint.randomGeodetic2DPoint(r));
+			if (i % 4 == 0) {
+				// Narrow box straddling the date line
+				boxes[i].setWestLon(new Longitude(170.0 + 10.0 * r.nextDouble(), Angle.DEGREES));
+				boxes[i].setEastLon(new Longitude(-170.0 - 10.0 * r.nextDouble(), Angle.DEGREES));
+			}
+		}
+		boxes[1] = new Geodetic2DBounds(new Geodetic2DCircle(new Geodetic2DPoint(
+				new Longitude(0.0), new Latitude(89.0, Angle.DEGREES)), 200000.0));
+		// Whole globe, so the hits include full runs of 64 bits
+		boxes[2] = new Geodetic2DBounds();
+		boxes[2].setSouthLat(new Latitude(-90.0, Angle.DEGREES));
+		boxes[2].setNorthLat(new Latitude(90.0, Angle.DEGREES));
+		boxes[2].setWestLon(new Longitude(-Math.PI));
+		boxes[2].setEastLon(new Longitude(Math.nextAfter(Math.PI, 0.0)));
+		BitSet hits = new BitSet();
+		for (Geodetic2DBounds bbox : boxes) {
+			int count = bbox.contains(points, hits);
+			assertEquals(hits.cardinality(), count);
+			assertEquals(count, bbox.contains(Arrays.copyOf(points.getLongitudes(), points.size()),
+					points.getLatitudes(), hits));
+			for (int i = 0; i < points.size(); i++) {
+				Geodetic2DPoint pt = points.getGeodetic2DPoint(i);
+				boolean expected = pt.getLatitude().inInterval(bbox.getSouthLat(), bbox.getNorthLat()) &&
+						pt.getLongitude().inInterval(bbox.getWestLon(), bbox.getEastLon());
+				assertEquals(bbox + " " + pt, expected, hits.get(i));
+				assertEquals(expected, bbox.contains(pt));
+				assertEquals(expected, Geodetic2DBounds.contains(bbox.getWestLon().inRadians(),
+						bbox.getSouthLat().inRadians(), bbox.getEastLon().inRadians(),
+						bbox.getNorthLat().inRadians(), pt.getLongitude().inRadians(),
+						pt.getLatitude().inRadians()));
+			}
+			count = bbox.intersects(boxes, hits);
+			assertEquals(hits.cardinality(), count);
+			for (int i = 0; i < boxes.length; i++) {
+				Geodetic2DBounds box = boxes[i];
+				boolean expected = !((box.getSouthLat().inRadians() >= bbox.getNorthLat().inRadians()) ||
+						(box.getNorthLat().inRadians() <= bbox.getSouthLat().inRadians()) ||
+						(box.getWestLon().inInterval(bbox.getEastLon(), bbox.getWestLon()) &&
+								box.getEastLon().inInterval(bbox.getEastLon(), bbox.getWestLon()) &&
+								!bbox.getWestLon().inInterval(box.getWestLon(), box.getEastLon())));
+				assertEquals(bbox + " " + box, expected, hits.get(i));
+				assertEquals(expected, bbox.intersects(box));
+			}
+		}
+		try {
+			boxes[0].contains(new double[2], new double[1], hits);
+			fail("Expected to throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
 	public void testIntersect() {
 		// test 1: bounds overlap each other
 		Geodetic2DPoint west = new Geodetic2DPoint(new Longitude(30, Angle.DEGREES),
@@ -0,0 +1,158 @@
+/****************************************************************************************
+ *  TestGeodetic2DBoundsIndex.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TestGeodetic2DBoundsIndex {
+
+    private static final int N = 2000;
+    private static final Ellipsoid WGS84 = Ellipsoid.getInstance("WGS 84");
+    private final Random r = new Random(1234L);
+
+    /* Make N random bounds, mixing date line crossings, polar caps, points and footprints */
+    private List<Geodetic2DBounds> randomBounds() {
+        List<Geodetic2DBounds> bounds = new ArrayList<Geodetic2DBounds>(N);
+        for (int i = 0; i < N; i++) {
+            Geodetic2DBounds bbox;
+            switch (i % 10) {
+                case 0:
+                    bbox = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(175.0 + 5.0 * r.nextDouble(), -60.0 + 120.0 * r.nextDouble()));
+                    bbox.include(TestGeoPoint.geodetic2DPoint(-180.0 + 6.0 * r.nextDouble(), -60.0 + 120.0 * r.nextDouble()));
+                    break;
+                case 1:
+                    bbox = new Geodetic2DBounds(new Geodetic2DCircle(TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(),
+                            (r.nextBoolean() ? 1 : -1) * (85.0 + 5.0 * r.nextDouble())), 1000.0 + 600000.0 * r.nextDouble()));
+                    break;
+                case 2:
+                    bbox = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), -90.0 + 180.0 * r.nextDouble()));
+                    break;
+                default:
+                    bbox = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), -85.0 + 170.0 * r.nextDouble()));
+                    bbox.grow(1000.0 + 300000.0 * r.nextDouble());
+            }
+            bounds.add(bbox);
+        }
+        return bounds;
+    }
+
+    private static List<Integer> ids(int n) {
+        List<Integer> ids = new ArrayList<Integer>(n);
+        for (int i = 0; i < n; i++) ids.add(i);
+        return ids;
+    }
+
+    /* Results as a set, checking that no item was found twice */
+    private static Set<Integer> found(List<Integer> results) {
+        Set<Integer> set = new HashSet<Integer>(results);
+        Assert.assertEquals(results.size(), set.size());
+        return set;
+    }
+
+    @Test
+    public void testPointsAndBounds() {
+        List<Geodetic2DBounds> bounds = randomBounds();
+        Geodetic2DBoundsIndex<Integer> index = new Geodetic2DBoundsIndex<Integer>(ids(N), bounds);
+        Assert.assertEquals(N, index.size());
+        for (int q = 0; q < 200; q++) {
+            Geodetic2DPoint pt = (q % 7 == 0) ? TestGeoPoint.geodetic2DPoint(-180.0, 10.0 * r.nextDouble())
+                    : (q % 5 == 0) ? TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), (r.nextBoolean() ? 1 : -1) * (80.0 + 10.0 * r.nextDouble()))
+                    : TestGeoPoint.randomGeodetic2DPoint(r);
+            Set<Integer> found = found(index.findContaining(pt));
+            for (int i = 0; i < N; i++) {
+                Assert.assertEquals("item " + i, bounds.get(i).contains(pt), found.contains(i));
+            }
+
+            Geodetic2DBounds query = new Geodetic2DBounds(pt);
+            query.include(TestGeoPoint.geodetic2DPoint(pt.getLongitudeAsDegrees() + 40.0 * r.nextDouble(),
+                    Math.max(-90.0, Math.min(90.0, pt.getLatitudeAsDegrees() + 20.0 * r.nextDouble() - 10.0))));
+            found = found(index.findIntersecting(query));
+            for (int i = 0; i < N; i++) {
+                Assert.assertEquals("item " + i, overlaps(query, bounds.get(i)), found.contains(i));
+            }
+        }
+    }
+
+    /* Whether two bounding boxes have any point in common, including their edges */
+    private static boolean overlaps(Geodetic2DBounds a, Geodetic2DBounds b) {
+        return a.getSouthLat().inRadians() <= b.getNorthLat().inRadians() &&
+                b.getSouthLat().inRadians() <= a.getNorthLat().inRadians() &&
+                (a.getWestLon().inInterval(b.getWestLon(), b.getEastLon()) ||
+                        b.getWestLon().inInterval(a.getWestLon(), a.getEastLon()));
+    }
+
+    @Test
+    public void testCircles() {
+        List<Geodetic2DBounds> bounds = randomBounds().subList(0, 200);
+        Geodetic2DBoundsIndex<Integer> index = new Geodetic2DBoundsIndex<Integer>(ids(200), bounds);
+        for (int q = 0; q < 6; q++) {
+            Geodetic2DPoint center = (q % 4 == 0)
+                    ? TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), (r.nextBoolean() ? 1 : -1) * (80.0 + 10.0 * r.nextDouble()))
+                    : TestGeoPoint.randomGeodetic2DPoint(r);
+            double radius = 10000.0 + 3000000.0 * r.nextDouble();
+            Set<Integer> found = found(index.findIntersecting(new Geodetic2DCircle(center, radius)));
+            for (int i = 0; i < bounds.size(); i++) {
+                // The sampled distance is a little too long, by up to half the sample spacing
+                double d = sampledDistance(center, bounds.get(i));
+                if (Math.abs(d - radius) > 5000.0)
+                    Assert.assertEquals("item " + i, d <= radius, found.contains(i));
+            }
+        }
+        Assert.assertTrue(index.findIntersecting(new Geodetic2DCircle(bounds.get(0).getCenter(), 1.0)).contains(0));
+    }
+
+    /* Least distance from a point to 50 points along each edge of the bounds */
+    private static double sampledDistance(Geodetic2DPoint pt, Geodetic2DBounds bbox) {
+        if (bbox.contains(pt)) return 0.0;
+        double lon = pt.getLongitude().inRadians(), lat = pt.getLatitude().inRadians();
+        double west = bbox.getWestLon().inRadians(), east = bbox.getEastLon().inRadians();
+        double south = bbox.getSouthLat().inRadians(), north = bbox.getNorthLat().inRadians();
+        double width = (west <= east) ? east - west : east - west + 2.0 * Math.PI;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i <= 50; i++) {
+            double lonI = new Longitude(west + i * width / 50.0).inRadians();
+            double latI = south + i * (north - south) / 50.0;
+            best = Math.min(best, WGS84.karneyDistance(lon, lat, lonI, south));
+            best = Math.min(best, WGS84.karneyDistance(lon, lat, lonI, north));
+            best = Math.min(best, WGS84.karneyDistance(lon, lat, west, latI));
+            best = Math.min(best, WGS84.karneyDistance(lon, lat, east, latI));
+        }
+        return best;
+    }
+
+    @Test
+    public void testEmptyAndInvalid() {
+        Geodetic2DBoundsIndex<String> index = new Geodetic2DBoundsIndex<String>(
+                new ArrayList<String>(), new ArrayList<Geodetic2DBounds>());
+        Assert.assertEquals(0, index.size());
+        Assert.assertTrue(index.findContaining(TestGeoPoint.geodetic2DPoint(0.0, 0.0)).isEmpty());
+        try {
+            new Geodetic2DBoundsIndex<String>(Collections.singletonList("a"), new ArrayList<Geodetic2DBounds>());
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -1,62 +1,116 @@
-/****************************************************************************************
- *  TestGeodetic2DCircle.java
- *
- *  Created: Jun 24, 2010 9:14:59 AM
- *
- *  @author Jason Mathews
- *
- *  (C) Copyright MITRE Corporation 2006
- *
- *  The program is provided "as is" without any warranty express or implied, including
- *  the warranty of non-infringement and the implied warranties of merchantibility and
- *  fitness for a particular purpose.  The Copyright owner will not be liable for any
- *  damages suffered by you as a result of using the Program.  In no event will the
- *  Copyright owner be liable for any special, indirect or consequential damages or
- *  lost profits even if the Copyright owner has been advised of the possibility of
- *  their occurrence.
- *
- ***************************************************************************************/
-package org.opensextant.geodesy.test;
-
-import junit.framework.TestCase;
-
-import org.opensextant.geodesy.Geodetic2DBounds;
-import org.opensextant.geodesy.Geodetic2DCircle;
-import org.opensextant.geodesy.Geodetic2DPoint;
-
-public class TestGeodetic2DCircle extends TestCase {
-
-	private static final double EPSILON = 1E-5;
-
-	public void testCreation() {
-		Geodetic2DCircle circle = new Geodetic2DCircle();
-		Geodetic2DPoint cp = circle.getCenter();
-		assertNotNull(cp);
-
-		Geodetic2DPoint boston =
-                new Geodetic2DPoint("42\u00B0 22' 11.77\" N, 71\u00B0 1' 40.30\" W");
-
-		Geodetic2DCircle geo = new Geodetic2DCircle(boston, 100);
-		assertEquals(boston, geo.getCenter());
-		assertEquals(100.0, geo.getRadius(), EPSILON);
-		assertFalse(circle.equals(geo));
-
-		Geodetic2DCircle geo2 = new Geodetic2DCircle(boston, 100.0);
-		assertEquals(geo, geo2);
-		assertEquals(geo.hashCode(), geo2.hashCode());
-
-		int count = 0;
-		for (Geodetic2DPoint pt : geo.boundary(8)) {
-			assertNotNull(pt);
-			count++;
-		}
-		assertEquals(8, count);
-	}
-
-	public void testNullCircleCompare() {
-		Geodetic2DCircle circle = new Geodetic2DCircle();
-		Geodetic2DCircle other = null;
-		assertFalse(circle.equals(other));
-	}
-	
-}
+/****************************************************************************************
+ *  TestGeodetic2DCircle.java
+ *
+ *  Created: Jun 24, 2010 9:14:59 AM
+ *
+ *  @author Jason Mathews
+ *
+ *  (C) Copyright MITRE Corporation 2006
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantibility and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import junit.framework.TestCase;
+
+import org.opensextant.geodesy.Angle;
+import org.opensextant.geodesy.Geodetic2DArc;
+import org.opensextant.geodesy.Geodetic2DBounds;
+import org.opensextant.geodesy.Geodetic2DCircle;
+import org.opensextant.geodesy.Geodetic2DPoint;
+import org.opensextant.geodesy.GeodeticPointBuffer;
+
+public class TestGeodetic2DCircle extends TestCase {
+
+	private static final double EPSILON = 1E-5;
+
+	public void testCreation() {
+		Geodetic2DCircle circle = new Geodetic2DCircle();
+		Geodetic2DPoint cp = circle.getCenter();
+		assertNotNull(cp);
+
+		Geodetic2DPoint boston =
+                new Geodetic2DPoint("42\u00B0 22' 11.77\" N, 71\u00B0 1' 40.30\" W");
+
+		Geodetic2DCircle geo = new Geodetic2DCircle(boston, 100);
+		assertEquals(boston, geo.getCenter());
+		assertEquals(100.0, geo.getRadius(), EPSILON);
+		assertFalse(circle.equals(geo));
+
+		Geodetic2DCircle geo2 = new Geodetic2DCircle(boston, 100.0);
+		assertEquals(geo, geo2);
+		assertEquals(geo.hashCode(), geo2.hashCode());
+
+		int count = 0;
+		for (Geodetic2DPoint pt : geo.boundary(8)) {
+			assertNotNull(pt);
+			count++;
+		}
+		assertEquals(8, count);
+	}
+
+	public void testBoundaryArrays() {
+		Geodetic2DPoint boston =
+                new Geodetic2DPoint("42\u00B0 22' 11.77\" N, 71\u00B0 1' 40.30\" W");
+		Geodetic2DCircle geo = new Geodetic2DCircle(boston, 5000.0);
+		double[] lon = new double[16];
+		double[] lat = new double[16];
+		geo.boundary(lon, lat);
+		GeodeticPointBuffer buffer = new GeodeticPointBuffer();
+		buffer.add(0.0, 0.0, 100.0);
+		geo.boundary(16, buffer);
+		assertEquals(16, buffer.size());
+		int i = 0;
+		for (Geodetic2DPoint pt : geo.boundary(16)) {
+			assertEquals(pt.getLongitude().inRadians(), lon[i], 0.0);
+			assertEquals(pt.getLatitude().inRadians(), lat[i], 0.0);
+			assertEquals(lon[i], buffer.getLongitude(i), 0.0);
+			assertEquals(lat[i], buffer.getLatitude(i), 0.0);
+			assertEquals(0.0, buffer.getElevation(i), 0.0);
+			assertEquals(5000.0, new Geodetic2DArc(boston, pt).getDistanceInMeters(), 1e-6);
+			i++;
+		}
+		// First point is due South
+		assertTrue(lat[0] < boston.getLatitude().inRadians());
+		// Same points as an arc swept by adding the increment to the azimuth
+		Angle compassDirection = new Angle(-Math.PI);
+		Angle inc = new Angle(2.0 * Math.PI / 16.0);
+		Geodetic2DArc arc = new Geodetic2DArc(boston, 5000.0, compassDirection);
+		for (i = 0; i < 16; i++) {
+			assertEquals(arc.getPoint2().getLongitude().inRadians(), lon[i], 0.0);
+			assertEquals(arc.getPoint2().getLatitude().inRadians(), lat[i], 0.0);
+			compassDirection = compassDirection.add(inc);
+			arc.setForwardAzimuth(compassDirection);
+		}
+		assertEquals(boston.getLongitude().inRadians(), lon[0], 1e-12);
+		try {
+			new Geodetic2DCircle(boston, -1.0).boundary(lon, lat);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		// A negative count leaves the buffer as it was
+		try {
+			geo.boundary(-1, buffer);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(16, buffer.size());
+		assertEquals(lon[15], buffer.getLongitude(15), 0.0);
+	}
+
+	public void testNullCircleCompare() {
+		Geodetic2DCircle circle = new Geodetic2DCircle();
+		Geodetic2DCircle other = null;
+		assertFalse(circle.equals(other));
+	}
+	
+}
@@ -0,0 +1,237 @@
+/****************************************************************************************
+ *  TestGeodeticPointBuffer.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestGeodeticPointBuffer {
+
+    private static final int N = 500;
+    private final Random r = new Random(1234L);
+
+    /* Make N random points with elevations, roughly one in ten in a polar cap */
+    private List<Geodetic3DPoint> randomPoints() {
+        List<Geodetic3DPoint> pts = new ArrayList<Geodetic3DPoint>(N);
+        for (int i = 0; i < N; i++) {
+            double lonDeg = -180.0 + r.nextDouble() * 360.0;
+            double latDeg = (i % 10 == 0) ? 84.0 + r.nextDouble() * 5.9 : -79.0 + r.nextDouble() * 162.0;
+            pts.add(new Geodetic3DPoint(new Longitude(lonDeg, Angle.DEGREES),
+                    new Latitude(latDeg, Angle.DEGREES), -100.0 + r.nextDouble() * 10000.0));
+        }
+        return pts;
+    }
+
+    @Test
+    public void testBuffer() {
+        GeodeticPointBuffer buf = new GeodeticPointBuffer(2);
+        Assert.assertTrue(buf.isEmpty());
+        buf.add(Math.PI, 0.5, 10.0);                 // longitude normalized to -PI
+        buf.add(new Geodetic2DPoint(new Longitude(45.0, Angle.DEGREES), new Latitude(-30.0, Angle.DEGREES)));
+        buf.add(0.25, -0.25);
+        Assert.assertEquals(3, buf.size());
+        Assert.assertEquals(-Math.PI, buf.getLongitude(0), 0.0);
+        Assert.assertEquals(10.0, buf.getElevation(0), 0.0);
+        Assert.assertEquals(0.0, buf.getElevation(1), 0.0);
+        Assert.assertEquals(45.0, buf.getGeodetic2DPoint(1).getLongitudeAsDegrees(), 1e-12);
+        Assert.assertEquals(new Geodetic3DPoint(new Longitude(0.25), new Latitude(-0.25), 0.0),
+                buf.getGeodetic3DPoint(2));
+
+        List<Geodetic3DPoint> pts = randomPoints();
+        GeodeticPointBuffer copy = new GeodeticPointBuffer(pts);
+        Assert.assertEquals(pts, copy.toGeodetic3DPoints());
+        Assert.assertEquals(copy, new GeodeticPointBuffer(copy.toGeodetic3DPoints()));
+        Assert.assertEquals(copy.hashCode(), new GeodeticPointBuffer(pts).hashCode());
+
+        copy.clear();
+        Assert.assertTrue(copy.isEmpty());
+        copy.setSize(3);
+        Assert.assertEquals(0.0, copy.getLatitude(2), 0.0);
+        try {
+            buf.add(0.0, 2.0);
+            Assert.fail("Expected IllegalArgumentException for latitude beyond a pole");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        int n = buf.size();
+        double[][] nans = {{0.0, Double.NaN}, {Double.NaN, 0.0}};
+        for (double[] p : nans) {
+            try {
+                buf.add(p[0], p[1]);
+                Assert.fail("Expected IllegalArgumentException for NaN coordinate");
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+            try {
+                buf.set(0, p[0], p[1], 0.0);
+                Assert.fail("Expected IllegalArgumentException for NaN coordinate");
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+        Assert.assertEquals(n, buf.size());
+        Assert.assertFalse(Double.isNaN(buf.getLatitude(0)) || Double.isNaN(buf.getLongitude(0)));
+        try {
+            buf.getLongitude(3);
+            Assert.fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFrameOfReference() {
+        List<Geodetic3DPoint> pts = randomPoints();
+        GeodeticPointBuffer buf = new GeodeticPointBuffer(pts);
+        FrameOfReference f = new FrameOfReference(pts.get(1));
+        double[] x = new double[N], y = new double[N], z = new double[N];
+
+        f.geodeticToGeocentric(buf, x, y, z);
+        for (int i = 0; i < N; i++) {
+            GeocentricPoint g = f.toGeocentric(pts.get(i));
+            Assert.assertEquals(g.getX(), x[i], 0.0);
+            Assert.assertEquals(g.getY(), y[i], 0.0);
+            Assert.assertEquals(g.getZ(), z[i], 0.0);
+        }
+        GeodeticPointBuffer out = new GeodeticPointBuffer();
+        f.geocentricToGeodetic(x, y, z, out);
+        Assert.assertEquals(N, out.size());
+        for (int i = 0; i < N; i++) {
+            Geodetic3DPoint g = f.toGeodetic(new GeocentricPoint(x[i], y[i], z[i]));
+            Assert.assertEquals(g, out.getGeodetic3DPoint(i));
+        }
+
+        f.geodeticToTopocentric(buf, x, y, z);
+        for (int i = 0; i < N; i++) {
+            Topocentric3DPoint t = f.toTopocentric(pts.get(i));
+            Assert.assertEquals(t.getEasting(), x[i], 1e-6);
+            Assert.assertEquals(t.getNorthing(), y[i], 1e-6);
+            Assert.assertEquals(t.getElevation(), z[i], 1e-6);
+        }
+        f.topocentricToGeodetic(x, y, z, out);
+        for (int i = 0; i < N; i++) {
+            Geodetic3DPoint pt = pts.get(i);
+            Assert.assertEquals(pt.getLongitude().inRadians(), out.getLongitude(i), 1e-9);
+            Assert.assertEquals(pt.getLatitude().inRadians(), out.getLatitude(i), 1e-9);
+            Assert.assertEquals(pt.getElevation(), out.getElevation(i), 1e-5);
+        }
+    }
+
+    @Test
+    public void testUTMConverter() {
+        List<Geodetic3DPoint> pts = randomPoints();
+        GeodeticPointBuffer buf = new GeodeticPointBuffer(pts);
+        int[] zones = new int[N];
+        char[] bands = new char[N];
+        double[] e = new double[N], n = new double[N];
+        UTMConverter conv = new UTMConverter();
+
+        int count = conv.fromGeodetic(buf, zones, bands, e, n);
+        int expected = 0;
+        char[] hemis = new char[N];
+        for (int i = 0; i < N; i++) {
+            double latDeg = pts.get(i).getLatitudeAsDegrees();
+            if (latDeg > 84.5) {
+                Assert.assertEquals(0, zones[i]);
+                Assert.assertTrue(Double.isNaN(e[i]) && Double.isNaN(n[i]));
+                hemis[i] = 'N';
+                zones[i] = 31;          // replace with a valid cell for the inverse below
+                bands[i] = 'N';
+                e[i] = UTM.FALSE_EASTING;
+                n[i] = 0.0;
+                continue;
+            }
+            UTM utm = new UTM(pts.get(i));
+            Assert.assertEquals(utm.getLonZone(), zones[i]);
+            Assert.assertEquals(utm.getLatBand(), bands[i]);
+            Assert.assertEquals(utm.getEasting(), e[i], 0.0);
+            Assert.assertEquals(utm.getNorthing(), n[i], 0.0);
+            hemis[i] = utm.getHemisphere();
+            expected++;
+        }
+        Assert.assertEquals(expected, count);
+
+        GeodeticPointBuffer out = new GeodeticPointBuffer();
+        conv.toGeodetic(zones, hemis, e, n, out);
+        Assert.assertEquals(N, out.size());
+        for (int i = 0; i < N; i++) {
+            Geodetic2DPoint g = new UTM(zones[i], hemis[i], e[i], n[i]).getGeodetic();
+            Assert.assertEquals(g.getLongitude().inRadians(), out.getLongitude(i), 0.0);
+            Assert.assertEquals(g.getLatitude().inRadians(), out.getLatitude(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testMGRSEncode() {
+        List<Geodetic3DPoint> pts = randomPoints();
+        GeodeticPointBuffer buf = new GeodeticPointBuffer(pts);
+        int w = MGRS.encodedLength(5);
+        char[] out = new char[N * w];
+        Assert.assertEquals(N, MGRS.encode(buf, 5, out));
+        for (int i = 0; i < N; i++) {
+            String expected = new MGRS(pts.get(i)).toString(5);
+            String actual = new String(out, i * w, w).trim();
+            if (actual.length() > expected.length()) actual = actual.substring(1);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testBoundsInclude() {
+        List<Geodetic3DPoint> pts = randomPoints();
+        // Add a cluster straddling the date line to exercise wrapping
+        for (int i = 0; i < 20; i++) {
+            pts.add(new Geodetic3DPoint(new Longitude(178.0 + r.nextDouble() * 4.0, Angle.DEGREES),
+                    new Latitude(r.nextDouble(), Angle.DEGREES), 0.0));
+        }
+        for (int start : new int[]{0, N}) {
+            List<Geodetic3DPoint> sub = pts.subList(start, pts.size());
+            Geodetic2DBounds expected = new Geodetic2DBounds(sub.get(0));
+            for (Geodetic2DPoint pt : sub) expected.include(pt);
+            Geodetic2DBounds actual = new Geodetic2DBounds(sub.get(0));
+            actual.include(new GeodeticPointBuffer(sub));
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSegmentDistances() {
+        // Random walk path crossing the date line (far from antipodal segments, which
+        // may fail to converge)
+        List<Geodetic2DPoint> pts = new ArrayList<Geodetic2DPoint>(N);
+        double lonDeg = 170.0, latDeg = -40.0;
+        for (int i = 0; i < N; i++) {
+            pts.add(new Geodetic2DPoint(new Longitude(lonDeg, Angle.DEGREES), new Latitude(latDeg, Angle.DEGREES)));
+            lonDeg += r.nextDouble() * 0.2;
+            latDeg += r.nextDouble() * 0.2 - 0.05;
+        }
+        GeodeticPointBuffer buf = new GeodeticPointBuffer(pts);
+        double[] d = new double[N - 1];
+        double total = Geodetic2DArc.segmentDistances(buf, d);
+        double sum = 0.0;
+        for (int i = 0; i < N - 1; i++) {
+            double expected = new Geodetic2DArc(pts.get(i), pts.get(i + 1)).getDistanceInMeters();
+            Assert.assertEquals(expected, d[i], 0.0);
+            sum += expected;
+        }
+        Assert.assertEquals(sum, total, 1e-6);
+    }
+}
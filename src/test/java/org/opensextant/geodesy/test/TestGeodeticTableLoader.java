@@ -0,0 +1,228 @@
+/****************************************************************************************
+ *  TestGeodeticTableLoader.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestGeodeticTableLoader {
+
+    private static final double EPS = 1e-12;
+
+    private static void assertPoints(List<Geodetic2DPoint> expected, GeodeticPointBuffer actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals("point " + i, expected.get(i).getLongitude().inRadians(), actual.getLongitude(i), EPS);
+            Assert.assertEquals("point " + i, expected.get(i).getLatitude().inRadians(), actual.getLatitude(i), EPS);
+        }
+    }
+
+    private static void assertBadRows(long[] expected, GeodeticTableLoader loader) {
+        Assert.assertArrayEquals(expected, loader.getBadRows());
+        Assert.assertEquals(expected.length, loader.getBadRowCount());
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        String table = "id,lat,lon,point,mgrs\r\n" +
+                "0,38.5,-77.25,,\r\n" +                             // decimal degrees
+                "1,38 30 0 N,77d 15m W,,\r\n" +                      // degrees, minutes and seconds
+                "2,\"38\u00B0 30' 0\"\" N\",  77 15 0 W,,\n" +  // quoted, UTF-8 degree sign
+                "3,,,\"(77 15 W, 38 30 N)\",18SUJ2348306479\n" +     // point column before MGRS
+                "4,,,,18SUJ2348306479\n" +                           // MGRS only
+                "\n" +                                               // empty line
+                "6,95,10,,\n" +                                      // latitude out of range
+                "7,38.5,,,18SUJ2348306479\n" +                       // missing longitude
+                "8,,,,18SUJ234\n" +                                  // invalid MGRS
+                "9,,,,\n" +                                          // no coordinates
+                "10,-12.5,100.75";                                   // short row without a line end
+        GeodeticTableLoader loader = new GeodeticTableLoader(',');
+        loader.setHeaderLines(1);
+        loader.setLatLonColumns(1, 2);
+        loader.setPointColumn(3);
+        loader.setMGRSColumn(4);
+        loader.load(ByteBuffer.wrap(table.getBytes("UTF-8")));
+
+        Geodetic2DPoint dc = new Geodetic2DPoint(new Longitude(-77.25, Angle.DEGREES), new Latitude(38.5, Angle.DEGREES));
+        MGRS washington = new MGRS("18SUJ2348306479");
+        List<Geodetic2DPoint> expected = new ArrayList<Geodetic2DPoint>();
+        expected.add(dc);
+        expected.add(dc);
+        expected.add(dc);
+        expected.add(dc);
+        expected.add(washington.toGeodetic2DPoint());
+        expected.add(new Geodetic2DPoint("(100.75, -12.5)"));
+        assertPoints(expected, loader.getPoints());
+        assertBadRows(new long[]{6, 7, 8, 9}, loader);
+        Assert.assertEquals(11, loader.getRowCount());
+
+        // Tab separated, with a header longer than a chunk
+        loader = new GeodeticTableLoader('\t');
+        loader.setHeaderLines(2);
+        loader.setChunkSize(8);
+        loader.setMGRSColumn(0);
+        loader.load(Channels.newChannel(new ByteArrayInputStream(
+                "mgrs\tnote (a long line)\n--\n18SUJ2348306479\tx\nZOH\n".getBytes("US-ASCII"))));
+        assertPoints(expected.subList(4, 5), loader.getPoints());
+        assertBadRows(new long[]{1}, loader);
+        Assert.assertEquals(2, loader.getRowCount());
+
+        // Southwest corners of MGRS cells instead of centers
+        loader = new GeodeticTableLoader(',');
+        loader.setMGRSColumn(0);
+        loader.setMGRSCellCenters(false);
+        loader.load(ByteBuffer.wrap("18SUJ2348306479\n18SUJ23\n".getBytes("US-ASCII")));
+        expected.clear();
+        for (String ms : new String[]{"18SUJ2348306479", "18SUJ23"}) {
+            Geodetic2DBounds bbox = new MGRS(ms).getBoundingBox();
+            expected.add(new Geodetic2DPoint(bbox.getWestLon(), bbox.getSouthLat()));
+        }
+        assertPoints(expected, loader.getPoints());
+    }
+
+    /* A random latitude or longitude in one of the forms of the String constructors */
+    private static String format(Random r, Angle a, boolean lat) {
+        double deg = a.inDegrees();
+        switch (r.nextInt(4)) {
+            case 0:
+                return Double.toString(deg);
+            case 1:
+                return a.toString();
+            default:
+                double abs = Math.abs(deg);
+                int d = (int) abs;
+                int m = (int) ((abs - d) * 60.0);
+                double s = ((abs - d) * 60.0 - m) * 60.0;
+                return d + " " + m + " " + s + (lat ? (deg < 0 ? "S" : "N") : (deg < 0 ? "W" : "E"));
+        }
+    }
+
+    @Test
+    public void testRandomTable() throws IOException {
+        Random r = new Random(20070327L);
+        StringBuilder table = new StringBuilder("lat,lon,mgrs\n");
+        List<Geodetic2DPoint> expected = new ArrayList<Geodetic2DPoint>();
+        List<Long> bad = new ArrayList<Long>();
+        for (int row = 0; row < 5000; row++) {
+            Geodetic2DPoint pt = TestGeoPoint.randomGeodetic2DPoint(r);
+            int kind = r.nextInt(10);
+            if (kind < 6) {
+                String lat = format(r, pt.getLatitude(), true);
+                String lon = format(r, pt.getLongitude(), false);
+                table.append('"').append(lat.replace("\"", "\"\"")).append("\",\"")
+                        .append(lon.replace("\"", "\"\"")).append("\",\n");
+                expected.add(new Geodetic2DPoint(new Longitude(lon), new Latitude(lat)));
+            } else if (kind < 9) {
+                String ms = new MGRS(pt).toString(r.nextInt(6));
+                table.append(",,").append(ms).append('\n');
+                // Some cells at reduced precision are not valid MGRS strings
+                try {
+                    expected.add(new MGRS(ms).toGeodetic2DPoint());
+                } catch (IllegalArgumentException ex) {
+                    bad.add((long) row);
+                }
+            } else {
+                table.append(r.nextBoolean() ? "12,abc,\n" : ",,18SUJ1\n");
+                bad.add((long) row);
+            }
+        }
+        byte[] bytes = table.toString().getBytes("UTF-8");
+        long[] badRows = new long[bad.size()];
+        for (int i = 0; i < badRows.length; i++) badRows[i] = bad.get(i);
+
+        File file = File.createTempFile("geodesy", ".csv");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+            for (int threads = 1; threads <= 4; threads += 3) {
+                for (int chunkSize : new int[]{1, 100, 4096, 1 << 20}) {
+                    GeodeticTableLoader loader = new GeodeticTableLoader(',');
+                    loader.setHeaderLines(1);
+                    loader.setLatLonColumns(0, 1);
+                    loader.setMGRSColumn(2);
+                    loader.setThreads(threads);
+                    loader.setChunkSize(chunkSize);
+
+                    loader.load(ByteBuffer.wrap(bytes));
+                    assertPoints(expected, loader.getPoints());
+                    assertBadRows(badRows, loader);
+                    Assert.assertEquals(5000, loader.getRowCount());
+
+                    loader.load(Channels.newChannel(new ByteArrayInputStream(bytes)));
+                    assertPoints(expected, loader.getPoints());
+                    assertBadRows(badRows, loader);
+
+                    RandomAccessFile raf = new RandomAccessFile(file, "r");
+                    try {
+                        FileChannel channel = raf.getChannel();
+                        loader.load(channel);
+                        Assert.assertEquals(bytes.length, channel.position());
+                    } finally {
+                        raf.close();
+                    }
+                    assertPoints(expected, loader.getPoints());
+                    assertBadRows(badRows, loader);
+                }
+            }
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        try {
+            new GeodeticTableLoader('"');
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        GeodeticTableLoader loader = new GeodeticTableLoader(';');
+        try {
+            loader.setLatLonColumns(1, -1);
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            loader.setThreads(0);
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        // Without configured columns, every row is bad
+        loader.load(ByteBuffer.wrap(new byte[]{'1', ';', '2', '\n'}));
+        Assert.assertEquals(0, loader.getPoints().size());
+        assertBadRows(new long[]{0}, loader);
+    }
+}
@@ -119,6 +119,72 @@ public class TestISO8601DateTime extends TestCase {
         }
     }
 
+	@Test
+	public void testTryParse() {
+		for (String isoStr : partials) {
+			assertEquals(new ISO8601DateTimePoint(isoStr), ISO8601DateTimePoint.tryParse(isoStr));
+		}
+		assertEquals(new ISO8601DateTimePoint("2011-06-21 18:06:37.039Z"),
+				ISO8601DateTimePoint.tryParse("2011-06-21 18:06:37.039Z"));
+		String[] invalid = {null, "", "abc", "2011-02-30", "2011-13", "2011-06-21T25:00:61.000Z",
+				"2011-06-21T18:06:37.039Z-extra-text"};
+		for (String isoStr : invalid) {
+			assertNull(isoStr, ISO8601DateTimePoint.tryParse(isoStr));
+			try {
+				new ISO8601DateTimePoint(isoStr);
+				fail("Expected to throw IllegalArgumentException for " + isoStr);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testReducedPrecision() {
+		String[][] intervals = {
+				{"2012", "2012-01-01T00:00:00.000Z--2012-12-31T23:59:59.999Z"},
+				{"2012-02", "2012-02-01T00:00:00.000Z--2012-02-29T23:59:59.999Z"},
+				{"1900-02", "1900-02-01T00:00:00.000Z--1900-02-28T23:59:59.999Z"},
+				{"2011-12-31", "2011-12-31T00:00:00.000Z--2011-12-31T23:59:59.999Z"},
+				{"2011-06-21 18", "2011-06-21T18:00:00.000Z--2011-06-21T18:59:59.999Z"},
+				{"2011-06-21T18:06", "2011-06-21T18:06:00.000Z--2011-06-21T18:06:59.999Z"},
+				{"2011-06-21T18:06:37", "2011-06-21T18:06:37.000Z--2011-06-21T18:06:37.999Z"},
+				{"2011-06-21T18:06:37.5", "2011-06-21T18:06:37.500Z--2011-06-21T18:06:37.500Z"},
+				{"2011-06-21T18:06:37.05", "2011-06-21T18:06:37.050Z--2011-06-21T18:06:37.050Z"},
+				{"2011-06-21T18:06:37.039Z", "2011-06-21T18:06:37.039Z--2011-06-21T18:06:37.039Z"},
+				{"2011-06--2011-07-04", "2011-06-01T00:00:00.000Z--2011-07-04T23:59:59.999Z"},
+				{"12011-06-21", "12011-06-21T00:00:00.000Z--12011-06-21T23:59:59.999Z"},
+				// Julian calendar before 1582-10-15
+				{"1500-02-29", "1500-02-29T00:00:00.000Z--1500-02-29T23:59:59.999Z"},
+				{"1582-10", "1582-10-01T00:00:00.000Z--1582-10-31T23:59:59.999Z"},
+				{"1582-10-04", "1582-10-04T00:00:00.000Z--1582-10-04T23:59:59.999Z"}
+		};
+		for (String[] interval : intervals) {
+			assertEquals(interval[0], interval[1], new ISO8601DateTimeInterval(interval[0]).toString());
+			assertEquals(interval[0], new ISO8601DateTimeInterval(interval[1]),
+					ISO8601DateTimeInterval.tryParse(interval[0]));
+		}
+		// 1582-10-05 to 1582-10-14 do not exist, and 1582-10-15 is the day after 1582-10-04
+		assertNull(ISO8601DateTimePoint.tryParse("1582-10-10"));
+		assertEquals(new ISO8601DateTimeInterval("1582-10-04").getEndTimeInMillis() + 1,
+				new ISO8601DateTimePoint("1582-10-15").getStartTimeInMillis());
+		assertEquals(-12219292800000L, new ISO8601DateTimePoint("1582-10-15").getStartTimeInMillis());
+		assertEquals(0L, new ISO8601DateTimeInterval("1970").getStartTimeInMillis());
+
+		String[] invalid = {null, "", "201", "02011", "0000", "2011-00", "2011-06-1", "2011-06-21T",
+				"2011-06-21T24", "2011-06-21T18:60", "2011-06-21T18:06:37.", "2011-06-21T18:06:37.5Z",
+				"1900-02-29", "2011-06-21T18:06:37.039Z--", "2011-06-21--2011-01-01"};
+		for (String isoStr : invalid) {
+			assertNull(isoStr, ISO8601DateTimeInterval.tryParse(isoStr));
+			try {
+				new ISO8601DateTimeInterval(isoStr);
+				fail("Expected to throw IllegalArgumentException for " + isoStr);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
 	@Test
 	public void testInvalidCreation() {
 		try {
@@ -17,7 +17,9 @@ import junit.framework.TestSuite;
 
 import junit.textui.TestRunner;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 public class TestLatLonStrings {
@@ -222,6 +224,59 @@ public class TestLatLonStrings {
     	}
     }
 
+	/* Check that parse gives the Geodetic2DPoint of the normalized string, or fails with it */
+	private static void checkParse(LatLonParser parser, String testString, boolean etrex) {
+		Geodetic2DPoint point;
+		try {
+			point = new Geodetic2DPoint(etrex ? parser.parseEtrexString(testString) : parser.parseString(testString));
+		} catch (IllegalArgumentException e) {
+			try {
+				if (etrex) parser.parseEtrex(testString); else parser.parse(testString);
+				fail("expected IllegalArgumentException for " + testString);
+			} catch (IllegalArgumentException e2) {
+				// expected
+			}
+			return;
+		}
+		if (etrex) parser.parseEtrex(testString); else parser.parse(testString);
+		assertEquals(testString, point.getLongitude().inRadians(), parser.getLongitudeInRadians(), 0.0);
+		assertEquals(testString, point.getLatitude().inRadians(), parser.getLatitudeInRadians(), 0.0);
+	}
+
+	/**
+	 * Test that the LatLonParser parse methods give the Geodetic2DPoint of the normalized strings
+	 */
+	@Test
+	public void testParse() {
+		LatLonParser parser = new LatLonParser();
+		for (String testString : testStrings) {
+			checkParse(parser, testString, false);
+		}
+		for (String testStringEtrex : testStringsEtrex) {
+			checkParse(parser, testStringEtrex, true);
+		}
+
+		// Part of a CharSequence, lat-lon order detection and out of range values
+		StringBuilder sb = new StringBuilder("x 38 53 20.76N 77 2 6.00W y");
+		parser.parse(sb, 2, sb.length() - 2);
+		assertEquals(38.88910, parser.getLatitudeAsDegrees(), 1e-5);
+		assertEquals(-77.03500, parser.getLongitudeAsDegrees(), 1e-5);
+		parser.parse("-77.035 38.889");
+		assertEquals(38.889, parser.getLatitudeAsDegrees(), 1e-12);
+		assertEquals(-77.035, parser.getLongitudeAsDegrees(), 1e-12);
+		parser.parse("38.889 -77.035");
+		assertEquals(-77.035, parser.getLatitudeAsDegrees(), 1e-12);
+		assertEquals(38.889, parser.getLongitudeAsDegrees(), 1e-12);
+		for (String bad : new String[]{"", "38.5", "95N 100E", "38 61 0N 77 0 0W", "38.5 77.5 10", "1 2 3 4 5 6 7"}) {
+			try {
+				parser.parse(bad);
+				fail("expected IllegalArgumentException for " + bad);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testNullLatitude() {
 		new Latitude((String)null);
@@ -293,6 +348,24 @@ public class TestLatLonStrings {
 		}
 	}
 
+	@Test
+	public void testTryParse() {
+		assertEquals(38.5, Latitude.tryParse("38 30 N").inDegrees(), 1e-12);
+		assertEquals(-77.25, Longitude.tryParse("77d 15m W").inDegrees(), 1e-12);
+		assertEquals(-12.0, Latitude.tryParse(" -12 ").inDegrees(), 1e-12);
+		for (String s : new String[]{null, "", "N", "200E", "+20N", "95", "12 N 5"}) {
+			assertNull(s, Latitude.tryParse(s));
+		}
+		for (String s : new String[]{null, "", "W", "20N", "-20W", "2000"}) {
+			assertNull(s, Longitude.tryParse(s));
+		}
+		assertEquals(new Geodetic2DPoint("(42 18 0 N, 71 3 30 W)"), Geodetic2DPoint.tryParse("(42 18 0 N, 71 3 30 W)"));
+		assertEquals(new Geodetic2DPoint("12.5, -40"), Geodetic2DPoint.tryParse(" 12.5, -40 "));
+		for (String s : new String[]{null, "", "()", "12 34", "95N, 10E", "10E, 20E", "12, abc"}) {
+			assertNull(s, Geodetic2DPoint.tryParse(s));
+		}
+	}
+
 	@Test
 	public void testNullLatCompare() {
 		Latitude lat = new Latitude(Math.PI/2);
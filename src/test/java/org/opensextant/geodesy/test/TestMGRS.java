@@ -304,6 +304,118 @@ public class TestMGRS {
         }
     }
 
+    @Test
+    public void testAppendTo() throws Exception {
+        String[] expected = {"18SUJ", "18SUJ20", "18SUJ2306", "18SUJ234064", "18SUJ23480647", "18SUJ2348306479"};
+        MGRS mgrs = new MGRS("18SUJ2348306479");
+        StringBuilder buf = new StringBuilder("x");
+        java.io.StringWriter writer = new java.io.StringWriter();
+        for (int precision = 0; precision <= 5; precision++) {
+            Assert.assertEquals(expected[precision], mgrs.toString(precision));
+            Assert.assertSame(buf, mgrs.appendTo(buf, precision));
+            mgrs.appendTo(writer, precision);
+        }
+        StringBuilder all = new StringBuilder();
+        for (String s : expected) all.append(s);
+        Assert.assertEquals("x" + all, buf.toString());
+        Assert.assertEquals(all.toString(), writer.toString());
+
+        // Leading zeros, single digit lon zones and UPS squares
+        Assert.assertEquals("4QFJ0000200003", new MGRS("4QFJ0000200003").toString(5));
+        Assert.assertEquals("ZAH00", new MGRS("ZAH0000").toString(1));
+        writer = new java.io.StringWriter();
+        new MGRS("ZAH0000").appendTo(new MGRS("4QFJ0000200003").appendTo(writer, 5), 1);
+        Assert.assertEquals("4QFJ0000200003ZAH00", writer.toString());
+        Assert.assertEquals("4QFJ0000200003ZAH00", new MGRS("ZAH0000").appendTo(
+                new MGRS("4QFJ0000200003").appendTo(new StringBuilder(), 5), 1).toString());
+
+        // An out of range precision appends nothing
+        for (int precision : new int[] { -1, 6 }) {
+            try {
+                mgrs.appendTo(writer, precision);
+                Assert.fail("Expected to throw IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                Assert.assertEquals("4QFJ0000200003ZAH00", writer.toString());
+            }
+        }
+
+        // The same strings from many threads at once
+        final MGRS[] cells = new MGRS[200];
+        final String[] strings = new String[cells.length];
+        Random r = new Random(1234L);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new MGRS(TestGeoPoint.randomGeodetic2DPoint(r));
+            strings[i] = cells[i].toString(5);
+        }
+        final boolean[] ok = {true};
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    StringBuilder b = new StringBuilder();
+                    for (int k = 0; k < 50; k++) {
+                        for (int i = 0; i < cells.length; i++) {
+                            b.setLength(0);
+                            if (!strings[i].equals(cells[i].appendTo(b, 5).toString()) ||
+                                    !strings[i].equals(cells[i].toString(5))) ok[0] = false;
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        Assert.assertTrue(ok[0]);
+    }
+
+    @Test
+    public void testBoundingBox() {
+        // Corners of the cells of strings and points, in UTM and UPS
+        MGRS mgrs = new MGRS(MGRS_washington_monument);
+        Geodetic2DBounds bbox = new Geodetic2DBounds(new UTM(18, 'N', 323483, 4306479).getGeodetic(),
+                new UTM(18, 'N', 323484, 4306480).getGeodetic());
+        Assert.assertEquals(bbox, mgrs.getBoundingBox());
+        Assert.assertSame(mgrs.getBoundingBox(), mgrs.getBoundingBox());
+        Assert.assertEquals(bbox, new MGRS(mgrs.toGeodetic2DPoint()).getBoundingBox());
+
+        mgrs = new MGRS("18SUJ234064");
+        bbox = new Geodetic2DBounds(new UTM(18, 'N', 323400, 4306400).getGeodetic(),
+                new UTM(18, 'N', 323500, 4306500).getGeodetic());
+        Assert.assertEquals(bbox, mgrs.getBoundingBox());
+
+        mgrs = new MGRS("ZAH0000");
+        bbox = new Geodetic2DBounds(new UPS('N', 2000000, 2000000).getGeodetic(),
+                new UPS('N', 2001000, 2001000).getGeodetic());
+        Assert.assertEquals(bbox, mgrs.getBoundingBox());
+    }
+
+    @Test
+    public void testBoundingBoxEagerCells() throws Exception {
+        // Ordinary UTM cells leave their corners until the bounding box is needed, while
+        // UPS cells and cells near the polar limits of UTM convert them at once
+        java.lang.reflect.Field field = MGRS.class.getDeclaredField("bbox");
+        field.setAccessible(true);
+        Assert.assertNull(field.get(new MGRS(MGRS_washington_monument)));
+        Assert.assertNotNull(field.get(new MGRS("ZAH0000")));
+        Assert.assertNotNull(field.get(new MGRS("BAN0000")));
+        Assert.assertNotNull(field.get(new MGRS(new Geodetic2DPoint(
+                new Longitude(0.0, Angle.DEGREES), new Latitude(-89.0, Angle.DEGREES)))));
+        Assert.assertNotNull(field.get(new MGRS(new Geodetic2DPoint(
+                new Longitude(10.0, Angle.DEGREES), new Latitude(83.99999, Angle.DEGREES)))));
+
+        // Cells on another ellipsoid near the western edge of the 7.5 degree safe part of
+        // lon zone 31, whose central meridian is 3 degrees east, with either kind of bbox
+        Ellipsoid clarke = Ellipsoid.getInstance("Clarke 1866");
+        MGRS mgrs = new MGRS(clarke, "31WBH1050");
+        Assert.assertNotNull(field.get(mgrs));
+        Assert.assertEquals(new Geodetic2DBounds(new UTM(31, 'N', 210000, 7750000).getGeodetic(),
+                new UTM(31, 'N', 211000, 7751000).getGeodetic()), mgrs.getBoundingBox());
+        mgrs = new MGRS(clarke, "31WBH1550");
+        Assert.assertNull(field.get(mgrs));
+        Assert.assertEquals(new Geodetic2DBounds(new UTM(31, 'N', 215000, 7750000).getGeodetic(),
+                new UTM(31, 'N', 216000, 7751000).getGeodetic()), mgrs.getBoundingBox());
+    }
+
     @Test
     public void testHashSet() {
         StringBuilder m = new StringBuilder("31UDQ");
@@ -439,6 +551,262 @@ public class TestMGRS {
         }
     }
 
+    /**
+     * This method tests that the batch encoder produces the same strings as MGRS objects
+     */
+    @Test
+    public void testBatchEncode() {
+        Random r = new Random(20070327L);
+        int n = 2000;
+        double[] lon = new double[n + 5];
+        double[] lat = new double[n + 5];
+        for (int i = 0; i < n; i++) {
+            lon[i] = -180.0 + 360.0 * r.nextDouble();
+            lat[i] = -90.0 + 180.0 * r.nextDouble();
+            if (i % 10 == 0) lat[i] = (i % 20 == 0) ? 84.0 + 6.0 * r.nextDouble() : -80.0 - 10.0 * r.nextDouble();
+            else if (i % 10 == 1) lon[i] = 42.0 * r.nextDouble(); // Norway & Svalbard special zones
+        }
+        // Poles, and points that cannot be encoded
+        lon[n] = 0.0;
+        lat[n] = 90.0;
+        lon[n + 1] = -77.0;
+        lat[n + 1] = 90.0;
+        lon[n + 2] = Double.NaN;
+        lat[n + 2] = 45.0;
+        lon[n + 3] = 10.0;
+        lat[n + 3] = 91.0;
+        lon[n + 4] = 0.0;
+        lat[n + 4] = -90.0;
+
+        for (int p = 0; p <= 5; p++) {
+            int w = MGRS.encodedLength(p);
+            char[] out = new char[w * lon.length];
+            Assert.assertEquals(n + 2, MGRS.encode(lon, lat, p, out));
+            for (int i = 0; i < lon.length; i++) {
+                String rec = new String(out, i * w, w);
+                String expected;
+                try {
+                    expected = new MGRS(new Longitude(lon[i], Angle.DEGREES),
+                            new Latitude(lat[i], Angle.DEGREES)).toString(p);
+                } catch (IllegalArgumentException ex) {
+                    expected = "";
+                }
+                // The batch encoder pads UTM zones with a leading zero and UPS records with blanks
+                if (expected.length() == w - 1) expected = "0" + expected;
+                else if (expected.length() == w - 2) expected = "  " + expected;
+                else if (expected.length() == 0) expected = new String(new char[w]).replace('\0', ' ');
+                Assert.assertEquals(expected, rec);
+            }
+        }
+
+        Ellipsoid clarke = Ellipsoid.getInstance("Clarke 1866");
+        char[] out = new char[MGRS.encodedLength(5) * lon.length];
+        MGRS.encode(clarke, lon, lat, 5, out);
+        Geodetic2DPoint pt = new Geodetic2DPoint(new Longitude(lon[2], Angle.DEGREES),
+                new Latitude(lat[2], Angle.DEGREES));
+        Assert.assertEquals(new MGRS(clarke, pt).toString(5), new String(out, 2 * 15, 15).trim());
+
+        try {
+            MGRS.encode(lon, lat, 5, new char[10]);
+            Assert.fail("Expected exception: java.lang.IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            MGRS.encode(lon, new double[1], 5, out);
+            Assert.fail("Expected exception: java.lang.IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            MGRS.encode(lon, lat, 6, out);
+            Assert.fail("Expected exception: java.lang.IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * This method tests that infinite or too big angles in the middle of a batch are written
+     * as blank records without stopping the points that follow them
+     */
+    @Test
+    public void testBatchEncodeBadAngles() {
+        double[] lon = {-77.0, Double.POSITIVE_INFINITY, 10.0, 1e6, -77.0, 2.0};
+        double[] lat = {38.0, 45.0, Double.NEGATIVE_INFINITY, 45.0, 1e6, 48.0};
+        int w = MGRS.encodedLength(5);
+        char[] out = new char[w * lon.length];
+        Assert.assertEquals(2, MGRS.encode(lon, lat, 5, out));
+        String blank = new String(new char[w]).replace('\0', ' ');
+        for (int i = 1; i <= 4; i++) Assert.assertEquals(blank, new String(out, i * w, w));
+        Assert.assertEquals(new MGRS(new Longitude(-77.0, Angle.DEGREES), new Latitude(38.0, Angle.DEGREES))
+                .toString(5), new String(out, 0, w));
+        Assert.assertEquals(new MGRS(new Longitude(2.0, Angle.DEGREES), new Latitude(48.0, Angle.DEGREES))
+                .toString(5), new String(out, 5 * w, w));
+    }
+
+    /**
+     * This method tests that the MGRSParser decodes slices of text, bytes and buffers the
+     * same way as the MGRS String constructors
+     */
+    @Test
+    public void testParser() throws Exception {
+        MGRSParser parser = new MGRSParser();
+        String[] valid = {MGRS_washington_monument, "18SUJ23480647", "18 SUJ 234 064", "4qfj12345678",
+                "32VKL", "ZAH0000", "BAN0000", "YZG 12 34", "A-TN-1234-5678"};
+        Random r = new Random(20070327L);
+        for (int i = 0; i < 200 + valid.length; i++) {
+            String ms = (i < valid.length) ? valid[i] : new MGRS(new Longitude(-180.0 + 360.0 * r.nextDouble(),
+                    Angle.DEGREES), new Latitude(-89.0 + 178.0 * r.nextDouble(), Angle.DEGREES)).toString(i % 6);
+            MGRS m;
+            try {
+                m = new MGRS(ms);
+            } catch (IllegalArgumentException ex) {
+                continue; // some cells at lat band edges do not parse back (see testFormatAndParse)
+            }
+            // Embed the coordinate in surrounding text, to test slices
+            String text = "id=7;" + ms + ";x";
+            byte[] ascii = text.getBytes("US-ASCII");
+            int start = 5;
+            int end = start + ms.length();
+            for (int source = 0; source < 3; source++) {
+                if (source == 0) parser.parse(text, start, end);
+                else if (source == 1) parser.parse(ascii, start, ms.length());
+                else parser.parse(java.nio.ByteBuffer.wrap(ascii), start, ms.length());
+                Assert.assertEquals(m.getPrecision(), parser.getPrecision());
+                Geodetic2DBounds bbox = parser.getBoundingBox();
+                Assert.assertEquals(m.getBoundingBox(), bbox);
+                Geodetic2DPoint sw = (parser.getLonZone() > 0) ?
+                        new UTM(parser.getLonZone(), parser.getHemisphere(), parser.getGridEasting(),
+                                parser.getGridNorthing()).getGeodetic() :
+                        new UPS(parser.getHemisphere(), parser.getGridEasting(),
+                                parser.getGridNorthing()).getGeodetic();
+                Assert.assertEquals(sw.getLongitude().inRadians(), parser.getLongitudeInRadians(), 1e-12);
+                Assert.assertEquals(sw.getLatitude().inRadians(), parser.getLatitudeInRadians(), 1e-12);
+                double[] center = new double[2];
+                Assert.assertTrue(parser.getCenterInRadians(center));
+                Assert.assertEquals(m.toGeodetic2DPoint().getLongitude().inRadians(), center[0], 1e-12);
+                Assert.assertEquals(m.toGeodetic2DPoint().getLatitude().inRadians(), center[1], 1e-12);
+                int digits = String.valueOf(m.getPrecision()).length() - 1;
+                String expected = m.toString(5 - digits);
+                String prefix = (parser.getLonZone() > 0) ? String.valueOf(parser.getLonZone()) : "";
+                Assert.assertEquals(expected.substring(0, expected.length() - 2 * (5 - digits)),
+                        prefix + parser.getLatBand() + parser.getXSquare() + parser.getYSquare());
+            }
+        }
+        parser.parse("18SUJ2348306479");
+        Assert.assertEquals(18, parser.getLonZone());
+        Assert.assertEquals('S', parser.getLatBand());
+        Assert.assertEquals('N', parser.getHemisphere());
+        Assert.assertEquals(23483, parser.getEasting());
+        Assert.assertEquals(6479, parser.getNorthing());
+        Assert.assertEquals(323483, parser.getGridEasting());
+        Assert.assertEquals(4306479, parser.getGridNorthing());
+        Assert.assertEquals(1, parser.getPrecision());
+
+        // Invalid strings must fail with the same exceptions as the MGRS constructors
+        String[] invalid = {"", " - ", "1234", "123ABC", "61CAA", "18SU", "18S U1234", "18SUJ123",
+                "18SUJ12345678901", "18SUJ12x4", "1AAA", "54WZZ", "CAA", "BIA", "ZAZ"};
+        for (String ms : invalid) {
+            String expected = null;
+            try {
+                new MGRS(ms);
+            } catch (IllegalArgumentException ex) {
+                expected = ex.getMessage();
+            }
+            Assert.assertNotNull(ms, expected);
+            try {
+                parser.parse(ms.getBytes("US-ASCII"), 0, ms.length());
+                Assert.fail("Expected exception: java.lang.IllegalArgumentException for " + ms);
+            } catch (IllegalArgumentException ex) {
+                Assert.assertEquals(expected, ex.getMessage());
+            }
+        }
+        try {
+            parser.parse("18SUJ", 2, 6);
+            Assert.fail("Expected exception: java.lang.IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        // A ByteBuffer coordinate must end at or before the limit, not just the capacity
+        java.nio.ByteBuffer limited = java.nio.ByteBuffer.wrap("18SUJ2348306479".getBytes("US-ASCII"));
+        limited.limit(7);
+        Assert.assertTrue(parser.tryParse(limited, 0, 7));
+        Assert.assertEquals(10000, parser.getPrecision());
+        try {
+            parser.tryParse(limited, 0, 15);
+            Assert.fail("Expected exception: java.lang.IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().endsWith("limit 7"));
+        }
+
+        // Strict parsing rejects encodings that are not optimal for the projected point
+        MGRSParser strictParser = new MGRSParser(Ellipsoid.getInstance("WGS 84"), true);
+        for (String ms : new String[]{"31VFG0000000000", "BAN0000", "ZAC"}) {
+            parser.parse(ms);
+            boolean failed = false;
+            try {
+                new MGRS(ms, true);
+            } catch (IllegalArgumentException ex) {
+                failed = true;
+            }
+            try {
+                strictParser.parse(ms);
+                Assert.assertFalse(ms, failed);
+            } catch (IllegalArgumentException ex) {
+                Assert.assertTrue(ms, failed);
+            }
+        }
+    }
+
+    /**
+     * This method tests that the tryParse methods accept and reject the same strings as
+     * the MGRS constructors and MGRSParser.parse, without throwing exceptions.
+     */
+    @Test
+    public void testTryParse() {
+        MGRSParser parser = new MGRSParser();
+        Assert.assertFalse(parser.tryParse(null));
+        Assert.assertNull(MGRS.tryParse(null));
+        Assert.assertEquals(MGRSCell.INVALID, MGRSCell.tryFromString(null));
+        MGRS m = MGRS.tryParse("18SUJ2348306479");
+        Assert.assertEquals(new MGRS("18SUJ2348306479"), m);
+        Assert.assertEquals(MGRSCell.fromString("18S UJ 234 064"), MGRSCell.tryFromString("18S UJ 234 064"));
+        Assert.assertNull(MGRS.tryParse(Ellipsoid.getInstance("WGS 84"), "1CBA", true));
+        Assert.assertNotNull(MGRS.tryParse(Ellipsoid.getInstance("WGS 84"), "1CBA", false));
+        Assert.assertFalse(new MGRSParser(Ellipsoid.getInstance("WGS 84"), true).tryParse("AAA"));
+
+        // Random edits of valid strings, compared with the exceptions of the parse method
+        Random r = new Random(20070327L);
+        String alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ -";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder ms = new StringBuilder(new MGRS(TestGeoPoint.randomGeodetic2DPoint(r)).toString());
+            ms.setLength(5 + r.nextInt(ms.length() - 4));
+            int edits = r.nextInt(3);
+            for (int j = 0; j < edits; j++) {
+                int k = r.nextInt(ms.length());
+                ms.setCharAt(k, alphabet.charAt(r.nextInt(alphabet.length())));
+            }
+            boolean valid = true;
+            try {
+                parser.parse(ms);
+            } catch (IllegalArgumentException ex) {
+                valid = false;
+            }
+            Assert.assertEquals(ms.toString(), valid, parser.tryParse(ms));
+            byte[] ascii = ms.toString().getBytes();
+            Assert.assertEquals(ms.toString(), valid, parser.tryParse(ascii, 0, ascii.length));
+            Assert.assertEquals(ms.toString(), valid, MGRSCell.tryFromString(ms) != MGRSCell.INVALID);
+            if (valid) Assert.assertEquals(MGRSCell.fromParser(parser), MGRSCell.tryFromString(ms));
+            MGRS tm = MGRS.tryParse(ms);
+            try {
+                Assert.assertEquals(ms.toString(), new MGRS(ms), tm);
+            } catch (IllegalArgumentException ex) {
+                Assert.assertNull(ms.toString(), tm);
+            }
+        }
+    }
+
     /**
      * Main method for running class tests.
      *
@@ -0,0 +1,267 @@
+/****************************************************************************************
+ *  TestMGRSCell.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestMGRSCell {
+
+    private final Random r = new Random(4321L);
+
+    /* Random point, mixing general, date line, Norway/Svalbard and polar locations */
+    private Geodetic2DPoint randomPoint(int i) {
+        switch (i % 5) {
+            case 0:
+                return TestGeoPoint.geodetic2DPoint(r.nextBoolean() ? 179.9 + 0.1 * r.nextDouble() : -180.0 + 0.1 * r.nextDouble(),
+                        -80.0 + 164.0 * r.nextDouble());
+            case 1:
+                return TestGeoPoint.geodetic2DPoint(42.0 * r.nextDouble(), 56.0 + 28.0 * r.nextDouble());
+            case 2:
+                return TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), (r.nextBoolean() ? 1 : -1) * (83.0 + 7.0 * r.nextDouble()));
+            default:
+                return TestGeoPoint.randomGeodetic2DPoint(r);
+        }
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        GeodeticPointBuffer points = new GeodeticPointBuffer(500);
+        for (int i = 0; i < 500; i++) {
+            Geodetic2DPoint pt = randomPoint(i);
+            points.add(pt);
+            MGRS mgrs = new MGRS(pt);
+            for (int d = 0; d <= 5; d++) {
+                String s = mgrs.toString(d);
+                long cell = MGRSCell.fromGeodetic(pt, d);
+                Assert.assertTrue(cell >= 0L);
+                Assert.assertEquals(s, MGRSCell.toString(cell));
+                Assert.assertEquals(s, cell, MGRSCell.fromMGRS(mgrs, d));
+                // MGRSParser rejects some coarse cells whose southwest corner is south of
+                // their lat band, so strings are only parsed back at 100 meters and finer
+                if (d >= 3) {
+                    Assert.assertEquals(s, cell, MGRSCell.fromString(s));
+                    Assert.assertEquals(s, cell, MGRSCell.fromString(s.toLowerCase()));
+                }
+                Assert.assertEquals(s, d, MGRSCell.getPrecisionDigits(cell));
+                Assert.assertEquals(s, (int) Math.pow(10, 5 - d), MGRSCell.getPrecision(cell));
+                Assert.assertEquals(s, cell, MGRSCell.parent(MGRSCell.fromGeodetic(pt, 5), d));
+            }
+            long cell = MGRSCell.fromGeodetic(pt, 5);
+            String s = mgrs.toString(5);
+            Assert.assertEquals(s, cell, MGRSCell.fromMGRS(MGRSCell.toMGRS(cell)));
+            int zone = MGRSCell.getLonZone(cell);
+            Assert.assertEquals(s, (zone == 0) ? "" : Integer.toString(zone), s.substring(0, s.length() - 13));
+            Assert.assertEquals(s, s.charAt(s.length() - 13), MGRSCell.getLatBand(cell));
+            Assert.assertEquals(s, s.charAt(s.length() - 12), MGRSCell.getXSquare(cell));
+            Assert.assertEquals(s, s.charAt(s.length() - 11), MGRSCell.getYSquare(cell));
+            Assert.assertEquals(s, Integer.parseInt(s.substring(s.length() - 10, s.length() - 5)), MGRSCell.getEasting(cell));
+            Assert.assertEquals(s, Integer.parseInt(s.substring(s.length() - 5)), MGRSCell.getNorthing(cell));
+        }
+
+        // Batch encoding gives the same ids, and marks points that cannot be encoded
+        points.add(new Geodetic2DPoint(new Longitude(10.0, Angle.DEGREES), new Latitude(90.0, Angle.DEGREES)));
+        long[] ids = new long[points.size()];
+        Assert.assertEquals(500, MGRSCell.encode(points, 3, ids));
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(MGRSCell.fromGeodetic(points.getGeodetic3DPoint(i), 3), ids[i]);
+        }
+        Assert.assertEquals(MGRSCell.INVALID, ids[500]);
+
+        // Different spellings of one cell share an id, and MGRS objects keep their own precision
+        long washington = MGRSCell.fromString("18SUJ2348306479");
+        Assert.assertEquals(washington, MGRSCell.fromString("18S UJ 23483 06479"));
+        Assert.assertEquals(washington, MGRSCell.fromMGRS(new MGRS("18SUJ2348306479")));
+        Assert.assertEquals(MGRSCell.fromString("4QFJ1234"), MGRSCell.fromString("04QFJ1234"));
+        Assert.assertEquals(2, MGRSCell.getPrecisionDigits(MGRSCell.fromMGRS(new MGRS("4QFJ1234"))));
+    }
+
+    @Test
+    public void testParentsAndChildren() {
+        long cell = MGRSCell.fromString("18SUJ2348306479");
+        Assert.assertEquals("18SUJ23480647", MGRSCell.toString(MGRSCell.parent(cell)));
+        Assert.assertEquals("18SUJ", MGRSCell.toString(MGRSCell.parent(cell, 0)));
+        Assert.assertEquals(cell, MGRSCell.parent(cell, 5));
+        for (int d = 4; d >= 0; d--) {
+            long parent = MGRSCell.parent(cell);
+            // The cell is the child of its parent in the column and row of its last digits
+            String s = MGRSCell.toString(cell);
+            int column = s.charAt(s.length() - d - 2) - '0';
+            int row = s.charAt(s.length() - 1) - '0';
+            Assert.assertEquals(s, cell, MGRSCell.child(parent, column, row));
+            cell = parent;
+        }
+        Assert.assertEquals("BAN99", MGRSCell.toString(MGRSCell.child(MGRSCell.fromString("BAN"), 9, 9)));
+    }
+
+    @Test
+    public void testNeighbors() {
+        MGRSParser a = new MGRSParser();
+        MGRSParser b = new MGRSParser();
+        for (int i = 0; i < 200; i++) {
+            Geodetic2DPoint pt = TestGeoPoint.geodetic2DPoint(-180.0 + 360.0 * r.nextDouble(), -79.0 + 158.0 * r.nextDouble());
+            int d = r.nextInt(6);
+            long cell = MGRSCell.fromGeodetic(pt, d);
+            int size = MGRSCell.getPrecision(cell);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    long next = MGRSCell.neighbor(cell, dx, dy);
+                    Assert.assertEquals(d, MGRSCell.getPrecisionDigits(next));
+                    Assert.assertEquals(dx == 0 && dy == 0, next == cell);
+                    // Coarse cells cut by zone or band edges may not hold their own centers,
+                    // (nor always parse), so exact steps are checked at 100 meters and finer
+                    if (d < 3) continue;
+                    a.parse(MGRSCell.toString(cell));
+                    b.parse(MGRSCell.toString(next));
+                    if (a.getLonZone() == b.getLonZone() && a.getHemisphere() == b.getHemisphere()) {
+                        // Within one projection, the step is exactly dx and dy cells
+                        Assert.assertEquals(dx * size, b.getGridEasting() - a.getGridEasting());
+                        Assert.assertEquals(dy * size, b.getGridNorthing() - a.getGridNorthing());
+                        Assert.assertEquals(cell, MGRSCell.neighbor(next, -dx, -dy));
+                    }
+                }
+            }
+        }
+
+        // Steps across the date line, the equator, a special zone, a lat band and into UPS
+        Assert.assertEquals("1NAA", MGRSCell.toString(MGRSCell.neighbor(MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(179.99, 0.5), 1), 1, 0)).substring(0, 4));
+        Assert.assertEquals('M', MGRSCell.getLatBand(MGRSCell.neighbor(MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(10.0, 0.0005), 3), 0, -1)));
+        Assert.assertEquals(33, MGRSCell.getLonZone(MGRSCell.neighbor(MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(8.999, 75.0), 3), 1, 0)));
+        Assert.assertEquals('T', MGRSCell.getLatBand(MGRSCell.neighbor(MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(-77.0, 39.999), 2), 0, 1)));
+        long polar = MGRSCell.neighbor(MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(20.0, 83.999), 2), 0, 1);
+        Assert.assertEquals(0, MGRSCell.getLonZone(polar));
+        Assert.assertEquals('Z', MGRSCell.getLatBand(polar));
+    }
+
+    @Test
+    public void testCounts() {
+        GeodeticPointBuffer points = new GeodeticPointBuffer(5000);
+        for (int i = 0; i < 5000; i++) {
+            points.add(TestGeoPoint.geodetic2DPoint(-10.0 + 3.0 * r.nextDouble(), 50.0 + 3.0 * r.nextDouble()));
+        }
+        long[] ids = new long[points.size() + 1];
+        MGRSCell.encode(points, 1, ids);
+        ids[points.size()] = MGRSCell.INVALID;
+
+        MGRSCellCounts counts = new MGRSCellCounts();
+        Assert.assertTrue(counts.isEmpty());
+        Assert.assertEquals(points.size(), counts.addAll(ids, ids.length));
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Map<Long, Long> expectedParents = new HashMap<Long, Long>();
+        for (int i = 0; i < points.size(); i++) {
+            increment(expected, ids[i]);
+            increment(expectedParents, MGRSCell.parent(ids[i]));
+        }
+        assertCounts(expected, counts);
+        assertCounts(expectedParents, counts.rollUp(0));
+        Assert.assertEquals(0L, counts.get(MGRSCell.fromString("BAN")));
+        Assert.assertFalse(counts.contains(MGRSCell.INVALID));
+
+        // Merging a table doubles every count, and ids come back sorted
+        MGRSCellCounts merged = new MGRSCellCounts(10);
+        merged.addAll(counts);
+        merged.addAll(counts);
+        long[] cells = merged.cells();
+        Assert.assertEquals(expected.size(), cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) Assert.assertTrue(cells[i - 1] < cells[i]);
+            Assert.assertEquals(2L * expected.get(cells[i]), merged.get(cells[i]));
+        }
+        merged.clear();
+        Assert.assertEquals(0, merged.size());
+        Assert.assertEquals(0L, merged.get(cells[0]));
+        merged.add(cells[0], 7L);
+        Assert.assertEquals(7L, merged.get(cells[0]));
+    }
+
+    /**
+     * This method tests merging a large table into an empty one, which must not slow to a
+     * crawl probing through the runs the other table's slot order would otherwise make
+     */
+    @Test
+    public void testMergeLarge() {
+        // All 1,000,000 cells of a 100 km square at 100 m precision
+        long square = MGRSCell.fromString("18SUJ");
+        MGRSCellCounts counts = new MGRSCellCounts();
+        for (int i = 0; i < 100; i++) {
+            long km10 = MGRSCell.child(square, i / 10, i % 10);
+            for (int j = 0; j < 100; j++) {
+                long km = MGRSCell.child(km10, j / 10, j % 10);
+                for (int k = 0; k < 100; k++) counts.add(MGRSCell.child(km, k / 10, k % 10), i + 1L);
+            }
+        }
+        Assert.assertEquals(1000000, counts.size());
+
+        MGRSCellCounts merged = new MGRSCellCounts();
+        merged.addAll(counts);
+        Assert.assertEquals(counts.size(), merged.size());
+        long[] cells = counts.cells();
+        for (long cell : cells) Assert.assertEquals(counts.get(cell), merged.get(cell));
+        merged.addAll(counts);
+        Assert.assertEquals(counts.size(), merged.size());
+        Assert.assertEquals(2L * counts.get(cells[cells.length - 1]), merged.get(cells[cells.length - 1]));
+        Assert.assertEquals(10000L * 5050L, counts.rollUp(0).get(square));
+    }
+
+    private static void increment(Map<Long, Long> map, long cell) {
+        Long count = map.get(cell);
+        map.put(cell, (count == null) ? 1L : count + 1L);
+    }
+
+    private static void assertCounts(Map<Long, Long> expected, MGRSCellCounts counts) {
+        Assert.assertEquals(expected.size(), counts.size());
+        for (Map.Entry<Long, Long> e : expected.entrySet()) {
+            Assert.assertTrue(counts.contains(e.getKey()));
+            Assert.assertEquals(e.getValue().longValue(), counts.get(e.getKey()));
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        long cell = MGRSCell.fromString("18SUJ23");
+        Runnable[] bad = {
+                new Runnable() { public void run() { MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(0.0, 0.0), 6); } },
+                new Runnable() { public void run() { MGRSCell.fromGeodetic(TestGeoPoint.geodetic2DPoint(10.0, 90.0), 2); } },
+                new Runnable() { public void run() { MGRSCell.fromString("18SUJ234"); } },
+                new Runnable() { public void run() { MGRSCell.toString(MGRSCell.INVALID); } },
+                new Runnable() { public void run() { MGRSCell.parent(MGRSCell.fromString("18SUJ")); } },
+                new Runnable() { public void run() { MGRSCell.parent(MGRSCell.fromString("18SUJ23"), 2); } },
+                new Runnable() { public void run() { MGRSCell.child(MGRSCell.fromString("18SUJ2348306479"), 0, 0); } },
+                new Runnable() { public void run() { MGRSCell.child(MGRSCell.fromString("18SUJ23"), 10, 0); } },
+                new Runnable() { public void run() { new MGRSCellCounts().add(MGRSCell.INVALID); } },
+                new Runnable() { public void run() { new MGRSCellCounts().addAll(new long[2], 3); } },
+                new Runnable() { public void run() { new MGRSCellCounts(-1); } },
+                new Runnable() { public void run() { new MGRSCellCounts((1 << 29) + 1); } },
+                new Runnable() { public void run() { new MGRSCellCounts(Integer.MAX_VALUE); } },
+        };
+        for (int i = 0; i < bad.length; i++) {
+            try {
+                bad[i].run();
+                Assert.fail("Expected case " + i + " to throw IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals("18SUJ23", MGRSCell.toString(cell));
+        Assert.assertEquals(Arrays.toString(new long[0]), Arrays.toString(new MGRSCellCounts().cells()));
+    }
+}
@@ -0,0 +1,152 @@
+/****************************************************************************************
+ *  TestMGRSCellCover.java
+ *
+ *  (C) Copyright MITRE Corporation 2015
+ *
+ *  The program is provided "as is" without any warranty express or implied, including
+ *  the warranty of non-infringement and the implied warranties of merchantability and
+ *  fitness for a particular purpose.  The Copyright owner will not be liable for any
+ *  damages suffered by you as a result of using the Program.  In no event will the
+ *  Copyright owner be liable for any special, indirect or consequential damages or
+ *  lost profits even if the Copyright owner has been advised of the possibility of
+ *  their occurrence.
+ *
+ ***************************************************************************************/
+package org.opensextant.geodesy.test;
+
+import org.opensextant.geodesy.*;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+public class TestMGRSCellCover {
+
+    private final Random r = new Random(1234L);
+
+    private static Geodetic2DBounds bounds(double west, double south, double east, double north) {
+        Geodetic2DBounds bbox = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(west, south));
+        bbox.setEastLon(new Longitude(east, Angle.DEGREES));
+        bbox.setNorthLat(new Latitude(north, Angle.DEGREES));
+        return bbox;
+    }
+
+    /* Every cell of a cover, checking that none is returned twice */
+    private static Set<Long> cells(MGRSCellCover cover) {
+        Set<Long> cells = new HashSet<Long>();
+        while (cover.hasNext()) {
+            long cell = cover.next();
+            Assert.assertTrue(MGRSCell.toString(cell), cells.add(cell));
+            Assert.assertEquals(cover.getPrecisionDigits(), MGRSCell.getPrecisionDigits(cell));
+        }
+        return cells;
+    }
+
+    /* Check that the cells of random points within the bounds are in its cover */
+    private void checkBounds(Geodetic2DBounds bbox, int digits, int maxCells) {
+        Set<Long> cells = cells(new MGRSCellCover(bbox, digits));
+        Assert.assertTrue(bbox + " has " + cells.size() + " cells", cells.size() <= maxCells);
+        double west = bbox.getWestLon().inDegrees(), east = bbox.getEastLon().inDegrees();
+        double south = bbox.getSouthLat().inDegrees(), north = bbox.getNorthLat().inDegrees();
+        double width = (west <= east) ? east - west : east - west + 360.0;
+        for (int i = 0; i < 2000; i++) {
+            // Half of the points are on the edges of the bounds
+            double u = (i % 4 == 0) ? 0.0 : (i % 4 == 1) ? 1.0 : r.nextDouble();
+            double v = (i % 4 >= 2) ? (i % 2) : r.nextDouble();
+            double lat = south + v * (north - south);
+            // MGRS only encodes a pole at longitude 0
+            Geodetic2DPoint pt = TestGeoPoint.geodetic2DPoint(Math.abs(lat) == 90.0 ? 0.0 : west + u * width, lat);
+            long cell = MGRSCell.fromGeodetic(pt, digits);
+            Assert.assertTrue(pt + " " + MGRSCell.toString(cell), cells.contains(cell));
+        }
+    }
+
+    @Test
+    public void testBounds() {
+        checkBounds(bounds(-77.2, 38.8, -76.9, 39.0), 2, 1200);                 // Washington
+        checkBounds(bounds(-77.0002, 38.9, -76.9994, 38.9004), 5, 4000);        // 70 m by 45 m
+        checkBounds(bounds(176.0, -20.0, -175.0, -14.0), 0, 120);               // date line
+        checkBounds(bounds(2.0, 55.0, 10.0, 65.0), 1, 12000);                   // Norway, 32V
+        checkBounds(bounds(0.0, 71.0, 43.0, 83.9), 0, 400);                     // Svalbard, X band
+        checkBounds(bounds(-3.0, -2.0, 3.0, 2.0), 1, 3500);                     // equator, zones 30 and 31
+        checkBounds(bounds(-179.9, 78.0, 179.9, 90.0), 0, 1200);                // north polar cap
+        checkBounds(bounds(10.0, -90.0, 150.0, -75.0), 0, 600);                 // south pole
+        checkBounds(bounds(-60.0, 85.0, -59.0, 86.0), 2, 1200);                 // UPS Y band
+    }
+
+    @Test
+    public void testPointAndWorld() {
+        Geodetic2DPoint pt = TestGeoPoint.geodetic2DPoint(-77.0365, 38.8977);
+        for (int digits = 0; digits <= 5; digits++) {
+            Set<Long> cells = cells(new MGRSCellCover(new Geodetic2DBounds(pt), digits));
+            Assert.assertTrue(cells.contains(MGRSCell.fromGeodetic(pt, digits)));
+            Assert.assertTrue(cells.size() <= 4);
+        }
+
+        // Every 100 km square of the world, once
+        Geodetic2DBounds world = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(0.0, 0.0));
+        world.grow(2.1E7);
+        Set<Long> cells = cells(new MGRSCellCover(world, 0));
+        for (int i = 0; i < 5000; i++) {
+            long cell = MGRSCell.fromGeodetic(TestGeoPoint.randomGeodetic2DPoint(r), 0);
+            Assert.assertTrue(MGRSCell.toString(cell), cells.contains(cell));
+        }
+        Assert.assertTrue(cells.size() + " cells", cells.size() < 80000);
+    }
+
+    /* Check that the cells of random points within a circle are in its cover */
+    private void checkCircle(Geodetic2DPoint center, double radius, int digits, int maxCells) {
+        Geodetic2DCircle circle = new Geodetic2DCircle(center, radius);
+        Set<Long> cells = cells(new MGRSCellCover(circle, digits));
+        Assert.assertTrue(circle + " has " + cells.size() + " cells", cells.size() <= maxCells);
+        for (int i = 0; i < 2000; i++) {
+            double d = (i % 2 == 0) ? radius : radius * Math.sqrt(r.nextDouble());
+            Angle az = new Angle(360.0 * r.nextDouble(), Angle.DEGREES);
+            Geodetic2DPoint pt = new Geodetic2DArc(center, d, az).getPoint2();
+            long cell = MGRSCell.fromGeodetic(pt, digits);
+            Assert.assertTrue(pt + " " + MGRSCell.toString(cell), cells.contains(cell));
+        }
+    }
+
+    @Test
+    public void testCircles() {
+        checkCircle(TestGeoPoint.geodetic2DPoint(-77.0365, 38.8977), 5000.0, 3, 9000); 
+        checkCircle(TestGeoPoint.geodetic2DPoint(-77.0365, 38.8977), 50.0, 5, 9000);
+        checkCircle(TestGeoPoint.geodetic2DPoint(179.8, 10.0), 150000.0, 1, 800);                      // date line
+        checkCircle(TestGeoPoint.geodetic2DPoint(3.0, 60.0), 120000.0, 1, 600);                        // 31V, 32V
+        checkCircle(TestGeoPoint.geodetic2DPoint(20.0, 78.0), 300000.0, 0, 60);                        // Svalbard
+        checkCircle(TestGeoPoint.geodetic2DPoint(45.0, 87.0), 600000.0, 0, 300);                       // around the pole
+        checkCircle(TestGeoPoint.geodetic2DPoint(-100.0, -88.0), 100000.0, 2, 33000);                  // around the pole
+        checkCircle(TestGeoPoint.geodetic2DPoint(0.0, -79.9), 40000.0, 2, 6000);                       // UTM and UPS
+    }
+
+    @Test
+    public void testInvalid() {
+        Geodetic2DBounds bbox = new Geodetic2DBounds(TestGeoPoint.geodetic2DPoint(0.0, 0.0));
+        try {
+            new MGRSCellCover(bbox, 6);
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new MGRSCellCover(new Geodetic2DCircle(TestGeoPoint.geodetic2DPoint(0.0, 0.0), 10.0), -1);
+            Assert.fail("Expected to throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        MGRSCellCover cover = new MGRSCellCover(bbox, 0);
+        cells(cover);
+        Assert.assertFalse(cover.hasNext());
+        try {
+            cover.next();
+            Assert.fail("Expected to throw NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+}
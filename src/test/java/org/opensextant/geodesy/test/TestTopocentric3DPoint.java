@@ -1,11 +1,22 @@
 package org.opensextant.geodesy.test;
 
 import org.junit.Test;
+import org.opensextant.geodesy.Angle;
+import org.opensextant.geodesy.Ellipsoid;
 import org.opensextant.geodesy.FrameOfReference;
 import org.opensextant.geodesy.GeoPoint;
+import org.opensextant.geodesy.GeocentricPoint;
 import org.opensextant.geodesy.Geodetic3DPoint;
+import org.opensextant.geodesy.Latitude;
+import org.opensextant.geodesy.Longitude;
 import org.opensextant.geodesy.Topocentric3DPoint;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
@@ -76,4 +87,112 @@ public class TestTopocentric3DPoint {
 		assertFalse(p1.equals(pNull));
 	}
 
+	@Test
+	public void testArrayConversions() throws Exception {
+		Random r = new Random(42L);
+		int n = 200;
+		double[] lon = new double[n], lat = new double[n], h = new double[n];
+		for (int i = 0; i < n; i++) {
+			lon[i] = Math.toRadians(-180.0 + r.nextDouble() * 360.0);
+			lat[i] = Math.toRadians(-90.0 + r.nextDouble() * 180.0);
+			h[i] = -100.0 + r.nextDouble() * 20000.0;
+		}
+		FrameOfReference f = new FrameOfReference(new Geodetic3DPoint(
+				new Longitude(-77.0365, Angle.DEGREES), new Latitude(38.8895, Angle.DEGREES), 10.0));
+		checkArrayConversions(f, lon, lat, h);
+
+		// The cached origin rotation must follow changes to the frame
+		f.setTopographicOrigin(new Geodetic3DPoint(
+				new Longitude(151.2, Angle.DEGREES), new Latitude(-33.9, Angle.DEGREES), 50.0));
+		checkArrayConversions(f, lon, lat, h);
+		f.setEllipsoid(Ellipsoid.getInstance("Clarke 1866"));
+		checkArrayConversions(f, lon, lat, h);
+
+		// ... and be restored when the frame is deserialized
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(f);
+		oos.close();
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		checkArrayConversions((FrameOfReference) ois.readObject(), lon, lat, h);
+	}
+
+	@Test
+	public void testSetEllipsoidMovesOrigin() {
+		Geodetic3DPoint origin = new Geodetic3DPoint(
+				new Longitude(-77.0365, Angle.DEGREES), new Latitude(38.8895, Angle.DEGREES), 10.0);
+		FrameOfReference f = new FrameOfReference(origin);
+		GeocentricPoint wgs84Origin = f.toGeocentric(origin);
+		Ellipsoid clarke = Ellipsoid.getInstance("Clarke 1866");
+		f.setEllipsoid(clarke);
+
+		// The origin keeps its geodetic coordinates, so its geocentric position moves
+		assertEquals(origin, f.getTopographicOrigin());
+		GeocentricPoint clarkeOrigin = f.toGeocentric(origin);
+		assertTrue(Math.abs(clarkeOrigin.getX() - wgs84Origin.getX()) > 1.0);
+		Topocentric3DPoint t = f.toTopocentric(origin);
+		assertEquals(0.0, t.getEasting(), 1e-6);
+		assertEquals(0.0, t.getNorthing(), 1e-6);
+		assertEquals(0.0, t.getElevation(), 1e-6);
+		t = f.toTopocentric(wgs84Origin);
+		assertTrue(Math.abs(t.getElevation()) + Math.abs(t.getNorthing()) > 1.0);
+
+		// ... just as if the frame had been created with the new Ellipsoid
+		Topocentric3DPoint expected = new FrameOfReference(clarke, origin).toTopocentric(wgs84Origin);
+		assertEquals(expected.getEasting(), t.getEasting(), 0.0);
+		assertEquals(expected.getNorthing(), t.getNorthing(), 0.0);
+		assertEquals(expected.getElevation(), t.getElevation(), 0.0);
+	}
+
+	/* Compare the array conversions of a frame against its object conversions */
+	private void checkArrayConversions(FrameOfReference f, double[] lon, double[] lat, double[] h) {
+		int n = lon.length;
+		double[] x = new double[n], y = new double[n], z = new double[n];
+		double[] e = new double[n], no = new double[n], u = new double[n];
+		double[] lon2 = new double[n], lat2 = new double[n], h2 = new double[n];
+
+		f.geodeticToGeocentric(lon, lat, h, x, y, z);
+		f.geocentricToTopocentric(x, y, z, e, no, u);
+		for (int i = 0; i < n; i++) {
+			Geodetic3DPoint pt = new Geodetic3DPoint(new Longitude(lon[i]), new Latitude(lat[i]), h[i]);
+			GeocentricPoint g = f.toGeocentric(pt);
+			assertEquals(g.getX(), x[i], 0.0);
+			assertEquals(g.getY(), y[i], 0.0);
+			assertEquals(g.getZ(), z[i], 0.0);
+			Topocentric3DPoint t = f.toTopocentric(g);
+			assertEquals(t.getEasting(), e[i], 0.0);
+			assertEquals(t.getNorthing(), no[i], 0.0);
+			assertEquals(t.getElevation(), u[i], 0.0);
+		}
+
+		f.geodeticToTopocentric(lon, lat, h, x, y, z);
+		for (int i = 0; i < n; i++) {
+			assertEquals(e[i], x[i], 0.0);
+			assertEquals(no[i], y[i], 0.0);
+			assertEquals(u[i], z[i], 0.0);
+		}
+
+		f.topocentricToGeocentric(e, no, u, x, y, z);
+		f.geocentricToGeodetic(x, y, z, lon2, lat2, h2);
+		for (int i = 0; i < n; i++) {
+			GeocentricPoint g = f.toGeocentric(new Topocentric3DPoint(e[i], no[i], u[i]));
+			assertEquals(g.getX(), x[i], 0.0);
+			assertEquals(g.getY(), y[i], 0.0);
+			assertEquals(g.getZ(), z[i], 0.0);
+			Geodetic3DPoint pt = f.toGeodetic(g);
+			assertEquals(pt.getLongitude().inRadians(), lon2[i], 0.0);
+			assertEquals(pt.getLatitude().inRadians(), lat2[i], 0.0);
+			assertEquals(pt.getElevation(), h2[i], 0.0);
+			assertEquals(h[i], h2[i], 1e-3);
+		}
+
+		// In place conversion back to geodetic
+		f.topocentricToGeodetic(e, no, u, e, no, u);
+		for (int i = 0; i < n; i++) {
+			assertEquals(lon2[i], e[i], 0.0);
+			assertEquals(lat2[i], no[i], 0.0);
+			assertEquals(h2[i], u[i], 0.0);
+		}
+	}
+
 }
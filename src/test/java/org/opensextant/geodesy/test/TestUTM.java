@@ -21,6 +21,14 @@ package org.opensextant.geodesy.test;
 import junit.framework.TestSuite;
 import junit.textui.TestRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Random;
 
 import org.junit.Test;
@@ -238,6 +246,141 @@ public class TestUTM {
         }
     }
 
+    /**
+     * This method tests that the primitive UTMConverter engine gives the same results as
+     * the UTM class, including the Norway and Svalbard special zones, in both directions.
+     */
+	@Test
+	public void testConverter() {
+        UTMConverter conv = new UTMConverter();
+        Random r = new Random(20070328L);
+        for (int i = 0; i < 3000; i++) {
+            double lonDeg, latDeg;
+            if (i % 3 == 0) {
+                // Norway and Svalbard special zones
+                lonDeg = r.nextDouble() * 42.0;
+                latDeg = 56.0 + r.nextDouble() * 27.9;
+            } else {
+                lonDeg = (r.nextDouble() * 360.0) - 180.0;
+                latDeg = (164.0 * r.nextDouble()) - 80.0;
+            }
+            UTM u = new UTM(new Geodetic2DPoint(
+                    new Longitude(lonDeg, Angle.DEGREES), new Latitude(latDeg, Angle.DEGREES)));
+            conv.fromGeodetic(lonDeg, latDeg);
+            assertEquals(u.getLonZone(), conv.getLonZone());
+            assertEquals(u.getLatBand(), conv.getLatBand());
+            assertEquals(u.getHemisphere(), conv.getHemisphere());
+            assertEquals(u.getEasting(), conv.getEasting(), 1e-6);
+            assertEquals(u.getNorthing(), conv.getNorthing(), 1e-6);
+
+            conv.toGeodetic(u.getLonZone(), u.getHemisphere(), u.getEasting(), u.getNorthing());
+            assertEquals(u.getLatBand(), conv.getLatBand());
+            assertEquals(lonDeg, conv.getLongitudeAsDegrees(), 1e-8);
+            assertEquals(latDeg, conv.getLatitudeAsDegrees(), 1e-8);
+        }
+        try {
+            conv.fromGeodetic(0.0, 85.0);
+            fail("Expected IllegalArgumentException for latitude outside of UTM domain");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            conv.toGeodetic(32, 'N', 500000.0, 9000000.0);
+            fail("Expected IllegalArgumentException for zone 32 in band X");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+	}
+
+    /**
+     * This method tests the shared projections: one instance per ellipsoid and zone
+     * (including the special zone central meridians), which can not be modified, and
+     * which give the same results when used from several threads at once.
+     */
+	@Test
+	public void testSharedProjections() throws InterruptedException, IOException, ClassNotFoundException {
+        Ellipsoid wgs84 = Ellipsoid.getInstance("WGS 84");
+        Ellipsoid wgs72 = Ellipsoid.getInstance("WGS 72");
+        TransverseMercator tm = UTM.getProjection(wgs84, 31, 'U');
+        assertTrue(tm == UTM.getProjection(wgs84, 31, 'N'));
+        assertEquals(3.0, tm.getCentralMeridian().inDegrees(), 1e-12);
+        assertEquals(1.5, UTM.getProjection(wgs84, 31, 'V').getCentralMeridian().inDegrees(), 1e-12);
+        assertEquals(7.5, UTM.getProjection(wgs84, 32, 'V').getCentralMeridian().inDegrees(), 1e-12);
+        assertEquals(4.5, UTM.getProjection(wgs84, 31, 'X').getCentralMeridian().inDegrees(), 1e-12);
+        assertEquals(37.5, UTM.getProjection(wgs84, 37, 'X').getCentralMeridian().inDegrees(), 1e-12);
+        assertTrue(wgs72 == UTM.getProjection(wgs72, 31, 'N').getEllipsoid());
+        assertFalse(tm == UTM.getProjection(wgs72, 31, 'N'));
+
+        // A deserialized copy of an ellipsoid holds its own projections (released with it)
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(wgs84);
+        oos.close();
+        Ellipsoid copy = (Ellipsoid) new ObjectInputStream(
+                new ByteArrayInputStream(bos.toByteArray())).readObject();
+        TransverseMercator tmCopy = UTM.getProjection(copy, 31, 'N');
+        assertTrue(copy == tmCopy.getEllipsoid());
+        assertTrue(tmCopy == UTM.getProjection(copy, 31, 'U'));
+        assertFalse(tm == tmCopy);
+        try {
+            tm.setCentralMeridian(new Longitude(9.0, Angle.DEGREES));
+            fail("Expected UnsupportedOperationException for shared projection");
+        } catch (UnsupportedOperationException ex) {
+            assertEquals(3.0, tm.getCentralMeridian().inDegrees(), 1e-12);
+        }
+        try {
+            tm.setScaleFactor(5.0); // out of range, but the projection is shared first
+            fail("Expected UnsupportedOperationException for shared projection");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+
+        // Ellipsoid is honored by UTM through the shared projections
+        Geodetic2DPoint g = new Geodetic2DPoint(
+                new Longitude(-77.0365, Angle.DEGREES), new Latitude(38.8895, Angle.DEGREES));
+        UTM u72 = new UTM(wgs72, g);
+        assertTrue(wgs72 == u72.getEllipsoid());
+        assertFalse(new UTM(g).getNorthing() == u72.getNorthing());
+        UTM back = new UTM(wgs72, u72.getLonZone(), u72.getHemisphere(), u72.getEasting(), u72.getNorthing());
+        assertEquals(g.toString(2), back.getGeodetic().toString(2));
+
+        // Concurrent use of the shared instances
+        final Random r = new Random(20070328L);
+        final double[] lon = new double[2000];
+        final double[] lat = new double[2000];
+        final UTM[] expected = new UTM[lon.length];
+        for (int i = 0; i < lon.length; i++) {
+            lon[i] = (r.nextDouble() * 360.0) - 180.0;
+            lat[i] = (164.0 * r.nextDouble()) - 80.0;
+            expected[i] = new UTM(new Geodetic2DPoint(
+                    new Longitude(lon[i], Angle.DEGREES), new Latitude(lat[i], Angle.DEGREES)));
+        }
+        final boolean[] ok = new boolean[4];
+        Thread[] threads = new Thread[ok.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    UTMConverter conv = new UTMConverter();
+                    boolean same = true;
+                    for (int pass = 0; pass < 5; pass++) {
+                        for (int i = 0; i < lon.length; i++) {
+                            conv.fromGeodetic(lon[i], lat[i]);
+                            same &= (conv.getEasting() == expected[i].getEasting()) &&
+                                    (conv.getNorthing() == expected[i].getNorthing());
+                        }
+                    }
+                    ok[id] = same;
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+            assertTrue(ok[t]);
+        }
+	}
+
 	@Test
 	public void testLonZone() {
 		assertEquals(31, UTM.getLonZone(360, 'N'));
@@ -278,6 +421,28 @@ public class TestUTM {
 		UTM.validateLonZone(61);
 	}
 
+	@Test
+	public void testIsValid() {
+		for (int lonZone = -1; lonZone <= 62; lonZone++) {
+			for (char latBand = 'A'; latBand <= 'Z'; latBand++) {
+				boolean valid = true;
+				try {
+					UTM.validateZoneAndBand(lonZone, latBand);
+				} catch (IllegalArgumentException e) {
+					valid = false;
+				}
+				assertEquals(valid, UTM.isValidZoneAndBand(lonZone, latBand));
+			}
+		}
+		assertTrue(UTM.isValidLonZone(1));
+		assertFalse(UTM.isValidLonZone(61));
+		assertTrue(UTM.isValidLatBand('X'));
+		assertFalse(UTM.isValidLatBand('O'));
+		assertFalse(UTM.isValidZoneAndBand(34, 'X'));
+		assertTrue(UPS.isValidPolarZone('Y'));
+		assertFalse(UPS.isValidPolarZone('C'));
+	}
+
 	@Test
 	public void testToString() {
 		UTM u1 = new UTM(14, 'N', 621160.08, 3349893.03);
@@ -302,6 +467,50 @@ public class TestUTM {
 		}
 	}
 
+    /**
+     * Read TransverseMercator and UTM objects written by the classes from before the UTM
+     * projections were shared (UTM then held its own TransverseMercator, and that did not
+     * keep the meridional distance of its origin latitude)
+     */
+    @Test
+    public void testLegacySerialization() throws Exception {
+        ObjectInputStream in = new ObjectInputStream(getStream("legacy-TransverseMercator.ser"));
+        // Central meridian 9E, origin latitude 30N, scale 0.9996, WGS 84
+        TransverseMercator tm = (TransverseMercator) in.readObject();
+        in.close();
+        Topocentric2DPoint en = tm.toTransverseMercator(new Longitude(11.0, Angle.DEGREES),
+                new Latitude(31.0, Angle.DEGREES));
+        assertEquals(190950.464, en.getEasting(), 1e-3);
+        assertEquals(112533.491, en.getNorthing(), 1e-3);
+        Geodetic2DPoint back = tm.toGeodetic(en.getEasting(), en.getNorthing());
+        assertEquals(31.0, back.getLatitude().inDegrees(), 1e-9);
+
+        in = new ObjectInputStream(getStream("legacy-UTM.ser"));
+        UTM u72 = (UTM) in.readObject();
+        UTM u84 = (UTM) in.readObject();
+        in.close();
+        assertEquals("WGS 72", u72.getEllipsoid().getName());
+        assertEquals("WGS 72 UTM 18 N hemisphere 323487m E, 4306482m N", u72.toString());
+        assertEquals("WGS 84 UTM 32 N hemisphere 681721m E, 6645849m N", u84.toString());
+        UTM again = new UTM(u72.getEllipsoid(), u72.getGeodetic());
+        assertEquals(u72.getNorthing(), again.getNorthing(), 1e-6);
+
+        // The current form reads back too
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(u72);
+        oos.close();
+        UTM copy = (UTM) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+        assertEquals(u72.toString(), copy.toString());
+        assertEquals("WGS 72", copy.getEllipsoid().getName());
+    }
+
+    private InputStream getStream(String filename) throws IOException {
+        File file = new File("src/test/resources/org/opensextant/geodesy/test/" + filename);
+        if (file.exists()) return new FileInputStream(file);
+        return getClass().getResourceAsStream(filename);
+    }
+
     /**
      * Main method for running class tests.
      *